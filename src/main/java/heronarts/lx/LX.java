@@ -38,12 +38,15 @@ import heronarts.lx.structure.LXStructure;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayDeque;
@@ -55,10 +58,11 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
@@ -713,7 +717,14 @@ public class LX {
    * Shut down resources of the LX instance.
    */
   public void dispose() {
+    this.command.dispose();
     LX.dispose(this.engine);
+    synchronized (this) {
+      if (this.saveExecutor != null) {
+        this.saveExecutor.shutdown();
+        this.saveExecutor = null;
+      }
+    }
   }
 
   /**
@@ -991,6 +1002,38 @@ public class LX {
     }
   }
 
+  /**
+   * Number of auto-saves which may re-use the cached serialization of unmodified
+   * components before every component is serialized afresh, in case a
+   * modification went unmarked
+   */
+  private static final int AUTOSAVE_FULL_INTERVAL = 10;
+
+  // Thread currently performing a cached save, if any
+  private Thread cachedSaveThread = null;
+
+  // Incremented to invalidate all cached component serializations
+  int saveCacheEpoch = 0;
+
+  private int autoSaveCount = 0;
+
+  private ExecutorService saveExecutor = null;
+
+  boolean isCachedSave() {
+    return this.cachedSaveThread == Thread.currentThread();
+  }
+
+  private synchronized ExecutorService getSaveExecutor() {
+    if (this.saveExecutor == null) {
+      this.saveExecutor = Executors.newSingleThreadExecutor(r -> {
+        final Thread thread = new Thread(r, "LX Save Thread");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    return this.saveExecutor;
+  }
+
   public void autoSaveProject() {
     if (!this.permissions.canSave()) {
       return;
@@ -998,19 +1041,61 @@ public class LX {
 
     final File autosave = getAutoSaveFile();
     if (autosave != null) {
-      // Need to serialize the data here on the engine thread
-      final JsonObject obj = saveProjectJson();
+      // Capture the project state here on the engine thread. Components that
+      // have not been modified since the last auto-save re-use their previous
+      // serialization, which is not modified once captured.
+      if (++this.autoSaveCount % AUTOSAVE_FULL_INTERVAL == 0) {
+        ++this.saveCacheEpoch;
+      }
+      final JsonObject obj;
+      this.cachedSaveThread = Thread.currentThread();
+      try {
+        obj = saveProjectJson();
+      } finally {
+        this.cachedSaveThread = null;
+      }
 
-      // Write the file on another thread to avoid main thread jitter
-      new Thread(() -> {
-        try (JsonWriter writer = new JsonWriter(new FileWriter(autosave))) {
-          writer.setIndent("  ");
-          new GsonBuilder().create().toJson(obj, writer);
+      // Write the file on the save thread to avoid main thread jitter
+      getSaveExecutor().execute(() -> {
+        try {
+          writeProjectFile(autosave, obj);
           LX.debug("Project auto-saved successfully to " + autosave.toString());
         } catch (IOException iox) {
           LX.error(iox, "Could not auto-save project to output file: " + autosave.toString());
         }
-      }).start();
+      });
+    }
+  }
+
+  /**
+   * Streams a project to a temporary file alongside the destination, which then
+   * atomically replaces it. A failed write never leaves a truncated project file.
+   * Files with the {@link LXBinaryProject#FILE_EXTENSION} are written in binary.
+   *
+   * @param file Destination file
+   * @param obj Project object
+   * @throws IOException If the file could not be written
+   */
+  private static void writeProjectFile(File file, JsonObject obj) throws IOException {
+    final Path path = file.toPath();
+    final Path tmp = path.resolveSibling(file.getName() + ".tmp");
+    try {
+      if (LXBinaryProject.hasBinaryExtension(file)) {
+        LXBinaryProject.write(obj, tmp.toFile());
+      } else {
+        try (JsonWriter writer = new JsonWriter(Files.newBufferedWriter(tmp, StandardCharsets.UTF_8))) {
+          writer.setIndent("  ");
+          new GsonBuilder().create().toJson(obj, writer);
+        }
+      }
+      try {
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException amnsx) {
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException iox) {
+      Files.deleteIfExists(tmp);
+      throw iox;
     }
   }
 
@@ -1026,9 +1111,8 @@ public class LX {
     }
 
     JsonObject obj = saveProjectJson();
-    try (JsonWriter writer = new JsonWriter(new FileWriter(file))) {
-      writer.setIndent("  ");
-      new GsonBuilder().create().toJson(obj, writer);
+    try {
+      writeProjectFile(file, obj);
       LX.log("Project saved successfully to " + file.toString());
       this.componentRegistry.resetProject();
       setProject(file, ProjectListener.Change.SAVE);
@@ -1157,8 +1241,8 @@ public class LX {
   }
 
   public void openProject(File file, boolean checkVersion) {
-    try (FileReader fr = new FileReader(file)) {
-      final JsonObject obj = new Gson().fromJson(fr, JsonObject.class);
+    try {
+      final JsonObject obj = LXBinaryProject.readProject(file);
       final String fileVersion = obj.has(KEY_VERSION) ? obj.get(KEY_VERSION).getAsString() : null;
       if ((fileVersion != null) && isNewerVersion(fileVersion)) {
         LX.warning(file.getName() + ": project version " + fileVersion + " is newer than app version " + LX.VERSION);
@@ -1636,7 +1720,7 @@ public class LX {
         }
       } else if ("-zc".equals(args[i]) || ("--zeroconf").equals(args[i])) {
         flags.zeroconf = true;
-      } else if (args[i].endsWith(".lxp") || args[i].endsWith(".lxs")) {
+      } else if (args[i].endsWith(".lxp") || args[i].endsWith("." + LXBinaryProject.FILE_EXTENSION) || args[i].endsWith(".lxs")) {
         projectFile = new File(args[i]);
       }
     }
@@ -0,0 +1,471 @@
+/**
+ * Copyright 2026- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Binary encoding of the JSON project format. Every object key and string value
+ * in the project, such as component paths, parameter keys and class names, is
+ * stored once in a string table and referenced by index, and numbers are stored
+ * in binary rather than as text. Files are memory-mapped for reading.
+ *
+ * Conversion to and from the JSON .lxp format is lossless, decoding a binary
+ * project produces the same JSON tree that was encoded, including the textual
+ * form of every number.
+ */
+public class LXBinaryProject {
+
+  public static final String FILE_EXTENSION = "lxb";
+
+  private static final int MAGIC = 0x4C585042; // 'LXPB'
+
+  private static final int VERSION = 1;
+
+  private static final byte TAG_NULL = 0;
+  private static final byte TAG_FALSE = 1;
+  private static final byte TAG_TRUE = 2;
+  private static final byte TAG_INT = 3;
+  private static final byte TAG_FLOAT = 4;
+  private static final byte TAG_DOUBLE = 5;
+  private static final byte TAG_NUMBER = 6;
+  private static final byte TAG_STRING = 7;
+  private static final byte TAG_ARRAY = 8;
+  private static final byte TAG_OBJECT = 9;
+
+  public static class FormatException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private FormatException(String message) {
+      super(message);
+    }
+  }
+
+  /**
+   * A number whose textual form is retained exactly as it was in the source
+   * JSON, for values that do not round-trip through a long or double.
+   */
+  private static class TextNumber extends Number {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String text;
+
+    private TextNumber(String text) {
+      this.text = text;
+    }
+
+    @Override
+    public int intValue() {
+      return new BigDecimal(this.text).intValue();
+    }
+
+    @Override
+    public long longValue() {
+      return new BigDecimal(this.text).longValue();
+    }
+
+    @Override
+    public float floatValue() {
+      return Float.parseFloat(this.text);
+    }
+
+    @Override
+    public double doubleValue() {
+      return Double.parseDouble(this.text);
+    }
+
+    @Override
+    public String toString() {
+      return this.text;
+    }
+  }
+
+  /**
+   * Whether a file is in binary project format, determined by its header
+   *
+   * @param file File
+   * @return Whether the file is a binary project
+   * @throws IOException If the file could not be read
+   */
+  public static boolean isBinary(File file) throws IOException {
+    try (InputStream is = new FileInputStream(file)) {
+      final byte[] header = is.readNBytes(4);
+      return (header.length == 4) && (ByteBuffer.wrap(header).getInt() == MAGIC);
+    }
+  }
+
+  /**
+   * Whether a file name has the binary project extension
+   *
+   * @param file File
+   * @return Whether the file should be written in binary format
+   */
+  public static boolean hasBinaryExtension(File file) {
+    return file.getName().toLowerCase().endsWith("." + FILE_EXTENSION);
+  }
+
+  /**
+   * Reads a project file in either binary or JSON format
+   *
+   * @param file Project file
+   * @return Project JSON object
+   * @throws IOException If the file could not be read
+   */
+  public static JsonObject readProject(File file) throws IOException {
+    if (isBinary(file)) {
+      return read(file);
+    }
+    try (FileReader fr = new FileReader(file)) {
+      return new Gson().fromJson(fr, JsonObject.class);
+    }
+  }
+
+  /**
+   * Reads a binary project file into a heap buffer. The file is not
+   * memory-mapped, since a mapping would hold the file open until it is
+   * garbage collected and block the atomic replace on save under Windows.
+   *
+   * @param file Binary project file
+   * @return Project JSON object
+   * @throws IOException If the file could not be read or is malformed
+   */
+  public static JsonObject read(File file) throws IOException {
+    final ByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      final long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new FormatException("LX binary project is too large: " + file);
+      }
+      buffer = ByteBuffer.allocate((int) size);
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer) < 0) {
+          throw new FormatException("Unexpected end of LX binary project: " + file);
+        }
+      }
+    }
+    buffer.flip();
+    return decode(buffer);
+  }
+
+  /**
+   * Decodes a binary project from a buffer
+   *
+   * @param buffer Buffer positioned at the start of the project header
+   * @return Project JSON object
+   * @throws IOException If the data is malformed
+   */
+  public static JsonObject decode(ByteBuffer buffer) throws IOException {
+    try {
+      if (buffer.getInt() != MAGIC) {
+        throw new FormatException("Not an LX binary project");
+      }
+      final int version = buffer.getInt();
+      if (version > VERSION) {
+        throw new FormatException("Unsupported LX binary project version: " + version);
+      }
+      final String[] strings = new String[readVarint(buffer)];
+      byte[] bytes = new byte[256];
+      for (int i = 0; i < strings.length; ++i) {
+        final int length = readVarint(buffer);
+        if (length > bytes.length) {
+          bytes = new byte[Math.max(length, 2 * bytes.length)];
+        }
+        buffer.get(bytes, 0, length);
+        strings[i] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+      }
+      final JsonElement root = decodeElement(buffer, strings);
+      if (!root.isJsonObject()) {
+        throw new FormatException("LX binary project root is not an object");
+      }
+      return root.getAsJsonObject();
+    } catch (BufferUnderflowException | IndexOutOfBoundsException x) {
+      throw new FormatException("Truncated or corrupt LX binary project");
+    }
+  }
+
+  private static JsonElement decodeElement(ByteBuffer buffer, String[] strings) throws IOException {
+    final byte tag = buffer.get();
+    switch (tag) {
+    case TAG_NULL:
+      return JsonNull.INSTANCE;
+    case TAG_FALSE:
+      return new JsonPrimitive(false);
+    case TAG_TRUE:
+      return new JsonPrimitive(true);
+    case TAG_INT:
+      return new JsonPrimitive(readVarlong(buffer));
+    case TAG_FLOAT:
+      return new JsonPrimitive(buffer.getFloat());
+    case TAG_DOUBLE:
+      return new JsonPrimitive(buffer.getDouble());
+    case TAG_NUMBER:
+      return new JsonPrimitive(new TextNumber(strings[readVarint(buffer)]));
+    case TAG_STRING:
+      return new JsonPrimitive(strings[readVarint(buffer)]);
+    case TAG_ARRAY: {
+      final int size = readVarint(buffer);
+      final JsonArray arr = new JsonArray(size);
+      for (int i = 0; i < size; ++i) {
+        arr.add(decodeElement(buffer, strings));
+      }
+      return arr;
+    }
+    case TAG_OBJECT: {
+      final int size = readVarint(buffer);
+      final JsonObject obj = new JsonObject();
+      for (int i = 0; i < size; ++i) {
+        final String key = strings[readVarint(buffer)];
+        obj.add(key, decodeElement(buffer, strings));
+      }
+      return obj;
+    }
+    default:
+      throw new FormatException("Unknown tag in LX binary project: " + tag);
+    }
+  }
+
+  /**
+   * Writes a project object to a file in binary format
+   *
+   * @param obj Project JSON object
+   * @param file Destination file
+   * @throws IOException If the file could not be written
+   */
+  public static void write(JsonObject obj, File file) throws IOException {
+    try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(file.toPath()))) {
+      encode(obj, os);
+    }
+  }
+
+  /**
+   * Encodes a project object in binary format
+   *
+   * @param obj Project JSON object
+   * @param os Output stream
+   * @throws IOException If the stream could not be written
+   */
+  public static void encode(JsonObject obj, OutputStream os) throws IOException {
+    final Map<String, Integer> strings = new LinkedHashMap<String, Integer>();
+    collectStrings(obj, strings);
+
+    final DataOutputStream out = new DataOutputStream(os);
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    writeVarint(out, strings.size());
+    for (String string : strings.keySet()) {
+      final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+      writeVarint(out, bytes.length);
+      out.write(bytes);
+    }
+    encodeElement(obj, out, strings);
+    out.flush();
+  }
+
+  private static void collectStrings(JsonElement element, Map<String, Integer> strings) {
+    if (element.isJsonObject()) {
+      for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+        strings.putIfAbsent(entry.getKey(), strings.size());
+        collectStrings(entry.getValue(), strings);
+      }
+    } else if (element.isJsonArray()) {
+      for (JsonElement child : element.getAsJsonArray()) {
+        collectStrings(child, strings);
+      }
+    } else if (element.isJsonPrimitive()) {
+      final JsonPrimitive primitive = element.getAsJsonPrimitive();
+      if (primitive.isString()) {
+        strings.putIfAbsent(primitive.getAsString(), strings.size());
+      } else if (primitive.isNumber() && (numberTag(primitive.getAsNumber()) == TAG_NUMBER)) {
+        strings.putIfAbsent(primitive.getAsNumber().toString(), strings.size());
+      }
+    }
+  }
+
+  /**
+   * Determines the tag which encodes a number without changing its textual
+   * form when it is written back out as JSON.
+   */
+  private static byte numberTag(Number number) {
+    if ((number instanceof Integer) || (number instanceof Long) || (number instanceof Short) || (number instanceof Byte)) {
+      return TAG_INT;
+    } else if (number instanceof Float) {
+      return TAG_FLOAT;
+    } else if (number instanceof Double) {
+      return TAG_DOUBLE;
+    } else if ((number instanceof BigInteger) || (number instanceof BigDecimal)) {
+      return TAG_NUMBER;
+    }
+
+    // Lazily parsed number from a JSON file, check how its text will round-trip
+    final String text = number.toString();
+    try {
+      if (Long.toString(Long.parseLong(text)).equals(text)) {
+        return TAG_INT;
+      }
+    } catch (NumberFormatException nfx) {
+      // Not an integer
+    }
+    try {
+      if (Double.toString(Double.parseDouble(text)).equals(text)) {
+        return TAG_DOUBLE;
+      }
+    } catch (NumberFormatException nfx) {
+      // Fall through to text
+    }
+    return TAG_NUMBER;
+  }
+
+  private static void encodeElement(JsonElement element, DataOutputStream out, Map<String, Integer> strings) throws IOException {
+    if (element.isJsonNull()) {
+      out.writeByte(TAG_NULL);
+    } else if (element.isJsonObject()) {
+      final JsonObject obj = element.getAsJsonObject();
+      out.writeByte(TAG_OBJECT);
+      writeVarint(out, obj.size());
+      for (Map.Entry<String, JsonElement> entry : obj.entrySet()) {
+        writeVarint(out, strings.get(entry.getKey()));
+        encodeElement(entry.getValue(), out, strings);
+      }
+    } else if (element.isJsonArray()) {
+      final JsonArray arr = element.getAsJsonArray();
+      out.writeByte(TAG_ARRAY);
+      writeVarint(out, arr.size());
+      for (JsonElement child : arr) {
+        encodeElement(child, out, strings);
+      }
+    } else {
+      final JsonPrimitive primitive = element.getAsJsonPrimitive();
+      if (primitive.isBoolean()) {
+        out.writeByte(primitive.getAsBoolean() ? TAG_TRUE : TAG_FALSE);
+      } else if (primitive.isString()) {
+        out.writeByte(TAG_STRING);
+        writeVarint(out, strings.get(primitive.getAsString()));
+      } else {
+        final Number number = primitive.getAsNumber();
+        final byte tag = numberTag(number);
+        out.writeByte(tag);
+        switch (tag) {
+        case TAG_INT -> writeVarlong(out, number.longValue());
+        case TAG_FLOAT -> out.writeFloat(number.floatValue());
+        case TAG_DOUBLE -> out.writeDouble(number.doubleValue());
+        default -> writeVarint(out, strings.get(number.toString()));
+        }
+      }
+    }
+  }
+
+  private static void writeVarint(DataOutputStream out, int value) throws IOException {
+    while ((value & ~0x7f) != 0) {
+      out.writeByte((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
+  }
+
+  private static void writeVarlong(DataOutputStream out, long value) throws IOException {
+    // Zig-zag encoding so that small negative values stay short
+    long zigzag = (value << 1) ^ (value >> 63);
+    while ((zigzag & ~0x7fL) != 0) {
+      out.writeByte((int) ((zigzag & 0x7f) | 0x80));
+      zigzag >>>= 7;
+    }
+    out.writeByte((int) zigzag);
+  }
+
+  private static int readVarint(ByteBuffer buffer) throws FormatException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      final byte b = buffer.get();
+      value |= (b & 0x7f) << shift;
+      if ((b & 0x80) == 0) {
+        if (value < 0) {
+          throw new FormatException("Negative size in LX binary project");
+        }
+        return value;
+      }
+    }
+    throw new FormatException("Malformed varint in LX binary project");
+  }
+
+  private static long readVarlong(ByteBuffer buffer) throws FormatException {
+    long zigzag = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      final byte b = buffer.get();
+      zigzag |= (long) (b & 0x7f) << shift;
+      if ((b & 0x80) == 0) {
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+      }
+    }
+    throw new FormatException("Malformed varlong in LX binary project");
+  }
+
+  /**
+   * Converts a project file between JSON and binary formats. The output format
+   * is determined by the extension of the output file.
+   *
+   * @param args Input and output file paths
+   * @throws IOException If conversion fails
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.err.println("Usage: LXBinaryProject <input.lxp|input.lxb> <output.lxp|output.lxb>");
+      System.exit(1);
+    }
+    final File input = new File(args[0]);
+    final File output = new File(args[1]);
+    final JsonObject obj = readProject(input);
+    if (hasBinaryExtension(output)) {
+      write(obj, output);
+    } else {
+      try (JsonWriter writer = new JsonWriter(Files.newBufferedWriter(output.toPath(), StandardCharsets.UTF_8))) {
+        writer.setIndent("  ");
+        new GsonBuilder().create().toJson(obj, writer);
+      }
+    }
+  }
+
+}
@@ -593,6 +593,7 @@ public abstract class LXComponent implements LXPath, LXParameterListener, LXSeri
     }
     this.parent = parent;
     this.path = path;
+    parent.markModified();
 
     if (this.lx == null) {
       this.lx = parent.lx;
@@ -1018,6 +1019,62 @@ public abstract class LXComponent implements LXPath, LXParameterListener, LXSeri
 
   private boolean disposed = false;
 
+  // Set whenever this component or any of its descendants is modified, and
+  // cleared when the component is serialized for a cached save. A component
+  // that is modified always has modified ancestors, so marking may stop at the
+  // first ancestor that is already set.
+  private volatile boolean modified = true;
+
+  // Serialized state of this component as of the last cached save
+  private JsonObject saveCacheObj = null;
+  private int saveCacheEpoch = -1;
+
+  /**
+   * Marks this component and all of its ancestors as modified. Parameter value
+   * changes and the registration or disposal of children do this automatically.
+   * Components that serialize state held outside of their parameters must call
+   * this method when that state changes. This is cheap enough to call on every
+   * frame, as it returns immediately once the component is already marked.
+   */
+  public final void markModified() {
+    LXComponent component = this;
+    while ((component != null) && !component.modified) {
+      component.modified = true;
+      component = component.parent;
+    }
+  }
+
+  /**
+   * Whether this component or any of its descendants has been modified since it
+   * was last serialized for a cached save.
+   *
+   * @return Whether the component is modified
+   */
+  public final boolean isModified() {
+    return this.modified;
+  }
+
+  /**
+   * Serializes this component, re-using the result of the previous cached
+   * save if neither this component nor any of its descendants has been
+   * modified since. The returned object is shared and must not be modified.
+   *
+   * @param lx LX instance
+   * @return Serialized state of this component
+   */
+  JsonObject toCachedObject(LX lx) {
+    if (this.modified || (this.saveCacheObj == null) || (this.saveCacheEpoch != lx.saveCacheEpoch)) {
+      // Cleared before saving, so that a modification made while saving is
+      // picked up by the next save
+      this.modified = false;
+      final JsonObject obj = new JsonObject();
+      save(lx, obj);
+      this.saveCacheObj = obj;
+      this.saveCacheEpoch = lx.saveCacheEpoch;
+    }
+    return this.saveCacheObj;
+  }
+
   /**
    * A checked version of dispose used by internal engine implementation to ensure
    * that the base class LXComponent.dispose() is always called.
@@ -1085,7 +1142,11 @@ public abstract class LXComponent implements LXPath, LXParameterListener, LXSeri
     this.internalParameters.clear();
 
     // Unset our parent reference and dispose via registry
+    if (this.parent != null) {
+      this.parent.markModified();
+    }
     this.parent = null;
+    this.saveCacheObj = null;
     this.lx.componentRegistry.dispose(this);
   }
 
@@ -40,6 +40,7 @@ import heronarts.lx.midi.MidiFilterParameter;
 import heronarts.lx.midi.MidiPanic;
 import heronarts.lx.midi.surface.LXMidiSurface;
 import heronarts.lx.mixer.LXAbstractChannel;
+import heronarts.lx.mixer.LXBus;
 import heronarts.lx.mixer.LXMasterBus;
 import heronarts.lx.model.LXModel;
 import heronarts.lx.modulation.LXModulationContainer;
@@ -168,6 +169,7 @@ public abstract class LXDeviceComponent extends LXLayeredComponent implements LX
       if ((view == null) || view.priority.isOn()) {
         this.viewPriority.setValue(view);
       }
+      invalidateDeviceViews();
     });
 
     this.viewPriority.addListener(this.viewPriorityListener = p -> {
@@ -229,6 +231,7 @@ public abstract class LXDeviceComponent extends LXLayeredComponent implements LX
   public void clearCustomRemoteControls() {
     if (this.customRemoteControls != null) {
       this.customRemoteControls = null;
+      markModified();
       this.remoteControlsChanged.bang();
     }
   }
@@ -236,6 +239,7 @@ public abstract class LXDeviceComponent extends LXLayeredComponent implements LX
   public void setCustomRemoteControls(LXListenableNormalizedParameter ... remoteControls) {
     validateRemoteControls(remoteControls);
     this.customRemoteControls = remoteControls;
+    markModified();
     this.remoteControlsChanged.bang();
   }
 
@@ -270,6 +274,20 @@ public abstract class LXDeviceComponent extends LXLayeredComponent implements LX
 
   }
 
+  /**
+   * Notifies the bus this device belongs to, if any, that the views of its
+   * devices may have changed
+   */
+  protected void invalidateDeviceViews() {
+    LXComponent parent = getParent();
+    while ((parent != null) && !(parent instanceof LXBus)) {
+      parent = parent.getParent();
+    }
+    if (parent != null) {
+      ((LXBus) parent).invalidateDeviceViews();
+    }
+  }
+
   /**
    * Returns whether this parameter is visible in default remote control
    * or device control UIs
@@ -368,14 +386,37 @@ public abstract class LXDeviceComponent extends LXLayeredComponent implements LX
         this.modulation.loop(deltaMs);
         super.loop(deltaMs);
       } catch (Throwable x) {
-        LX.error(x, "Unexpected error in device loop " + getClass().getName() + ": " + x.getLocalizedMessage());
-        this.lx.pushError(x, "Device " + LXComponent.getComponentName(getClass()) + " crashed due to an unexpected error.\n" + x.getLocalizedMessage());
-        this.crash = x;
-        this.crashed.setValue(true);
+        onCrash(x);
+      }
+    }
+  }
+
+  /**
+   * Advances the modulators of this device without rendering anything. Used in
+   * place of {@link #loop(double)} on frames where the mixer has determined that
+   * the output of this device could not be seen, so that modulation and parameter
+   * state keep moving while the cost of rendering is skipped.
+   *
+   * @param deltaMs Milliseconds elapsed since last frame
+   */
+  public void loopModulation(double deltaMs) {
+    if (!this.crashed.isOn()) {
+      try {
+        this.modulation.loop(deltaMs);
+        loopModulators(this.modulators, deltaMs);
+      } catch (Throwable x) {
+        onCrash(x);
       }
     }
   }
 
+  private void onCrash(Throwable x) {
+    LX.error(x, "Unexpected error in device loop " + getClass().getName() + ": " + x.getLocalizedMessage());
+    this.lx.pushError(x, "Device " + LXComponent.getComponentName(getClass()) + " crashed due to an unexpected error.\n" + x.getLocalizedMessage());
+    this.crash = x;
+    this.crashed.setValue(true);
+  }
+
   public Throwable getCrash() {
     return this.crash;
   }
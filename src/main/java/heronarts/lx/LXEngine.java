@@ -32,6 +32,7 @@ import heronarts.lx.model.LXModel;
 import heronarts.lx.model.LXPoint;
 import heronarts.lx.modulation.LXModulationContainer;
 import heronarts.lx.modulation.LXModulationEngine;
+import heronarts.lx.modulator.LXModulator;
 import heronarts.lx.osc.LXOscComponent;
 import heronarts.lx.osc.LXOscEngine;
 import heronarts.lx.osc.OscMessage;
@@ -39,6 +40,7 @@ import heronarts.lx.output.LXOutput;
 import heronarts.lx.output.LXOutputGroup;
 import heronarts.lx.parameter.BooleanParameter;
 import heronarts.lx.parameter.BoundedParameter;
+import heronarts.lx.parameter.CompoundParameter;
 import heronarts.lx.parameter.LXParameter;
 import heronarts.lx.pattern.LXPattern;
 import heronarts.lx.snapshot.LXSnapshotEngine;
@@ -56,6 +58,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.gson.JsonObject;
 
@@ -117,6 +120,12 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
     new BooleanParameter("Performance", false)
     .setDescription("Whether performance mode UI is enabled");
 
+  public final BoundedParameter undoBudget =
+    new BoundedParameter("Undo Memory", 64, 1, 1024)
+    .setUnits(LXParameter.Units.INTEGER)
+    .setMappable(false)
+    .setDescription("Memory budget for the undo history, in megabytes");
+
   public final BooleanParameter restricted =
     new BooleanParameter("Restricted", false)
     .setDescription("Whether rendering is disabled due to license restrictions");
@@ -340,11 +349,28 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
     .setMappable(false)
     .setDescription("Whether the engine is multi-threaded per channel");
 
+  public final BooleanParameter isModulatorMultithreaded =
+    new BooleanParameter("Modulator Threaded", false)
+    .setMappable(false)
+    .setDescription("Whether independent global modulators are evaluated in parallel on a worker pool");
+
+  public final BooleanParameter isPatternMultithreaded =
+    new BooleanParameter("Pattern Threaded", false)
+    .setMappable(false)
+    .setDescription("Whether patterns that support it split their rendering across a worker pool");
+
   public final BooleanParameter isNetworkMultithreaded =
     new BooleanParameter("Network Threaded", false)
     .setMappable(false)
     .setDescription("Whether the network output is on a separate thread");
 
+  // Number of slices a pattern may split its rendering into when pattern threaded
+  final int patternParallelism = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+  private java.util.concurrent.ExecutorService patternWorkerPool = null;
+
+  private static final AtomicInteger patternThreadCount = new AtomicInteger(1);
+
   private Thread engineThread = null;
   private final ExecutorService engineExecutorService;
 
@@ -435,10 +461,13 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
     // Register parameters
     addParameter("multithreaded", this.isMultithreaded);
     addParameter("channelMultithreaded", this.isChannelMultithreaded);
+    addParameter("modulatorMultithreaded", this.isModulatorMultithreaded);
+    addParameter("patternMultithreaded", this.isPatternMultithreaded);
     addParameter("networkMultithreaded", this.isNetworkMultithreaded);
     addParameter("framesPerSecond", this.framesPerSecond);
     addParameter("speed", this.speed);
     addParameter("performanceMode", this.performanceMode);
+    addParameter("undoBudget", this.undoBudget);
 
     // Log messages for restriction state
     this.restricted.addListener(p -> {
@@ -480,6 +509,24 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
     }
   }
 
+  /**
+   * Gets the worker pool used by patterns splitting their rendering across
+   * threads, starting it if necessary
+   *
+   * @return Pattern rendering worker pool
+   */
+  synchronized java.util.concurrent.ExecutorService getPatternWorkerPool() {
+    if (this.patternWorkerPool == null) {
+      this.patternWorkerPool = Executors.newFixedThreadPool(this.patternParallelism - 1, runnable -> {
+        final Thread thread = new Thread(runnable, "LXPattern thread #" + patternThreadCount.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+      });
+      LX.log("LXEngine started " + (this.patternParallelism - 1) + " pattern worker threads");
+    }
+    return this.patternWorkerPool;
+  }
+
   /**
    * Gets the active frame rate of the engine when in threaded mode
    *
@@ -1180,6 +1227,9 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
     this.lx.engine.tempo.loop(deltaMs);
     this.audio.loop(deltaMs);
 
+    // Latch DMX input for this frame
+    this.dmx.loop(deltaMs);
+
     // Mutate by master speed for everything else
     deltaMs *= this.speed.getValue();
 
@@ -1205,6 +1255,10 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
     }
     this.removedLoopTasks.clear();
 
+    // Modulation sources are settled for this frame, modulated parameter
+    // values may be memoized while the channels render
+    CompoundParameter.beginModulationFrame();
+
     // Okay, time for the real work, to run and blend all of our channels
     // First, set up a bunch of state to keep track of which buffers we
     // are rendering into.
@@ -1217,6 +1271,8 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
       Arrays.fill(buffer.render.aux, LXColor.BLACK);
     }
 
+    CompoundParameter.endModulationFrame();
+
     // Post-pass for any views with cue enabled
     for (LXViewDefinition view : this.lx.structure.views.views) {
       if (view.cueActive.isOn() && (view.getView() != null)) {
@@ -1332,6 +1388,10 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
     StringBuilder sb = new StringBuilder();
     sb.append("LXEngine::run() " + ((int) (this.profiler.runNanos / 1000000)) + "ms\n");
     sb.append("LXEngine::run()::channels " + ((int) (this.profiler.channelNanos / 1000000)) + "ms\n");
+    sb.append("LXEngine::modulation::loop() " + ((int) (this.modulation.profiler.loopNanos / 1000000)) + "ms\n");
+    for (LXModulator modulator : this.modulation.modulators) {
+      sb.append("LXEngine::modulation::" + modulator.getLabel() + "::loop() " + ((int) (modulator.profiler.loopNanos / 1000)) + "us\n");
+    }
     for (LXAbstractChannel channel : this.mixer.channels) {
       sb.append("LXEngine::" + channel.getLabel() + "::loop() " + ((int) (channel.profiler.loopNanos / 1000000)) + "ms\n");
       if (channel instanceof LXChannel) {
@@ -1534,6 +1594,14 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
       this.networkThread.interrupt();
     }
 
+    // Stop pattern worker threads
+    synchronized (this) {
+      if (this.patternWorkerPool != null) {
+        this.patternWorkerPool.shutdown();
+        this.patternWorkerPool = null;
+      }
+    }
+
     // Clean up engine parameters
     super.dispose();
   }
@@ -26,6 +26,7 @@ import java.util.Objects;
 import com.google.gson.JsonObject;
 
 import heronarts.lx.modulator.LXModulator;
+import heronarts.lx.parameter.CompoundParameter;
 
 public abstract class LXModulatorComponent extends LXComponent implements LXLoopTask {
 
@@ -114,6 +115,7 @@ public abstract class LXModulatorComponent extends LXComponent implements LXLoop
     this.mutableModulators.remove(modulator);
     this.mutableModulators.add(index, modulator);
     _reindexModulators();
+    markModified();
     return modulator;
   }
 
@@ -166,13 +168,39 @@ public abstract class LXModulatorComponent extends LXComponent implements LXLoop
 
   private LXModulator loopingModulator = null;
 
+  /**
+   * Marks the modulator being looped, for subclasses that loop modulators other
+   * than via {@link #loopModulators(List, double)}. Modulators may not be added
+   * or removed while this is non-null.
+   *
+   * @param modulator Modulator being looped, or null when finished
+   */
+  protected final void setLoopingModulator(LXModulator modulator) {
+    this.loopingModulator = modulator;
+  }
+
   @Override
   public void loop(double deltaMs) {
-    for (LXModulator modulator : this.mutableModulators) {
+    loopModulators(this.mutableModulators, deltaMs);
+  }
+
+  /**
+   * Loops the given modulators in order. Subclasses may use this to evaluate
+   * their modulators in a different order, or only a subset of them.
+   *
+   * @param modulators Modulators to loop, all of which must belong to this component
+   * @param deltaMs Milliseconds elapsed since last frame
+   */
+  protected final void loopModulators(List<LXModulator> modulators, double deltaMs) {
+    for (LXModulator modulator : modulators) {
       this.loopingModulator = modulator;
       modulator.loop(deltaMs);
     }
     this.loopingModulator = null;
+    if (!this.mutableModulators.isEmpty()) {
+      // Parameters modulated by these modulators must not return memoized values
+      CompoundParameter.invalidateModulationFrame();
+    }
   }
 
 }
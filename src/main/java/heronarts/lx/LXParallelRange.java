@@ -0,0 +1,139 @@
+/**
+ * Copyright 2026- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+
+package heronarts.lx;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Splits a range of work into slices which run concurrently on the engine's
+ * pattern worker pool when {@link LXEngine#isPatternMultithreaded} is enabled.
+ * Otherwise the whole range runs on the calling thread. The calling thread
+ * always runs the first slice itself, and returns once every slice is done.
+ * Slices are allocated on first use and reused, so an instance must only be
+ * run by one thread at a time.
+ */
+public class LXParallelRange {
+
+  /**
+   * Work over a range of indices
+   */
+  public interface Task {
+    /**
+     * Runs the work over a range of indices
+     *
+     * @param start First index
+     * @param end Index after the last
+     */
+    public void run(int start, int end);
+  }
+
+  private class Slice implements Runnable {
+
+    private int start;
+    private int end;
+
+    @Override
+    public void run() {
+      try {
+        task.run(this.start, this.end);
+      } catch (RuntimeException | Error x) {
+        error = x;
+      } finally {
+        done.release();
+      }
+    }
+  }
+
+  private final LX lx;
+  private final Task task;
+  private final int minLength;
+  private Slice[] slices = null;
+  private final Semaphore done = new Semaphore(0);
+  private volatile Throwable error = null;
+
+  /**
+   * Creates a parallel range
+   *
+   * @param lx LX instance
+   * @param minLength Smallest number of indices worth handing to a worker thread
+   * @param task Work to run over the range
+   */
+  public LXParallelRange(LX lx, int minLength, Task task) {
+    this.lx = lx;
+    this.task = task;
+    this.minLength = Math.max(1, minLength);
+  }
+
+  /**
+   * Runs the task over indices from 0 up to length
+   *
+   * @param length Number of indices
+   */
+  public void run(int length) {
+    run(0, length);
+  }
+
+  /**
+   * Runs the task over a range of indices
+   *
+   * @param start First index
+   * @param length Number of indices
+   */
+  public void run(int start, int length) {
+    if ((length < 2 * this.minLength) || !this.lx.engine.isPatternMultithreaded.isOn()) {
+      this.task.run(start, start + length);
+      return;
+    }
+    if (this.slices == null) {
+      this.slices = new Slice[this.lx.engine.patternParallelism];
+      for (int i = 0; i < this.slices.length; ++i) {
+        this.slices[i] = new Slice();
+      }
+    }
+    final int numSlices = Math.min(this.slices.length, length / this.minLength);
+    final ExecutorService pool = this.lx.engine.getPatternWorkerPool();
+    for (int i = 0; i < numSlices; ++i) {
+      final Slice slice = this.slices[i];
+      slice.start = start + (int) ((long) length * i / numSlices);
+      slice.end = start + (int) ((long) length * (i+1) / numSlices);
+    }
+    for (int i = 1; i < numSlices; ++i) {
+      try {
+        pool.execute(this.slices[i]);
+      } catch (RejectedExecutionException rx) {
+        // Pool was shut down, run the slice here
+        this.slices[i].run();
+      }
+    }
+    this.slices[0].run();
+    this.done.acquireUninterruptibly(numSlices);
+
+    final Throwable error = this.error;
+    if (error != null) {
+      this.error = null;
+      if (error instanceof Error) {
+        throw (Error) error;
+      }
+      throw (RuntimeException) error;
+    }
+  }
+}
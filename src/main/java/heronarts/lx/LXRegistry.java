@@ -130,10 +130,12 @@ public class LXRegistry implements LXSerializable {
   static {
     DEFAULT_PATTERNS = new ArrayList<Class<? extends LXPattern>>();
     DEFAULT_PATTERNS.add(heronarts.lx.dmx.DmxPattern.class);
+    DEFAULT_PATTERNS.add(heronarts.lx.dmx.DmxPixelMapPattern.class);
     DEFAULT_PATTERNS.add(heronarts.lx.pattern.audio.SoundObjectPattern.class);
     DEFAULT_PATTERNS.add(heronarts.lx.pattern.color.GradientPattern.class);
     DEFAULT_PATTERNS.add(heronarts.lx.pattern.color.SolidPattern.class);
     DEFAULT_PATTERNS.add(heronarts.lx.pattern.form.PlanesPattern.class);
+    DEFAULT_PATTERNS.add(heronarts.lx.pattern.media.MediaPattern.class);
     DEFAULT_PATTERNS.add(heronarts.lx.pattern.strip.ChasePattern.class);
     DEFAULT_PATTERNS.add(heronarts.lx.pattern.texture.NoisePattern.class);
     DEFAULT_PATTERNS.add(heronarts.lx.pattern.texture.SparklePattern.class);
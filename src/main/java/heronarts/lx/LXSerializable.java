@@ -367,6 +367,9 @@ public interface LXSerializable {
      * @return JsonObject representation of the object
      */
     public static JsonObject toObject(LX lx, LXSerializable serializable, boolean stripIds) {
+      if (!stripIds && lx.isCachedSave() && (serializable instanceof LXComponent component)) {
+        return component.toCachedObject(lx);
+      }
       JsonObject obj = new JsonObject();
       serializable.save(lx,  obj);
       if (stripIds) {
@@ -385,9 +388,7 @@ public interface LXSerializable {
     public static JsonObject toObject(LX lx, Map<String, ? extends LXSerializable> serializables) {
       JsonObject map = new JsonObject();
       for (String key : serializables.keySet()) {
-        JsonObject obj = new JsonObject();
-        serializables.get(key).save(lx, obj);
-        map.add(key, obj);
+        map.add(key, toObject(lx, serializables.get(key)));
       }
       return map;
     }
@@ -57,6 +57,22 @@ public class ModelBuffer implements LXBuffer {
     return this.array;
   }
 
+  /**
+   * Fills only the points of the given model or view with a color, leaving
+   * the rest of the buffer untouched
+   *
+   * @param color Color to fill
+   * @param model Model or view with points to fill
+   * @return this
+   */
+  public ModelBuffer fill(int color, LXModel model) {
+    final int[] spans = model.getIndexSpans();
+    for (int s = 0; s < spans.length; s += 2) {
+      Arrays.fill(this.array, spans[s], spans[s+1], color);
+    }
+    return this;
+  }
+
   public void dispose() {
     this.lx.removeListener(this.modelListener);
   }
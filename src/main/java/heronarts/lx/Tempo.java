@@ -41,8 +41,9 @@ import heronarts.lx.utils.LXUtils;
 
 /**
  * Class to represent a musical tempo at which patterns are operating. This can
- * be updated in real-time via invoking the {@link #tap()} method. Note there is no automatic beat detection -
- * the Tempo object must be explicitly {@link #tap()}'d to learn the tempo.
+ * be updated in real-time via invoking the {@link #tap()} method, or clocked externally by MIDI,
+ * OSC, or the audio engine's {@link heronarts.lx.audio.BeatDetector} when the {@link #clockSource}
+ * is set to {@link ClockSource#AUDIO}.
  *
  * "Beats" are indicated by the return value of {@link #beat()}. {@link #ramp()} returns the current beat phase
  * from 0 to 1
@@ -184,7 +185,8 @@ public class Tempo extends LXModulatorComponent implements LXOscComponent, LXTri
   public enum ClockSource {
     INTERNAL,
     MIDI,
-    OSC;
+    OSC,
+    AUDIO;
 
     public boolean isExternal() {
       return this != INTERNAL;
@@ -195,6 +197,7 @@ public class Tempo extends LXModulatorComponent implements LXOscComponent, LXTri
       switch (this) {
       case MIDI: return "MIDI";
       case OSC: return "OSC";
+      case AUDIO: return "Audio";
       default: case INTERNAL: return "Int";
       }
     }
@@ -110,7 +110,7 @@ public class BandFilter extends LXModulator implements LXNormalizedParameter, LX
   public BandFilter(String label, GraphicMeter meter) {
     super(label);
 
-    this.impl = new LXMeterImpl(meter.numBands, meter.fft.getBandOctaveRatio());
+    this.impl = new LXMeterImpl(meter.numBands, meter.getAnalysisBands().getOctaveRatio());
     this.meter = meter;
 
     final int nyquist = meter.fft.getSampleRate() / 2;
@@ -184,7 +184,7 @@ public class BandFilter extends LXModulator implements LXNormalizedParameter, LX
 
     // Computes all the underlying bands
     this.impl.compute(
-      this.meter.fft,
+      this.meter.getAnalysisBands(),
       attackGain,
       releaseGain,
       gainValue,
@@ -0,0 +1,594 @@
+/**
+ * Copyright 2026- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.audio;
+
+import heronarts.lx.LX;
+import heronarts.lx.LXComponent;
+import heronarts.lx.Tempo;
+import heronarts.lx.osc.LXOscComponent;
+import heronarts.lx.parameter.BooleanParameter;
+import heronarts.lx.parameter.BoundedParameter;
+import heronarts.lx.parameter.LXParameter;
+import heronarts.lx.parameter.MutableParameter;
+import heronarts.lx.parameter.NormalizedParameter;
+import heronarts.lx.parameter.TriggerParameter;
+import heronarts.lx.utils.LXUtils;
+
+/**
+ * Real-time beat detector that runs on the audio input thread. Spectral flux is
+ * computed over the log-spaced bands of a {@link FourierTransform} and peak-picked
+ * against an adaptive threshold to find onsets. Tempo is estimated by autocorrelation
+ * of the onset strength envelope, and beat phase is tracked by a comb filter and
+ * nudged by each onset that lands near a predicted beat.
+ *
+ * When the tempo clock source is set to {@link Tempo.ClockSource#AUDIO}, detected
+ * beats drive the tempo object via {@link Tempo#trigger(int, long)} with the
+ * nanoTime at which the beat occurred in the audio stream.
+ */
+public class BeatDetector extends LXComponent implements LXOscComponent {
+
+  /**
+   * The DSP core of the beat detector. This class has no dependency on the LX engine
+   * and may be run offline against sample data, one hop of samples at a time.
+   */
+  public static class Tracker {
+
+    // ~6 seconds of onset history at 44.1kHz with 512-sample hops
+    private static final int ODF_SIZE = 512;
+    private static final int ODF_MASK = ODF_SIZE - 1;
+
+    // Tempo is not estimated until this much history is available
+    private static final int MIN_ESTIMATE_FRAMES = ODF_SIZE / 2;
+
+    // Hops between tempo and phase re-estimation
+    private static final int ESTIMATE_INTERVAL = 32;
+
+    // Window of preceding flux values used for the adaptive threshold
+    private static final int THRESHOLD_FRAMES = 16;
+
+    // Absolute floor on the flux threshold, so that silence doesn't trigger onsets
+    private static final float THRESHOLD_FLOOR = .1f;
+
+    // Scaling applied before log-compressing band amplitudes
+    private static final float FLUX_COMPRESSION = 1000f;
+
+    // Number of beats summed by the phase comb filter
+    private static final int COMB_BEATS = 4;
+
+    // Onsets within this fraction of a period from a predicted beat adjust phase
+    private static final double PHASE_WINDOW = .15;
+    private static final double PHASE_GAIN = .25;
+
+    // Relative period difference under which two tempo estimates agree
+    private static final double PERIOD_TOLERANCE = .04;
+    private static final int PERIOD_SWITCH_COUNT = 3;
+
+    public final int hopSize;
+    public final int sampleRate;
+
+    /**
+     * Rate at which the onset detection function is sampled, in hops per second
+     */
+    public final double framesPerSecond;
+
+    private final double hopNanos;
+
+    private final FourierTransform fft;
+    private final float[] prevBands;
+    private final float[] odf = new float[ODF_SIZE];
+    private final float[] window = new float[ODF_SIZE];
+    private final float[] acf = new float[ODF_SIZE / 2 + 1];
+
+    private long frame = -1;
+    private long lastOnsetFrame = Long.MIN_VALUE / 2;
+    private int minOnsetFrames;
+
+    private double minBpm = 80;
+    private double maxBpm = 160;
+    private double thresholdMultiplier;
+
+    private double periodFrames = 0;
+    private double candidatePeriod = 0;
+    private int candidateCount = 0;
+    private double nextBeatFrame = 0;
+    private boolean locked = false;
+    private double confidence = 0;
+
+    private boolean isOnset = false;
+    private boolean isBeat = false;
+    private long beatNanoTime = 0;
+    private int beatCount = 0;
+
+    public Tracker(int hopSize, int sampleRate) {
+      this.hopSize = hopSize;
+      this.sampleRate = sampleRate;
+      this.framesPerSecond = sampleRate / (double) hopSize;
+      this.hopNanos = 1000000000. / this.framesPerSecond;
+      this.minOnsetFrames = (int) Math.ceil(.05 * this.framesPerSecond);
+      this.fft = new FourierTransform(hopSize, sampleRate);
+      this.prevBands = new float[this.fft.getNumBands()];
+      setSensitivity(.5);
+    }
+
+    /**
+     * Sets the sensitivity of onset detection
+     *
+     * @param sensitivity Sensitivity from 0-1, higher values detect more onsets
+     * @return this
+     */
+    public Tracker setSensitivity(double sensitivity) {
+      this.thresholdMultiplier = LXUtils.lerp(2.5, 1.1, LXUtils.constrain(sensitivity, 0, 1));
+      return this;
+    }
+
+    /**
+     * Sets the range of tempos that will be considered. A range spanning no more
+     * than one octave avoids ambiguity between half and double tempo.
+     *
+     * @param minBpm Minimum tempo
+     * @param maxBpm Maximum tempo
+     * @return this
+     */
+    public Tracker setBpmRange(double minBpm, double maxBpm) {
+      if (minBpm <= 0 || minBpm >= maxBpm) {
+        throw new IllegalArgumentException("Invalid BeatDetector bpm range: " + minBpm + "-" + maxBpm);
+      }
+      this.minBpm = minBpm;
+      this.maxBpm = maxBpm;
+      return this;
+    }
+
+    /**
+     * Clears all detection history
+     *
+     * @return this
+     */
+    public Tracker reset() {
+      this.frame = -1;
+      this.lastOnsetFrame = Long.MIN_VALUE / 2;
+      this.periodFrames = 0;
+      this.candidatePeriod = 0;
+      this.candidateCount = 0;
+      this.nextBeatFrame = 0;
+      this.locked = false;
+      this.confidence = 0;
+      this.isOnset = false;
+      this.isBeat = false;
+      this.beatCount = 0;
+      for (int i = 0; i < ODF_SIZE; ++i) {
+        this.odf[i] = 0;
+      }
+      for (int i = 0; i < this.prevBands.length; ++i) {
+        this.prevBands[i] = 0;
+      }
+      return this;
+    }
+
+    private float odf(long frame) {
+      return this.odf[(int) (frame & ODF_MASK)];
+    }
+
+    /**
+     * Processes one hop of audio samples. No memory is allocated by this method.
+     *
+     * @param samples Audio samples, must be of length hopSize
+     * @param nanoTime System.nanoTime() at which the last of these samples was captured
+     * @return true if a beat was emitted by this hop
+     */
+    public boolean process(float[] samples, long nanoTime) {
+      final long frame = ++this.frame;
+      this.isOnset = false;
+      this.isBeat = false;
+
+      // Positive spectral flux over log-compressed band amplitudes
+      this.fft.compute(samples);
+      final float norm = FLUX_COMPRESSION / this.fft.getSize();
+      float flux = 0;
+      for (int b = 0; b < this.prevBands.length; ++b) {
+        final float level = (float) Math.log1p(this.fft.getBand(b) * norm);
+        final float delta = level - this.prevBands[b];
+        if (delta > 0) {
+          flux += delta;
+        }
+        this.prevBands[b] = level;
+      }
+      this.odf[(int) (frame & ODF_MASK)] = flux;
+
+      // Peak-pick the previous frame against the mean of its neighborhood
+      if (frame >= THRESHOLD_FRAMES) {
+        final long peakFrame = frame - 1;
+        final float peak = odf(peakFrame);
+        if ((peak > odf(peakFrame - 1)) && (peak >= flux) && (peakFrame - this.lastOnsetFrame >= this.minOnsetFrames)) {
+          float mean = 0;
+          for (int i = 0; i < THRESHOLD_FRAMES; ++i) {
+            mean += odf(frame - i);
+          }
+          mean /= THRESHOLD_FRAMES;
+          if (peak > mean * this.thresholdMultiplier + THRESHOLD_FLOOR) {
+            this.isOnset = true;
+            this.lastOnsetFrame = peakFrame;
+            onOnset(peakFrame);
+          }
+        }
+      }
+
+      if ((frame >= MIN_ESTIMATE_FRAMES) && (frame % ESTIMATE_INTERVAL == 0)) {
+        estimateTempo();
+        if (this.periodFrames > 0) {
+          estimatePhase();
+        }
+      }
+
+      // Emit beats on the predicted grid, back-dated to where they fell within the hop
+      if (this.locked && (frame >= this.nextBeatFrame)) {
+        this.isBeat = true;
+        this.beatNanoTime = nanoTime - (long) ((frame - this.nextBeatFrame + .5) * this.hopNanos);
+        ++this.beatCount;
+        this.nextBeatFrame += this.periodFrames;
+        if (this.nextBeatFrame <= frame) {
+          this.nextBeatFrame = frame + this.periodFrames;
+        }
+      }
+
+      return this.isBeat;
+    }
+
+    private void onOnset(long onsetFrame) {
+      if (this.locked) {
+        // Error relative to the nearest of the previous or next predicted beat
+        double error = onsetFrame - (this.nextBeatFrame - this.periodFrames);
+        if (error > .5 * this.periodFrames) {
+          error -= this.periodFrames;
+        }
+        if (Math.abs(error) < PHASE_WINDOW * this.periodFrames) {
+          this.nextBeatFrame += PHASE_GAIN * error;
+        }
+      }
+    }
+
+    private void estimateTempo() {
+      final int n = (int) Math.min(this.frame + 1, ODF_SIZE);
+      final long start = this.frame - n + 1;
+
+      float mean = 0;
+      for (int i = 0; i < n; ++i) {
+        mean += this.window[i] = odf(start + i);
+      }
+      mean /= n;
+      float energy = 0;
+      for (int i = 0; i < n; ++i) {
+        this.window[i] -= mean;
+        energy += this.window[i] * this.window[i];
+      }
+      energy /= n;
+      if (energy <= 0) {
+        this.confidence = 0;
+        return;
+      }
+
+      final int minLag = Math.max(2, (int) Math.floor(60 * this.framesPerSecond / this.maxBpm));
+      final int maxLag = Math.min(n / 4, (int) Math.ceil(60 * this.framesPerSecond / this.minBpm));
+      final int acfLimit = Math.min(n / 2, 2 * maxLag + 1);
+      if (minLag + 1 >= maxLag) {
+        return;
+      }
+      for (int lag = minLag - 1; lag <= acfLimit; ++lag) {
+        float sum = 0;
+        for (int i = lag; i < n; ++i) {
+          sum += this.window[i] * this.window[i - lag];
+        }
+        this.acf[lag] = sum / (n - lag);
+      }
+
+      // Score each lag along with its first harmonic, which favors the true beat
+      // period over its subdivisions
+      int bestLag = -1;
+      float bestScore = 0;
+      for (int lag = minLag; lag <= maxLag; ++lag) {
+        final float score = lagScore(lag, acfLimit);
+        if (score > bestScore) {
+          bestScore = score;
+          bestLag = lag;
+        }
+      }
+      if (bestLag < 0) {
+        this.confidence = 0;
+        return;
+      }
+      this.confidence = LXUtils.constrain(bestScore / (1.5 * energy), 0, 1);
+
+      // Parabolic interpolation for a fractional period
+      double period = bestLag;
+      if (bestLag > minLag && bestLag < maxLag) {
+        final float s0 = lagScore(bestLag - 1, acfLimit);
+        final float s2 = lagScore(bestLag + 1, acfLimit);
+        final float denominator = s0 - 2 * bestScore + s2;
+        if (denominator < 0) {
+          period += LXUtils.constrain(.5 * (s0 - s2) / denominator, -.5, .5);
+        }
+      }
+
+      if (this.periodFrames == 0) {
+        this.periodFrames = period;
+      } else if (Math.abs(period - this.periodFrames) < PERIOD_TOLERANCE * this.periodFrames) {
+        this.periodFrames = LXUtils.lerp(this.periodFrames, period, .25);
+        this.candidateCount = 0;
+      } else if ((this.candidateCount > 0) && (Math.abs(period - this.candidatePeriod) < PERIOD_TOLERANCE * this.candidatePeriod)) {
+        // Only switch to a substantially different tempo once it is consistently detected
+        if (++this.candidateCount >= PERIOD_SWITCH_COUNT) {
+          this.periodFrames = period;
+          this.candidateCount = 0;
+        }
+      } else {
+        this.candidatePeriod = period;
+        this.candidateCount = 1;
+      }
+    }
+
+    private float lagScore(int lag, int acfLimit) {
+      final int harmonic = 2 * lag;
+      return this.acf[lag] + ((harmonic <= acfLimit) ? .5f * this.acf[harmonic] : 0);
+    }
+
+    private void estimatePhase() {
+      final int period = (int) Math.round(this.periodFrames);
+      final long history = Math.min(this.frame + 1, ODF_SIZE);
+      int bestPhase = 0;
+      float bestScore = -1;
+      for (int phase = 0; phase < period; ++phase) {
+        float score = 0;
+        for (int k = 0; k < COMB_BEATS; ++k) {
+          final long offset = phase + Math.round(k * this.periodFrames);
+          if (offset < history) {
+            // Weight the most recent beats more heavily
+            score += odf(this.frame - offset) * (COMB_BEATS - k);
+          }
+        }
+        if (score > bestScore) {
+          bestScore = score;
+          bestPhase = phase;
+        }
+      }
+
+      double nextBeat = this.frame - bestPhase + this.periodFrames;
+      while (nextBeat <= this.frame) {
+        nextBeat += this.periodFrames;
+      }
+      if (!this.locked) {
+        this.nextBeatFrame = nextBeat;
+        this.locked = true;
+      } else {
+        double error = nextBeat - this.nextBeatFrame;
+        if (error > .5 * this.periodFrames) {
+          error -= this.periodFrames;
+        } else if (error < -.5 * this.periodFrames) {
+          error += this.periodFrames;
+        }
+        this.nextBeatFrame += .5 * error;
+      }
+    }
+
+    /**
+     * Whether an onset was detected by the last call to process()
+     *
+     * @return True if an onset was detected
+     */
+    public boolean isOnset() {
+      return this.isOnset;
+    }
+
+    /**
+     * Whether a beat was emitted by the last call to process()
+     *
+     * @return True if a beat was emitted
+     */
+    public boolean isBeat() {
+      return this.isBeat;
+    }
+
+    /**
+     * System.nanoTime() at which the most recent beat occurred in the audio stream
+     *
+     * @return Beat nanoTime
+     */
+    public long getBeatNanoTime() {
+      return this.beatNanoTime;
+    }
+
+    /**
+     * Total number of beats emitted since reset
+     *
+     * @return Beat count
+     */
+    public int getBeatCount() {
+      return this.beatCount;
+    }
+
+    /**
+     * Whether a tempo and phase have been established
+     *
+     * @return True if beats are being emitted
+     */
+    public boolean isLocked() {
+      return this.locked;
+    }
+
+    /**
+     * Estimated tempo in beats per minute, or 0 if none has been estimated
+     *
+     * @return Estimated tempo
+     */
+    public double getBpm() {
+      return (this.periodFrames > 0) ? 60 * this.framesPerSecond / this.periodFrames : 0;
+    }
+
+    /**
+     * Confidence in the tempo estimate, from 0-1
+     *
+     * @return Confidence
+     */
+    public double getConfidence() {
+      return this.confidence;
+    }
+  }
+
+  public final BooleanParameter enabled =
+    new BooleanParameter("Enabled", false)
+    .setDescription("Whether beat detection runs when the tempo is not clocked from audio");
+
+  public final BoundedParameter sensitivity =
+    new BoundedParameter("Sensitivity", .5)
+    .setDescription("Sensitivity of onset detection, higher values detect more onsets");
+
+  public final BoundedParameter minBpm =
+    new BoundedParameter("Min BPM", 80, Tempo.MIN_BPM, Tempo.MAX_BPM)
+    .setDescription("Minimum tempo considered by the beat detector");
+
+  public final BoundedParameter maxBpm =
+    new BoundedParameter("Max BPM", 160, Tempo.MIN_BPM, Tempo.MAX_BPM)
+    .setDescription("Maximum tempo considered by the beat detector");
+
+  public final BoundedParameter minConfidence =
+    new BoundedParameter("Min Confidence", .25)
+    .setDescription("Confidence required before the detected BPM is applied to the tempo");
+
+  public final MutableParameter bpm =
+    new MutableParameter("BPM", 0)
+    .setDescription("Tempo estimated by the beat detector");
+
+  public final NormalizedParameter confidence =
+    new NormalizedParameter("Confidence", 0)
+    .setDescription("Confidence of the beat detector tempo estimate");
+
+  public final TriggerParameter beat =
+    new TriggerParameter("Beat")
+    .setDescription("Fires on each beat emitted by the beat detector");
+
+  private final Tracker tracker =
+    new Tracker(LXAudioComponent.SAMPLE_BUFFER_SIZE, LXAudioComponent.SAMPLE_RATE);
+
+  private volatile boolean running = false;
+  private volatile boolean resetRequested = true;
+  private volatile boolean settingsChanged = true;
+
+  // Beat state handed off from the audio thread, guarded by this
+  private int pendingBeats = 0;
+  private long pendingBeatNanoTime = 0;
+  private double pendingBpm = 0;
+  private double pendingConfidence = 0;
+
+  private boolean isClockSource = false;
+  private int beatCount = 0;
+
+  BeatDetector(LX lx) {
+    super(lx, "Beat Detector");
+    addParameter("enabled", this.enabled);
+    addParameter("sensitivity", this.sensitivity);
+    addParameter("minBpm", this.minBpm);
+    addParameter("maxBpm", this.maxBpm);
+    addParameter("minConfidence", this.minConfidence);
+    addParameter("bpm", this.bpm);
+    addParameter("confidence", this.confidence);
+    addParameter("beat", this.beat);
+  }
+
+  @Override
+  public void onParameterChanged(LXParameter p) {
+    super.onParameterChanged(p);
+    if (p == this.sensitivity || p == this.minBpm || p == this.maxBpm) {
+      this.settingsChanged = true;
+    }
+  }
+
+  /**
+   * Invoked on the audio input thread for each buffer of mixed samples
+   *
+   * @param samples Mixed audio samples
+   * @param nanoTime System.nanoTime() when the buffer was read
+   */
+  void process(float[] samples, long nanoTime) {
+    if (!this.running) {
+      return;
+    }
+    if (this.settingsChanged) {
+      this.settingsChanged = false;
+      this.tracker.setSensitivity(this.sensitivity.getValue());
+      final double min = this.minBpm.getValue();
+      final double max = this.maxBpm.getValue();
+      if (min < max) {
+        this.tracker.setBpmRange(min, max);
+      }
+    }
+    if (this.resetRequested) {
+      this.resetRequested = false;
+      this.tracker.reset();
+    }
+    if (this.tracker.process(samples, nanoTime)) {
+      synchronized (this) {
+        ++this.pendingBeats;
+        this.pendingBeatNanoTime = this.tracker.getBeatNanoTime();
+        this.pendingBpm = this.tracker.getBpm();
+        this.pendingConfidence = this.tracker.getConfidence();
+      }
+    }
+  }
+
+  /**
+   * Invoked on the engine thread to deliver detected beats
+   *
+   * @param deltaMs Milliseconds elapsed
+   */
+  void loop(double deltaMs) {
+    final Tempo tempo = this.lx.engine.tempo;
+    final boolean isClockSource = tempo.clockSource.getEnum() == Tempo.ClockSource.AUDIO;
+    if (isClockSource != this.isClockSource) {
+      this.isClockSource = isClockSource;
+      this.beatCount = 0;
+    }
+    final boolean running = this.lx.engine.audio.enabled.isOn() && (isClockSource || this.enabled.isOn());
+    if (running && !this.running) {
+      this.resetRequested = true;
+    }
+    this.running = running;
+
+    final int beats;
+    final long beatNanoTime;
+    final double bpm, confidence;
+    synchronized (this) {
+      beats = this.pendingBeats;
+      beatNanoTime = this.pendingBeatNanoTime;
+      bpm = this.pendingBpm;
+      confidence = this.pendingConfidence;
+      this.pendingBeats = 0;
+    }
+    if (beats > 0) {
+      this.bpm.setValue(bpm);
+      this.confidence.setValue(confidence);
+      if (isClockSource) {
+        if (confidence >= this.minConfidence.getValue()) {
+          tempo.setBpm(bpm);
+        }
+        this.beatCount += beats;
+        tempo.trigger(this.beatCount - 1, beatNanoTime);
+      }
+      this.beat.trigger();
+    }
+  }
+
+}
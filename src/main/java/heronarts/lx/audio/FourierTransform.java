@@ -43,11 +43,18 @@ public class FourierTransform {
   private final int sampleRate;
   private final float bandWidthInv;
 
-  private final int logN;
+  // Real input of size N is transformed as complex data of size N/2, with
+  // even samples in the real part and odd samples in the imaginary part
+  private final int halfSize;
+  private final int logHalfN;
   private final float[] sinN;
   private final float[] cosN;
   private final float[] windowCoefficients;
 
+  // Twiddle factors to split the half-size transform into the real spectrum
+  private final float[] splitCos;
+  private final float[] splitSin;
+
   private final int[] bitReverseIndex;
   private final float[] real;
   private final float[] imaginary;
@@ -59,7 +66,7 @@ public class FourierTransform {
   private float bandOctaveRatio;
 
   public FourierTransform(int bufferSize, int sampleRate) {
-    if ((bufferSize & (bufferSize - 1)) != 0) {
+    if ((bufferSize < 2) || ((bufferSize & (bufferSize - 1)) != 0)) {
       throw new IllegalArgumentException("bufferSize must be a power of two: " + bufferSize);
     }
 
@@ -67,21 +74,29 @@ public class FourierTransform {
     this.sampleRate = sampleRate;
     this.bandWidthInv = this.bufferSize / (float) this.sampleRate;
 
-    this.logN = (int) (Math.log(bufferSize) / Math.log(2));
+    this.halfSize = bufferSize / 2;
+    this.logHalfN = Integer.numberOfTrailingZeros(this.halfSize);
 
-    this.sinN = new float[this.logN];
-    this.cosN = new float[this.logN];
+    this.sinN = new float[this.logHalfN];
+    this.cosN = new float[this.logHalfN];
     computePhaseTables();
 
+    this.splitCos = new float[this.halfSize + 1];
+    this.splitSin = new float[this.halfSize + 1];
+    for (int k = 0; k <= this.halfSize; ++k) {
+      this.splitCos[k] = (float) Math.cos(2 * Math.PI * k / this.bufferSize);
+      this.splitSin[k] = (float) Math.sin(2 * Math.PI * k / this.bufferSize);
+    }
+
     this.windowCoefficients = new float[this.bufferSize];
     computeWindowCoefficients();
 
-    this.bitReverseIndex = new int[this.bufferSize];
+    this.bitReverseIndex = new int[this.halfSize];
     computeBitReverseIndices();
 
-    this.real = new float[this.bufferSize];
-    this.imaginary = new float[this.bufferSize];
-    this.amplitude = new float[this.bufferSize/2 + 1];
+    this.real = new float[this.halfSize];
+    this.imaginary = new float[this.halfSize];
+    this.amplitude = new float[this.halfSize + 1];
 
     setNumBands(DEFAULT_NUM_BANDS);
   }
@@ -90,7 +105,7 @@ public class FourierTransform {
     // given i, N = 2^i
     // sin[i] = sin(-PI / N);
     // cos[i] = cos(-PI / N);
-    for (int i = 0, N = 1; i < this.logN; ++i, N <<= 1) {
+    for (int i = 0, N = 1; i < this.logHalfN; ++i, N <<= 1) {
       this.sinN[i] = (float) Math.sin(-Math.PI / N);
       this.cosN[i] = (float) Math.cos(-Math.PI / N);
     }
@@ -98,7 +113,7 @@ public class FourierTransform {
 
   private void computeBitReverseIndices() {
     this.bitReverseIndex[0] = 0;
-    for (int limit = 1, bit = this.bufferSize/2; limit < this.bufferSize; limit <<= 1, bit >>= 1) {
+    for (int limit = 1, bit = this.halfSize/2; limit < this.halfSize; limit <<= 1, bit >>= 1) {
       for (int i = 0; i < limit; ++i) {
         this.bitReverseIndex[i + limit] = this.bitReverseIndex[i] + bit;
       }
@@ -131,20 +146,21 @@ public class FourierTransform {
     if (samples.length != this.bufferSize) {
       throw new IllegalArgumentException("Samples must have same length as FourierTransform size: " + samples.length);
     }
-    // Apply window function, initialize bit-reverse-indexed values
-    for (int i = 0; i < this.bufferSize; ++i) {
-      int bri = this.bitReverseIndex[i];
+    // Apply window function, pack even/odd samples into bit-reverse-indexed
+    // complex values of half the size
+    for (int i = 0; i < this.halfSize; ++i) {
+      final int bri = this.bitReverseIndex[i] << 1;
       this.real[i] = samples[bri] * this.windowCoefficients[bri];
-      this.imaginary[i] = 0f;
+      this.imaginary[i] = samples[bri+1] * this.windowCoefficients[bri+1];
     }
     // Iterate through l = [0, logN-1], N = 2^l
-    for (int l = 0, n = 1; l < this.logN; ++l, n <<= 1) {
+    for (int l = 0, n = 1; l < this.logHalfN; ++l, n <<= 1) {
       float cosN = this.cosN[l];
       float sinN = this.sinN[l];
       float phaseR = 1f;
       float phaseI = 0f;
       for (int f = 0; f < n; ++f) {
-        for (int i = f; i < this.bufferSize; i += 2*n) {
+        for (int i = f; i < this.halfSize; i += 2*n) {
           int n2 = i + n;
           float tR = phaseR * this.real[n2] - phaseI * this.imaginary[n2];
           float tI = phaseR * this.imaginary[n2] + phaseI * this.real[n2];
@@ -158,11 +174,48 @@ public class FourierTransform {
         phaseI = (tmpR * sinN) + (phaseI * cosN);
       }
     }
-    // Amplitude
-    for (int i = 0; i < this.amplitude.length; ++i) {
-      this.amplitude[i] = (float) Math.sqrt(this.real[i]*this.real[i] + this.imaginary[i]*this.imaginary[i]);
+    // Split the half-size transform Z into the real spectrum X, where
+    // X[k] = E[k] + e^(-2*pi*i*k/N) * O[k], with E and O being the transforms
+    // of the even and odd samples, recovered from Z[k] and conj(Z[N/2-k])
+    for (int k = 0; k <= this.halfSize; ++k) {
+      final int a = (k == this.halfSize) ? 0 : k;
+      final int b = (k == 0) ? 0 : this.halfSize - k;
+      final float zR = this.real[a], zI = this.imaginary[a];
+      final float cR = this.real[b], cI = -this.imaginary[b];
+      final float eR = .5f * (zR + cR);
+      final float eI = .5f * (zI + cI);
+      final float oR = .5f * (zI - cI);
+      final float oI = -.5f * (zR - cR);
+      final float wR = this.splitCos[k];
+      final float wI = -this.splitSin[k];
+      final float xR = eR + wR * oR - wI * oI;
+      final float xI = eI + wR * oI + wI * oR;
+      this.amplitude[k] = (float) Math.sqrt(xR*xR + xI*xI);
     }
 
+    computeBands();
+    return this;
+  }
+
+  /**
+   * Copies the spectrum of another transform of the same size, which must
+   * already have been computed, and computes the bands of this transform over
+   * it. This allows one transform to be shared between clients with different
+   * band layouts.
+   *
+   * @param that Transform to copy the spectrum of
+   * @return this
+   */
+  public FourierTransform copy(FourierTransform that) {
+    if (that.bufferSize != this.bufferSize) {
+      throw new IllegalArgumentException("Cannot copy FourierTransform of different size: " + that.bufferSize);
+    }
+    System.arraycopy(that.amplitude, 0, this.amplitude, 0, this.amplitude.length);
+    computeBands();
+    return this;
+  }
+
+  private void computeBands() {
     // Compute octave averages
     if (this.numBands > 0) {
       for (int band = 0; band < this.numBands; ++band) {
@@ -173,8 +226,6 @@ public class FourierTransform {
         this.bands[band] = avg / (this.bandOffset[band+1] - this.bandOffset[band] + 1);
       }
     }
-
-    return this;
   }
 
   public float get(int i) {
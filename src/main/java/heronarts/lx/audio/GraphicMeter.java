@@ -48,9 +48,21 @@ public class GraphicMeter extends DecibelMeter {
    */
   public final int numBands;
 
+  /**
+   * Size of the analysis window in samples
+   */
+  public final int windowSize;
+
+  /**
+   * Transform of the buffer this meter is analyzing, with bands matching this
+   * meter. The spectrum is copied from the shared analysis each time the meter
+   * runs, rather than computed per meter.
+   */
   public final FourierTransform fft;
 
-  private final float[] sampleBuffer;
+  private SpectrumAnalysis analysis;
+
+  private SpectrumAnalysis.Bands analysisBands;
 
   public final NormalizedParameter[] bands;
 
@@ -95,12 +107,27 @@ public class GraphicMeter extends DecibelMeter {
    * @param numBands Number of bands
    */
   public GraphicMeter(String label, LXAudioBuffer buffer, int numBands) {
+    this(label, buffer, numBands, buffer.bufferSize());
+  }
+
+  /**
+   * Makes a graphic equalizer with a specific analysis window size. Longer
+   * windows give better resolution of low frequencies at the cost of responsiveness.
+   *
+   * @param label Label
+   * @param buffer Audio buffer to monitor
+   * @param numBands Number of bands
+   * @param windowSize Analysis window size, a power of two up to {@link LXAudioBuffer#HISTORY_SIZE}
+   */
+  public GraphicMeter(String label, LXAudioBuffer buffer, int numBands, int windowSize) {
     super(label, buffer);
     addParameter("slope", this.slope);
-    this.sampleBuffer = new float[buffer.bufferSize()];
-    this.fft = new FourierTransform(buffer.bufferSize(), buffer.sampleRate());
-    this.fft.setNumBands(this.numBands = numBands);
-    this.impl = new LXMeterImpl(this.numBands, this.fft.getBandOctaveRatio());
+    this.numBands = numBands;
+    this.windowSize = windowSize;
+    this.fft = new FourierTransform(windowSize, buffer.sampleRate());
+    this.fft.setNumBands(numBands);
+    bindAnalysis();
+    this.impl = new LXMeterImpl(this.numBands, this.analysisBands.getOctaveRatio());
     this.bands = this.impl.bands;
     int i = 1;
     for (NormalizedParameter band : this.bands) {
@@ -108,14 +135,44 @@ public class GraphicMeter extends DecibelMeter {
     }
   }
 
+  private void bindAnalysis() {
+    this.analysis = this.buffer.getAnalysis(this.windowSize);
+    this.analysisBands = this.analysis.getBands(this.numBands);
+  }
+
+  @Override
+  public GraphicMeter setBuffer(LXAudioBuffer buffer) {
+    super.setBuffer(buffer);
+    bindAnalysis();
+    return this;
+  }
+
+  /**
+   * Gets the shared spectral analysis used by this meter
+   *
+   * @return Spectral analysis
+   */
+  public SpectrumAnalysis getAnalysis() {
+    return this.analysis;
+  }
+
+  /**
+   * Gets the shared log-spaced bands used by this meter
+   *
+   * @return Spectral analysis bands
+   */
+  public SpectrumAnalysis.Bands getAnalysisBands() {
+    return this.analysisBands;
+  }
+
   @Override
   protected double computeValue(double deltaMs) {
     double result = super.computeValue(deltaMs);
-    this.buffer.getSamples(this.sampleBuffer);
-    this.fft.compute(this.sampleBuffer);
+    this.analysis.update();
+    this.fft.copy(this.analysis.fft);
 
     this.impl.compute(
-      this.fft,
+      this.analysisBands,
       this.attackGain,
       this.releaseGain,
       this.gain.getValue(),
@@ -127,14 +184,15 @@ public class GraphicMeter extends DecibelMeter {
   }
 
   /**
-   * Returns a snapshot of the last raw audio sample buffer frame that was used to compute
-   * this meter. Note that this is copy of the audio buffer local to the LX thread and this particular
-   * meter. The buffer is only updated when the meter is running, once per LX engine loop.
+   * Returns a snapshot of the last raw audio samples that were used to compute
+   * this meter. Note that this is copy of the audio buffer local to the LX thread, shared by all
+   * meters using the same analysis, and must not be modified. The buffer is only updated when a
+   * meter is running, at most once per LX engine loop.
    *
-   * @return Raw audio sample buffer used to compute this meter
+   * @return Raw audio samples used to compute this meter
    */
   public float[] getSamples() {
-    return this.sampleBuffer;
+    return this.analysis.getSamples();
   }
 
   /**
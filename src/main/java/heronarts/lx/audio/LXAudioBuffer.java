@@ -22,11 +22,31 @@ public class LXAudioBuffer {
 
   protected static final float INV_16_BIT = 1 / 32768.0f;
 
+  /**
+   * Number of most recent samples retained for analysis windows that are longer
+   * than the buffer size
+   */
+  public static final int HISTORY_SIZE = 4096;
+
+  private static final int MIN_ANALYSIS_SIZE = 64;
+
   private final int sampleRate;
 
   final float[] samples;
   float rms;
 
+  private final float[] history = new float[HISTORY_SIZE];
+  private int historyIndex = 0;
+
+  // Incremented each time new samples are written
+  private long sequence = 0;
+
+  // Value of sequence latched at the start of the current engine frame
+  private volatile long frameSequence = 0;
+
+  private final SpectrumAnalysis[] analyses =
+    new SpectrumAnalysis[Integer.numberOfTrailingZeros(HISTORY_SIZE) + 1];
+
   LXAudioBuffer(int bufferSize, int sampleRate) {
     this.samples = new float[bufferSize];
     this.sampleRate = sampleRate;
@@ -51,6 +71,7 @@ public class LXAudioBuffer {
       sumSquares += this.samples[i] * this.samples[i];
     }
     this.rms = (float) Math.sqrt(sumSquares / this.samples.length);
+    appendHistory();
   }
 
   protected synchronized void putSamples(byte[] rawBytes, int offset, int dataSize, int frameSize) {
@@ -62,6 +83,67 @@ public class LXAudioBuffer {
       ++frameIndex;
     }
     this.rms = (float) Math.sqrt(sumSquares / this.samples.length);
+    appendHistory();
+  }
+
+  private void appendHistory() {
+    final int length = Math.min(this.samples.length, HISTORY_SIZE);
+    final int offset = this.samples.length - length;
+    final int first = Math.min(length, HISTORY_SIZE - this.historyIndex);
+    System.arraycopy(this.samples, offset, this.history, this.historyIndex, first);
+    System.arraycopy(this.samples, offset + first, this.history, 0, length - first);
+    this.historyIndex = (this.historyIndex + length) % HISTORY_SIZE;
+    ++this.sequence;
+  }
+
+  /**
+   * Latches the current sample sequence for this engine frame. Analyses of this
+   * buffer are recomputed at most once per latched frame.
+   */
+  synchronized void latch() {
+    this.frameSequence = this.sequence;
+  }
+
+  long getFrameSequence() {
+    return this.frameSequence;
+  }
+
+  /**
+   * Copies the most recent samples into the destination array, which may be of
+   * any length up to {@link #HISTORY_SIZE}. The last element of the destination
+   * array receives the most recent sample.
+   *
+   * @param dest Destination array
+   */
+  public synchronized void getHistory(float[] dest) {
+    if (dest.length > HISTORY_SIZE) {
+      throw new IllegalArgumentException("LXAudioBuffer getHistory destination may not exceed HISTORY_SIZE: " + dest.length);
+    }
+    final int start = (this.historyIndex - dest.length + HISTORY_SIZE) % HISTORY_SIZE;
+    final int first = Math.min(dest.length, HISTORY_SIZE - start);
+    System.arraycopy(this.history, start, dest, 0, first);
+    System.arraycopy(this.history, 0, dest, first, dest.length - first);
+  }
+
+  /**
+   * Gets the shared spectral analysis of this buffer at the given window size.
+   * All clients requesting the same window size share one analysis, which is
+   * computed at most once per engine frame.
+   *
+   * @param windowSize Analysis window size, a power of two up to {@link #HISTORY_SIZE}
+   * @return Shared spectral analysis
+   */
+  public SpectrumAnalysis getAnalysis(int windowSize) {
+    if ((windowSize < MIN_ANALYSIS_SIZE) || (windowSize > HISTORY_SIZE) || ((windowSize & (windowSize - 1)) != 0)) {
+      throw new IllegalArgumentException("Analysis window size must be a power of two between " + MIN_ANALYSIS_SIZE + " and " + HISTORY_SIZE + ": " + windowSize);
+    }
+    final int index = Integer.numberOfTrailingZeros(windowSize);
+    synchronized (this.analyses) {
+      if (this.analyses[index] == null) {
+        this.analyses[index] = new SpectrumAnalysis(this, windowSize);
+      }
+      return this.analyses[index];
+    }
   }
 
   public synchronized void getSamples(float[] dest) {
@@ -55,4 +55,10 @@ public class LXAudioComponent extends LXComponent {
   LXAudioComponent(LX lx, String label) {
     super(lx, label);
   }
+
+  void latch() {
+    this.left.latch();
+    this.right.latch();
+    this.mix.latch();
+  }
 }
@@ -66,6 +66,8 @@ public class LXAudioEngine extends LXModulatorComponent implements LXOscComponen
 
   public final Reaper reaper;
 
+  public final BeatDetector beatDetector;
+
   public enum Mode {
     INPUT("Input"),
     OUTPUT("Output");
@@ -153,15 +155,21 @@ public class LXAudioEngine extends LXModulatorComponent implements LXOscComponen
     addChild("adm", this.adm = new ADM(lx));
     addChild("envelop", this.envelop = new Envelop(lx));
     addChild("reaper", this.reaper = new Reaper(lx));
+    addChild("beatDetector", this.beatDetector = new BeatDetector(lx));
 
     addModulator("meter", this.meter = new Meter());
   }
 
   @Override
   public void loop(double deltaMs) {
+    // Latch audio buffers so that shared spectral analyses are computed
+    // at most once for this frame
+    this.input.latch();
+    this.output.latch();
     super.loop(deltaMs);
     this.envelop.loop(deltaMs);
     this.reaper.loop(deltaMs);
+    this.beatDetector.loop(deltaMs);
   }
 
   @Override
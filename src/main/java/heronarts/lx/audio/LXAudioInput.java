@@ -86,6 +86,7 @@ public class LXAudioInput extends LXAudioComponent implements LXOscComponent {
 
         // Read from the audio line
         this.line.read(this.rawBytes, 0, this.rawBytes.length);
+        final long nanoTime = System.nanoTime();
 
         if (this.format == MONO) {
           mix.putSamples(rawBytes, 0, MONO_BUFFER_SIZE, MONO_FRAME_SIZE);
@@ -94,6 +95,9 @@ public class LXAudioInput extends LXAudioComponent implements LXOscComponent {
           right.putSamples(rawBytes, 2, STEREO_BUFFER_SIZE, STEREO_FRAME_SIZE);
           mix.computeMix(left, right);
         }
+
+        // Beat detection runs here on the input thread, not the engine thread
+        lx.engine.audio.beatDetector.process(mix.samples, nanoTime);
       }
       this.line.removeLineListener(this);
       LX.log("Finished audio input thread: " + this.device);
@@ -45,9 +45,9 @@ class LXMeterImpl {
     }
   }
 
-  void compute(FourierTransform fft, float attackGain, float releaseGain, double gain, double range, double slope) {
+  void compute(SpectrumAnalysis.Bands bands, float attackGain, float releaseGain, double gain, double range, double slope) {
     for (int i = 0; i < this.numBands; ++i) {
-      float rmsBand = fft.getBand(i) / fft.getSize();
+      float rmsBand = bands.getNormalized(i);
       float rmsGain = (rmsBand >= this.rmsBands[i]) ? attackGain : releaseGain;
       this.rmsBands[i] = rmsBand + rmsGain * (this.rmsBands[i] - rmsBand);
       this.dbBands[i] = 20 * Math.log(this.rmsBands[i]) / DecibelMeter.LOG_10 + gain + i * slope * this.bandOctaveRatio;
@@ -0,0 +1,197 @@
+/**
+ * Copyright 2026- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.audio;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A spectral analysis of an audio buffer at a fixed window size, shared by every
+ * client of that buffer. Obtain an instance via {@link LXAudioBuffer#getAnalysis(int)}.
+ * Short windows respond quickly to transients, long windows resolve low frequencies.
+ *
+ * Clients call {@link #update()} before reading, which recomputes the transform
+ * only if new samples were latched since the last computation. Results are read
+ * directly from the shared arrays, which must not be modified.
+ */
+public class SpectrumAnalysis {
+
+  /**
+   * Log-spaced frequency bands over the spectrum, from {@link FourierTransform#BASE_BAND_HZ}
+   * up to the Nyquist frequency. Each band covers the same fraction of an octave, so
+   * longer windows give finer resolution of the lower bands.
+   */
+  public class Bands {
+
+    public final int numBands;
+
+    private final float octaveRatio;
+    private final int[] binOffset;
+    private final float[] values;
+
+    private Bands(int numBands) {
+      this.numBands = numBands;
+      this.values = new float[numBands];
+      this.binOffset = new int[numBands + 1];
+
+      final float nyquist = buffer.sampleRate() / 2;
+      final float bandExpRange = (float) Math.log(nyquist / FourierTransform.BASE_BAND_HZ) / FourierTransform.LOG_2;
+      this.octaveRatio = bandExpRange / (numBands - 1);
+
+      final float bandWidthInv = windowSize / (float) buffer.sampleRate();
+      this.binOffset[0] = 0;
+      for (int i = 0; i < numBands; ++i) {
+        final float bandLimitHz = (float) Math.pow(2, i * this.octaveRatio) * FourierTransform.BASE_BAND_HZ;
+        this.binOffset[i+1] = Math.min(windowSize / 2, Math.round(bandWidthInv * bandLimitHz));
+      }
+    }
+
+    private void compute() {
+      for (int band = 0; band < this.numBands; ++band) {
+        final int start = this.binOffset[band];
+        final int end = this.binOffset[band+1];
+        float sum = 0;
+        for (int i = start; i <= end; ++i) {
+          sum += fft.get(i);
+        }
+        this.values[band] = sum / (end - start + 1);
+      }
+    }
+
+    /**
+     * Octaves spanned by each band
+     *
+     * @return Octave ratio
+     */
+    public float getOctaveRatio() {
+      return this.octaveRatio;
+    }
+
+    /**
+     * Raw average amplitude of the given band
+     *
+     * @param i Band index
+     * @return Raw band amplitude
+     */
+    public float get(int i) {
+      return this.values[i];
+    }
+
+    /**
+     * Raw average amplitude of the given band, normalized by the window size
+     *
+     * @param i Band index
+     * @return Normalized band amplitude
+     */
+    public float getNormalized(int i) {
+      return this.values[i] / windowSize;
+    }
+
+    /**
+     * Direct access to the band values, which must not be modified
+     *
+     * @return Band values
+     */
+    public float[] getValues() {
+      return this.values;
+    }
+
+    public SpectrumAnalysis getAnalysis() {
+      return SpectrumAnalysis.this;
+    }
+  }
+
+  public final LXAudioBuffer buffer;
+
+  public final int windowSize;
+
+  /**
+   * The shared transform, clients must not call compute() or setNumBands() on it
+   */
+  public final FourierTransform fft;
+
+  private final float[] samples;
+
+  private final List<Bands> bands = new ArrayList<Bands>();
+
+  private volatile long sequence = -1;
+
+  SpectrumAnalysis(LXAudioBuffer buffer, int windowSize) {
+    this.buffer = buffer;
+    this.windowSize = windowSize;
+    this.samples = new float[windowSize];
+    this.fft = new FourierTransform(windowSize, buffer.sampleRate());
+  }
+
+  /**
+   * Recomputes the analysis if new audio has been latched since the last update.
+   * Safe to call from multiple threads, only the first caller in a frame does work.
+   *
+   * @return this
+   */
+  public SpectrumAnalysis update() {
+    final long frameSequence = this.buffer.getFrameSequence();
+    if (frameSequence != this.sequence) {
+      synchronized (this) {
+        if (frameSequence != this.sequence) {
+          this.buffer.getHistory(this.samples);
+          this.fft.compute(this.samples);
+          for (Bands bands : this.bands) {
+            bands.compute();
+          }
+          this.sequence = frameSequence;
+        }
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Gets shared log-spaced bands over this analysis, computed along with each update
+   *
+   * @param numBands Number of bands
+   * @return Shared bands object
+   */
+  public synchronized Bands getBands(int numBands) {
+    if (numBands < 2) {
+      throw new IllegalArgumentException("SpectrumAnalysis must have at least 2 bands: " + numBands);
+    }
+    for (Bands bands : this.bands) {
+      if (bands.numBands == numBands) {
+        return bands;
+      }
+    }
+    final Bands bands = new Bands(numBands);
+    if (this.sequence >= 0) {
+      bands.compute();
+    }
+    this.bands.add(bands);
+    return bands;
+  }
+
+  /**
+   * The samples used in the most recent computation, which must not be modified
+   *
+   * @return Most recent window of samples
+   */
+  public float[] getSamples() {
+    return this.samples;
+  }
+
+}
@@ -21,7 +21,6 @@ package heronarts.lx.blend;
 import heronarts.lx.LX;
 import heronarts.lx.color.LXColor;
 import heronarts.lx.model.LXModel;
-import heronarts.lx.model.LXPoint;
 
 /**
  * The dissolve blend is a special blend used in the crossfader. It is a normal linear
@@ -39,9 +38,12 @@ public class DissolveBlend extends LXBlend {
     // Multiply the src alpha only by half!
     final int srcAlpha = (int) (alpha * LXColor.BLEND_ALPHA_HALF);
     final int dstAlpha = LXColor.BLEND_ALPHA_FULL - srcAlpha;
-    for (LXPoint p : model.points) {
-      final int i = p.index;
-      output[i] = LXColor.add(LXColor.add(LXColor.CLEAR, dst[i], dstAlpha), src[i], srcAlpha);
+    final int[] spans = model.getIndexSpans();
+    for (int s = 0; s < spans.length; s += 2) {
+      final int end = spans[s+1];
+      for (int i = spans[s]; i < end; ++i) {
+        output[i] = LXColor.add(LXColor.add(LXColor.CLEAR, dst[i], dstAlpha), src[i], srcAlpha);
+      }
     }
   }
 }
@@ -24,7 +24,6 @@ import heronarts.lx.LXComponent;
 import heronarts.lx.LXModulatorComponent;
 import heronarts.lx.color.LXColor;
 import heronarts.lx.model.LXModel;
-import heronarts.lx.model.LXPoint;
 
 /**
  * An LXBlend is a loop-based implementation of a compositing algorithm.
@@ -60,9 +59,13 @@ public abstract class LXBlend extends LXModulatorComponent {
 
     @Override
     public void blend(int[] dst, int[] src, double alpha, int[] output, LXModel model) {
-      int alphaMask = (int) (alpha * LXColor.BLEND_ALPHA_FULL);
-      for (LXPoint p : model.points) {
-        output[p.index] = this.function.apply(dst[p.index], src[p.index], alphaMask);
+      final int alphaMask = (int) (alpha * LXColor.BLEND_ALPHA_FULL);
+      final int[] spans = model.getIndexSpans();
+      for (int s = 0; s < spans.length; s += 2) {
+        final int end = spans[s+1];
+        for (int i = spans[s]; i < end; ++i) {
+          output[i] = this.function.apply(dst[i], src[i], alphaMask);
+        }
       }
     }
   }
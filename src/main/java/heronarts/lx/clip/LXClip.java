@@ -635,6 +635,7 @@ public abstract class LXClip extends LXRunnableComponent implements LXOscCompone
   public LXClip moveClipLane(LXClipLane<? >lane, int index) {
     this.mutableLanes.remove(lane);
     this.mutableLanes.add(index, lane);
+    markModified();
     for (Listener listener : this.listeners) {
       listener.clipLaneMoved(this, lane, index);
     }
@@ -1220,7 +1221,10 @@ public abstract class LXClip extends LXRunnableComponent implements LXOscCompone
   }
 
   public LXClip setIndex(int index) {
-    this.index = index;
+    if (this.index != index) {
+      this.index = index;
+      markModified();
+    }
     return this;
   }
 
@@ -1233,7 +1237,10 @@ public abstract class LXClip extends LXRunnableComponent implements LXOscCompone
   }
 
   private void playCursor(Cursor from, Cursor to, boolean inclusive) {
-    this.lanes.forEach(lane -> lane.playCursor(from, to, inclusive));
+    // NOTE: indexed loop, this runs every frame and should not allocate
+    for (int i = 0; i < this.mutableLanes.size(); ++i) {
+      this.mutableLanes.get(i).playCursor(from, to, inclusive);
+    }
   }
 
   private void overdubCursor(Cursor from, Cursor to, boolean inclusive) {
@@ -62,13 +62,23 @@ public abstract class LXClipLane<T extends LXClipEvent<?>> extends LXComponent {
     addInternalParameter("uiHeight", this.uiHeight);
     addInternalParameter("uiExpanded", this.uiExpanded);
     addInternalParameter("uiMaximized", this.uiMaximized);
+
+    // Events are not held in parameters, mark the lane modified when they change
+    this.onChange.addListener(p -> markModified());
   }
 
   final void resetRecordingState() {
     this.recordQueue.clear();
+    resetRecordBuffer();
     this.overdubActive = false;
   }
 
+  /**
+   * Subclasses which buffer recorded input before queueing events may override
+   * this to discard the buffered state
+   */
+  void resetRecordBuffer() {}
+
   public int getIndex() {
     return this.clip.lanes.indexOf(this);
   }
@@ -198,6 +208,43 @@ public abstract class LXClipLane<T extends LXClipEvent<?>> extends LXComponent {
     return _cursorIndex(this.events, cursor, true);
   }
 
+  // Past this many events, advancing the playhead falls back to a binary search
+  private static final int MAX_PLAYHEAD_SCAN = 16;
+
+  // Index of the first event at or after the position where playback last stopped
+  private int playheadIndex = 0;
+
+  /**
+   * Gets the index of the first event at or after the cursor, equivalent to
+   * {@link #cursorPlayIndex(Cursor)}. During playback the cursor advances a
+   * little each frame, so the search begins from the previous playback position
+   * and only steps over the events crossed since. If playback has jumped or the
+   * events have been edited such that the previous position is invalid, a binary
+   * search is performed.
+   *
+   * @param cursor Cursor position
+   * @return Index of the first event at or after the cursor
+   */
+  protected int playheadIndex(Cursor cursor) {
+    final List<T> events = this.events;
+    final int size = events.size();
+    final Cursor.Operator CursorOp = CursorOp();
+    int index = this.playheadIndex;
+    if ((index > size) || ((index > 0) && CursorOp.isAfterOrEqual(events.get(index - 1).cursor, cursor))) {
+      index = cursorPlayIndex(cursor);
+    } else {
+      final int limit = Math.min(size, index + MAX_PLAYHEAD_SCAN);
+      while ((index < limit) && CursorOp.isBefore(events.get(index).cursor, cursor)) {
+        ++index;
+      }
+      if ((index == limit) && (index < size) && CursorOp.isBefore(events.get(index).cursor, cursor)) {
+        index = cursorPlayIndex(cursor);
+      }
+    }
+    this.playheadIndex = index;
+    return index;
+  }
+
   protected int cursorInsertIndex(Cursor cursor) {
     return _cursorIndex(this.events, cursor, false);
   }
@@ -601,16 +648,19 @@ public abstract class LXClipLane<T extends LXClipEvent<?>> extends LXComponent {
 
   void playCursor(Cursor from, Cursor to, boolean inclusive) {
     final Cursor.Operator CursorOp = CursorOp();
-    // final int limit = inclusive ? 0 : -1;
-    final int limit = -1; // do NOT execute events at T = loopEnd/playEnd
-    final ListIterator<T> iter = eventIterator(from);
-    while (iter.hasNext()) {
-      T event = iter.next();
-      if (CursorOp.compare(event.cursor, to) > limit) {
+    final List<T> events = this.events;
+    final int size = events.size();
+    int index = playheadIndex(from);
+    while (index < size) {
+      final T event = events.get(index);
+      // NOTE: do NOT execute events at T = loopEnd/playEnd, regardless of inclusive
+      if (CursorOp.isAfterOrEqual(event.cursor, to)) {
         break;
       }
       event.execute();
+      ++index;
     }
+    this.playheadIndex = index;
   }
 
   public boolean removeRange(Cursor from, Cursor to) {
@@ -665,6 +715,7 @@ public abstract class LXClipLane<T extends LXClipEvent<?>> extends LXComponent {
   }
 
   void clear() {
+    resetRecordBuffer();
     this.mutableEvents.clear();
     this.onChange.bang();
   }
@@ -23,11 +23,14 @@ import com.google.gson.JsonObject;
 import heronarts.lx.LX;
 import heronarts.lx.LXComponent;
 import heronarts.lx.parameter.BooleanParameter;
+import heronarts.lx.parameter.BoundedParameter;
 import heronarts.lx.parameter.DiscreteParameter;
 import heronarts.lx.parameter.LXNormalizedParameter;
+import heronarts.lx.parameter.LXParameter;
 import heronarts.lx.parameter.TriggerParameter;
 import heronarts.lx.utils.LXUtils;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -91,10 +94,16 @@ public abstract class ParameterClipLane extends LXClipLane<ParameterClipEvent> {
   public final LXNormalizedParameter parameter;
   private double initialNormalized;
 
+  public final BoundedParameter recordTolerance =
+    new BoundedParameter("Record Tolerance", .002, 0, .05)
+    .setUnits(LXParameter.Units.PERCENT_NORMALIZED)
+    .setDescription("Maximum deviation from recorded input when simplifying interpolated automation, zero records every change");
+
   private ParameterClipLane(LXClip clip, LXNormalizedParameter parameter, double initialNormalized) {
     super(clip);
     this.parameter = parameter;
     this.initialNormalized = initialNormalized;
+    addParameter("recordTolerance", this.recordTolerance);
   }
 
   void updateDefaultValue(double initialNormalized) {
@@ -358,6 +367,10 @@ public abstract class ParameterClipLane extends LXClipLane<ParameterClipEvent> {
     if (hasStitching()) {
       final int cursorIndex = cursorPlayIndex(this.clip.cursor);
       final ParameterClipEvent previousEvent = (cursorIndex > 0) ? this.events.get(cursorIndex - 1) : null;
+      if ((previousEvent == null) || (hasInterpolation() && (this.clip.cursor.getDeltaMillis(previousEvent.cursor) > SMOOTHING_THRESHOLD_MS))) {
+        // Stitch events are discontinuities, the run being simplified ends here
+        endRecordRun();
+      }
       if (previousEvent == null) {
         if (cursorIndex < this.events.size()) {
           // There's data ahead of us but we are overdubbing behind it, preserve that properly
@@ -394,19 +407,193 @@ public abstract class ParameterClipLane extends LXClipLane<ParameterClipEvent> {
     }
 
     // Now record the actual event
-    recordEvent(event);
+    if (hasInterpolation() && (this.recordTolerance.getValue() > 0)) {
+      recordSample(event);
+    } else {
+      recordEvent(event);
+    }
     this.overdubActive = true;
     return this;
   }
 
+  // Maximum number of samples in a simplification run, after which the run is
+  // ended and begun afresh
+  private static final int RECORD_BUFFER_SIZE = 1024;
+
+  // Ring buffer holding the raw samples of the current run, beginning with its
+  // anchor, which is fixed in the lane. Allocated on first use.
+  private ParameterClipEvent[] recordBuffer = null;
+  private boolean[] recordKeep = null;
+  private int[] recordStack = null;
+  private int recordBufferStart = 0;
+  private int recordBufferSize = 0;
+
+  // Number of samples in the buffer that have been through simplification
+  private int recordBufferReduced = 0;
+
+  // The last kept sample of the run, which has been inserted into the lane but
+  // may yet be simplified away as the run continues
+  private ParameterClipEvent recordProvisional = null;
+
+  private ParameterClipEvent recordSample(int index) {
+    return this.recordBuffer[(this.recordBufferStart + index) % RECORD_BUFFER_SIZE];
+  }
+
+  /**
+   * Buffers a recorded value for simplification. The first sample of a run is
+   * queued immediately as its anchor, subsequent samples are queued as the run
+   * is simplified each time the record queue is committed.
+   */
+  private void recordSample(ParameterClipEvent event) {
+    if (this.recordBuffer == null) {
+      this.recordBuffer = new ParameterClipEvent[RECORD_BUFFER_SIZE];
+      this.recordKeep = new boolean[RECORD_BUFFER_SIZE];
+      this.recordStack = new int[2 * RECORD_BUFFER_SIZE + 2];
+    }
+    if (this.recordBufferSize == 0) {
+      recordEvent(event);
+      this.recordBuffer[this.recordBufferStart] = event;
+      this.recordBufferSize = this.recordBufferReduced = 1;
+      return;
+    }
+    final int lastIndex = this.recordBufferSize - 1;
+    if ((lastIndex >= this.recordBufferReduced) && CursorOp().isEqual(recordSample(lastIndex).cursor, event.cursor)) {
+      // Values received within the same frame share a cursor position, only the
+      // last of them is meaningful to playback
+      this.recordBuffer[(this.recordBufferStart + lastIndex) % RECORD_BUFFER_SIZE] = event;
+      return;
+    }
+    if (this.recordBufferSize == RECORD_BUFFER_SIZE) {
+      endRecordRun();
+      recordSample(event);
+      return;
+    }
+    this.recordBuffer[(this.recordBufferStart + this.recordBufferSize) % RECORD_BUFFER_SIZE] = event;
+    ++this.recordBufferSize;
+  }
+
+  /**
+   * Ends the current simplification run. Samples which have not been through
+   * simplification are queued as-is, without modifying the lane.
+   */
+  private void endRecordRun() {
+    for (int i = this.recordBufferReduced; i < this.recordBufferSize; ++i) {
+      recordEvent(recordSample(i));
+    }
+    resetRecordBuffer();
+  }
+
+  @Override
+  void resetRecordBuffer() {
+    if (this.recordBuffer != null) {
+      Arrays.fill(this.recordBuffer, null);
+    }
+    this.recordBufferStart = 0;
+    this.recordBufferSize = 0;
+    this.recordBufferReduced = 0;
+    this.recordProvisional = null;
+  }
+
+  /**
+   * Simplifies the current run with the Ramer-Douglas-Peucker algorithm, measuring
+   * the error of each sample as its distance in normalized value from the
+   * interpolated playback of the simplified run. Kept samples are queued, all
+   * but the last of them are fixed and the samples preceding them discarded.
+   */
+  private void simplifyRecordBuffer() {
+    final int size = this.recordBufferSize;
+    if (size <= this.recordBufferReduced) {
+      return;
+    }
+    this.recordBufferReduced = size;
+
+    // The provisional sample is withdrawn and re-queued if it is still kept
+    if (this.recordProvisional != null) {
+      this.mutableEvents.remove(this.recordProvisional);
+      this.recordProvisional = null;
+    }
+
+    final double tolerance = this.recordTolerance.getValue();
+    final boolean[] keep = this.recordKeep;
+    final int[] stack = this.recordStack;
+    Arrays.fill(keep, 0, size, false);
+    keep[0] = keep[size-1] = true;
+    int sp = 0;
+    stack[sp++] = 0;
+    stack[sp++] = size - 1;
+    while (sp > 0) {
+      final int last = stack[--sp];
+      final int first = stack[--sp];
+      final ParameterClipEvent firstSample = recordSample(first);
+      final ParameterClipEvent lastSample = recordSample(last);
+      final double x0 = firstSample.cursor.getMillis();
+      final double x1 = lastSample.cursor.getMillis();
+      final double y0 = firstSample.getNormalized();
+      final double y1 = lastSample.getNormalized();
+      double maxError = tolerance;
+      int split = -1;
+      for (int i = first + 1; i < last; ++i) {
+        final ParameterClipEvent sample = recordSample(i);
+        final double y = (x1 == x0) ? y1 : LXUtils.lerp(y0, y1, (sample.cursor.getMillis() - x0) / (x1 - x0));
+        final double error = Math.abs(sample.getNormalized() - y);
+        if (error > maxError) {
+          maxError = error;
+          split = i;
+        }
+      }
+      if (split >= 0) {
+        keep[split] = true;
+        stack[sp++] = first;
+        stack[sp++] = split;
+        stack[sp++] = split;
+        stack[sp++] = last;
+      }
+    }
+
+    // Queue and fix all the kept samples except the last, which is provisional
+    int lastFixed = 0;
+    for (int i = 1; i < size - 1; ++i) {
+      if (keep[i]) {
+        recordEvent(recordSample(i));
+        lastFixed = i;
+      }
+    }
+    this.recordProvisional = recordSample(size - 1);
+    recordEvent(this.recordProvisional);
+
+    // Samples before the last fixed one are covered by fixed segments, drop
+    // them. The last fixed sample becomes the anchor of the run.
+    for (int i = 0; i < lastFixed; ++i) {
+      this.recordBuffer[(this.recordBufferStart + i) % RECORD_BUFFER_SIZE] = null;
+    }
+    this.recordBufferStart = (this.recordBufferStart + lastFixed) % RECORD_BUFFER_SIZE;
+    this.recordBufferSize -= lastFixed;
+    this.recordBufferReduced -= lastFixed;
+  }
+
+  @Override
+  ParameterClipLane commitRecordQueue(boolean notify) {
+    this.mutableEvents.begin();
+    simplifyRecordBuffer();
+    super.commitRecordQueue(notify);
+    this.mutableEvents.commit();
+    return this;
+  }
+
   private boolean inPlayback = false;
 
   public boolean isInPlayback() {
     return this.inPlayback;
   }
 
+  @Override
+  void jumpCursor(Cursor from, Cursor to) {
+    endRecordRun();
+  }
+
   @Override
   void loopCursor(Cursor from, Cursor to) {
+    endRecordRun();
     if (this.overdubActive && hasStitching()) {
       // Stitch what was before the start of the loop to the value at the end of the loop
       if (!this.events.isEmpty()) {
@@ -437,7 +624,7 @@ public abstract class ParameterClipLane extends LXClipLane<ParameterClipEvent> {
     } else if (!this.events.isEmpty()) {
 
       // Boolean/Discrete/Normalized events always set value based upon envelope shape
-      int toIndex = LXUtils.min(cursorPlayIndex(to), this.events.size()-1);
+      int toIndex = LXUtils.min(playheadIndex(to), this.events.size()-1);
       ParameterClipEvent next = this.events.get(toIndex);
       ParameterClipEvent prior = (toIndex > 0) ? this.events.get(toIndex - 1) : null;
 
@@ -154,6 +154,16 @@ public class GradientUtils {
       return this.brightness == 0;
     }
 
+    private boolean matches(ColorStop that) {
+      return
+        (this.hue == that.hue) &&
+        (this.saturation == that.saturation) &&
+        (this.brightness == that.brightness) &&
+        (this.r == that.r) &&
+        (this.g == that.g) &&
+        (this.b == that.b);
+    }
+
     @Override
     public String toString() {
       return String.format("rgb(%d,%d,%d) hsb(%f,%f,%f)", r, g, b, hue, saturation, brightness);
@@ -196,6 +206,77 @@ public class GradientUtils {
       int stop = (int) Math.floor(lerp);
       return blendFunction.blend(this.stops[stop], this.stops[stop+1], lerp - stop);
     }
+
+    /**
+     * Number of steps in the gradient lookup table
+     */
+    public static final int LUT_SIZE = 1024;
+
+    private static final int DITHER_SIZE = 64;
+
+    // Fractional offsets from the golden ratio sequence, for dithered lookups
+    private static final float[] DITHER = new float[DITHER_SIZE];
+    static {
+      for (int i = 0; i < DITHER_SIZE; ++i) {
+        DITHER[i] = (float) ((i * 0.6180339887498949) % 1.);
+      }
+    }
+
+    // Padded by an extra step against rounding at the end of the gradient
+    private final int[] lut = new int[LUT_SIZE + 2];
+    private final ColorStop[] lutStops = new ColorStop[this.stops.length];
+    private int lutNumStops = -1;
+    private BlendFunction lutFunction = null;
+
+    /**
+     * Updates the gradient lookup table, which is only recomputed if the stops
+     * or blend function have changed since the last update. Call this after
+     * setting the stops and before using the getLUTColor() methods.
+     *
+     * @param blendFunction Blend function
+     */
+    public void updateLUT(BlendFunction blendFunction) {
+      boolean dirty = (blendFunction != this.lutFunction) || (this.numStops != this.lutNumStops);
+      for (int i = 0; !dirty && (i <= this.numStops); ++i) {
+        dirty = !this.stops[i].matches(this.lutStops[i]);
+      }
+      if (dirty) {
+        for (int i = 0; i <= this.numStops; ++i) {
+          if (this.lutStops[i] == null) {
+            this.lutStops[i] = new ColorStop();
+          }
+          this.lutStops[i].set(this.stops[i]);
+        }
+        this.lutNumStops = this.numStops;
+        this.lutFunction = blendFunction;
+        for (int i = 0; i <= LUT_SIZE; ++i) {
+          this.lut[i] = getColor(i / (float) LUT_SIZE, blendFunction);
+        }
+        this.lut[LUT_SIZE + 1] = this.lut[LUT_SIZE];
+      }
+    }
+
+    /**
+     * Gets a color from the gradient lookup table, which must be current
+     *
+     * @param lerp Gradient position from 0-1
+     * @return Color value
+     */
+    public int getLUTColor(float lerp) {
+      return this.lut[(int) (lerp * LUT_SIZE + .5f)];
+    }
+
+    /**
+     * Gets a color from the gradient lookup table, dithered between neighboring
+     * steps to avoid visible banding over large areas
+     *
+     * @param lerp Gradient position from 0-1
+     * @param index Point index, used to vary the dither
+     * @return Color value
+     */
+    public int getLUTColor(float lerp, int index) {
+      return this.lut[(int) (lerp * LUT_SIZE + DITHER[index & (DITHER_SIZE-1)])];
+    }
   }
 
   /**
@@ -18,6 +18,8 @@
 
 package heronarts.lx.color;
 
+import java.util.Arrays;
+
 import heronarts.lx.utils.LXUtils;
 
 /**
@@ -332,8 +334,8 @@ public class LXColor {
       r = g = b = (int) (brightness255 + 0.5f);
     } else {
       float h1 = hue * H_COEFF;
-      float h = (h1 - (float) Math.floor(h1)) * 6.0f;
-      float f = h - (float) java.lang.Math.floor(h);
+      float h = (h1 - floor(h1)) * 6.0f;
+      float f = h - floor(h);
       float s1 = saturation * S_COEFF;
       float p255 = brightness255 * (1.0f - s1);
       float q255 = brightness255 * (1.0f - s1 * f);
@@ -401,6 +403,145 @@ public class LXColor {
       (hsb(h, s, b) & 0x00ffffff);
   }
 
+  /**
+   * Precision of batch color conversions
+   */
+  public enum Precision {
+    /**
+     * Output is bit-identical to the scalar conversion
+     */
+    EXACT,
+
+    /**
+     * Branch-free approximation, each channel is within one step of the exact
+     * output for inputs in the nominal range
+     */
+    FAST
+  }
+
+  /**
+   * Convert a range of HSB values to colors, with output identical to
+   * {@link #hsb(float, float, float)}. Source arrays are indexed in parallel with
+   * the colors array.
+   *
+   * @param hue Hue values from 0-360
+   * @param saturation Saturation values from 0-100
+   * @param brightness Brightness values from 0-100
+   * @param colors Destination color array
+   * @param offset Index of the first color to convert
+   * @param length Number of colors to convert
+   */
+  public static void hsb(float[] hue, float[] saturation, float[] brightness, int[] colors, int offset, int length) {
+    hsb(hue, saturation, brightness, colors, offset, length, Precision.EXACT);
+  }
+
+  /**
+   * Convert a range of HSB values to colors. Source arrays are indexed in parallel
+   * with the colors array.
+   *
+   * @param hue Hue values from 0-360
+   * @param saturation Saturation values from 0-100
+   * @param brightness Brightness values from 0-100
+   * @param colors Destination color array
+   * @param offset Index of the first color to convert
+   * @param length Number of colors to convert
+   * @param precision Conversion precision
+   */
+  public static void hsb(float[] hue, float[] saturation, float[] brightness, int[] colors, int offset, int length, Precision precision) {
+    final int end = offset + length;
+    if (precision == Precision.FAST) {
+      hsbFast(hue, saturation, brightness, colors, offset, end);
+    } else {
+      for (int i = offset; i < end; ++i) {
+        colors[i] = hsb(hue[i], saturation[i], brightness[i]);
+      }
+    }
+  }
+
+  /**
+   * Convert a range of packed HSB values to colors. The hue, saturation and
+   * brightness of colors[i] are found at hsb[3*i], hsb[3*i+1] and hsb[3*i+2].
+   * The fast conversion deinterleaves blocks of values into per-channel
+   * scratch arrays, the parallel array form avoids this copy.
+   *
+   * @param hsb Packed HSB values
+   * @param colors Destination color array
+   * @param offset Index of the first color to convert
+   * @param length Number of colors to convert
+   * @param precision Conversion precision
+   */
+  public static void hsb(float[] hsb, int[] colors, int offset, int length, Precision precision) {
+    final int end = offset + length;
+    if (precision == Precision.FAST) {
+      final int block = Math.min(length, HSB_FAST_BLOCK);
+      final float[] hue = new float[block];
+      final float[] saturation = new float[block];
+      final float[] brightness = new float[block];
+      final int[] scratch = new int[block];
+      for (int i = offset; i < end; i += block) {
+        final int n = Math.min(block, end - i);
+        for (int k = 0, j = 3 * i; k < n; ++k, j += 3) {
+          hue[k] = hsb[j];
+          saturation[k] = hsb[j+1];
+          brightness[k] = hsb[j+2];
+        }
+        hsbFast(hue, saturation, brightness, scratch, 0, n);
+        System.arraycopy(scratch, 0, colors, i, n);
+      }
+    } else {
+      for (int i = offset, j = 3 * offset; i < end; ++i, j += 3) {
+        colors[i] = hsb(hsb[j], hsb[j+1], hsb[j+2]);
+      }
+    }
+  }
+
+  private static final float B_COEFF_FAST = 255f / 100f / 100f;
+
+  // Number of packed colors deinterleaved at a time by the fast conversion
+  private static final int HSB_FAST_BLOCK = 256;
+
+  /**
+   * Branch-free conversion of a range of colors, as one simple pass per channel
+   * which the compiler is able to vectorize
+   */
+  private static void hsbFast(float[] hue, float[] saturation, float[] brightness, int[] colors, int offset, int end) {
+    Arrays.fill(colors, offset, end, BLACK);
+    hsbFast(hue, saturation, brightness, colors, offset, end, 3f, -1f, 1f, R_SHIFT);
+    hsbFast(hue, saturation, brightness, colors, offset, end, 2f, 2f, -1f, G_SHIFT);
+    hsbFast(hue, saturation, brightness, colors, offset, end, 4f, 2f, -1f, 0);
+  }
+
+  /**
+   * Computes one channel of a branch-free HSB conversion. The channel's hue ramp
+   * is bias + slope * |h - center| clamped to 0-1, where h is the hue sector
+   * position from 0-6, and the channel value is brightness * (1 - saturation * (1 - ramp)).
+   * The hue is wrapped using integer truncation, which is valid for inputs in
+   * integer range.
+   */
+  private static void hsbFast(float[] hue, float[] saturation, float[] brightness, int[] colors, int offset, int end, float center, float bias, float slope, int shift) {
+    for (int i = offset; i < end; ++i) {
+      float h1 = hue[i] * H_COEFF;
+      h1 = h1 - (int) h1 + 1f;
+      final float h = (h1 - (int) h1) * 6f;
+      final float ramp = Math.min(1f, Math.max(0f, bias + slope * Math.abs(h - center)));
+      final float v = brightness[i] * B_COEFF;
+      final float vs = brightness[i] * saturation[i] * B_COEFF_FAST;
+      colors[i] |= Math.min(255, Math.max(0, (int) (v - vs + vs * ramp + 0.5f))) << shift;
+    }
+  }
+
+  /**
+   * Floor of a float value, numerically equal to (float) Math.floor(value) but
+   * without the round trip through double for values in integer range
+   */
+  private static float floor(float value) {
+    if ((value > Integer.MIN_VALUE) && (value < Integer.MAX_VALUE)) {
+      final int i = (int) value;
+      return (value < i) ? i - 1 : i;
+    }
+    return (float) Math.floor(value);
+  }
+
   public static final int BLEND_ALPHA_FULL = 0x100;
   public static final int BLEND_ALPHA_HALF = 0x80;
 
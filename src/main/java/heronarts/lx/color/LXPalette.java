@@ -587,6 +587,7 @@ public class LXPalette extends LXComponent implements LXLoopTask, LXOscComponent
     this.mutableSwatches.remove(swatch);
     this.mutableSwatches.add(index, swatch);
     _reindexSwatches();
+    markModified();
     for (Listener listener : this.listeners) {
       listener.swatchMoved(this, swatch);
     }
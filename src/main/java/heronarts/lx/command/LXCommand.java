@@ -18,12 +18,24 @@
 
 package heronarts.lx.command;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 
 import heronarts.lx.LX;
@@ -167,6 +179,189 @@ public abstract class LXCommand {
     }
   }
 
+  /**
+   * Serialized JSON state retained by a command for the purpose of undo. Once
+   * a command is no longer near the top of the undo history, the state may be
+   * compacted into a deflated byte array, which is inflated again on demand.
+   */
+  public static class JsonState {
+
+    /**
+     * Rough multiplier from the serialized length of a JSON object to the heap
+     * retained by its parsed element tree
+     */
+    private static final int LIVE_BYTES_PER_CHAR = 8;
+
+    private static final int OVERHEAD_BYTES = 64;
+
+    private JsonObject obj;
+    private byte[] deflated = null;
+    private long retainedSize = -1;
+
+    public JsonState() {
+      this(null);
+    }
+
+    public JsonState(JsonObject obj) {
+      this.obj = obj;
+    }
+
+    /**
+     * Replaces the retained JSON object, discarding any compacted state
+     *
+     * @param obj JSON object, or null to clear
+     * @return this
+     */
+    public synchronized JsonState set(JsonObject obj) {
+      this.obj = obj;
+      this.deflated = null;
+      this.retainedSize = -1;
+      return this;
+    }
+
+    /**
+     * Whether this state currently holds no JSON object
+     *
+     * @return True if no object is retained
+     */
+    public synchronized boolean isEmpty() {
+      return (this.obj == null) && (this.deflated == null);
+    }
+
+    /**
+     * Gets the JSON object, inflating it if it has been compacted. Callers
+     * should not modify the returned object or hold on to it.
+     *
+     * @return JSON object, or null if empty
+     */
+    public synchronized JsonObject get() {
+      if (this.obj != null) {
+        return this.obj;
+      }
+      if (this.deflated == null) {
+        return null;
+      }
+      try (Reader reader = new InputStreamReader(new InflaterInputStream(new ByteArrayInputStream(this.deflated)), StandardCharsets.UTF_8)) {
+        return new Gson().fromJson(reader, JsonObject.class);
+      } catch (IOException iox) {
+        throw new IllegalStateException("Could not inflate compacted command state", iox);
+      }
+    }
+
+    public boolean isCompacted() {
+      return this.deflated != null;
+    }
+
+    /**
+     * Estimated number of bytes of heap retained by this state
+     *
+     * @return Estimated retained size in bytes
+     */
+    public synchronized long getRetainedSize() {
+      if (this.retainedSize < 0) {
+        this.retainedSize = (this.obj == null) ? 0 : OVERHEAD_BYTES + LIVE_BYTES_PER_CHAR * (long) this.obj.toString().length();
+      }
+      return this.retainedSize;
+    }
+
+    /**
+     * Compacts the JSON object into a deflated byte array, releasing the
+     * parsed element tree
+     */
+    public synchronized void compact() {
+      if ((this.obj == null) || (this.deflated != null)) {
+        return;
+      }
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (Writer writer = new OutputStreamWriter(new DeflaterOutputStream(bytes, new Deflater(Deflater.BEST_SPEED)), StandardCharsets.UTF_8)) {
+        writer.write(this.obj.toString());
+      } catch (IOException iox) {
+        LX.error(iox, "Could not compact command state, retaining it uncompressed");
+        return;
+      }
+      this.deflated = bytes.toByteArray();
+      this.obj = null;
+      this.retainedSize = OVERHEAD_BYTES + this.deflated.length;
+    }
+  }
+
+  /**
+   * Default estimate of the heap retained by a command, excluding serialized state
+   */
+  public static final long DEFAULT_RETAINED_SIZE = 256;
+
+  private List<JsonState> retainedState = null;
+
+  /**
+   * Registers serialized state held by this command for undo, so that it is
+   * counted by {@link #getRetainedSize()} and released by {@link #compact()}
+   *
+   * @return Empty state holder
+   */
+  protected JsonState retainState() {
+    return retainState(null);
+  }
+
+  /**
+   * Registers serialized state held by this command for undo, so that it is
+   * counted by {@link #getRetainedSize()} and released by {@link #compact()}
+   *
+   * @param obj Initial JSON object, may be null
+   * @return State holder
+   */
+  protected JsonState retainState(JsonObject obj) {
+    final JsonState state = new JsonState(obj);
+    if (this.retainedState == null) {
+      this.retainedState = new ArrayList<JsonState>();
+    }
+    this.retainedState.add(state);
+    return state;
+  }
+
+  protected static long getRetainedSize(List<? extends LXCommand> commands) {
+    long size = 0;
+    for (LXCommand command : commands) {
+      size += command.getRetainedSize();
+    }
+    return size;
+  }
+
+  protected static void compact(List<? extends LXCommand> commands) {
+    for (LXCommand command : commands) {
+      command.compact();
+    }
+  }
+
+  /**
+   * Estimated number of bytes of heap retained by this command while it is
+   * held in the undo history, including any registered serialized state.
+   * Commands which hold sub-commands should add their sizes.
+   *
+   * @return Estimated retained size in bytes
+   */
+  public long getRetainedSize() {
+    long size = DEFAULT_RETAINED_SIZE;
+    if (this.retainedState != null) {
+      for (JsonState state : this.retainedState) {
+        size += state.getRetainedSize();
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Invoked by the command engine once this command is no longer near the top
+   * of the undo history. Registered serialized state is compacted, commands
+   * which hold sub-commands should compact them as well.
+   */
+  public void compact() {
+    if (this.retainedState != null) {
+      for (JsonState state : this.retainedState) {
+        state.compact();
+      }
+    }
+  }
+
   /**
    * Short description of a command, to explain it to the user
    *
@@ -317,6 +512,29 @@ public abstract class LXCommand {
       }
     }
 
+    @Override
+    public long getRetainedSize() {
+      return
+        super.getRetainedSize() +
+        getRetainedSize(this.removeModulations) +
+        getRetainedSize(this.removeTriggers) +
+        getRetainedSize(this.removeMidiMappings) +
+        getRetainedSize(this.removeSnapshotViews) +
+        getRetainedSize(this.removeClipLanes) +
+        getRetainedSize(this.removePatternClipEvents);
+    }
+
+    @Override
+    public void compact() {
+      super.compact();
+      compact(this.removeModulations);
+      compact(this.removeTriggers);
+      compact(this.removeMidiMappings);
+      compact(this.removeSnapshotViews);
+      compact(this.removeClipLanes);
+      compact(this.removePatternClipEvents);
+    }
+
     @Override
     public void undo(LX lx) throws InvalidCommandException {
       for (Modulation.RemoveModulation modulation : this.removeModulations) {
@@ -749,7 +967,7 @@ public abstract class LXCommand {
       private final ComponentReference<LXChannel> channel;
       private final Class<? extends LXPattern> patternClass;
       private ComponentReference<LXPattern> pattern = null;
-      private JsonObject patternObj;
+      private final JsonState patternObj = retainState();
       private int patternIndex;
 
       public AddPattern(LXChannel channel, Class<? extends LXPattern> patternClass) {
@@ -763,7 +981,7 @@ public abstract class LXCommand {
       public AddPattern(LXChannel channel, Class<? extends LXPattern> patternClass, JsonObject patternObject, int patternIndex) {
         this.channel = new ComponentReference<LXChannel>(channel);
         this.patternClass = patternClass;
-        this.patternObj = patternObject;
+        this.patternObj.set(patternObject);
         this.patternIndex = patternIndex;
       }
 
@@ -776,11 +994,11 @@ public abstract class LXCommand {
       public void perform(LX lx) throws InvalidCommandException {
         try {
           LXPattern instance = lx.instantiatePattern(this.patternClass);
-          if (this.patternObj != null) {
-            instance.load(lx, this.patternObj);
+          if (!this.patternObj.isEmpty()) {
+            instance.load(lx, this.patternObj.get());
           }
           // New pattern, we need to store its ID for future redo operations...
-          this.patternObj = LXSerializable.Utils.toObject(instance);
+          this.patternObj.set(LXSerializable.Utils.toObject(instance));
           this.channel.get().addPattern(instance, this.patternIndex);
           this.pattern = new ComponentReference<LXPattern>(instance);
         } catch (LX.InstantiationException x) {
@@ -802,7 +1020,7 @@ public abstract class LXCommand {
 
       private final ComponentReference<LXChannel> channel;
       private final ComponentReference<LXPattern> pattern;
-      private final JsonObject patternObj;
+      private final JsonState patternObj;
       private final int patternIndex;
       private final boolean isActive;
       private final boolean isFocused;
@@ -814,7 +1032,7 @@ public abstract class LXCommand {
         }
         this.channel = new ComponentReference<LXChannel>(channel);
         this.pattern = new ComponentReference<LXPattern>(pattern);
-        this.patternObj = LXSerializable.Utils.toObject(pattern);
+        this.patternObj = retainState(LXSerializable.Utils.toObject(pattern));
         this.patternIndex = pattern.getIndex();
         this.isActive = channel.getActivePattern() == pattern;
         this.isFocused = channel.getFocusedPattern() == pattern;
@@ -833,7 +1051,7 @@ public abstract class LXCommand {
       @Override
       public void undo(LX lx) throws InvalidCommandException {
         LXChannel channel = this.channel.get();
-        LXPattern pattern = channel.loadPattern(this.patternObj, this.patternIndex);
+        LXPattern pattern = channel.loadPattern(this.patternObj.get(), this.patternIndex);
         if (this.isActive) {
           channel.goPattern(pattern, true);
         }
@@ -990,7 +1208,7 @@ public abstract class LXCommand {
       private final ComponentReference<LXComponent> container;
       private final Class<? extends LXEffect> effectClass;
       private ComponentReference<LXEffect> effect = null;
-      private JsonObject effectObj = null;
+      private final JsonState effectObj = retainState();
 
       public AddEffect(LXComponent parent, Class<? extends LXEffect> effectClass) {
         this(parent, effectClass, null);
@@ -999,7 +1217,7 @@ public abstract class LXCommand {
       public AddEffect(LXComponent parent, Class<? extends LXEffect> effectClass, JsonObject effectObj) {
         this.container = validateEffectContainer(parent);
         this.effectClass = effectClass;
-        this.effectObj = effectObj;
+        this.effectObj.set(effectObj);
       }
 
       @Override
@@ -1011,10 +1229,10 @@ public abstract class LXCommand {
       public void perform(LX lx) throws InvalidCommandException {
         try {
           LXEffect instance = lx.instantiateEffect(this.effectClass);
-          if (this.effectObj != null) {
-            instance.load(lx, this.effectObj);
+          if (!this.effectObj.isEmpty()) {
+            instance.load(lx, this.effectObj.get());
           }
-          this.effectObj = LXSerializable.Utils.toObject(instance);
+          this.effectObj.set(LXSerializable.Utils.toObject(instance));
           ((LXEffect.Container) this.container.get()).addEffect(instance);
           this.effect = new ComponentReference<LXEffect>(instance);
         } catch (LX.InstantiationException x) {
@@ -1036,14 +1254,14 @@ public abstract class LXCommand {
 
       private final ComponentReference<LXComponent> container;
       private final ComponentReference<LXEffect> effect;
-      private final JsonObject effectObj;
+      private final JsonState effectObj;
       private final int effectIndex;
 
       public RemoveEffect(LXComponent container, LXEffect effect) {
         super(effect);
         this.container = validateEffectContainer(container);
         this.effect = new ComponentReference<LXEffect>(effect);
-        this.effectObj = LXSerializable.Utils.toObject(effect);
+        this.effectObj = retainState(LXSerializable.Utils.toObject(effect));
         this.effectIndex = effect.getIndex();
       }
 
@@ -1067,7 +1285,7 @@ public abstract class LXCommand {
       @Override
       public void undo(LX lx) throws InvalidCommandException {
         LXEffect.Container container = (LXEffect.Container) this.container.get();
-        container.loadEffect(lx, this.effectObj, this.effectIndex);
+        container.loadEffect(lx, this.effectObj.get(), this.effectIndex);
         super.undo(lx);
       }
     }
@@ -1156,7 +1374,7 @@ public abstract class LXCommand {
     public static class LoadPreset extends LXCommand {
 
       private final ComponentReference<LXComponent> device;
-      private final JsonObject deviceObj;
+      private final JsonState deviceObj;
       private final File file;
 
       public LoadPreset(LXComponent device, File file) {
@@ -1164,7 +1382,7 @@ public abstract class LXCommand {
           throw new IllegalArgumentException("Cannot load a preset for a non-preset device: " + device.getClass().getName());
         }
         this.device = new ComponentReference<LXComponent>(device);
-        this.deviceObj = LXSerializable.Utils.toObject(device);
+        this.deviceObj = retainState(LXSerializable.Utils.toObject(device));
         this.file = file;
       }
 
@@ -1180,7 +1398,7 @@ public abstract class LXCommand {
 
       @Override
       public void undo(LX lx) throws InvalidCommandException {
-        this.device.get().load(lx, this.deviceObj);
+        this.device.get().load(lx, this.deviceObj.get());
       }
     }
 
@@ -1273,7 +1491,7 @@ public abstract class LXCommand {
 
       private final Class<? extends LXPattern> patternClass;
       private ComponentReference<LXChannel> channel;
-      private JsonObject channelObj = null;
+      private final JsonState channelObj = retainState();
       private final int index;
 
       public AddChannel() {
@@ -1298,7 +1516,7 @@ public abstract class LXCommand {
 
       public AddChannel(JsonObject channelObj, Class<? extends LXPattern> patternClass, int index) {
         this.index = index;
-        this.channelObj = channelObj;
+        this.channelObj.set(channelObj);
         this.patternClass = patternClass;
       }
 
@@ -1317,9 +1535,9 @@ public abstract class LXCommand {
             throw new InvalidCommandException(x);
           }
         } else {
-          channel = lx.engine.mixer.addChannel(this.index, this.channelObj);
+          channel = lx.engine.mixer.addChannel(this.index, this.channelObj.get());
         }
-        this.channelObj = LXSerializable.Utils.toObject(channel);
+        this.channelObj.set(LXSerializable.Utils.toObject(channel));
         this.channel = new ComponentReference<LXChannel>(channel);
         lx.engine.mixer.setFocusedChannel(channel);
         lx.engine.mixer.selectChannel(channel);
@@ -1408,7 +1626,7 @@ public abstract class LXCommand {
     public static class RemoveChannel extends RemoveComponent {
 
       private final ComponentReference<LXAbstractChannel> channel;
-      private final JsonObject channelObj;
+      private final JsonState channelObj;
       private final int index;
 
       private Parameter.SetNormalized focusedChannel;
@@ -1417,7 +1635,7 @@ public abstract class LXCommand {
       public RemoveChannel(LXAbstractChannel channel) {
         super(channel);
         this.channel = new ComponentReference<LXAbstractChannel>(channel);
-        this.channelObj = LXSerializable.Utils.toObject(channel);
+        this.channelObj = retainState(LXSerializable.Utils.toObject(channel));
         this.index = channel.getIndex();
         this.focusedChannel = new Parameter.SetNormalized(channel.getLX().engine.mixer.focusedChannel);
 
@@ -1434,6 +1652,17 @@ public abstract class LXCommand {
         return "Delete Channel";
       }
 
+      @Override
+      public long getRetainedSize() {
+        return super.getRetainedSize() + getRetainedSize(this.groupChildren);
+      }
+
+      @Override
+      public void compact() {
+        super.compact();
+        compact(this.groupChildren);
+      }
+
       @Override
       public void perform(LX lx) {
         // Note: this automatically removes group children as well
@@ -1447,7 +1676,7 @@ public abstract class LXCommand {
 
       public void undo(LX lx, boolean multiRemove) throws InvalidCommandException {
         // Re-load the removed channel
-        lx.engine.mixer.loadChannel(this.channelObj, this.index);
+        lx.engine.mixer.loadChannel(this.channelObj.get(), this.index);
 
         // Restore all the group children
         for (RemoveChannel child : this.groupChildren) {
@@ -1490,6 +1719,16 @@ public abstract class LXCommand {
         return "Delete Channels";
       }
 
+      @Override
+      public long getRetainedSize() {
+        return getRetainedSize(this.removedChannels);
+      }
+
+      @Override
+      public void compact() {
+        compact(this.removedChannels);
+      }
+
       @Override
       public void perform(LX lx) {
         for (RemoveChannel remove : this.removedChannels) {
@@ -1514,14 +1753,14 @@ public abstract class LXCommand {
     public static class Ungroup extends LXCommand {
 
       private final ComponentReference<LXGroup> group;
-      private final JsonObject groupObj;
+      private final JsonState groupObj;
       private final int index;
 
       private final List<ComponentReference<LXChannel>> groupChannels = new ArrayList<ComponentReference<LXChannel>>();
 
       public Ungroup(LXGroup group) {
         this.group = new ComponentReference<LXGroup>(group);
-        this.groupObj = LXSerializable.Utils.toObject(group);
+        this.groupObj = retainState(LXSerializable.Utils.toObject(group));
         this.index = group.getIndex();
       }
 
@@ -1541,7 +1780,7 @@ public abstract class LXCommand {
       @Override
       public void undo(LX lx) {
         LXGroup group = lx.engine.mixer.addGroup(this.index);
-        group.load(lx, this.groupObj);
+        group.load(lx, this.groupObj.get());
         for (ComponentReference<LXChannel> channel : this.groupChannels) {
           group.addChannel(channel.get());
         }
@@ -1631,7 +1870,7 @@ public abstract class LXCommand {
       private final ComponentReference<LXModulationEngine> modulation;
       private final Class<? extends LXModulator> modulatorClass;
       private final int modulationColor;
-      private JsonObject modulatorObj;
+      private final JsonState modulatorObj = retainState();
       private ComponentReference<LXModulator> modulator;
 
       public AddModulator(LXModulationEngine modulation, Class<? extends LXModulator> modulatorClass) {
@@ -1649,7 +1888,7 @@ public abstract class LXCommand {
       public AddModulator(LXModulationEngine modulation, Class<? extends LXModulator> modulatorClass, JsonObject modulatorObj, int modulationColor) {
         this.modulation = new ComponentReference<LXModulationEngine>(modulation);
         this.modulatorClass = modulatorClass;
-        this.modulatorObj = modulatorObj;
+        this.modulatorObj.set(modulatorObj);
         this.modulationColor = modulationColor;
       }
 
@@ -1665,15 +1904,15 @@ public abstract class LXCommand {
           if (this.modulationColor >= 0) {
             instance.modulationColor.setValue(this.modulationColor);
           }
-          if (this.modulatorObj == null) {
+          if (this.modulatorObj.isEmpty()) {
             int count = this.modulation.get().getModulatorCount(this.modulatorClass);
             if (count > 0) {
               instance.label.setValue(instance.getLabel() + " " + (count + 1));
             }
           }
-          this.modulation.get().addModulator(instance, this.modulatorObj);
-          if (this.modulatorObj == null) {
-            this.modulatorObj = LXSerializable.Utils.toObject(instance);
+          this.modulation.get().addModulator(instance, this.modulatorObj.get());
+          if (this.modulatorObj.isEmpty()) {
+            this.modulatorObj.set(LXSerializable.Utils.toObject(instance));
           }
           instance.autostart();
           this.modulator = new ComponentReference<LXModulator>(instance);
@@ -1725,7 +1964,7 @@ public abstract class LXCommand {
 
       private final ComponentReference<LXModulationEngine> modulation;
       private final ComponentReference<LXModulator> modulator;
-      private final JsonObject modulatorObj;
+      private final JsonState modulatorObj;
       private final int index;
 
       public RemoveModulator(LXModulationEngine modulation, LXModulator modulator) {
@@ -1733,7 +1972,7 @@ public abstract class LXCommand {
         this.modulation = new ComponentReference<LXModulationEngine>(modulation);
         this.modulator = new ComponentReference<LXModulator>(modulator);
         this.index = modulator.getIndex();
-        this.modulatorObj = LXSerializable.Utils.toObject(modulator);
+        this.modulatorObj = retainState(LXSerializable.Utils.toObject(modulator));
       }
 
       @Override
@@ -1749,8 +1988,9 @@ public abstract class LXCommand {
       @Override
       public void undo(LX lx) throws InvalidCommandException {
         try {
-          LXModulator instance = lx.instantiateModulator(this.modulatorObj.get(LXComponent.KEY_CLASS).getAsString());
-          instance.load(lx, this.modulatorObj);
+          final JsonObject modulatorObj = this.modulatorObj.get();
+          LXModulator instance = lx.instantiateModulator(modulatorObj.get(LXComponent.KEY_CLASS).getAsString());
+          instance.load(lx, modulatorObj);
           this.modulation.get().addModulator(instance, this.index);
           instance.start();
 
@@ -1797,7 +2037,7 @@ public abstract class LXCommand {
 
       private ComponentReference<LXCompoundModulation> modulation;
 
-      private JsonObject modulationObj = null;
+      private final JsonState modulationObj = retainState();
 
       public AddModulation(LXModulationEngine engine, LXNormalizedParameter source, LXCompoundModulation.Target target) {
         this.engine = new ComponentReference<LXModulationEngine>(engine);
@@ -1820,10 +2060,10 @@ public abstract class LXCommand {
             this.source.get(),
             target
           );
-          if (this.modulationObj != null) {
-            modulation.load(lx, this.modulationObj);
+          if (!this.modulationObj.isEmpty()) {
+            modulation.load(lx, this.modulationObj.get());
           } else {
-            this.modulationObj = LXSerializable.Utils.toObject(lx, modulation);
+            this.modulationObj.set(LXSerializable.Utils.toObject(lx, modulation));
           }
           this.engine.get().addModulation(modulation);
           this.modulation = new ComponentReference<LXCompoundModulation>(modulation);
@@ -1843,13 +2083,13 @@ public abstract class LXCommand {
 
       private final ComponentReference<LXModulationEngine> engine;
       private ComponentReference<LXCompoundModulation> modulation;
-      private final JsonObject modulationObj;
+      private final JsonState modulationObj;
 
       public RemoveModulation(LXModulationEngine engine, LXCompoundModulation modulation) {
         super(modulation);
         this.engine = new ComponentReference<LXModulationEngine>(engine);
         this.modulation = new ComponentReference<LXCompoundModulation>(modulation);
-        this.modulationObj = LXSerializable.Utils.toObject(modulation);
+        this.modulationObj = retainState(LXSerializable.Utils.toObject(modulation));
       }
 
       @Override
@@ -1865,9 +2105,9 @@ public abstract class LXCommand {
       @Override
       public void undo(LX lx) throws InvalidCommandException {
         try {
-          LXCompoundModulation modulation = new LXCompoundModulation(lx, this.engine.get(), this.modulationObj);
+          LXCompoundModulation modulation = new LXCompoundModulation(lx, this.engine.get(), this.modulationObj.get());
           this.engine.get().addModulation(modulation);
-          modulation.load(lx, this.modulationObj);
+          modulation.load(lx, this.modulationObj.get());
           this.modulation = new ComponentReference<LXCompoundModulation>(modulation);
           super.undo(lx);
         } catch (LXParameterModulation.ModulationException mx) {
@@ -1900,6 +2140,16 @@ public abstract class LXCommand {
         }
       }
 
+      @Override
+      public long getRetainedSize() {
+        return getRetainedSize(this.removeModulations);
+      }
+
+      @Override
+      public void compact() {
+        compact(this.removeModulations);
+      }
+
       @Override
       public String getDescription() {
         return "Remove Modulations";
@@ -1947,13 +2197,13 @@ public abstract class LXCommand {
 
       private final ComponentReference<LXModulationEngine> engine;
       private ComponentReference<LXTriggerModulation> trigger;
-      private final JsonObject triggerObj;
+      private final JsonState triggerObj;
 
       public RemoveTrigger(LXModulationEngine engine, LXTriggerModulation trigger) {
         super(trigger);
         this.engine = new ComponentReference<LXModulationEngine>(engine);
         this.trigger = new ComponentReference<LXTriggerModulation>(trigger);
-        this.triggerObj = LXSerializable.Utils.toObject(trigger);
+        this.triggerObj = retainState(LXSerializable.Utils.toObject(trigger));
       }
 
       @Override
@@ -1969,9 +2219,9 @@ public abstract class LXCommand {
       @Override
       public void undo(LX lx) throws InvalidCommandException {
         try {
-          LXTriggerModulation trigger = new LXTriggerModulation(lx, this.engine.get(), this.triggerObj);
+          LXTriggerModulation trigger = new LXTriggerModulation(lx, this.engine.get(), this.triggerObj.get());
           this.engine.get().addTrigger(trigger);
-          trigger.load(lx, this.triggerObj);
+          trigger.load(lx, this.triggerObj.get());
           this.trigger = new ComponentReference<LXTriggerModulation>(trigger);
           super.undo(lx);
         } catch (LXParameterModulation.ModulationException mx) {
@@ -2008,6 +2258,16 @@ public abstract class LXCommand {
         }
       }
 
+      @Override
+      public long getRetainedSize() {
+        return getRetainedSize(this.remove);
+      }
+
+      @Override
+      public void compact() {
+        compact(this.remove);
+      }
+
       @Override
       public String getDescription() {
         return "Remove Modulations";
@@ -2021,7 +2281,7 @@ public abstract class LXCommand {
 
       private final ComponentReference<LXSwatch> swatch;
       private ComponentReference<LXDynamicColor> color;
-      private JsonObject colorObj;
+      private final JsonState colorObj = retainState();
 
       public AddColor(LXSwatch swatch) {
         this.swatch = new ComponentReference<LXSwatch>(swatch);
@@ -2034,11 +2294,11 @@ public abstract class LXCommand {
 
       @Override
       public void perform(LX lx) throws InvalidCommandException {
-        if (this.colorObj == null) {
+        if (this.colorObj.isEmpty()) {
           this.color = new ComponentReference<LXDynamicColor>(this.swatch.get().addColor());
-          this.colorObj = LXSerializable.Utils.toObject(lx, this.color.get());
+          this.colorObj.set(LXSerializable.Utils.toObject(lx, this.color.get()));
         } else {
-          this.swatch.get().addColor(-1, this.colorObj);
+          this.swatch.get().addColor(-1, this.colorObj.get());
         }
       }
 
@@ -2053,13 +2313,13 @@ public abstract class LXCommand {
       private final ComponentReference<LXSwatch> swatch;
       private final ComponentReference<LXDynamicColor> color;
       private final int index;
-      private final JsonObject colorObj;
+      private final JsonState colorObj;
 
       public RemoveColor(LXDynamicColor color) {
         super(color);
         this.swatch = new ComponentReference<LXSwatch>(color.getSwatch());
         this.color = new ComponentReference<LXDynamicColor>(color);
-        this.colorObj = LXSerializable.Utils.toObject(this.color.get());
+        this.colorObj = retainState(LXSerializable.Utils.toObject(this.color.get()));
         this.index = color.getIndex();
       }
 
@@ -2075,7 +2335,7 @@ public abstract class LXCommand {
 
       @Override
       public void undo(LX lx) throws InvalidCommandException {
-        this.swatch.get().addColor(this.index, this.colorObj);
+        this.swatch.get().addColor(this.index, this.colorObj.get());
         super.undo(lx);
       }
     }
@@ -2083,16 +2343,16 @@ public abstract class LXCommand {
     public static class SaveSwatch extends LXCommand {
 
       private ComponentReference<LXSwatch> swatch;
-      private JsonObject swatchObj;
+      private final JsonState swatchObj = retainState();
       private int index = -1;
-      private JsonObject initialObj;
+      private final JsonState initialObj = retainState();
 
       public SaveSwatch() {
       }
 
       public SaveSwatch(JsonObject initialObj, int index) {
         this.index = index;
-        this.initialObj = initialObj;
+        this.initialObj.set(initialObj);
       }
 
       @Override
@@ -2103,16 +2363,16 @@ public abstract class LXCommand {
       @Override
       public void perform(LX lx) throws InvalidCommandException {
         if (this.swatch != null) {
-          lx.engine.palette.addSwatch(this.swatchObj, this.index);
+          lx.engine.palette.addSwatch(this.swatchObj.get(), this.index);
         } else {
           LXSwatch swatch;
-          if (this.initialObj != null) {
-            swatch = lx.engine.palette.addSwatch(this.initialObj, this.index);
+          if (!this.initialObj.isEmpty()) {
+            swatch = lx.engine.palette.addSwatch(this.initialObj.get(), this.index);
           } else {
             swatch = lx.engine.palette.saveSwatch();
           }
           this.index = swatch.getIndex();
-          this.swatchObj = LXSerializable.Utils.toObject(swatch);
+          this.swatchObj.set(LXSerializable.Utils.toObject(swatch));
           this.swatch = new ComponentReference<LXSwatch>(swatch);
         }
       }
@@ -2127,13 +2387,13 @@ public abstract class LXCommand {
     public static class RemoveSwatch extends RemoveComponent {
 
       private final ComponentReference<LXSwatch> swatch;
-      private final JsonObject swatchObj;
+      private final JsonState swatchObj;
       private final int swatchIndex;
 
       public RemoveSwatch(LXSwatch swatch) {
         super(swatch);
         this.swatch = new ComponentReference<LXSwatch>(swatch);
-        this.swatchObj = LXSerializable.Utils.toObject(swatch);
+        this.swatchObj = retainState(LXSerializable.Utils.toObject(swatch));
         this.swatchIndex = swatch.getIndex();
       }
 
@@ -2149,7 +2409,7 @@ public abstract class LXCommand {
 
       @Override
       public void undo(LX lx) throws InvalidCommandException {
-        lx.engine.palette.addSwatch(this.swatchObj, this.swatchIndex);
+        lx.engine.palette.addSwatch(this.swatchObj.get(), this.swatchIndex);
         super.undo(lx);
       }
 
@@ -2189,7 +2449,7 @@ public abstract class LXCommand {
     public static class SetSwatch extends LXCommand {
 
       private final ComponentReference<LXSwatch> swatch;
-      private JsonObject originalSwatch;
+      private final JsonState originalSwatch = retainState();
       private boolean set = false;
 
       public SetSwatch(LXSwatch swatch) {
@@ -2203,13 +2463,13 @@ public abstract class LXCommand {
 
       @Override
       public void perform(LX lx) throws InvalidCommandException {
-        this.originalSwatch = LXSerializable.Utils.toObject(lx.engine.palette.swatch, true);
+        this.originalSwatch.set(LXSerializable.Utils.toObject(lx.engine.palette.swatch, true));
         this.set = lx.engine.palette.setSwatch(this.swatch.get());
       }
 
       @Override
       public void undo(LX lx) throws InvalidCommandException {
-        lx.engine.palette.swatch.load(lx, this.originalSwatch);
+        lx.engine.palette.swatch.load(lx, this.originalSwatch.get());
       }
 
       @Override
@@ -2224,11 +2484,11 @@ public abstract class LXCommand {
       private static class ImportedSwatch {
 
         private final ComponentReference<LXSwatch> swatch;
-        private final JsonObject swatchObj;
+        private final JsonState swatchObj;
 
-        private ImportedSwatch(LXSwatch swatch) {
+        private ImportedSwatch(LXSwatch swatch, JsonState swatchObj) {
           this.swatch = new ComponentReference<LXSwatch>(swatch);
-          this.swatchObj = LXSerializable.Utils.toObject(swatch.getLX(), swatch);
+          this.swatchObj = swatchObj;
         }
       }
 
@@ -2251,7 +2511,7 @@ public abstract class LXCommand {
           final List<LXSwatch> imported = lx.engine.palette.importSwatches(this.file);
           if (imported != null) {
             for (LXSwatch swatch : imported) {
-              this.importedSwatches.add(new ImportedSwatch(swatch));
+              this.importedSwatches.add(new ImportedSwatch(swatch, retainState(LXSerializable.Utils.toObject(lx, swatch))));
             }
           }
         } else {
@@ -2261,7 +2521,7 @@ public abstract class LXCommand {
           // but there could be "Redo" operations ahead of us in the
           // queue
           for (ImportedSwatch swatch : this.importedSwatches) {
-            lx.engine.palette.addSwatch(swatch.swatchObj, -1);
+            lx.engine.palette.addSwatch(swatch.swatchObj.get(), -1);
           }
         }
       }
@@ -2280,8 +2540,8 @@ public abstract class LXCommand {
     public static class AddSnapshot extends LXCommand {
 
       private ComponentReference<LXGlobalSnapshot> snapshot;
-      private JsonObject initialObj = null;
-      private JsonObject snapshotObj = null;
+      private final JsonState initialObj = retainState();
+      private final JsonState snapshotObj = retainState();
       private final int index;
 
       public AddSnapshot() {
@@ -2289,7 +2549,7 @@ public abstract class LXCommand {
       }
 
       public AddSnapshot(JsonObject snapshotObj, int index) {
-        this.initialObj = snapshotObj;
+        this.initialObj.set(snapshotObj);
         this.index = index;
       }
 
@@ -2300,20 +2560,20 @@ public abstract class LXCommand {
 
       @Override
       public void perform(LX lx) {
-        if (this.snapshotObj == null) {
+        if (this.snapshotObj.isEmpty()) {
           LXGlobalSnapshot instance;
-          if (this.initialObj != null) {
+          if (!this.initialObj.isEmpty()) {
             instance = new LXGlobalSnapshot(lx);
-            instance.load(lx, this.initialObj);
+            instance.load(lx, this.initialObj.get());
             lx.engine.snapshots.addSnapshot(instance, this.index);
           } else {
             instance = lx.engine.snapshots.addSnapshot();
           }
           this.snapshot = new ComponentReference<LXGlobalSnapshot>(instance);
-          this.snapshotObj = LXSerializable.Utils.toObject(lx, instance);
+          this.snapshotObj.set(LXSerializable.Utils.toObject(lx, instance));
         } else {
           LXGlobalSnapshot instance = new LXGlobalSnapshot(lx);
-          instance.load(lx, this.snapshotObj);
+          instance.load(lx, this.snapshotObj.get());
           this.snapshot = new ComponentReference<LXGlobalSnapshot>(instance);
           lx.engine.snapshots.addSnapshot(instance);
         }
@@ -2356,13 +2616,13 @@ public abstract class LXCommand {
     public static class RemoveSnapshot extends RemoveComponent {
 
       private final ComponentReference<LXGlobalSnapshot> snapshot;
-      private final JsonObject snapshotObj;
+      private final JsonState snapshotObj;
       private final int snapshotIndex;
 
       public RemoveSnapshot(LXGlobalSnapshot snapshot) {
         super(snapshot);
         this.snapshot = new ComponentReference<LXGlobalSnapshot>(snapshot);
-        this.snapshotObj = LXSerializable.Utils.toObject(snapshot);
+        this.snapshotObj = retainState(LXSerializable.Utils.toObject(snapshot));
         this.snapshotIndex = snapshot.getIndex();
       }
 
@@ -2379,7 +2639,7 @@ public abstract class LXCommand {
       @Override
       public void undo(LX lx) throws InvalidCommandException {
         LXGlobalSnapshot snapshot = new LXGlobalSnapshot(lx);
-        snapshot.load(lx, this.snapshotObj);
+        snapshot.load(lx, this.snapshotObj.get());
         lx.engine.snapshots.addSnapshot(snapshot, this.snapshotIndex);
         super.undo(lx);
       }
@@ -2388,7 +2648,7 @@ public abstract class LXCommand {
     public static class Update extends LXCommand {
 
       private final ComponentReference<LXSnapshot> snapshot;
-      private JsonObject previousState;
+      private final JsonState previousState = retainState();
 
       public Update(LXSnapshot snapshot) {
         this.snapshot = new ComponentReference<LXSnapshot>(snapshot);
@@ -2401,13 +2661,13 @@ public abstract class LXCommand {
 
       @Override
       public void perform(LX lx) throws InvalidCommandException {
-        this.previousState = LXSerializable.Utils.toObject(lx, this.snapshot.get());
+        this.previousState.set(LXSerializable.Utils.toObject(lx, this.snapshot.get()));
         this.snapshot.get().update();
       }
 
       @Override
       public void undo(LX lx) throws InvalidCommandException {
-        this.snapshot.get().load(lx, this.previousState);
+        this.snapshot.get().load(lx, this.previousState.get());
       }
 
     }
@@ -2477,12 +2737,12 @@ public abstract class LXCommand {
 
       private ComponentReference<LXSnapshot> snapshot;
       private LXSnapshot.View view;
-      private final JsonObject viewObj;
+      private final JsonState viewObj;
 
       public RemoveView(LXSnapshot.View view) {
         this.snapshot = new ComponentReference<LXSnapshot>(view.getSnapshot());
         this.view = view;
-        this.viewObj = LXSerializable.Utils.toObject(view.getSnapshot().getLX(), view);
+        this.viewObj = retainState(LXSerializable.Utils.toObject(view.getSnapshot().getLX(), view));
       }
 
       @Override
@@ -2497,7 +2757,7 @@ public abstract class LXCommand {
 
       @Override
       public void undo(LX lx) throws InvalidCommandException {
-        this.view = this.snapshot.get().addView(this.viewObj);
+        this.view = this.snapshot.get().addView(this.viewObj.get());
       }
     }
   }
@@ -2508,7 +2768,7 @@ public abstract class LXCommand {
 
       private ComponentReference<LXFixture> fixture;
       private final Class<? extends LXFixture> fixtureClass;
-      private JsonObject fixtureObj;
+      private final JsonState fixtureObj = retainState();
       private final String fixtureType;
       private final int index;
 
@@ -2526,7 +2786,7 @@ public abstract class LXCommand {
 
       public AddFixture(Class<? extends LXFixture> fixtureClass, JsonObject fixtureObj, int index) {
         this.fixtureClass = fixtureClass;
-        this.fixtureObj = fixtureObj;
+        this.fixtureObj.set(fixtureObj);
         this.fixtureType = null;
         this.index = index;
       }
@@ -2558,11 +2818,11 @@ public abstract class LXCommand {
         } else {
           throw new IllegalStateException("AddFixture action has neither fixtureClass nor fixtureType");
         }
-        if (this.fixtureObj != null) {
-          fixture.load(lx, this.fixtureObj);
+        if (!this.fixtureObj.isEmpty()) {
+          fixture.load(lx, this.fixtureObj.get());
           fixture.selected.setValue(false);
         }
-        this.fixtureObj = LXSerializable.Utils.toObject(fixture);
+        this.fixtureObj.set(LXSerializable.Utils.toObject(fixture));
         lx.structure.addFixture(fixture, this.index);
         this.fixture = new ComponentReference<LXFixture>(fixture);
       }
@@ -2578,12 +2838,12 @@ public abstract class LXCommand {
 
       private ComponentReference<LXFixture> fixture;
       private final int index;
-      private final JsonObject fixtureObj;
+      private final JsonState fixtureObj;
 
       public RemoveFixture(LXFixture fixture) {
         super(fixture);
         this.fixture = new ComponentReference<LXFixture>(fixture);
-        this.fixtureObj = LXSerializable.Utils.toObject(fixture);
+        this.fixtureObj = retainState(LXSerializable.Utils.toObject(fixture));
         this.index = fixture.getIndex();
       }
 
@@ -2600,8 +2860,9 @@ public abstract class LXCommand {
       @Override
       public void undo(LX lx) throws InvalidCommandException {
         try {
-          LXFixture fixture = lx.instantiateFixture(this.fixtureObj.get(LXComponent.KEY_CLASS).getAsString());
-          fixture.load(lx, this.fixtureObj);
+          final JsonObject fixtureObj = this.fixtureObj.get();
+          LXFixture fixture = lx.instantiateFixture(fixtureObj.get(LXComponent.KEY_CLASS).getAsString());
+          fixture.load(lx, fixtureObj);
           lx.structure.addFixture(fixture, this.index);
         } catch (LX.InstantiationException x) {
           throw new InvalidCommandException(x);
@@ -2626,6 +2887,16 @@ public abstract class LXCommand {
         return "Delete Fixtures";
       }
 
+      @Override
+      public long getRetainedSize() {
+        return getRetainedSize(this.removeFixtures);
+      }
+
+      @Override
+      public void compact() {
+        compact(this.removeFixtures);
+      }
+
       @Override
       public void perform(LX lx) throws InvalidCommandException {
         List<LXFixture> selectedFixtures = new ArrayList<LXFixture>();
@@ -2691,6 +2962,16 @@ public abstract class LXCommand {
         return "New Model";
       }
 
+      @Override
+      public long getRetainedSize() {
+        return getRetainedSize(this.removeFixtures);
+      }
+
+      @Override
+      public void compact() {
+        compact(this.removeFixtures);
+      }
+
       @Override
       public void perform(LX lx) throws InvalidCommandException {
         lx.structure.newDynamicModel();
@@ -2759,16 +3040,16 @@ public abstract class LXCommand {
     public static class AddView extends LXCommand {
 
       private ComponentReference<LXViewDefinition> view;
-      private JsonObject viewObj;
+      private final JsonState viewObj = retainState();
       private int index = -1;
-      private JsonObject initialObj;
+      private final JsonState initialObj = retainState();
 
       public AddView() {
       }
 
       public AddView(JsonObject initialObj, int index) {
         this.index = index;
-        this.initialObj = initialObj;
+        this.initialObj.set(initialObj);
       }
 
       @Override
@@ -2779,16 +3060,16 @@ public abstract class LXCommand {
       @Override
       public void perform(LX lx) throws InvalidCommandException {
         if (this.view != null) {
-          lx.structure.views.addView(this.viewObj, this.index);
+          lx.structure.views.addView(this.viewObj.get(), this.index);
         } else {
           LXViewDefinition view;
-          if (this.initialObj != null) {
-            view = lx.structure.views.addView(this.initialObj, this.index);
+          if (!this.initialObj.isEmpty()) {
+            view = lx.structure.views.addView(this.initialObj.get(), this.index);
           } else {
             view = lx.structure.views.addView();
           }
           this.index = view.getIndex();
-          this.viewObj = LXSerializable.Utils.toObject(view);
+          this.viewObj.set(LXSerializable.Utils.toObject(view));
           this.view = new ComponentReference<LXViewDefinition>(view);
         }
       }
@@ -2803,13 +3084,13 @@ public abstract class LXCommand {
     public static class RemoveView extends RemoveComponent {
 
       private final ComponentReference<LXViewDefinition> view;
-      private final JsonObject viewObj;
+      private final JsonState viewObj;
       private final int viewIndex;
 
       public RemoveView(LXViewDefinition view) {
         super(view);
         this.view = new ComponentReference<LXViewDefinition>(view);
-        this.viewObj = LXSerializable.Utils.toObject(view);
+        this.viewObj = retainState(LXSerializable.Utils.toObject(view));
         this.viewIndex = view.getIndex();
       }
 
@@ -2825,7 +3106,7 @@ public abstract class LXCommand {
 
       @Override
       public void undo(LX lx) throws InvalidCommandException {
-        lx.structure.views.addView(this.viewObj, this.viewIndex);
+        lx.structure.views.addView(this.viewObj.get(), this.viewIndex);
         super.undo(lx);
       }
 
@@ -2865,11 +3146,11 @@ public abstract class LXCommand {
       private static class ImportedView {
 
         private final ComponentReference<LXViewDefinition> view;
-        private final JsonObject viewObj;
+        private final JsonState viewObj;
 
-        private ImportedView(LXViewDefinition view) {
+        private ImportedView(LXViewDefinition view, JsonState viewObj) {
           this.view = new ComponentReference<LXViewDefinition>(view);
-          this.viewObj = LXSerializable.Utils.toObject(view.getLX(), view);
+          this.viewObj = viewObj;
         }
       }
 
@@ -2892,7 +3173,7 @@ public abstract class LXCommand {
           final List<LXViewDefinition> imported = lx.structure.importViews(this.file);
           if (imported != null) {
             for (LXViewDefinition view : imported) {
-              this.importedViews.add(new ImportedView(view));
+              this.importedViews.add(new ImportedView(view, retainState(LXSerializable.Utils.toObject(lx, view))));
             }
           }
         } else {
@@ -2902,7 +3183,7 @@ public abstract class LXCommand {
           // but there could be "Redo" operations ahead of us in the
           // queue
           for (ImportedView view : this.importedViews) {
-            lx.structure.views.addView(view.viewObj, -1);
+            lx.structure.views.addView(view.viewObj.get(), -1);
           }
         }
       }
@@ -2922,8 +3203,8 @@ public abstract class LXCommand {
 
       private final ComponentReference<LXBus> bus;
       private final int index;
-      private JsonObject clipObj;
-      private JsonObject oldClipObj;
+      private final JsonState clipObj = retainState();
+      private final JsonState oldClipObj = retainState();
       private boolean enableSnapshot;
 
       public Add(LXBus bus, int index, boolean enableSnapshot) {
@@ -2937,7 +3218,7 @@ public abstract class LXCommand {
       private Add(LXBus bus, int index, JsonObject clipObj, boolean enableSnapshot) {
         this.bus = new ComponentReference<LXBus>(bus);
         this.index = index;
-        this.clipObj = clipObj;
+        this.clipObj.set(clipObj);
         this.enableSnapshot = enableSnapshot;
       }
 
@@ -2950,23 +3231,23 @@ public abstract class LXCommand {
       public void perform(LX lx) {
         LXBus bus = this.bus.get();
         LXClip existing = bus.getClip(this.index);
-        this.oldClipObj = null;
+        this.oldClipObj.set(null);
         if (existing != null) {
-          this.oldClipObj = LXSerializable.Utils.toObject(lx, existing);
+          this.oldClipObj.set(LXSerializable.Utils.toObject(lx, existing));
           bus.removeClip(this.index);
         }
-        LXClip clip = (this.clipObj != null) ?
-          bus.addClip(this.clipObj, this.index) :
+        LXClip clip = !this.clipObj.isEmpty() ?
+          bus.addClip(this.clipObj.get(), this.index) :
           bus.addClip(this.index, this.enableSnapshot);
-        this.clipObj = LXSerializable.Utils.toObject(lx, clip);
+        this.clipObj.set(LXSerializable.Utils.toObject(lx, clip));
       }
 
       @Override
       public void undo(LX lx) {
         LXBus bus = this.bus.get();
         bus.removeClip(this.index);
-        if (this.oldClipObj != null) {
-          bus.addClip(this.oldClipObj, this.index);
+        if (!this.oldClipObj.isEmpty()) {
+          bus.addClip(this.oldClipObj.get(), this.index);
         }
       }
 
@@ -2976,11 +3257,11 @@ public abstract class LXCommand {
 
       private final ComponentReference<LXBus> bus;
       private final int index;
-      private final JsonObject clipObj;
+      private final JsonState clipObj;
 
       public Remove(LXClip clip) {
         this.bus = new ComponentReference<LXBus>(clip.bus);
-        this.clipObj = LXSerializable.Utils.toObject(clip);
+        this.clipObj = retainState(LXSerializable.Utils.toObject(clip));
         this.index = clip.getIndex();
       }
 
@@ -2996,7 +3277,7 @@ public abstract class LXCommand {
 
       @Override
       public void undo(LX lx) {
-        this.bus.get().addClip(this.clipObj, this.index);
+        this.bus.get().addClip(this.clipObj.get(), this.index);
       }
 
     }
@@ -3004,12 +3285,12 @@ public abstract class LXCommand {
     public static class Record extends LXCommand {
 
       private final ComponentReference<LXClip> clip;
-      private final JsonObject clipObjPre;
-      private JsonObject clipObjPost = null;
+      private final JsonState clipObjPre;
+      private final JsonState clipObjPost = retainState();
 
       public Record(LXClip clip) {
         this.clip = new ComponentReference<LXClip>(clip);
-        this.clipObjPre = LXSerializable.Utils.toObject(clip.getLX(), clip);
+        this.clipObjPre = retainState(LXSerializable.Utils.toObject(clip.getLX(), clip));
       }
 
       @Override
@@ -3020,16 +3301,16 @@ public abstract class LXCommand {
       @Override
       public void perform(LX lx) {
         LXClip clip = this.clip.get();
-        if (this.clipObjPost == null) {
-          this.clipObjPost = LXSerializable.Utils.toObject(lx, clip);
+        if (this.clipObjPost.isEmpty()) {
+          this.clipObjPost.set(LXSerializable.Utils.toObject(lx, clip));
         } else {
-          clip.load(lx, this.clipObjPost);
+          clip.load(lx, this.clipObjPost.get());
         }
       }
 
       @Override
       public void undo(LX lx) {
-        this.clip.get().load(lx, this.clipObjPre);
+        this.clip.get().load(lx, this.clipObjPre.get());
       }
 
     }
@@ -3183,14 +3464,14 @@ public abstract class LXCommand {
       private final ComponentReference<LXClip> clip;
       private final ComponentReference<ParameterClipLane> parameterLane;
       private final int laneIndex;
-      private final JsonObject laneObj;
+      private final JsonState laneObj;
 
       public RemoveParameterLane(ParameterClipLane parameterLane) {
         super(parameterLane);
         this.clip = new ComponentReference<>(parameterLane.clip);
         this.parameterLane = new ComponentReference<>(parameterLane);
         this.laneIndex = parameterLane.getIndex();
-        this.laneObj = LXSerializable.Utils.toObject(parameterLane.getLX(), parameterLane);
+        this.laneObj = retainState(LXSerializable.Utils.toObject(parameterLane.getLX(), parameterLane));
       }
 
       @Override
@@ -3206,7 +3487,7 @@ public abstract class LXCommand {
 
       @Override
       public void undo(LX lx) throws InvalidCommandException {
-        ParameterClipLane lane = this.clip.get().addParameterLane(lx, this.laneObj, this.laneIndex);
+        ParameterClipLane lane = this.clip.get().addParameterLane(lx, this.laneObj.get(), this.laneIndex);
         if (lane != null) {
           super.undo(lx);
         }
@@ -3220,12 +3501,12 @@ public abstract class LXCommand {
 
         private final ComponentReference<LXClipLane<T>> clipLane;
         private final int eventIndex;
-        private final JsonObject preState;
+        private final JsonState preState;
 
         public Remove(LXClipLane<T> clipLane, LXClipEvent<T> clipEvent) {
           this.clipLane = new ComponentReference<>(clipLane);
           this.eventIndex = clipLane.events.indexOf(clipEvent);
-          this.preState = LXSerializable.Utils.toObject(clipLane, true);
+          this.preState = retainState(LXSerializable.Utils.toObject(clipLane, true));
         }
 
         @Override
@@ -3245,7 +3526,7 @@ public abstract class LXCommand {
 
         @Override
         public void undo(LX lx) throws InvalidCommandException {
-          this.clipLane.get().load(lx, this.preState);
+          this.clipLane.get().load(lx, this.preState.get());
         }
 
       }
@@ -3255,7 +3536,7 @@ public abstract class LXCommand {
         private final ComponentReference<LXClipLane<?>> clipLane;
         private final Cursor from, to;
         private boolean didRemove = false;
-        private JsonObject preState = null;
+        private final JsonState preState = retainState();
 
         public RemoveRange(LXClipLane<?> clipLane, Cursor from, Cursor to) {
           this.clipLane = new ComponentReference<>(clipLane);
@@ -3276,13 +3557,13 @@ public abstract class LXCommand {
         @Override
         public void perform(LX lx) throws InvalidCommandException {
           LXClipLane<?> clipLane = this.clipLane.get();
-          this.preState = LXSerializable.Utils.toObject(clipLane, true);
+          this.preState.set(LXSerializable.Utils.toObject(clipLane, true));
           this.didRemove = clipLane.removeRange(this.from, this.to);
         }
 
         @Override
         public void undo(LX lx) throws InvalidCommandException {
-          this.clipLane.get().load(lx, this.preState);
+          this.clipLane.get().load(lx, this.preState.get());
         }
 
       }
@@ -3325,8 +3606,8 @@ public abstract class LXCommand {
 
         private final ComponentReference<LXClipLane<T>> clipLane;
 
-        private JsonObject preState = null;
-        private JsonObject postState = null;
+        private final JsonState preState = retainState();
+        private final JsonState postState = retainState();
         private final Cursor fromSelectionMin;
         private final Cursor fromSelectionMax;
         private final Cursor toSelectionMin;
@@ -3361,7 +3642,7 @@ public abstract class LXCommand {
         }
 
         public SetCursors<T> update(Cursor selectionMin, Cursor selectionMax, Operation operation) {
-          this.postState = null;
+          this.postState.set(null);
           this.operation = operation;
           this.toSelectionMin.set(selectionMin);
           this.toSelectionMax.set(selectionMax);
@@ -3379,20 +3660,20 @@ public abstract class LXCommand {
             this.originalEvents = new ArrayList<>(clipLane.events);
           }
 
-          if (this.preState == null) {
-            this.preState = LXSerializable.Utils.toObject(clipLane, true);
+          if (this.preState.isEmpty()) {
+            this.preState.set(LXSerializable.Utils.toObject(clipLane, true));
           }
-          if (this.postState != null) {
-            clipLane.load(lx, this.postState);
+          if (!this.postState.isEmpty()) {
+            clipLane.load(lx, this.postState.get());
           } else {
             clipLane.setEventsCursors(this.originalEvents, this.fromSelectionMin, this.fromSelectionMax, this.toSelectionMin, this.toSelectionMax, this.fromValues, this.fromCursors, this.toCursors, this.operation);
-            this.postState = LXSerializable.Utils.toObject(clipLane, true);
+            this.postState.set(LXSerializable.Utils.toObject(clipLane, true));
           }
         }
 
         @Override
         public void undo(LX lx) throws InvalidCommandException {
-          this.clipLane.get().load(lx, this.preState);
+          this.clipLane.get().load(lx, this.preState.get());
           this.originalEvents = null;
           if (this.undoHook != null) {
             this.undoHook.run();
@@ -3406,7 +3687,7 @@ public abstract class LXCommand {
 
           private final ComponentReference<MidiNoteClipLane> clipLane;
           private final int noteOnIndex;
-          private final JsonObject preState;
+          private final JsonState preState;
 
           public RemoveNote(MidiNoteClipLane clipLane, MidiNoteClipEvent midiNote) {
             if (!midiNote.isNoteOn()) {
@@ -3414,7 +3695,7 @@ public abstract class LXCommand {
             }
             this.clipLane = new ComponentReference<>(clipLane);
             this.noteOnIndex = clipLane.events.indexOf(midiNote);
-            this.preState = LXSerializable.Utils.toObject(clipLane, true);
+            this.preState = retainState(LXSerializable.Utils.toObject(clipLane, true));
           }
 
           @Override
@@ -3434,7 +3715,7 @@ public abstract class LXCommand {
 
           @Override
           public void undo(LX lx) throws InvalidCommandException {
-            this.clipLane.get().load(lx, this.preState);
+            this.clipLane.get().load(lx, this.preState.get());
           }
 
         }
@@ -3701,12 +3982,12 @@ public abstract class LXCommand {
         public static class RemoveReferences extends LXCommand {
           private final ComponentReference<PatternClipLane> clipLane;
           private final List<Integer> eventIndices;
-          private final JsonObject preState;
+          private final JsonState preState;
 
           public RemoveReferences(PatternClipLane clipLane, List<Integer> eventIndices) {
             this.clipLane = new ComponentReference<PatternClipLane>(clipLane);
             this.eventIndices = new ArrayList<>(eventIndices);
-            this.preState = LXSerializable.Utils.toObject(clipLane, true);
+            this.preState = retainState(LXSerializable.Utils.toObject(clipLane, true));
           }
 
           @Override
@@ -3726,7 +4007,7 @@ public abstract class LXCommand {
 
           @Override
           public void undo(LX lx) throws InvalidCommandException {
-            this.clipLane.get().load(lx, this.preState);
+            this.clipLane.get().load(lx, this.preState.get());
           }
         }
 
@@ -3985,8 +4266,8 @@ public abstract class LXCommand {
 
           private final ComponentReference<ParameterClipLane> clipLane;
           private final Map<ParameterClipEvent, Double> toValues;
-          private JsonObject preState = null;
-          private JsonObject postState = null;
+          private final JsonState preState = retainState();
+          private final JsonState postState = retainState();
 
           public SetValues(ParameterClipLane clipLane, Map<ParameterClipEvent, Double> toValues) {
             this.clipLane = new ComponentReference<>(clipLane);
@@ -3999,27 +4280,27 @@ public abstract class LXCommand {
           }
 
           public SetValues update() {
-            this.postState = null;
+            this.postState.set(null);
             return this;
           }
 
           @Override
           public void perform(LX lx) throws InvalidCommandException {
             ParameterClipLane clipLane = this.clipLane.get();
-            if (this.preState == null) {
-              this.preState = LXSerializable.Utils.toObject(clipLane, true);
+            if (this.preState.isEmpty()) {
+              this.preState.set(LXSerializable.Utils.toObject(clipLane, true));
             }
-            if (this.postState != null) {
-              clipLane.load(lx, this.postState);
+            if (!this.postState.isEmpty()) {
+              clipLane.load(lx, this.postState.get());
             } else {
               clipLane.setEventsNormalized(this.toValues);
-              this.postState = LXSerializable.Utils.toObject(clipLane, true);
+              this.postState.set(LXSerializable.Utils.toObject(clipLane, true));
             }
           }
 
           @Override
           public void undo(LX lx) throws InvalidCommandException {
-            this.clipLane.get().load(lx, this.preState);
+            this.clipLane.get().load(lx, this.preState.get());
           }
         }
       }
@@ -4054,12 +4335,12 @@ public abstract class LXCommand {
     public static class RemoveInput extends RemoveComponent {
 
       private final ComponentReference<LXOscConnection.Input> input;
-      private final JsonObject inputObj;
+      private final JsonState inputObj;
 
       public RemoveInput(LXOscConnection.Input input) {
         super(input);
         this.input = new ComponentReference<LXOscConnection.Input>(input);
-        this.inputObj = LXSerializable.Utils.toObject(input);
+        this.inputObj = retainState(LXSerializable.Utils.toObject(input));
       }
 
       @Override
@@ -4074,7 +4355,7 @@ public abstract class LXCommand {
 
       @Override
       public void undo(LX lx) throws InvalidCommandException {
-        lx.engine.osc.addInput(this.inputObj, -1);
+        lx.engine.osc.addInput(this.inputObj.get(), -1);
         super.undo(lx);
       }
     }
@@ -4105,12 +4386,12 @@ public abstract class LXCommand {
     public static class RemoveOutput extends RemoveComponent {
 
       private final ComponentReference<LXOscConnection.Output> output;
-      private final JsonObject outputObj;
+      private final JsonState outputObj;
 
       public RemoveOutput(LXOscConnection.Output output) {
         super(output);
         this.output = new ComponentReference<LXOscConnection.Output>(output);
-        this.outputObj = LXSerializable.Utils.toObject(output);
+        this.outputObj = retainState(LXSerializable.Utils.toObject(output));
       }
 
       @Override
@@ -4125,7 +4406,7 @@ public abstract class LXCommand {
 
       @Override
       public void undo(LX lx) throws InvalidCommandException {
-        lx.engine.osc.addOutput(this.outputObj, -1);
+        lx.engine.osc.addOutput(this.outputObj.get(), -1);
         super.undo(lx);
       }
     }
@@ -4164,11 +4445,11 @@ public abstract class LXCommand {
     public static class RemoveMapping extends LXCommand {
 
       private LXMidiMapping mapping;
-      private final JsonObject mappingObj;
+      private final JsonState mappingObj;
 
       public RemoveMapping(LX lx, LXMidiMapping mapping) {
         this.mapping = mapping;
-        this.mappingObj = LXSerializable.Utils.toObject(lx, mapping);
+        this.mappingObj = retainState(LXSerializable.Utils.toObject(lx, mapping));
       }
 
       @Override
@@ -4183,7 +4464,7 @@ public abstract class LXCommand {
 
       @Override
       public void undo(LX lx) throws InvalidCommandException {
-        lx.engine.midi.addMapping(this.mapping = LXMidiMapping.create(lx, this.mappingObj));
+        lx.engine.midi.addMapping(this.mapping = LXMidiMapping.create(lx, this.mappingObj.get()));
       }
     }
 
@@ -4191,7 +4472,7 @@ public abstract class LXCommand {
 
       private ComponentReference<LXMidiTemplate> template = null;
       private final Class<? extends LXMidiTemplate> templateClass;
-      private JsonObject templateObj = null;
+      private final JsonState templateObj = retainState();
 
       public AddTemplate(Class<? extends LXMidiTemplate> templateClass) {
         this.templateClass = templateClass;
@@ -4207,8 +4488,8 @@ public abstract class LXCommand {
         try {
           final LXMidiTemplate template = lx.instantiateComponent(this.templateClass, LXMidiTemplate.class);
           this.template = new ComponentReference<LXMidiTemplate>(template);
-          if (this.templateObj != null) {
-            template.load(lx, this.templateObj);
+          if (!this.templateObj.isEmpty()) {
+            template.load(lx, this.templateObj.get());
           } else {
             template.initializeDefaultIO();
           }
@@ -4224,7 +4505,7 @@ public abstract class LXCommand {
           throw new IllegalStateException("Template was not successfully added, cannot undo");
         }
         final LXMidiTemplate template = this.template.get();
-        this.templateObj = LXSerializable.Utils.toObject(template);
+        this.templateObj.set(LXSerializable.Utils.toObject(template));
         lx.engine.midi.removeTemplate(template);
       }
 
@@ -4233,7 +4514,7 @@ public abstract class LXCommand {
     public static class RemoveTemplate extends RemoveComponent {
 
       private final ComponentReference<LXMidiTemplate> midiTemplate;
-      private JsonObject templateObj;
+      private final JsonState templateObj = retainState();
       private int fromIndex;
 
       public RemoveTemplate(LXMidiTemplate midiTemplate) {
@@ -4250,15 +4531,15 @@ public abstract class LXCommand {
       public void perform(LX lx) throws InvalidCommandException {
         final LXMidiTemplate midiTemplate = this.midiTemplate.get();
         this.fromIndex = midiTemplate.getIndex();
-        this.templateObj = LXSerializable.Utils.toObject(midiTemplate);
+        this.templateObj.set(LXSerializable.Utils.toObject(midiTemplate));
         lx.engine.midi.removeTemplate(midiTemplate);
       }
 
       @Override
       public void undo(LX lx) throws InvalidCommandException {
         try {
-          final LXMidiTemplate template = lx.instantiateComponent(this.templateObj.get(LXComponent.KEY_CLASS).getAsString(), LXMidiTemplate.class);
-          template.load(lx, this.templateObj);
+          final LXMidiTemplate template = lx.instantiateComponent(this.templateObj.get().get(LXComponent.KEY_CLASS).getAsString(), LXMidiTemplate.class);
+          template.load(lx, this.templateObj.get());
           lx.engine.midi.addTemplate(template);
           lx.engine.midi.moveTemplate(template, this.fromIndex);
           super.undo(lx);
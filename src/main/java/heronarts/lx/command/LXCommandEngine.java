@@ -18,30 +18,52 @@
 
 package heronarts.lx.command;
 
-import java.util.Stack;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 import heronarts.lx.LX;
 import heronarts.lx.command.LXCommand.InvalidCommandException;
 import heronarts.lx.parameter.BooleanParameter;
+import heronarts.lx.parameter.LXParameter;
+import heronarts.lx.parameter.LXParameterListener;
 import heronarts.lx.parameter.MutableParameter;
 
 /**
  * The LX command engine keeps track of high-level UI commands that have been
  * performed. A stack is maintained which enables Undo operations to take place.
+ *
+ * The undo history is bounded by a memory budget, measured by the estimated
+ * retained size of each command. Commands that fall {@link #COMPACT_DEPTH}
+ * from the top of the stack are compacted, and the oldest commands are
+ * evicted once the history exceeds its budget.
  */
 public class LXCommandEngine {
 
+  /**
+   * Number of most recent commands whose state is kept live, deeper commands
+   * are compacted
+   */
+  public static final int COMPACT_DEPTH = 8;
+
+  private static final long BYTES_PER_MB = 1 << 20;
+
   private final LX lx;
 
+  private final LXParameterListener budgetListener = this::onBudgetChanged;
+
   public LXCommandEngine(LX lx) {
     this.lx = lx;
+    lx.engine.undoBudget.addListener(this.budgetListener);
   }
 
   public final MutableParameter undoChanged = new MutableParameter("Undo");
   public final MutableParameter redoChanged = new MutableParameter("Redo");
 
-  private final Stack<LXCommand> undoStack = new Stack<LXCommand>();
-  private final Stack<LXCommand> redoStack = new Stack<LXCommand>();
+  private final Deque<LXCommand> undoStack = new ArrayDeque<LXCommand>();
+  private final Deque<LXCommand> redoStack = new ArrayDeque<LXCommand>();
+
+  // Running total of the retained size of the commands on the undo stack
+  private long undoRetainedSize = 0;
 
   private long dirtyTimeMs = -1;
 
@@ -58,20 +80,29 @@ public class LXCommandEngine {
   public LXCommandEngine perform(LXCommand command) {
     try {
 
+      // If the event it already at the top of the pack, it has been updated
+      // and is not re-pushed after it is performed again
+      final boolean isUpdate = !this.undoStack.isEmpty() && (this.undoStack.peek() == command);
+      final long previousSize = isUpdate ? command.getRetainedSize() : 0;
+
       // Perform the command
       command.perform(this.lx);
 
       if (!command.isIgnored()) {
-        // If the event it already at the top of the pack, it has been updated
-        // and is not re-pushed after it is performed again
-        if (this.undoStack.isEmpty() || (this.undoStack.peek() != command)) {
-          this.undoStack.push(command);
-          this.undoChanged.bang();
-        }
-
         // A new action has occurred, we've branched and redo is done
         this.redoStack.clear();
         this.redoChanged.bang();
+
+        boolean undoModified = false;
+        if (isUpdate) {
+          this.undoRetainedSize += command.getRetainedSize() - previousSize;
+        } else {
+          pushUndo(command);
+          undoModified = true;
+        }
+        if (evictUndoHistory() || undoModified) {
+          this.undoChanged.bang();
+        }
       }
 
     } catch (InvalidCommandException icx) {
@@ -111,15 +142,77 @@ public class LXCommandEngine {
   }
 
   public LXCommand getUndoCommand() {
-    return this.undoStack.empty() ? null : this.undoStack.peek();
+    return this.undoStack.peek();
   }
 
   public LXCommand getRedoCommand() {
-    return this.redoStack.empty() ? null : this.redoStack.peek();
+    return this.redoStack.peek();
+  }
+
+  /**
+   * Estimated number of bytes of heap retained by the undo history, which is
+   * what the undo budget is measured against
+   *
+   * @return Estimated retained size in bytes
+   */
+  public long getRetainedSize() {
+    return this.undoRetainedSize;
+  }
+
+  private void onBudgetChanged(LXParameter p) {
+    if (evictUndoHistory()) {
+      this.undoChanged.bang();
+    }
+  }
+
+  /**
+   * Pushes a command onto the undo stack, compacting the command that falls
+   * to {@link #COMPACT_DEPTH} as a result. Deeper commands were compacted when
+   * they passed that depth.
+   *
+   * @param command Command to push
+   */
+  private void pushUndo(LXCommand command) {
+    this.undoStack.push(command);
+    this.undoRetainedSize += command.getRetainedSize();
+    if (this.undoStack.size() > COMPACT_DEPTH) {
+      int depth = 0;
+      for (LXCommand compact : this.undoStack) {
+        if (depth++ == COMPACT_DEPTH) {
+          final long size = compact.getRetainedSize();
+          compact.compact();
+          this.undoRetainedSize += compact.getRetainedSize() - size;
+          break;
+        }
+      }
+    }
+  }
+
+  private LXCommand popUndo() {
+    final LXCommand command = this.undoStack.pop();
+    this.undoRetainedSize -= command.getRetainedSize();
+    return command;
+  }
+
+  /**
+   * Evicts the oldest commands until the undo history is within budget. The
+   * most recent command is never evicted.
+   *
+   * @return Whether any commands were evicted
+   */
+  private boolean evictUndoHistory() {
+    final long budget = (long) (this.lx.engine.undoBudget.getValue() * BYTES_PER_MB);
+    boolean evicted = false;
+    while ((this.undoRetainedSize > budget) && (this.undoStack.size() > 1)) {
+      this.undoRetainedSize -= this.undoStack.removeLast().getRetainedSize();
+      evicted = true;
+    }
+    return evicted;
   }
 
   public LXCommandEngine clear() {
     this.undoStack.clear();
+    this.undoRetainedSize = 0;
     this.redoStack.clear();
     this.undoChanged.bang();
     this.redoChanged.bang();
@@ -133,8 +226,8 @@ public class LXCommandEngine {
    * @return this
    */
   public LXCommandEngine undo() {
-    if (!this.undoStack.empty()) {
-      LXCommand command = this.undoStack.pop();
+    if (!this.undoStack.isEmpty()) {
+      LXCommand command = popUndo();
       try {
         command.undo(this.lx);
         this.redoStack.push(command);
@@ -160,11 +253,12 @@ public class LXCommandEngine {
    * @return this
    */
   public LXCommandEngine redo() {
-    if (!this.redoStack.empty()) {
+    if (!this.redoStack.isEmpty()) {
       LXCommand command = this.redoStack.pop();
       try {
         command.perform(this.lx);
-        this.undoStack.push(command);
+        pushUndo(command);
+        evictUndoHistory();
         this.undoChanged.bang();
         this.redoChanged.bang();
       } catch (InvalidCommandException icx) {
@@ -181,4 +275,8 @@ public class LXCommandEngine {
     return this;
   }
 
+  public void dispose() {
+    this.lx.engine.undoBudget.removeListener(this.budgetListener);
+  }
+
 }
@@ -0,0 +1,139 @@
+/**
+ * Copyright 2026- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.dmx;
+
+import heronarts.lx.LX;
+import heronarts.lx.LXComponent;
+import heronarts.lx.LXComponentName;
+import heronarts.lx.color.LXColor;
+import heronarts.lx.model.LXModel;
+import heronarts.lx.model.LXPoint;
+import heronarts.lx.pattern.LXPattern;
+import heronarts.lx.structure.LXStructureOutput;
+
+/**
+ * Renders DMX input using the same addressing as the structure's outputs. Each
+ * point takes its color from the universe and channels that it is sent to, so a
+ * media server pixel-mapping the same patch can be mixed in as a channel.
+ */
+@LXComponentName("DMX Pixel Map")
+@LXComponent.Description("Maps DMX input onto points using the structure's output addressing")
+public class DmxPixelMapPattern extends LXPattern {
+
+  // Gather table for the current model, rebuilt when outputs or the model change
+  private LXStructureOutput.InputMap inputMap = null;
+  private LXModel mapModel = null;
+  private int mapGeneration = -1;
+
+  private int size = 0;
+  private int[] index = new int[0];
+  private int[] universe = new int[0];
+  private int[] red = new int[0];
+  private int[] green = new int[0];
+  private int[] blue = new int[0];
+  private int[] white = new int[0];
+  private int[] unmapped = new int[0];
+
+  public DmxPixelMapPattern(LX lx) {
+    super(lx);
+  }
+
+  private void rebuildMap(LXStructureOutput.InputMap inputMap) {
+    this.inputMap = inputMap;
+    this.mapModel = this.model;
+    this.mapGeneration = this.model.getGeneration();
+
+    // Restrict the map to the points of this pattern's model, which may be a view
+    final boolean[] inModel = new boolean[this.lx.getModel().size];
+    for (LXPoint p : this.model.points) {
+      inModel[p.index] = true;
+    }
+    int size = 0;
+    if (inputMap != null) {
+      for (int i = 0; i < inputMap.size; ++i) {
+        if ((inputMap.index[i] < inModel.length) && inModel[inputMap.index[i]]) {
+          ++size;
+        }
+      }
+    }
+    if (this.index.length < size) {
+      this.index = new int[size];
+      this.universe = new int[size];
+      this.red = new int[size];
+      this.green = new int[size];
+      this.blue = new int[size];
+      this.white = new int[size];
+    }
+    int m = 0;
+    for (int i = 0; m < size; ++i) {
+      final int index = inputMap.index[i];
+      if ((index < inModel.length) && inModel[index]) {
+        this.index[m] = index;
+        this.universe[m] = inputMap.universe[i];
+        this.red[m] = inputMap.red[i];
+        this.green[m] = inputMap.green[i];
+        this.blue[m] = inputMap.blue[i];
+        this.white[m] = inputMap.white[i];
+        ++m;
+      }
+    }
+    this.size = size;
+
+    // Points without an input address are rendered black
+    for (int i = 0; i < m; ++i) {
+      inModel[this.index[i]] = false;
+    }
+    int numUnmapped = 0;
+    for (LXPoint p : this.model.points) {
+      if (inModel[p.index]) {
+        ++numUnmapped;
+      }
+    }
+    this.unmapped = new int[numUnmapped];
+    numUnmapped = 0;
+    for (LXPoint p : this.model.points) {
+      if (inModel[p.index]) {
+        this.unmapped[numUnmapped++] = p.index;
+      }
+    }
+  }
+
+  @Override
+  protected void run(double deltaMs) {
+    final LXStructureOutput.InputMap inputMap = (this.lx.structure.output != null) ? this.lx.structure.output.getInputMap() : null;
+    if ((inputMap != this.inputMap) || (this.model != this.mapModel) || (this.model.getGeneration() != this.mapGeneration)) {
+      rebuildMap(inputMap);
+    }
+
+    for (int index : this.unmapped) {
+      this.colors[index] = LXColor.BLACK;
+    }
+
+    final LXDmxEngine dmx = this.lx.engine.dmx;
+    for (int i = 0; i < this.size; ++i) {
+      final int universe = this.universe[i];
+      final int w = (this.white[i] < 0) ? 0 : dmx.getValuei(universe, this.white[i]);
+      final int r = (this.red[i] < 0) ? w : Math.min(255, dmx.getValuei(universe, this.red[i]) + w);
+      final int g = (this.green[i] < 0) ? w : Math.min(255, dmx.getValuei(universe, this.green[i]) + w);
+      final int b = (this.blue[i] < 0) ? w : Math.min(255, dmx.getValuei(universe, this.blue[i]) + w);
+      this.colors[this.index[i]] = LXColor.rgb(r, g, b);
+    }
+  }
+
+}
@@ -0,0 +1,465 @@
+/**
+ * Copyright 2026- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.dmx;
+
+import java.io.IOException;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.MembershipKey;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import heronarts.lx.output.ArtNetDatagram;
+import heronarts.lx.output.StreamingACNDatagram;
+
+/**
+ * Receives DMX input over Art-Net, Streaming ACN and DDP. All sockets are
+ * serviced by a single thread using a non-blocking selector. Packets are
+ * validated, arbitrated per universe, and published to the engine as
+ * complete frames.
+ */
+class DmxReceiver extends Thread {
+
+  enum Protocol {
+    ARTNET("Art-Net"),
+    SACN("sACN"),
+    DDP("DDP");
+
+    final String label;
+
+    private Protocol(String label) {
+      this.label = label;
+    }
+  }
+
+  private static final int BUFFER_SIZE = 65536;
+
+  private static final byte[] ACN_PACKET_IDENTIFIER = {
+    'A', 'S', 'C', '-', 'E', '1', '.', '1', '7', 0, 0, 0
+  };
+
+  private static final int ACN_OFFSET_IDENTIFIER = 4;
+  private static final int ACN_OFFSET_ROOT_VECTOR = 21;
+  private static final int ACN_OFFSET_CID = 22;
+  private static final int ACN_OFFSET_FRAMING_VECTOR = 43;
+  private static final int ACN_OFFSET_OPTIONS = 112;
+  private static final int ACN_OFFSET_DMP_VECTOR = 117;
+  private static final int ACN_OFFSET_PROPERTY_COUNT = 123;
+  private static final int ACN_OFFSET_START_CODE = 125;
+
+  private static final int ACN_VECTOR_ROOT_DATA = 0x04;
+  private static final int ACN_VECTOR_FRAMING_DATA = 0x02;
+  private static final int ACN_VECTOR_DMP_SET_PROPERTY = 0x02;
+  private static final int ACN_OPTION_PREVIEW = 0x80;
+  private static final int ACN_OPTION_TERMINATED = 0x40;
+
+  private static final int ARTNET_OPCODE_LSB = 8;
+  private static final int ARTNET_OPCODE_MSB = 9;
+  private static final int ARTNET_OPCODE_DMX = 0x5000;
+
+  private static final int DDP_HEADER_LENGTH = 10;
+  private static final int DDP_TIMECODE_LENGTH = 4;
+  private static final int DDP_FLAG_VERSION_MASK = 0xc0;
+  private static final int DDP_FLAG_VERSION_1 = 0x40;
+  private static final int DDP_FLAG_TIMECODE = 0x10;
+  private static final int DDP_FLAG_QUERY = 0x08;
+  private static final int DDP_FLAG_REPLY = 0x04;
+  private static final int DDP_FLAG_PUSH = 0x01;
+  private static final int DDP_ID_DEFAULT = 1;
+  private static final int DDP_ID_ALL = 255;
+
+  /**
+   * DDP has no universes, its linear data space is mapped onto consecutive
+   * universes of 170 RGB pixels each, the same packing used by DmxPattern
+   */
+  static final int DDP_UNIVERSE_LENGTH = 510;
+
+  private final LXDmxEngine engine;
+  private final Selector selector;
+  private final List<DatagramChannel> channels = new ArrayList<DatagramChannel>();
+
+  private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+  private final byte[] data = this.buffer.array();
+
+  // Universes touched by DDP data that have not yet been pushed
+  private final List<DmxUniverse> ddpPending = new ArrayList<DmxUniverse>();
+  // Set from the engine thread when the DDP universe parameter changes
+  private volatile int ddpUniverse = 0;
+
+  DmxReceiver(LXDmxEngine engine) throws IOException {
+    super("DMX Receiver Thread");
+    this.engine = engine;
+    this.selector = Selector.open();
+  }
+
+  /**
+   * Binds a socket for the given protocol, called before the thread is started
+   *
+   * @param protocol Protocol
+   * @param port UDP port
+   * @return Channel
+   * @throws IOException If the socket could not be bound
+   */
+  DatagramChannel bind(Protocol protocol, int port) throws IOException {
+    final DatagramChannel channel = DatagramChannel.open(StandardProtocolFamily.INET);
+    try {
+      channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+      channel.bind(new InetSocketAddress(port));
+      channel.configureBlocking(false);
+      channel.register(this.selector, SelectionKey.OP_READ, protocol);
+    } catch (IOException iox) {
+      channel.close();
+      throw iox;
+    }
+    this.channels.add(channel);
+    return channel;
+  }
+
+  /**
+   * Joins the E1.31 multicast groups for a range of universes on every
+   * multicast-capable interface. Memberships count against a per-socket limit,
+   * so the number of universes is reduced to fit within
+   * {@link LXDmxEngine#MAX_MULTICAST_UNIVERSES} memberships. If a universe cannot
+   * be joined on every interface, its partial memberships are dropped and no
+   * further universes are joined. Failures are logged but not fatal, unicast
+   * sACN is still received.
+   *
+   * @param channel sACN channel
+   * @param universe First universe
+   * @param count Number of universes
+   */
+  void joinMulticast(DatagramChannel channel, int universe, int count) {
+    if (count <= 0) {
+      return;
+    }
+    final List<NetworkInterface> interfaces = new ArrayList<NetworkInterface>();
+    try {
+      for (NetworkInterface ni : Collections.list(NetworkInterface.getNetworkInterfaces())) {
+        if (ni.isUp() && ni.supportsMulticast() && !ni.isLoopback()) {
+          for (InetAddress address : Collections.list(ni.getInetAddresses())) {
+            if (address instanceof Inet4Address) {
+              interfaces.add(ni);
+              break;
+            }
+          }
+        }
+      }
+    } catch (IOException iox) {
+      LXDmxEngine.error(iox, "Could not enumerate network interfaces for sACN multicast: " + iox.getMessage());
+      return;
+    }
+    if (interfaces.isEmpty()) {
+      LXDmxEngine.log("No multicast network interfaces available, receiving unicast sACN only");
+      return;
+    }
+    final int maxCount = LXDmxEngine.MAX_MULTICAST_UNIVERSES / interfaces.size();
+    if (count > maxCount) {
+      LXDmxEngine.log("Limiting sACN multicast to " + maxCount + " universe(s) on " + interfaces.size() + " interface(s)");
+      count = maxCount;
+    }
+    final int end = Math.min(universe + count, LXDmxEngine.MAX_UNIVERSE);
+    final List<MembershipKey> keys = new ArrayList<MembershipKey>(interfaces.size());
+    int u = universe;
+    for (; u < end; ++u) {
+      keys.clear();
+      try {
+        final InetAddress group = InetAddress.getByAddress(new byte[] {
+          (byte) 239, (byte) 255, (byte) (u >>> 8), (byte) (u & 0xff)
+        });
+        for (NetworkInterface ni : interfaces) {
+          keys.add(channel.join(group, ni));
+        }
+      } catch (IOException iox) {
+        LXDmxEngine.error(iox, "Could not join sACN multicast group for universe " + u + ": " + iox.getMessage());
+        for (MembershipKey key : keys) {
+          key.drop();
+        }
+        break;
+      }
+    }
+    if (u > universe) {
+      LXDmxEngine.log("Joined sACN multicast universes " + universe + "-" + (u - 1) + " on " + interfaces.size() + " interface(s)");
+    }
+  }
+
+  boolean hasChannels() {
+    return !this.channels.isEmpty();
+  }
+
+  void setDdpUniverse(int ddpUniverse) {
+    this.ddpUniverse = ddpUniverse;
+  }
+
+  /**
+   * Stops the receiver thread and closes all sockets. Does not return until the
+   * thread has exited, so that a new receiver may safely bind the same ports and
+   * write the same universes.
+   */
+  void close() {
+    interrupt();
+    try {
+      this.selector.close();
+    } catch (IOException iox) {
+      LXDmxEngine.error(iox, "Error closing DMX selector: " + iox.getMessage());
+    }
+    for (DatagramChannel channel : this.channels) {
+      try {
+        channel.close();
+      } catch (IOException iox) {
+        LXDmxEngine.error(iox, "Error closing DMX channel: " + iox.getMessage());
+      }
+    }
+    if (Thread.currentThread() == this) {
+      return;
+    }
+    boolean interrupted = false;
+    boolean warned = false;
+    while (isAlive()) {
+      try {
+        join(1000);
+      } catch (InterruptedException ix) {
+        interrupted = true;
+      }
+      if (isAlive() && !warned) {
+        LXDmxEngine.log("Waiting for DMX receiver thread to finish...");
+        warned = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public void run() {
+    LXDmxEngine.log("Starting DMX receiver thread");
+    while (!isInterrupted() && this.selector.isOpen()) {
+      try {
+        this.selector.select();
+        final Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          final SelectionKey key = keys.next();
+          keys.remove();
+          if (!key.isValid()) {
+            continue;
+          }
+          final DatagramChannel channel = (DatagramChannel) key.channel();
+          final Protocol protocol = (Protocol) key.attachment();
+          SocketAddress source;
+          while ((source = channel.receive(this.buffer.clear())) != null) {
+            receive(protocol, source, this.buffer.position());
+          }
+        }
+      } catch (Throwable x) {
+        if (isInterrupted() || !this.selector.isOpen()) {
+          break;
+        }
+        LXDmxEngine.error(x, "Error in DMX receiver: " + x.getMessage());
+      }
+    }
+    LXDmxEngine.log("DMX receiver thread finished.");
+  }
+
+  private void receive(Protocol protocol, SocketAddress source, int length) {
+    final long now = System.currentTimeMillis();
+    switch (protocol) {
+    case ARTNET -> receiveArtNet(source, length, now);
+    case SACN -> receiveStreamingACN(length, now);
+    case DDP -> receiveDDP(source, length, now);
+    }
+  }
+
+  private static long sourceId(SocketAddress source) {
+    if (source instanceof InetSocketAddress inet) {
+      return ((long) inet.getAddress().hashCode() << 16) | inet.getPort();
+    }
+    return source.hashCode();
+  }
+
+  private int getUint16(int offset) {
+    return ((this.data[offset] & 0xff) << 8) | (this.data[offset + 1] & 0xff);
+  }
+
+  private long getUint32(int offset) {
+    return ((long) getUint16(offset) << 16) | getUint16(offset + 2);
+  }
+
+  private long getInt64(int offset) {
+    return (getUint32(offset) << 32) | getUint32(offset + 4);
+  }
+
+  private void receiveArtNet(SocketAddress source, int length, long now) {
+    if (length < ArtNetDatagram.ARTNET_HEADER_LENGTH) {
+      return;
+    }
+    for (int i = 0; i < ArtNetDatagram.HEADER.length; ++i) {
+      if (this.data[i] != ArtNetDatagram.HEADER[i]) {
+        LXDmxEngine.error("Packet missing valid Art-Net header");
+        return;
+      }
+    }
+    final int opcode = (this.data[ARTNET_OPCODE_LSB] & 0xff) | ((this.data[ARTNET_OPCODE_MSB] & 0xff) << 8);
+    if (opcode != ARTNET_OPCODE_DMX) {
+      // Polls and other non-DMX traffic are not handled
+      return;
+    }
+    this.engine.artNetActivity.trigger();
+
+    final int universeNumber =
+      (this.data[ArtNetDatagram.UNIVERSE_LSB] & 0xff) |
+      ((this.data[ArtNetDatagram.UNIVERSE_MSB] & 0x7f) << 8);
+    final int dataLength = Math.min(
+      getUint16(ArtNetDatagram.DATA_LENGTH_MSB),
+      length - ArtNetDatagram.ARTNET_HEADER_LENGTH
+    );
+    final int sequence = this.data[ArtNetDatagram.SEQUENCE_INDEX] & 0xff;
+
+    final DmxUniverse universe = this.engine.getUniverse(universeNumber);
+    if (universe == null) {
+      LXDmxEngine.error("Ignoring packet, universe exceeds max: " + universeNumber);
+      return;
+    }
+    if (universe.accept(Protocol.ARTNET.ordinal(), sourceId(source), StreamingACNDatagram.DEFAULT_PRIORITY, (sequence == 0) ? -1 : sequence, now)) {
+      System.arraycopy(this.data, ArtNetDatagram.ARTNET_HEADER_LENGTH, universe.image, 0, Math.min(dataLength, LXDmxEngine.MAX_CHANNEL));
+      universe.publish();
+    }
+  }
+
+  private boolean checkStreamingACN(int length) {
+    if (length <= StreamingACNDatagram.OFFSET_DMX_DATA) {
+      return false;
+    }
+    for (int i = 0; i < ACN_PACKET_IDENTIFIER.length; ++i) {
+      if (this.data[ACN_OFFSET_IDENTIFIER + i] != ACN_PACKET_IDENTIFIER[i]) {
+        return false;
+      }
+    }
+    return
+      (this.data[ACN_OFFSET_ROOT_VECTOR] == ACN_VECTOR_ROOT_DATA) &&
+      (this.data[ACN_OFFSET_FRAMING_VECTOR] == ACN_VECTOR_FRAMING_DATA) &&
+      (this.data[ACN_OFFSET_DMP_VECTOR] == ACN_VECTOR_DMP_SET_PROPERTY);
+  }
+
+  private void receiveStreamingACN(int length, long now) {
+    if (!checkStreamingACN(length)) {
+      LXDmxEngine.error("Packet missing valid sACN header");
+      return;
+    }
+    final int options = this.data[ACN_OFFSET_OPTIONS] & 0xff;
+    if ((options & ACN_OPTION_PREVIEW) != 0) {
+      return;
+    }
+    // Non-zero start codes carry per-channel priority or other non-level data
+    if (this.data[ACN_OFFSET_START_CODE] != 0) {
+      return;
+    }
+    this.engine.sacnActivity.trigger();
+
+    final int universeNumber = getUint16(StreamingACNDatagram.OFFSET_UNIVERSE_NUMBER);
+    if (universeNumber >= LXDmxEngine.MAX_UNIVERSE) {
+      // Universes 64000-65535 are reserved by E1.31, drop them quietly rather
+      // than logging an error for every packet
+      return;
+    }
+    final DmxUniverse universe = this.engine.getUniverse(universeNumber);
+
+    // The CID is a 128-bit UUID, folded to 64 bits
+    final long sourceId = getInt64(ACN_OFFSET_CID) ^ getInt64(ACN_OFFSET_CID + 8);
+    if ((options & ACN_OPTION_TERMINATED) != 0) {
+      universe.release(Protocol.SACN.ordinal(), sourceId);
+      return;
+    }
+
+    final int priority = Math.min(this.data[StreamingACNDatagram.OFFSET_PRIORITY] & 0xff, StreamingACNDatagram.MAX_PRIORITY);
+    final int sequence = this.data[StreamingACNDatagram.OFFSET_SEQUENCE_NUMBER] & 0xff;
+    if (universe.accept(Protocol.SACN.ordinal(), sourceId, priority, sequence, now)) {
+      final int dataLength = Math.min(
+        getUint16(ACN_OFFSET_PROPERTY_COUNT) - 1,
+        length - StreamingACNDatagram.OFFSET_DMX_DATA
+      );
+      System.arraycopy(this.data, StreamingACNDatagram.OFFSET_DMX_DATA, universe.image, 0, Math.max(0, Math.min(dataLength, LXDmxEngine.MAX_CHANNEL)));
+      universe.publish();
+    }
+  }
+
+  private void receiveDDP(SocketAddress source, int length, long now) {
+    if (length < DDP_HEADER_LENGTH) {
+      return;
+    }
+    final int flags = this.data[0] & 0xff;
+    if ((flags & DDP_FLAG_VERSION_MASK) != DDP_FLAG_VERSION_1) {
+      LXDmxEngine.error("Packet missing valid DDP header");
+      return;
+    }
+    if ((flags & (DDP_FLAG_QUERY | DDP_FLAG_REPLY)) != 0) {
+      return;
+    }
+    final int id = this.data[3] & 0xff;
+    if ((id != DDP_ID_DEFAULT) && (id != DDP_ID_ALL)) {
+      return;
+    }
+    this.engine.ddpActivity.trigger();
+
+    final int headerLength = DDP_HEADER_LENGTH + (((flags & DDP_FLAG_TIMECODE) != 0) ? DDP_TIMECODE_LENGTH : 0);
+    final long dataOffset = getUint32(4);
+    final int dataLength = Math.min(getUint16(8), length - headerLength);
+    final long sourceId = sourceId(source);
+
+    int read = headerLength;
+    int remaining = dataLength;
+    long universeIndex = this.ddpUniverse + dataOffset / DDP_UNIVERSE_LENGTH;
+    int channel = (int) (dataOffset % DDP_UNIVERSE_LENGTH);
+    while ((remaining > 0) && (universeIndex < LXDmxEngine.MAX_UNIVERSE)) {
+      final int chunk = Math.min(remaining, DDP_UNIVERSE_LENGTH - channel);
+      final DmxUniverse universe = this.engine.getUniverse((int) universeIndex);
+      if (universe.accept(Protocol.DDP.ordinal(), sourceId, StreamingACNDatagram.DEFAULT_PRIORITY, -1, now)) {
+        System.arraycopy(this.data, read, universe.image, channel, chunk);
+        if (!universe.pendingPush) {
+          universe.pendingPush = true;
+          this.ddpPending.add(universe);
+        }
+      }
+      read += chunk;
+      remaining -= chunk;
+      channel = 0;
+      ++universeIndex;
+    }
+
+    // Frames spanning multiple packets are only published on push
+    if ((flags & DDP_FLAG_PUSH) != 0) {
+      for (DmxUniverse universe : this.ddpPending) {
+        universe.pendingPush = false;
+        universe.publish();
+      }
+      this.ddpPending.clear();
+    }
+  }
+
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright 2026- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.dmx;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A single universe of DMX input. The receiver thread writes complete frames
+ * into a private image and publishes them through a lock-free triple buffer,
+ * the engine latches the most recently published frame once per engine frame.
+ * Readers on the engine thread therefore never observe a partially written
+ * universe.
+ *
+ * Also tracks which source currently owns the universe, applying the E1.31
+ * rules for sequence numbers and source priority to all protocols.
+ */
+class DmxUniverse {
+
+  /**
+   * Sources are considered lost after this much time with no data
+   */
+  static final long SOURCE_TIMEOUT_MS = 2500;
+
+  private static final int DIRTY = 0x4;
+  private static final int INDEX_MASK = 0x3;
+
+  final int number;
+
+  // Receiver thread state, the working image and owning source
+  final byte[] image = new byte[LXDmxEngine.MAX_CHANNEL];
+  private int sourceProtocol = -1;
+  private long sourceId = 0;
+  private int sourcePriority = 0;
+  private long sourceMillis = 0;
+  private int sequence = -1;
+  boolean pendingPush = false;
+
+  // Triple buffer, the middle index is handed off atomically with a dirty bit
+  private final byte[][] buffers = new byte[3][LXDmxEngine.MAX_CHANNEL];
+  private int writeIndex = 0;
+  private final AtomicInteger middle = new AtomicInteger(1);
+  private int readIndex = 2;
+
+  DmxUniverse(int number) {
+    this.number = number;
+  }
+
+  /**
+   * Determines whether a packet for this universe should be applied. A source
+   * holds the universe until it terminates or times out, unless displaced by a
+   * source of higher priority. Sources of equal priority do not displace the
+   * current one, so that they cannot alternate packet by packet. Sequence
+   * numbers in the range of the 20 preceding values are treated as
+   * out-of-order and discarded.
+   *
+   * @param protocol Protocol ordinal
+   * @param sourceId Protocol-specific identifier of the source
+   * @param priority Source priority
+   * @param sequence 8-bit sequence number, or -1 if not in use
+   * @param nowMillis Current time
+   * @return Whether the packet should be applied
+   */
+  boolean accept(int protocol, long sourceId, int priority, int sequence, long nowMillis) {
+    if ((protocol != this.sourceProtocol) || (sourceId != this.sourceId)) {
+      if ((this.sourceProtocol >= 0) && (priority <= this.sourcePriority) && (nowMillis - this.sourceMillis < SOURCE_TIMEOUT_MS)) {
+        return false;
+      }
+      this.sourceProtocol = protocol;
+      this.sourceId = sourceId;
+      this.sequence = -1;
+    } else if ((sequence >= 0) && (this.sequence >= 0)) {
+      final int delta = (byte) (sequence - this.sequence);
+      if ((delta <= 0) && (delta > -20)) {
+        return false;
+      }
+    }
+    this.sourcePriority = priority;
+    this.sourceMillis = nowMillis;
+    this.sequence = sequence;
+    return true;
+  }
+
+  /**
+   * Releases ownership by the given source, in response to a stream termination
+   *
+   * @param protocol Protocol ordinal
+   * @param sourceId Source identifier
+   */
+  void release(int protocol, long sourceId) {
+    if ((protocol == this.sourceProtocol) && (sourceId == this.sourceId)) {
+      this.sourceProtocol = -1;
+      this.sourcePriority = 0;
+      this.sourceMillis = 0;
+      this.sequence = -1;
+    }
+  }
+
+  /**
+   * Publishes the current image as a complete frame, called on the receiver thread
+   */
+  void publish() {
+    System.arraycopy(this.image, 0, this.buffers[this.writeIndex], 0, this.image.length);
+    this.writeIndex = this.middle.getAndSet(this.writeIndex | DIRTY) & INDEX_MASK;
+  }
+
+  /**
+   * Latches the most recently published frame, called on the engine thread
+   *
+   * @return Frame data, valid until the next latch
+   */
+  byte[] latch() {
+    if ((this.middle.get() & DIRTY) != 0) {
+      this.readIndex = this.middle.getAndSet(this.readIndex) & INDEX_MASK;
+    }
+    return this.buffers[this.readIndex];
+  }
+
+}
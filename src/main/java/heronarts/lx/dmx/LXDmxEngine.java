@@ -18,9 +18,13 @@
 
 package heronarts.lx.dmx;
 
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
 import java.net.SocketException;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import com.google.gson.JsonObject;
 
@@ -29,6 +33,8 @@ import heronarts.lx.LXComponent;
 import heronarts.lx.color.LXColor;
 import heronarts.lx.osc.LXOscEngine.IOState;
 import heronarts.lx.output.ArtNetDatagram;
+import heronarts.lx.output.DDPDatagram;
+import heronarts.lx.output.StreamingACNDatagram;
 import heronarts.lx.parameter.BooleanParameter;
 import heronarts.lx.parameter.DiscreteParameter;
 import heronarts.lx.parameter.EnumParameter;
@@ -75,62 +81,231 @@ public class LXDmxEngine extends LXComponent {
     .setMappable(false)
     .setDescription("Triggers when art-net input is received");
 
-  private ArtNetReceiver artNetReceiver = null;
+  public final EnumParameter<IOState> sacnReceiveState =
+    new EnumParameter<IOState>("sACN RX State", IOState.STOPPED)
+    .setMappable(false)
+    .setDescription("The state of the sACN receiver");
+
+  public final BooleanParameter sacnReceiveActive =
+    new BooleanParameter("sACN Active", false)
+    .setMappable(false)
+    .setDescription("Enables or disables sACN (E1.31) DMX input");
+
+  public final DiscreteParameter sacnReceivePort =
+    new DiscreteParameter("sACN RX Port", StreamingACNDatagram.DEFAULT_PORT, 1, 65535)
+    .setDescription("UDP port on which the engine listens for sACN")
+    .setMappable(false)
+    .setUnits(LXParameter.Units.INTEGER);
+
+  public final DiscreteParameter sacnMulticastUniverse =
+    new DiscreteParameter("sACN Multicast Universe", 1, 1, MAX_UNIVERSE)
+    .setDescription("First universe for which sACN multicast groups are joined")
+    .setMappable(false)
+    .setUnits(LXParameter.Units.INTEGER);
+
+  public final DiscreteParameter sacnMulticastCount =
+    new DiscreteParameter("sACN Multicast Count", 4, 0, MAX_MULTICAST_UNIVERSES + 1)
+    .setDescription("Number of universes for which sACN multicast groups are joined, unicast is always received")
+    .setMappable(false)
+    .setUnits(LXParameter.Units.INTEGER);
+
+  public final TriggerParameter sacnActivity =
+    new TriggerParameter("sACN Activity")
+    .setMappable(false)
+    .setDescription("Triggers when sACN input is received");
+
+  public final EnumParameter<IOState> ddpReceiveState =
+    new EnumParameter<IOState>("DDP RX State", IOState.STOPPED)
+    .setMappable(false)
+    .setDescription("The state of the DDP receiver");
+
+  public final BooleanParameter ddpReceiveActive =
+    new BooleanParameter("DDP Active", false)
+    .setMappable(false)
+    .setDescription("Enables or disables DDP input");
+
+  public final DiscreteParameter ddpReceivePort =
+    new DiscreteParameter("DDP RX Port", DDPDatagram.DEFAULT_PORT, 1, 65535)
+    .setDescription("UDP port on which the engine listens for DDP")
+    .setMappable(false)
+    .setUnits(LXParameter.Units.INTEGER);
+
+  public final DiscreteParameter ddpReceiveUniverse =
+    new DiscreteParameter("DDP Universe", 0, MAX_UNIVERSE)
+    .setDescription("Universe onto which the start of DDP data is mapped, subsequent data fills consecutive universes of 170 RGB pixels")
+    .setMappable(false)
+    .setUnits(LXParameter.Units.INTEGER);
+
+  public final TriggerParameter ddpActivity =
+    new TriggerParameter("DDP Activity")
+    .setMappable(false)
+    .setDescription("Triggers when DDP input is received");
+
+  private DmxReceiver receiver = null;
 
   public static final int MAX_CHANNEL = 512;
-  public static final int MAX_UNIVERSE = 512;
 
-  private final byte[][] data =
-    new byte[MAX_UNIVERSE][ArtNetDatagram.MAX_DATA_LENGTH];
+  /**
+   * Covers the full sACN universe range (1-63999) as well as the 15-bit
+   * Art-Net port-address space.
+   */
+  public static final int MAX_UNIVERSE = 64000;
+
+  /**
+   * Linux limits each socket to 20 multicast group memberships by default
+   * (net.ipv4.igmp_max_memberships), more cannot be joined reliably.
+   */
+  public static final int MAX_MULTICAST_UNIVERSES = 20;
+
+  private static final byte[] EMPTY_UNIVERSE = new byte[MAX_CHANNEL];
+
+  // Created on demand by the receiver thread
+  private final DmxUniverse[] universes = new DmxUniverse[MAX_UNIVERSE];
+
+  // Universes created since the last engine frame, handed off to the engine thread
+  private final Queue<DmxUniverse> newUniverses = new ConcurrentLinkedQueue<DmxUniverse>();
+
+  // Engine thread state, universes receiving data and the latched frame of each
+  private final List<DmxUniverse> activeUniverses = new ArrayList<DmxUniverse>();
+  private final byte[][] data = new byte[MAX_UNIVERSE][];
 
   public LXDmxEngine(LX lx) {
     super(lx);
+    Arrays.fill(this.data, EMPTY_UNIVERSE);
     addParameter("artNetReceivePort", this.artNetReceivePort);
     addParameter("artNetReceiveActive", this.artNetReceiveActive);
+    addParameter("sacnReceivePort", this.sacnReceivePort);
+    addParameter("sacnReceiveActive", this.sacnReceiveActive);
+    addParameter("sacnMulticastUniverse", this.sacnMulticastUniverse);
+    addParameter("sacnMulticastCount", this.sacnMulticastCount);
+    addParameter("ddpReceivePort", this.ddpReceivePort);
+    addParameter("ddpReceiveActive", this.ddpReceiveActive);
+    addParameter("ddpReceiveUniverse", this.ddpReceiveUniverse);
   }
 
   @Override
   public void onParameterChanged(LXParameter p) {
-    if (p == this.artNetReceiveActive) {
-      stopReceiver(IOState.STOPPED);
+    if (p == this.artNetReceiveActive || p == this.sacnReceiveActive || p == this.ddpReceiveActive) {
+      startReceiver();
+    } else if (p == this.artNetReceivePort) {
       if (this.artNetReceiveActive.isOn()) {
         startReceiver();
       }
-    } else if (p == this.artNetReceivePort) {
-      if (this.artNetReceiveActive.isOn()) {
+    } else if (p == this.sacnReceivePort || p == this.sacnMulticastUniverse || p == this.sacnMulticastCount) {
+      if (this.sacnReceiveActive.isOn()) {
         startReceiver();
       }
+    } else if (p == this.ddpReceivePort) {
+      if (this.ddpReceiveActive.isOn()) {
+        startReceiver();
+      }
+    } else if (p == this.ddpReceiveUniverse) {
+      if (this.receiver != null) {
+        this.receiver.setDdpUniverse(this.ddpReceiveUniverse.getValuei());
+      }
     }
   }
 
-  private void stopReceiver(IOState state) {
-    if (this.artNetReceiver != null) {
-      this.artNetReceiver.interrupt();
-      this.artNetReceiver.socket.close();
-      this.artNetReceiver = null;
+  private void stopReceiver() {
+    if (this.receiver != null) {
+      this.receiver.close();
+      this.receiver = null;
     }
-    this.artNetReceiveState.setValue(state);
+    this.artNetReceiveState.setValue(IOState.STOPPED);
+    this.sacnReceiveState.setValue(IOState.STOPPED);
+    this.ddpReceiveState.setValue(IOState.STOPPED);
   }
 
+  /**
+   * (Re)starts the receiver thread, binding a socket for each active protocol.
+   * A protocol that fails to bind is reported in its state parameter and does
+   * not prevent the others from running.
+   */
   private void startReceiver() {
-    if (this.artNetReceiver != null) {
-      stopReceiver(IOState.STOPPED);
+    stopReceiver();
+    if (!this.artNetReceiveActive.isOn() && !this.sacnReceiveActive.isOn() && !this.ddpReceiveActive.isOn()) {
+      return;
     }
-    this.artNetReceiveState.setValue(IOState.BINDING);
-    final int artNetPort = this.artNetReceivePort.getValuei();
     try {
-      final DatagramSocket socket = new DatagramSocket(artNetPort);
-      this.artNetReceiver = new ArtNetReceiver(socket);
-      this.artNetReceiver.start();
-      this.artNetReceiveState.setValue(IOState.BOUND);
+      this.receiver = new DmxReceiver(this);
+    } catch (Throwable x) {
+      error(x, "Could not open DMX receiver selector: " + x.getMessage());
+      this.lx.pushError("Failed to start DMX receiver\n" + x.getLocalizedMessage());
+      return;
+    }
+    this.receiver.setDdpUniverse(this.ddpReceiveUniverse.getValuei());
+    if (this.artNetReceiveActive.isOn()) {
+      bindReceiver(DmxReceiver.Protocol.ARTNET, this.artNetReceivePort.getValuei(), this.artNetReceiveState);
+    }
+    if (this.sacnReceiveActive.isOn()) {
+      final DatagramChannel channel = bindReceiver(DmxReceiver.Protocol.SACN, this.sacnReceivePort.getValuei(), this.sacnReceiveState);
+      if (channel != null) {
+        this.receiver.joinMulticast(channel, this.sacnMulticastUniverse.getValuei(), this.sacnMulticastCount.getValuei());
+      }
+    }
+    if (this.ddpReceiveActive.isOn()) {
+      bindReceiver(DmxReceiver.Protocol.DDP, this.ddpReceivePort.getValuei(), this.ddpReceiveState);
+    }
+    if (this.receiver.hasChannels()) {
+      this.receiver.start();
+    } else {
+      this.receiver.close();
+      this.receiver = null;
+    }
+  }
+
+  private DatagramChannel bindReceiver(DmxReceiver.Protocol protocol, int port, EnumParameter<IOState> state) {
+    state.setValue(IOState.BINDING);
+    try {
+      final DatagramChannel channel = this.receiver.bind(protocol, port);
+      log("Listening for " + protocol.label + " on port " + port);
+      state.setValue(IOState.BOUND);
+      return channel;
     } catch (SocketException sx) {
-      error(sx, "Could not create Art-Net listener socket: " + sx.getMessage());
-      this.lx.pushError("Failed to start Art-Net receiver on port " + artNetPort + "\n" + sx.getLocalizedMessage());
-      this.artNetReceiveState.setValue(IOState.SOCKET_ERROR);
+      error(sx, "Could not create " + protocol.label + " listener socket: " + sx.getMessage());
+      this.lx.pushError("Failed to start " + protocol.label + " receiver on port " + port + "\n" + sx.getLocalizedMessage());
+      state.setValue(IOState.SOCKET_ERROR);
     } catch (Throwable x) {
-      error(x, "Unknown error starting art-net receiver: " + x.getMessage());
-      this.lx.pushError("Uknown error starting Art-Net receiver on port " + artNetPort + "\n" + x.getLocalizedMessage());
-      this.artNetReceiveState.setValue(IOState.SOCKET_ERROR);
+      error(x, "Unknown error starting " + protocol.label + " receiver: " + x.getMessage());
+      this.lx.pushError("Unknown error starting " + protocol.label + " receiver on port " + port + "\n" + x.getLocalizedMessage());
+      state.setValue(IOState.SOCKET_ERROR);
+    }
+    return null;
+  }
+
+  /**
+   * Gets or creates the given universe, called on the receiver thread
+   *
+   * @param universe Universe number
+   * @return Universe, or null if out of range
+   */
+  DmxUniverse getUniverse(int universe) {
+    if (universe < 0 || universe >= MAX_UNIVERSE) {
+      return null;
+    }
+    DmxUniverse dmxUniverse = this.universes[universe];
+    if (dmxUniverse == null) {
+      this.universes[universe] = dmxUniverse = new DmxUniverse(universe);
+      this.newUniverses.add(dmxUniverse);
+    }
+    return dmxUniverse;
+  }
+
+  /**
+   * Latches the most recent complete frame of every universe receiving input.
+   * Invoked by the engine at the start of each frame, all reads of DMX data
+   * in the frame observe this consistent state.
+   *
+   * @param deltaMs Milliseconds since last frame
+   */
+  public void loop(double deltaMs) {
+    DmxUniverse universe;
+    while ((universe = this.newUniverses.poll()) != null) {
+      this.activeUniverses.add(universe);
+    }
+    for (int i = 0; i < this.activeUniverses.size(); ++i) {
+      universe = this.activeUniverses.get(i);
+      this.data[universe.number] = universe.latch();
     }
   }
 
@@ -159,99 +334,37 @@ public class LXDmxEngine extends LXComponent {
     return (this.data[universe][channel] & 0xff) / 255.;
   }
 
-  private class ArtNetReceiver extends Thread {
-
-    private final DatagramSocket socket;
-
-    private ArtNetReceiver(DatagramSocket socket) {
-      super("Art-Net Receiver Thread");
-      this.socket = socket;
-    }
-
-    private boolean checkHeader(byte[] dmxData, int offset) {
-      for (int i = 0; i < ArtNetDatagram.HEADER.length; ++i) {
-        if (dmxData[offset + i] != ArtNetDatagram.HEADER[i]) {
-          error("Packet missing valid Art-Net header");
-          return false;
-        }
-      }
-      return true;
-    }
-
-    @Override
-    public void run() {
-      log("Starting Art-Net listener on port " + ArtNetDatagram.ARTNET_PORT);
-      final byte[] buffer = new byte[ArtNetDatagram.ARTNET_HEADER_LENGTH + ArtNetDatagram.MAX_DATA_LENGTH];
-      final DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
-
-      while (!isInterrupted()) {
-        try {
-          this.socket.receive(packet);
-          artNetActivity.trigger();
-          final byte[] dmxData = packet.getData();
-          final int offset = packet.getOffset();
-          final int dmxOffset = offset + ArtNetDatagram.ARTNET_HEADER_LENGTH;
-          if (!checkHeader(dmxData, offset)) {
-            continue;
-          }
-
-          final int universe =
-            (dmxData[offset + ArtNetDatagram.UNIVERSE_LSB] & 0xff) |
-            ((dmxData[offset + ArtNetDatagram.UNIVERSE_MSB] & 0xff) << 8);
-
-          if (universe >= MAX_UNIVERSE) {
-            error("Ignoring packet, universe exceeds max: " + universe);
-            continue;
-          }
-
-          final int dataLength =
-            (dmxData[offset + ArtNetDatagram.DATA_LENGTH_LSB] & 0xff) |
-            ((dmxData[offset + ArtNetDatagram.DATA_LENGTH_MSB] & 0xff) << 8);
-
-          System.arraycopy(dmxData, dmxOffset, data[universe], 0, dataLength);
-
-        } catch (Throwable x) {
-          if (isInterrupted()) {
-            break;
-          }
-          error(x, x.getMessage());
-        }
-      }
-
-      // Thread is finished, close the socket
-      try {
-        this.socket.close();
-      } catch (Throwable x) {
-        LX.error(x, "Error closing Art-Net DatagramSocket: " + x.getMessage());
-      }
-      log("Art-Net receiver thread finished.");
-    }
-  }
-
   @Override
   public void load(LX lx, JsonObject obj) {
     super.load(lx, obj);
     if (obj.has(LXComponent.KEY_RESET)) {
       this.artNetReceiveActive.reset();
       this.artNetReceivePort.reset();
+      this.sacnReceiveActive.reset();
+      this.sacnReceivePort.reset();
+      this.sacnMulticastUniverse.reset();
+      this.sacnMulticastCount.reset();
+      this.ddpReceiveActive.reset();
+      this.ddpReceivePort.reset();
+      this.ddpReceiveUniverse.reset();
     }
   }
 
   @Override
   public void dispose() {
-    stopReceiver(IOState.STOPPED);
+    stopReceiver();
     super.dispose();
   }
 
   public static void error(String log) {
-    LX.error("[ArtNet] " + log);
+    LX.error("[DMX] " + log);
   }
 
   public static void error(Throwable x, String log) {
-    LX.error(x, "[ArtNet] " + log);
+    LX.error(x, "[DMX] " + log);
   }
 
   public static void log(String log) {
-    LX.log("[ArtNet] " + log);
+    LX.log("[DMX] " + log);
   }
 }
@@ -22,7 +22,6 @@ import heronarts.lx.LX;
 import heronarts.lx.LXCategory;
 import heronarts.lx.LXComponent;
 import heronarts.lx.color.ColorParameter;
-import heronarts.lx.color.GradientUtils.BlendFunction;
 import heronarts.lx.color.GradientUtils.BlendMode;
 import heronarts.lx.color.GradientUtils.ColorStops;
 import heronarts.lx.color.GradientUtils.GradientFunction;
@@ -310,7 +309,7 @@ public class ColorizeEffect extends LXEffect implements GradientFunction {
     }
 
     final SourceFunction sourceFunction = this.source.getEnum().lerp;
-    final BlendFunction blendFunction = this.blendMode.getEnum().function;
+    this.colorStops.updateLUT(this.blendMode.getEnum().function);
 
     final boolean isPalette = this.colorMode.getEnum() == ColorMode.PALETTE;
     final boolean lerpInvert = isPalette ? this.paletteInvert.isOn() : false;
@@ -323,7 +322,7 @@ public class ColorizeEffect extends LXEffect implements GradientFunction {
         if (lerpInvert) {
           lerp = 1 - lerp;
         }
-        int c2 = this.colorStops.getColor(lerp, blendFunction);
+        int c2 = this.colorStops.getLUTColor(lerp);
         colors[i] = LXColor.lerp(
           colors[i],
           (colors[i] & LXColor.ALPHA_MASK) | (c2 & LXColor.RGB_MASK),
@@ -337,7 +336,7 @@ public class ColorizeEffect extends LXEffect implements GradientFunction {
         if (lerpInvert) {
           lerp = 1 - lerp;
         }
-        int c2 = this.colorStops.getColor(lerp, blendFunction);
+        int c2 = this.colorStops.getLUTColor(lerp);
         colors[i] = (colors[i] & LXColor.ALPHA_MASK) | (c2 & LXColor.RGB_MASK);
       }
     }
@@ -1059,6 +1059,7 @@ public class LXMidiEngine extends LXComponent implements LXOscComponent {
 
   public LXMidiEngine addMapping(LXMidiMapping mapping) {
     this.mutableMappings.add(mapping);
+    markModified();
     for (MappingListener mappingListener : this.mappingListeners) {
       mappingListener.mappingAdded(this, mapping);
     }
@@ -1073,6 +1074,7 @@ public class LXMidiEngine extends LXComponent implements LXOscComponent {
    */
   public LXMidiEngine removeMapping(LXMidiMapping mapping) {
     this.mutableMappings.remove(mapping);
+    markModified();
     for (MappingListener mappingListener : this.mappingListeners) {
       mappingListener.mappingRemoved(this, mapping);
     }
@@ -1219,6 +1221,7 @@ public class LXMidiEngine extends LXComponent implements LXOscComponent {
       throw new IllegalStateException("Cannot add template twice: " + template);
     }
     this.mutableTemplates.add(template);
+    markModified();
     for (TemplateListener listener : this.templateListeners) {
       listener.templateAdded(this, template);
     }
@@ -1229,6 +1232,7 @@ public class LXMidiEngine extends LXComponent implements LXOscComponent {
       throw new IllegalStateException("Cannot remove template that does not exist: " + template);
     }
     this.mutableTemplates.remove(template);
+    markModified();
     for (TemplateListener listener : this.templateListeners) {
       listener.templateRemoved(this, template);
     }
@@ -1241,6 +1245,7 @@ public class LXMidiEngine extends LXComponent implements LXOscComponent {
     }
     this.mutableTemplates.remove(template);
     this.mutableTemplates.add(index, template);
+    markModified();
     for (TemplateListener listener : this.templateListeners) {
       listener.templateMoved(this, template);
     }
@@ -39,6 +39,7 @@ import heronarts.lx.model.LXModel;
 import heronarts.lx.parameter.BooleanParameter;
 import heronarts.lx.parameter.EnumParameter;
 import heronarts.lx.parameter.LXParameter;
+import heronarts.lx.parameter.MutableParameter;
 import heronarts.lx.parameter.ObjectParameter;
 import heronarts.lx.structure.view.LXViewDefinition;
 import heronarts.lx.structure.view.LXViewEngine;
@@ -80,6 +81,14 @@ public abstract class LXAbstractChannel extends LXBus implements LXComponent.Ren
   // are actively animating (e.g. they are enabled or cued)
   boolean isAnimating;
 
+  // Set by the mixer each frame when channel culling is enabled. A channel that
+  // is not rendering advances its modulators but skips pattern and effect rendering.
+  // A channel that is not visible is not blended into any bus, which is the case
+  // while rendering warms up after having been culled.
+  boolean isRendering = true;
+  boolean isVisible = true;
+  double warmupRemainingMs = 0;
+
   /**
    * The index of this channel in the engine.
    */
@@ -121,6 +130,14 @@ public abstract class LXAbstractChannel extends LXBus implements LXComponent.Ren
     new EnumParameter<CrossfadeGroup>("Group", CrossfadeGroup.BYPASS)
     .setDescription("Assigns this channel to crossfader group A or B");
 
+  /**
+   * A semaphore used to keep count of how many UI previews are showing this channel's
+   * own output. Channels with active previews are never culled by the mixer.
+   */
+  public final MutableParameter previewSemaphore =
+    new MutableParameter("Previews", 0)
+    .setDescription("How many UI previews are showing this channel");
+
   /**
    * Whether this channel should show in the cue UI.
    */
@@ -291,6 +291,7 @@ public abstract class LXBus extends LXModelComponent implements LXPresetComponen
     this.mutableEffects.add(index, effect);
     effect.setBus(this);
     _reindexEffects();
+    invalidateDeviceViews();
     for (Listener listener : this.listeners) {
       listener.effectAdded(this, effect);
     }
@@ -307,6 +308,7 @@ public abstract class LXBus extends LXModelComponent implements LXPresetComponen
         this.mutableEffects.get(index).setIndex(index);
         ++index;
       }
+      invalidateDeviceViews();
       for (Listener listener : this.listeners) {
         listener.effectRemoved(this, effect);
       }
@@ -315,6 +317,13 @@ public abstract class LXBus extends LXModelComponent implements LXPresetComponen
     return this;
   }
 
+  /**
+   * Invoked when a device is added to or removed from this bus, or one of its
+   * devices changes view. Subclasses that cache state derived from the views
+   * of their devices invalidate it here.
+   */
+  public void invalidateDeviceViews() {}
+
   private void _reindexEffects() {
     int i = 0;
     for (LXEffect e : this.mutableEffects) {
@@ -333,6 +342,7 @@ public abstract class LXBus extends LXModelComponent implements LXPresetComponen
     this.mutableEffects.remove(effect);
     this.mutableEffects.add(index, effect);
     _reindexEffects();
+    markModified();
     for (Listener listener : this.listeners) {
       listener.effectMoved(this, effect);
     }
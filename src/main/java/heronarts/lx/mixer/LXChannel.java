@@ -25,6 +25,7 @@ import heronarts.lx.ModelBuffer;
 import heronarts.lx.blend.LXBlend;
 import heronarts.lx.clip.LXChannelClip;
 import heronarts.lx.clip.LXClip;
+import heronarts.lx.color.LXColor;
 import heronarts.lx.effect.LXEffect;
 import heronarts.lx.midi.LXShortMessage;
 import heronarts.lx.midi.MidiPanic;
@@ -47,6 +48,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
@@ -139,6 +143,13 @@ public class LXChannel extends LXAbstractChannel {
     new BooleanParameter("Damping", true)
     .setDescription("Whether damping is enabled when a pattern is enabled or disabled");
 
+  /**
+   * Whether patterns are rendered concurrently in blending mode
+   */
+  public final BooleanParameter compositeThreaded =
+    new BooleanParameter("Composite Threaded", false)
+    .setDescription("Whether patterns in blend mode are rendered concurrently on worker threads, then blended in order");
+
   /**
    * Damping time when a pattern is enabled or disabled in blending mode
    */
@@ -227,6 +238,20 @@ public class LXChannel extends LXAbstractChannel {
 
   private long transitionMillis = 0;
 
+  // View that was last fully cleared in the blend buffer
+  private LXModel clearedView = null;
+
+  // Whether any pattern or effect renders to a view of its own, recomputed
+  // only after a device is added or removed or changes view
+  private volatile boolean deviceViewsValid = false;
+  private boolean hasDeviceViews = false;
+
+  // Working state for parallel composite rendering, only used on the channel loop thread
+  private final List<LXPattern> compositePatterns = new ArrayList<LXPattern>();
+  private double[] compositeLevels = new double[0];
+  private final List<ModelBuffer> compositeBuffers = new ArrayList<ModelBuffer>();
+  private final List<Future<?>> compositeFutures = new ArrayList<Future<?>>();
+
   public LXChannel(LX lx, int index, LXPattern[] patterns) {
     super(lx, index, "Channel-" + (index+1));
 
@@ -252,6 +277,7 @@ public class LXChannel extends LXAbstractChannel {
     addParameter("compositeMode", this.compositeMode);
     addParameter("compositeDampingEnabled", this.compositeDampingEnabled);
     addParameter("compositeDampingTimeSecs", this.compositeDampingTimeSecs);
+    addParameter("compositeThreaded", this.compositeThreaded);
     addParameter("autoCycleEnabled", this.autoCycleEnabled);
     addParameter("autoCycleMode", this.autoCycleMode);
     addParameter("autoCycleTimeSecs", this.autoCycleTimeSecs);
@@ -457,6 +483,7 @@ public class LXChannel extends LXAbstractChannel {
   LXChannel setGroup(LXGroup group) {
     if (this.group != group) {
       this.group = group;
+      markModified();
       this.listeners.forEach(listener -> listener.groupChanged(this, group));
     }
     return this;
@@ -531,6 +558,7 @@ public class LXChannel extends LXAbstractChannel {
       throw new IllegalArgumentException("Invalid pattern index: " + index);
     }
     pattern.setChannel(this);
+    invalidateDeviceViews();
 
     // Make sure focused pattern doesn't change
     final LXPattern focusedPattern = getFocusedPattern();
@@ -609,6 +637,7 @@ public class LXChannel extends LXAbstractChannel {
       activateNext = true;
     }
     this.mutablePatterns.remove(index);
+    invalidateDeviceViews();
     for (int i = index; i < this.mutablePatterns.size(); ++i) {
       this.mutablePatterns.get(i).setIndex(i);
     }
@@ -679,6 +708,7 @@ public class LXChannel extends LXAbstractChannel {
     }
     this.activePatternIndex = activePattern.getIndex();
     this.nextPatternIndex = nextPattern.getIndex();
+    markModified();
     this.listeners.forEach(listener -> listener.patternMoved(this, pattern));
     if (pattern == focusedPattern) {
       this.focusedPattern.setValue(pattern.getIndex());
@@ -938,6 +968,7 @@ public class LXChannel extends LXAbstractChannel {
   private void finishTransition() {
     getActivePattern().deactivate(LXMixerEngine.patternFriendAccess);
     this.activePatternIndex = this.nextPatternIndex;
+    markModified();
     LXPattern activePattern = getActivePattern();
     if (this.transition != null) {
       activePattern.onTransitionEnd();
@@ -964,6 +995,152 @@ public class LXChannel extends LXAbstractChannel {
     }
   }
 
+  @Override
+  public void invalidateDeviceViews() {
+    this.deviceViewsValid = false;
+  }
+
+  private boolean hasDeviceViews() {
+    if (!this.deviceViewsValid) {
+      // Marked valid first, so an invalidation while computing is not lost
+      this.deviceViewsValid = true;
+      this.hasDeviceViews = computeHasDeviceViews();
+    }
+    return this.hasDeviceViews;
+  }
+
+  private boolean computeHasDeviceViews() {
+    for (LXPattern pattern : this.patterns) {
+      if (pattern.view.getObject() != null) {
+        return true;
+      }
+      for (LXEffect effect : pattern.effects) {
+        if (effect.view.getObject() != null) {
+          return true;
+        }
+      }
+    }
+    for (LXEffect effect : this.effects) {
+      if (effect.view.getObject() != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void loopCompositeModulation(double deltaMs, boolean dampingEnabled, double dampingTimeSecs) {
+    for (LXPattern pattern : this.patterns) {
+      pattern.updateCompositeDamping(deltaMs, dampingEnabled, dampingTimeSecs);
+      if (pattern.getCompositeDampingLevel() > 0) {
+        pattern.loopModulation(deltaMs);
+      }
+    }
+  }
+
+  private void loopComposite(double deltaMs, boolean dampingEnabled, double dampingTimeSecs) {
+    for (LXPattern pattern : this.patterns) {
+      pattern.updateCompositeDamping(deltaMs, dampingEnabled, dampingTimeSecs);
+      final double patternDamping = pattern.getCompositeDampingLevel();
+      if (patternDamping == 0) {
+        continue;
+      }
+      final LXModel patternView = pattern.getModelView();
+      pattern.setBuffer(this.renderBuffer);
+      pattern.setModel(patternView);
+      pattern.loop(deltaMs);
+      pattern.compositeMode.getObject().blend(
+        this.colors,
+        pattern.getColors(),
+        patternDamping * pattern.compositeLevel.getValue(),
+        this.colors,
+        patternView
+      );
+    }
+  }
+
+  /**
+   * Renders the composited patterns concurrently, each into its own scratch buffer
+   * from the mixer's shared pool. Patterns are rendered in groups no larger than the
+   * number of worker threads, so the number of scratch buffers in use is bounded
+   * regardless of how many patterns are on the channel. Each group is blended in
+   * the original pattern order once it has finished rendering.
+   */
+  private void loopCompositeThreaded(double deltaMs, boolean dampingEnabled, double dampingTimeSecs) {
+    final LXMixerEngine mixer = this.lx.engine.mixer;
+
+    this.compositePatterns.clear();
+    for (LXPattern pattern : this.patterns) {
+      pattern.updateCompositeDamping(deltaMs, dampingEnabled, dampingTimeSecs);
+      if (pattern.getCompositeDampingLevel() > 0) {
+        this.compositePatterns.add(pattern);
+      }
+    }
+    final int numPatterns = this.compositePatterns.size();
+    if (this.compositeLevels.length < numPatterns) {
+      this.compositeLevels = new double[numPatterns];
+    }
+    for (int i = 0; i < numPatterns; ++i) {
+      final LXPattern pattern = this.compositePatterns.get(i);
+      this.compositeLevels[i] = pattern.getCompositeDampingLevel() * pattern.compositeLevel.getValue();
+    }
+    if (numPatterns == 1) {
+      // Nothing to parallelize
+      final LXPattern pattern = this.compositePatterns.get(0);
+      pattern.setBuffer(this.renderBuffer);
+      pattern.setModel(pattern.getModelView());
+      pattern.loop(deltaMs);
+      pattern.compositeMode.getObject().blend(this.colors, pattern.getColors(), this.compositeLevels[0], this.colors, pattern.getModelView());
+      return;
+    }
+
+    final ExecutorService workerPool = mixer.getCompositeWorkerPool();
+    final int groupSize = mixer.compositeParallelism;
+    for (int start = 0; start < numPatterns; start += groupSize) {
+      final int end = Math.min(numPatterns, start + groupSize);
+      for (int i = start; i < end; ++i) {
+        final LXPattern pattern = this.compositePatterns.get(i);
+        final ModelBuffer buffer = mixer.acquireCompositeBuffer();
+        this.compositeBuffers.add(buffer);
+        pattern.setBuffer(buffer);
+        pattern.setModel(pattern.getModelView());
+        if (i > start) {
+          this.compositeFutures.add(workerPool.submit(() -> pattern.loop(deltaMs)));
+        }
+      }
+
+      // Render the first pattern of the group on this thread while the others run
+      this.compositePatterns.get(start).loop(deltaMs);
+      for (Future<?> future : this.compositeFutures) {
+        try {
+          future.get();
+        } catch (InterruptedException ix) {
+          Thread.currentThread().interrupt();
+        } catch (ExecutionException x) {
+          LX.error(x.getCause(), "Unexpected error in composite pattern render: " + x.getCause().getLocalizedMessage());
+        }
+      }
+      this.compositeFutures.clear();
+
+      for (int i = start; i < end; ++i) {
+        final LXPattern pattern = this.compositePatterns.get(i);
+        pattern.compositeMode.getObject().blend(
+          this.colors,
+          pattern.getColors(),
+          this.compositeLevels[i],
+          this.colors,
+          pattern.getModelView()
+        );
+        // Scratch buffers go back to the pool and may be handed to another channel,
+        // so the pattern must not keep referencing one after it has been blended
+        pattern.setBuffer(this.renderBuffer);
+      }
+      for (ModelBuffer buffer : this.compositeBuffers) {
+        mixer.releaseCompositeBuffer(buffer);
+      }
+      this.compositeBuffers.clear();
+    }
+  }
+
   @Override
   public void loop(double deltaMs) {
     long loopStart = System.nanoTime();
@@ -984,8 +1161,21 @@ public class LXChannel extends LXAbstractChannel {
     // Initialize colors to transparent. This needs to be done no matter
     // what the mixing mode is, because sub-patterns/effects may render
     // to views that only touch a subset of the channel's view. We don't
-    // want to leave old frame cruft in the channel buffer in that case
-    this.blendBuffer.copyFrom(this.lx.engine.mixer.backgroundTransparent);
+    // want to leave old frame cruft in the channel buffer in that case.
+    // Only the channel's view is ever blended, so that is all that needs
+    // clearing, unless a device renders to some other view of its own.
+    final LXModel channelView = getModelView();
+    if (!this.isRendering) {
+      // Culled by the mixer, nothing will be blended this frame
+    } else if (hasDeviceViews()) {
+      this.blendBuffer.copyFrom(this.lx.engine.mixer.backgroundTransparent);
+      this.clearedView = null;
+    } else if (channelView != this.clearedView) {
+      this.blendBuffer.copyFrom(this.lx.engine.mixer.backgroundTransparent);
+      this.clearedView = channelView;
+    } else {
+      this.blendBuffer.fill(LXColor.CLEAR, channelView);
+    }
 
     if (this.compositeMode.getEnum() == CompositeMode.BLEND) {
 
@@ -995,23 +1185,12 @@ public class LXChannel extends LXAbstractChannel {
       final boolean dampingEnabled = this.compositeDampingEnabled.isOn();
       final double dampingTimeSecs = this.compositeDampingTimeSecs.getValue();
 
-      for (LXPattern pattern : this.patterns) {
-        pattern.updateCompositeDamping(deltaMs, dampingEnabled, dampingTimeSecs);
-        final double patternDamping = pattern.getCompositeDampingLevel();
-        if (patternDamping == 0) {
-          continue;
-        }
-        final LXModel patternView = pattern.getModelView();
-        pattern.setBuffer(this.renderBuffer);
-        pattern.setModel(patternView);
-        pattern.loop(deltaMs);
-        pattern.compositeMode.getObject().blend(
-          this.colors,
-          pattern.getColors(),
-          patternDamping * pattern.compositeLevel.getValue(),
-          this.colors,
-          patternView
-        );
+      if (!this.isRendering) {
+        loopCompositeModulation(deltaMs, dampingEnabled, dampingTimeSecs);
+      } else if (this.compositeThreaded.isOn()) {
+        loopCompositeThreaded(deltaMs, dampingEnabled, dampingTimeSecs);
+      } else {
+        loopComposite(deltaMs, dampingEnabled, dampingTimeSecs);
       }
 
     } else {
@@ -1053,7 +1232,11 @@ public class LXChannel extends LXAbstractChannel {
       }
 
       // Run active pattern
-      if (activePattern != null) {
+      if (!this.isRendering) {
+        if (activePattern != null) {
+          activePattern.loopModulation(deltaMs);
+        }
+      } else if (activePattern != null) {
         activePattern.setBuffer(this.blendBuffer);
         activePattern.setModel(activePattern.getModelView());
         activePattern.loop(deltaMs);
@@ -1067,17 +1250,22 @@ public class LXChannel extends LXAbstractChannel {
         this.autoCycleProgress = 1.;
         this.transitionProgress = (this.lx.engine.nowMillis - this.transitionMillis) / (1000 * this.transitionTimeSecs.getValue());
         final LXPattern nextPattern = getNextPattern();
-        nextPattern.setBuffer(this.renderBuffer);
-        nextPattern.setModel(nextPattern.getModelView());
-        nextPattern.loop(deltaMs);
-        this.transition.loop(deltaMs);
-        this.transition.lerp(
-          this.colors,
-          this.renderBuffer.getArray(),
-          this.transitionProgress,
-          this.colors,
-          getModelView()
-        );
+        if (!this.isRendering) {
+          nextPattern.loopModulation(deltaMs);
+          this.transition.loop(deltaMs);
+        } else {
+          nextPattern.setBuffer(this.renderBuffer);
+          nextPattern.setModel(nextPattern.getModelView());
+          nextPattern.loop(deltaMs);
+          this.transition.loop(deltaMs);
+          this.transition.lerp(
+            this.colors,
+            this.renderBuffer.getArray(),
+            this.transitionProgress,
+            this.colors,
+            getModelView()
+          );
+        }
       } else {
         this.transitionProgress = 0;
       }
@@ -1089,9 +1277,13 @@ public class LXChannel extends LXAbstractChannel {
     long effectStart = System.nanoTime();
     if (!this.mutableEffects.isEmpty()) {
       for (LXEffect effect : this.mutableEffects) {
-        effect.setBuffer(this.blendBuffer);
-        effect.setModel(effect.getModelView());
-        effect.loop(deltaMs);
+        if (!this.isRendering) {
+          effect.loopModulation(deltaMs);
+        } else {
+          effect.setBuffer(this.blendBuffer);
+          effect.setModel(effect.getModelView());
+          effect.loop(deltaMs);
+        }
       }
     }
     ((LXBus.Profiler) this.profiler).effectNanos = System.nanoTime() - effectStart;
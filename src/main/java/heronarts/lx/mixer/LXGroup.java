@@ -110,6 +110,14 @@ public class LXGroup extends LXAbstractChannel {
   }
 
   void afterLoop(double deltaMs) {
+    if (!this.isRendering) {
+      // Culled by the mixer, just keep group effect modulation moving
+      for (LXEffect effect : this.effects) {
+        effect.loopModulation(deltaMs);
+      }
+      return;
+    }
+
     // Composite all the channels in this group
     long compositeStart = System.nanoTime();
 
@@ -120,7 +128,7 @@ public class LXGroup extends LXAbstractChannel {
 
     // Blend all channels that are enabled.
     for (LXChannel channel : this.channels) {
-      if (channel.enabled.isOn()) {
+      if (channel.enabled.isOn() && channel.isVisible) {
         channel.blendMode.getObject().blend(
           this.colors,
           channel.getColors(),
@@ -23,6 +23,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
@@ -44,6 +47,7 @@ import heronarts.lx.osc.LXOscComponent;
 import heronarts.lx.osc.LXOscEngine;
 import heronarts.lx.osc.OscMessage;
 import heronarts.lx.parameter.BooleanParameter;
+import heronarts.lx.parameter.BoundedParameter;
 import heronarts.lx.parameter.CompoundParameter;
 import heronarts.lx.parameter.DiscreteParameter;
 import heronarts.lx.parameter.LXParameter;
@@ -126,11 +130,34 @@ public class LXMixerEngine extends LXComponent implements LXOscComponent {
     new BooleanParameter("Auto-Mute Default", false)
     .setDescription("Whether new channels have Auto-Mute enabled by default");
 
+  public final BooleanParameter cullChannels =
+    new BooleanParameter("Cull Channels", false)
+    .setDescription("Whether channels whose output cannot reach any bus skip rendering, while their modulators keep running");
+
+  public final BoundedParameter cullWarmupMs =
+    new BoundedParameter("Cull Warm-up", 0, 0, 5000)
+    .setUnits(LXParameter.Units.MILLISECONDS)
+    .setDescription("How long a culled channel renders before it becomes visible again, giving stateful patterns time to settle");
+
   final ModelBuffer backgroundBlack;
   final ModelBuffer backgroundTransparent;
   private final ModelBuffer blendBufferLeft;
   private final ModelBuffer blendBufferRight;
 
+  // Scratch buffers for channels rendering composited patterns in parallel,
+  // shared by all channels and reused across frames
+  private final List<ModelBuffer> compositeBufferPool = new ArrayList<ModelBuffer>();
+
+  // Number of patterns a channel may render at once in parallel composite mode
+  final int compositeParallelism = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+  // Idle scratch buffers beyond this count are released rather than pooled
+  private final int maxPooledCompositeBuffers = 2 * this.compositeParallelism;
+
+  private ExecutorService compositeWorkerPool = null;
+
+  private static final AtomicInteger compositeThreadCount = new AtomicInteger(1);
+
   public final BooleanParameter viewCondensed =
     new BooleanParameter("View Condensed", false)
     .setDescription("Whether the mixer view should be condensed");
@@ -215,6 +242,8 @@ public class LXMixerEngine extends LXComponent implements LXOscComponent {
     addParameter("auxA", this.auxA);
     addParameter("auxB", this.auxB);
     addParameter("autoMuteDefault", this.autoMuteDefault);
+    addParameter("cullChannels", this.cullChannels);
+    addParameter("cullWarmupMs", this.cullWarmupMs);
     addParameter("viewCondensed", this.viewCondensed);
     addParameter("viewStacked", this.viewStacked);
     addParameter("viewDeviceBin", this.viewDeviceBin);
@@ -647,6 +676,8 @@ public class LXMixerEngine extends LXComponent implements LXOscComponent {
     for (LXAbstractChannel channelBus : this.channels) {
       channelBus.setIndex(i++);
     }
+    // Channel order is serialized by the mixer
+    markModified();
   }
 
   public void removeSelectedChannels() {
@@ -976,6 +1007,60 @@ public class LXMixerEngine extends LXComponent implements LXOscComponent {
   private final BlendStack blendStackLeft = new BlendStack();
   private final BlendStack blendStackRight = new BlendStack();
 
+  private boolean isContributing(LXAbstractChannel channel, boolean blendLeft, boolean blendRight, boolean isPerformanceMode) {
+    if (channel.cueActive.isOn() || (isPerformanceMode && channel.auxActive.isOn()) || (channel.previewSemaphore.getValue() > 0)) {
+      return true;
+    }
+    if (!channel.enabled.isOn() || (channel.fader.getValue() == 0)) {
+      return false;
+    }
+    final LXGroup group = channel.getGroup();
+    if (group != null) {
+      return group.isRendering;
+    }
+    switch (channel.crossfadeGroup.getEnum()) {
+    case A:
+      return blendLeft;
+    case B:
+      return blendRight;
+    default:
+      return true;
+    }
+  }
+
+  /**
+   * Marks which channels need to render this frame. A channel is culled when it is
+   * not cued, aux'd or previewed, and is either disabled, faded out, in a group that
+   * is culled, or in a crossfade group whose bus is not being blended. Culled channels
+   * still run their modulators. A channel that resumes rendering is held back from
+   * blending for the warm-up period.
+   */
+  private void updateChannelCulling(double deltaMs, boolean blendLeft, boolean blendRight, boolean isPerformanceMode) {
+    final boolean cullChannels = this.cullChannels.isOn();
+    // Top-level channels and groups first, then channels within groups
+    for (int pass = 0; pass < 2; ++pass) {
+      for (LXAbstractChannel channel : this.channels) {
+        if ((channel.getGroup() == null) == (pass == 0)) {
+          updateChannelCulling(channel, deltaMs, cullChannels && !isContributing(channel, blendLeft, blendRight, isPerformanceMode));
+        }
+      }
+    }
+  }
+
+  private void updateChannelCulling(LXAbstractChannel channel, double deltaMs, boolean cull) {
+    if (cull) {
+      channel.isRendering = false;
+      channel.isVisible = false;
+    } else if (!channel.isRendering) {
+      channel.isRendering = true;
+      channel.warmupRemainingMs = this.cullWarmupMs.getValue();
+      channel.isVisible = channel.warmupRemainingMs <= 0;
+    } else if (!channel.isVisible) {
+      channel.warmupRemainingMs -= deltaMs;
+      channel.isVisible = channel.warmupRemainingMs <= 0;
+    }
+  }
+
   public void loop(LXEngine.Frame render, double deltaMs) {
     long channelStart = System.nanoTime();
 
@@ -996,6 +1081,12 @@ public class LXMixerEngine extends LXComponent implements LXOscComponent {
     final boolean isChannelMultithreaded = this.lx.engine.isChannelMultithreaded.isOn();
     final boolean isPerformanceMode = this.lx.engine.performanceMode.isOn();
 
+    boolean blendLeft = leftBusActive || this.cueA.isOn() || (isPerformanceMode && this.auxA.isOn());
+    boolean blendRight = rightBusActive || this.cueB.isOn() || (isPerformanceMode && this.auxB.isOn());
+
+    // Step 0: Determine which channels can contribute to any bus this frame
+    updateChannelCulling(deltaMs, blendLeft, blendRight, isPerformanceMode);
+
     // Step 1a: Loop all of the channels
     if (isChannelMultithreaded) {
       // If we are in super-threaded mode, run the channels on their own threads!
@@ -1056,8 +1147,6 @@ public class LXMixerEngine extends LXComponent implements LXOscComponent {
     }
 
     // Step 3: blend the channel buffers down
-    boolean blendLeft = leftBusActive || this.cueA.isOn() || (isPerformanceMode && this.auxA.isOn());
-    boolean blendRight = rightBusActive || this.cueB.isOn() || (isPerformanceMode && this.auxB.isOn());
     boolean leftExists = false, rightExists = false;
     for (LXAbstractChannel channel : this.channels) {
       long blendStart = System.nanoTime();
@@ -1086,7 +1175,7 @@ public class LXMixerEngine extends LXComponent implements LXOscComponent {
           break;
         }
 
-        if (blendStack != null && channel.enabled.isOn()) {
+        if (blendStack != null && channel.enabled.isOn() && channel.isVisible) {
           double alpha = channel.fader.getValue();
           if (alpha > 0) {
             blendStack.blend(channel.blendMode.getObject(), channel.getColors(), alpha, channel.getModelView());
@@ -1097,13 +1186,17 @@ public class LXMixerEngine extends LXComponent implements LXOscComponent {
       // Blend into the cue buffer, always a direct add blend for any type of channel
       if (channel.cueActive.isOn()) {
         cueBusActive = true;
-        this.blendStackCue.blend(this.addBlend, channel.getColors(), 1, channel.getModelView());
+        if (channel.isVisible) {
+          this.blendStackCue.blend(this.addBlend, channel.getColors(), 1, channel.getModelView());
+        }
       }
 
       // Blend into the aux buffer when in performance mode
       if (isPerformanceMode && channel.auxActive.isOn()) {
         auxBusActive = true;
-        this.blendStackAux.blend(this.addBlend, channel.getColors(), 1, channel.getModelView());
+        if (channel.isVisible) {
+          this.blendStackAux.blend(this.addBlend, channel.getColors(), 1, channel.getModelView());
+        }
       }
 
       ((LXAbstractChannel.Profiler) channel.profiler).blendNanos = System.nanoTime() - blendStart;
@@ -1216,9 +1309,56 @@ public class LXMixerEngine extends LXComponent implements LXOscComponent {
     }
   }
 
+  /**
+   * Gets the worker pool used by channels rendering composited patterns in
+   * parallel, starting it if necessary
+   *
+   * @return Composite rendering worker pool
+   */
+  synchronized ExecutorService getCompositeWorkerPool() {
+    if (this.compositeWorkerPool == null) {
+      this.compositeWorkerPool = Executors.newFixedThreadPool(this.compositeParallelism - 1, runnable -> {
+        final Thread thread = new Thread(runnable, "LXComposite thread #" + compositeThreadCount.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+      });
+      LX.log("LXMixerEngine started " + (this.compositeParallelism - 1) + " composite worker threads");
+    }
+    return this.compositeWorkerPool;
+  }
+
+  ModelBuffer acquireCompositeBuffer() {
+    synchronized (this.compositeBufferPool) {
+      if (!this.compositeBufferPool.isEmpty()) {
+        return this.compositeBufferPool.remove(this.compositeBufferPool.size() - 1);
+      }
+    }
+    return new ModelBuffer(this.lx);
+  }
+
+  void releaseCompositeBuffer(ModelBuffer buffer) {
+    synchronized (this.compositeBufferPool) {
+      if (this.compositeBufferPool.size() < this.maxPooledCompositeBuffers) {
+        this.compositeBufferPool.add(buffer);
+        return;
+      }
+    }
+    buffer.dispose();
+  }
+
   @Override
   public void dispose() {
     clear();
+    synchronized (this) {
+      if (this.compositeWorkerPool != null) {
+        this.compositeWorkerPool.shutdown();
+        this.compositeWorkerPool = null;
+      }
+    }
+    synchronized (this.compositeBufferPool) {
+      this.compositeBufferPool.forEach(buffer -> buffer.dispose());
+      this.compositeBufferPool.clear();
+    }
     LX.dispose(this.masterBus);
     super.dispose();
     disposeCrossfaderBlendOptions();
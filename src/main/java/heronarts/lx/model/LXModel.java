@@ -21,8 +21,10 @@ package heronarts.lx.model;
 import java.io.File;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -53,6 +55,88 @@ import heronarts.lx.utils.LXUtils;
 */
 public class LXModel extends LXNormalizationBounds implements LXSerializable {
 
+  /**
+   * Index of the submodel tree beneath a model, built once on demand. Models
+   * are numbered in depth-first order so that every subtree occupies a
+   * contiguous range of positions, which reduces containment checks to a
+   * range comparison. The tree of a model never changes after construction,
+   * so the index remains valid for the lifetime of the model.
+   */
+  static final class TreeIndex {
+
+    private final Map<LXModel, Integer> position = new IdentityHashMap<LXModel, Integer>();
+    private final LXModel[] models;
+    private final int[] parent;
+    private final int[] end;
+
+    private TreeIndex(LXModel root) {
+      final int size = count(root);
+      this.models = new LXModel[size];
+      this.parent = new int[size];
+      this.end = new int[size];
+      add(root, -1, 0);
+    }
+
+    private static int count(LXModel model) {
+      int count = 1;
+      for (LXModel child : model.children) {
+        count += count(child);
+      }
+      return count;
+    }
+
+    private int add(LXModel model, int parent, int index) {
+      final int position = index++;
+      this.position.put(model, position);
+      this.models[position] = model;
+      this.parent[position] = parent;
+      for (LXModel child : model.children) {
+        index = add(child, position, index);
+      }
+      this.end[position] = index;
+      return index;
+    }
+
+    /**
+     * Position of the model in this tree
+     *
+     * @param model Model
+     * @return Position, or -1 if the model is not in this tree
+     */
+    int positionOf(LXModel model) {
+      final Integer position = this.position.get(model);
+      return (position == null) ? -1 : position;
+    }
+
+    /**
+     * Exclusive end of the range of positions covered by the subtree at a position
+     *
+     * @param position Position
+     * @return End of subtree range
+     */
+    int endOf(int position) {
+      return this.end[position];
+    }
+
+    /**
+     * Position of the parent of the model at the given position
+     *
+     * @param position Position
+     * @return Parent position, or -1 for the root
+     */
+    int parentOf(int position) {
+      return this.parent[position];
+    }
+
+    LXModel get(int position) {
+      return this.models[position];
+    }
+
+    boolean contains(int ancestor, int descendant) {
+      return (descendant > ancestor) && (descendant < this.end[ancestor]);
+    }
+  }
+
   /**
    * A collection of helpful pre-defined constants for the most common model
    * tag types.
@@ -205,6 +289,13 @@ public class LXModel extends LXNormalizationBounds implements LXSerializable {
 
   final List<LXView> derivedViews = new ArrayList<LXView>();
 
+  private TreeIndex treeIndex = null;
+
+  private LXSpatialIndex spatialIndex = null;
+
+  // Views shared between callers of LXView.share(), keyed by their definition
+  final Map<String, LXView> sharedViews = new HashMap<String, LXView>();
+
   /**
    * Helper field set to signal to the UI that a view derived from this
    * model has the CUE flag active. Internal API use only.
@@ -229,6 +320,9 @@ public class LXModel extends LXNormalizationBounds implements LXSerializable {
 
   private int generation = 0;
 
+  // Lazily computed ranges of contiguous point indices
+  private volatile int[] indexSpans = null;
+
   /**
    * Total number of points in the model
    */
@@ -726,6 +820,16 @@ public class LXModel extends LXNormalizationBounds implements LXSerializable {
    * @return true if the descendant is contained by this model tree
    */
   public boolean contains(LXModel descendant) {
+    // Check the tree index of the root, if both are indexed beneath it
+    final TreeIndex index = getRoot().getTreeIndex();
+    final int position = index.positionOf(this);
+    if (position >= 0) {
+      final int descendantPosition = index.positionOf(descendant);
+      if (descendantPosition >= 0) {
+        return index.contains(position, descendantPosition);
+      }
+    }
+
     // Do a quick child-list pass first
     for (LXModel child : this.children) {
       if (child == descendant) {
@@ -743,6 +847,33 @@ public class LXModel extends LXNormalizationBounds implements LXSerializable {
     return false;
   }
 
+  /**
+   * Gets the index of the tree of submodels beneath this model, building it
+   * on first use
+   *
+   * @return Tree index
+   */
+  synchronized TreeIndex getTreeIndex() {
+    if (this.treeIndex == null) {
+      this.treeIndex = new TreeIndex(this);
+    }
+    return this.treeIndex;
+  }
+
+  /**
+   * Gets a spatial index over the normalized coordinates of the points in this
+   * model, for radius, nearest-neighbor and ray queries. The index is built on
+   * first use and rebuilt when the generation of this model changes.
+   *
+   * @return Spatial index of the points in this model
+   */
+  public synchronized LXSpatialIndex getSpatialIndex() {
+    if ((this.spatialIndex == null) || (this.spatialIndex.generation != this.generation)) {
+      this.spatialIndex = new LXSpatialIndex(this);
+    }
+    return this.spatialIndex;
+  }
+
   public String getPath() {
     LXModel parent = this.parent;
     boolean hasTag = !this.tags.isEmpty();
@@ -781,9 +912,17 @@ public class LXModel extends LXNormalizationBounds implements LXSerializable {
     for (LXPoint p : this.points) {
       p.index = index++;
     }
+    clearIndexSpans();
     return this;
   }
 
+  private void clearIndexSpans() {
+    this.indexSpans = null;
+    for (LXModel child : this.children) {
+      child.clearIndexSpans();
+    }
+  }
+
   private void addChildren(LXModel[] children) {
     addChildren(children, true);
   }
@@ -964,12 +1103,7 @@ public class LXModel extends LXNormalizationBounds implements LXSerializable {
 
     // Update any views that were derived from this model
     for (LXView view : this.derivedViews) {
-      for (LXPoint p : this.points) {
-        LXPoint clone = view.clonedPoints.get(p.index);
-        if (clone != null) {
-          clone.set(p);
-        }
-      }
+      view.updateSourcePoints();
 
       // The view now needs overall re-normalization
       boolean normalizeView = normalize && (view.normalization == LXView.Normalization.RELATIVE);
@@ -1166,6 +1300,43 @@ public class LXModel extends LXNormalizationBounds implements LXSerializable {
     return this;
   }
 
+  /**
+   * Gets the indices of all points in this model as a set of contiguous ranges,
+   * packed into an array of [start, end) pairs in ascending order. Code that
+   * processes a model's points in a color buffer, such as blending and clearing,
+   * may iterate these ranges rather than dereferencing every LXPoint. Most models
+   * and views are made of just a few ranges.
+   *
+   * @return Packed array of start (inclusive) and end (exclusive) index pairs
+   */
+  public int[] getIndexSpans() {
+    int[] spans = this.indexSpans;
+    if (spans == null) {
+      final int[] indices = new int[this.points.length];
+      for (int i = 0; i < indices.length; ++i) {
+        indices[i] = this.points[i].index;
+      }
+      Arrays.sort(indices);
+      int numSpans = 0;
+      for (int i = 0; i < indices.length; ++i) {
+        if ((i == 0) || (indices[i] > indices[i-1] + 1)) {
+          ++numSpans;
+        }
+      }
+      spans = new int[2 * numSpans];
+      int s = -2;
+      for (int i = 0; i < indices.length; ++i) {
+        if ((i == 0) || (indices[i] > indices[i-1] + 1)) {
+          s += 2;
+          spans[s] = indices[i];
+        }
+        spans[s+1] = indices[i] + 1;
+      }
+      this.indexSpans = spans;
+    }
+    return spans;
+  }
+
   /**
    * Accessor for a list of all points in the model. Generally preferable
    * to directly access the points array when iterating over a full buffer,
@@ -34,6 +34,16 @@ public class LXNormalizationBounds {
     this.orientationInv = new LXMatrix().setInverse(reference.transform);
   }
 
+  /**
+   * Recomputes the inverse of the orientation transform, which must be done
+   * when the orientation model's transform has been modified in place
+   */
+  void updateOrientation() {
+    if (this.orientationModel != null) {
+      this.orientationInv.setInverse(this.orientationModel.transform);
+    }
+  }
+
   public LXModel getOrientation() {
     return this.orientationModel;
   }
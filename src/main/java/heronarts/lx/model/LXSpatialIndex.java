@@ -0,0 +1,389 @@
+/**
+ * Copyright 2026- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.model;
+
+/**
+ * A bounding volume hierarchy over the normalized coordinates (xn, yn, zn) of
+ * the points in a model. Obtain an instance via {@link LXModel#getSpatialIndex()},
+ * which builds the index on first use and rebuilds it whenever the geometry
+ * generation of the model changes.
+ *
+ * The hierarchy is built by recursive median splits along the longest axis of
+ * each node's bounds, so it is balanced and its depth is logarithmic in the
+ * number of points. Queries are performed in the normalized coordinate space
+ * of the points, write the {@link LXPoint#index} of matching points into a
+ * caller-provided array, and do not allocate. An index is immutable once
+ * built and is safe to query from multiple threads.
+ */
+public class LXSpatialIndex {
+
+  private static final int LEAF_SIZE = 8;
+
+  /**
+   * The model this index was built from
+   */
+  public final LXModel model;
+
+  /**
+   * Number of points in the index
+   */
+  public final int size;
+
+  final int generation;
+
+  // Point coordinates and indices, ordered such that every node covers a contiguous range
+  private final float[] x;
+  private final float[] y;
+  private final float[] z;
+  private final int[] index;
+
+  // Nodes in depth-first order, the left child of a node immediately follows it
+  private final float[] bounds;
+  private final int[] start;
+  private final int[] end;
+  private final int[] right;
+
+  LXSpatialIndex(LXModel model) {
+    this.model = model;
+    this.generation = model.getGeneration();
+    this.size = model.points.length;
+    this.x = new float[this.size];
+    this.y = new float[this.size];
+    this.z = new float[this.size];
+    this.index = new int[this.size];
+    for (int i = 0; i < this.size; ++i) {
+      final LXPoint p = model.points[i];
+      this.x[i] = p.xn;
+      this.y[i] = p.yn;
+      this.z[i] = p.zn;
+      this.index[i] = p.index;
+    }
+
+    final int numNodes = (this.size > 0) ? countNodes(this.size) : 0;
+    this.bounds = new float[numNodes * 6];
+    this.start = new int[numNodes];
+    this.end = new int[numNodes];
+    this.right = new int[numNodes];
+    if (numNodes > 0) {
+      build(0, 0, this.size);
+    }
+  }
+
+  private static int countNodes(int size) {
+    if (size <= LEAF_SIZE) {
+      return 1;
+    }
+    final int half = size / 2;
+    return 1 + countNodes(half) + countNodes(size - half);
+  }
+
+  private int build(int node, int start, int end) {
+    float xMin = Float.POSITIVE_INFINITY, yMin = Float.POSITIVE_INFINITY, zMin = Float.POSITIVE_INFINITY;
+    float xMax = Float.NEGATIVE_INFINITY, yMax = Float.NEGATIVE_INFINITY, zMax = Float.NEGATIVE_INFINITY;
+    for (int i = start; i < end; ++i) {
+      xMin = Math.min(xMin, this.x[i]);
+      yMin = Math.min(yMin, this.y[i]);
+      zMin = Math.min(zMin, this.z[i]);
+      xMax = Math.max(xMax, this.x[i]);
+      yMax = Math.max(yMax, this.y[i]);
+      zMax = Math.max(zMax, this.z[i]);
+    }
+    final int b = node * 6;
+    this.bounds[b] = xMin;
+    this.bounds[b+1] = yMin;
+    this.bounds[b+2] = zMin;
+    this.bounds[b+3] = xMax;
+    this.bounds[b+4] = yMax;
+    this.bounds[b+5] = zMax;
+    this.start[node] = start;
+    this.end[node] = end;
+
+    if (end - start <= LEAF_SIZE) {
+      this.right[node] = -1;
+      return node + 1;
+    }
+
+    // Partition about the median along the longest axis
+    final float xRange = xMax - xMin, yRange = yMax - yMin, zRange = zMax - zMin;
+    final float[] axis = (xRange >= yRange) ?
+      ((xRange >= zRange) ? this.x : this.z) :
+      ((yRange >= zRange) ? this.y : this.z);
+    final int mid = start + (end - start) / 2;
+    select(axis, start, end - 1, mid);
+
+    final int next = build(node + 1, start, mid);
+    this.right[node] = next;
+    return build(next, mid, end);
+  }
+
+  /**
+   * Partially sorts the range such that position k holds the value it would in
+   * sorted order, with no greater values before it and no lesser values after.
+   */
+  private void select(float[] axis, int lo, int hi, int k) {
+    while (hi > lo) {
+      final float pivot = axis[(lo + hi) >>> 1];
+      int i = lo, j = hi;
+      while (i <= j) {
+        while (axis[i] < pivot) {
+          ++i;
+        }
+        while (axis[j] > pivot) {
+          --j;
+        }
+        if (i <= j) {
+          swap(i++, j--);
+        }
+      }
+      if (k <= j) {
+        hi = j;
+      } else if (k >= i) {
+        lo = i;
+      } else {
+        return;
+      }
+    }
+  }
+
+  private void swap(int i, int j) {
+    final float x = this.x[i]; this.x[i] = this.x[j]; this.x[j] = x;
+    final float y = this.y[i]; this.y[i] = this.y[j]; this.y[j] = y;
+    final float z = this.z[i]; this.z[i] = this.z[j]; this.z[j] = z;
+    final int index = this.index[i]; this.index[i] = this.index[j]; this.index[j] = index;
+  }
+
+  private float distSq(int i, float x, float y, float z) {
+    final float dx = this.x[i] - x;
+    final float dy = this.y[i] - y;
+    final float dz = this.z[i] - z;
+    return dx*dx + dy*dy + dz*dz;
+  }
+
+  private float boxDistSq(int node, float x, float y, float z) {
+    final int b = node * 6;
+    final float dx = Math.max(0, Math.max(this.bounds[b] - x, x - this.bounds[b+3]));
+    final float dy = Math.max(0, Math.max(this.bounds[b+1] - y, y - this.bounds[b+4]));
+    final float dz = Math.max(0, Math.max(this.bounds[b+2] - z, z - this.bounds[b+5]));
+    return dx*dx + dy*dy + dz*dz;
+  }
+
+  /**
+   * Finds the points within a radius of a position. If more points are in range
+   * than fit in the result array, an arbitrary subset of them is returned.
+   *
+   * @param x Normalized x position
+   * @param y Normalized y position
+   * @param z Normalized z position
+   * @param radius Radius in normalized space
+   * @param result Array to fill with the indices of points in range
+   * @return Number of point indices written to the result array
+   */
+  public int range(float x, float y, float z, float radius, int[] result) {
+    return range(x, y, z, radius, result, null);
+  }
+
+  /**
+   * Finds the points within a radius of a position, along with their squared
+   * distances from it. If more points are in range than fit in the result
+   * array, an arbitrary subset of them is returned.
+   *
+   * @param x Normalized x position
+   * @param y Normalized y position
+   * @param z Normalized z position
+   * @param radius Radius in normalized space
+   * @param result Array to fill with the indices of points in range
+   * @param distanceSq Array to fill with the squared distance to each point, or null
+   * @return Number of point indices written to the result array
+   */
+  public int range(float x, float y, float z, float radius, int[] result, float[] distanceSq) {
+    if ((this.size == 0) || (radius < 0)) {
+      return 0;
+    }
+    return range(0, x, y, z, radius * radius, result, distanceSq, 0);
+  }
+
+  private int range(int node, float x, float y, float z, float radiusSq, int[] result, float[] distanceSq, int count) {
+    if ((count == result.length) || (boxDistSq(node, x, y, z) > radiusSq)) {
+      return count;
+    }
+    if (this.right[node] < 0) {
+      for (int i = this.start[node]; (i < this.end[node]) && (count < result.length); ++i) {
+        final float distSq = distSq(i, x, y, z);
+        if (distSq <= radiusSq) {
+          if (distanceSq != null) {
+            distanceSq[count] = distSq;
+          }
+          result[count++] = this.index[i];
+        }
+      }
+      return count;
+    }
+    count = range(node + 1, x, y, z, radiusSq, result, distanceSq, count);
+    return range(this.right[node], x, y, z, radiusSq, result, distanceSq, count);
+  }
+
+  /**
+   * Finds the points nearest to a position, ordered from nearest to farthest.
+   * Ties in distance are broken arbitrarily.
+   *
+   * @param x Normalized x position
+   * @param y Normalized y position
+   * @param z Normalized z position
+   * @param k Maximum number of points to find
+   * @param result Array to fill with the indices of the nearest points, at least k in length
+   * @return Number of point indices written to the result array, k unless the model has fewer points
+   */
+  public int nearest(float x, float y, float z, int k, int[] result) {
+    if ((k < 0) || (k > result.length)) {
+      throw new IllegalArgumentException("LXSpatialIndex.nearest() k must be in range [0, " + result.length + "]: " + k);
+    }
+    if ((this.size == 0) || (k == 0)) {
+      return 0;
+    }
+    // Search in terms of positions in this index, which are mapped to point indices at the end
+    final int count = nearest(0, x, y, z, k, result, 0);
+    for (int i = 0; i < count; ++i) {
+      result[i] = this.index[result[i]];
+    }
+    return count;
+  }
+
+  private int nearest(int node, float x, float y, float z, int k, int[] result, int count) {
+    if (this.right[node] < 0) {
+      for (int i = this.start[node]; i < this.end[node]; ++i) {
+        final float distSq = distSq(i, x, y, z);
+        if ((count == k) && (distSq >= distSq(result[k-1], x, y, z))) {
+          continue;
+        }
+        // Insert into the sorted result, dropping the farthest if full
+        int j = (count < k) ? count++ : k - 1;
+        while ((j > 0) && (distSq(result[j-1], x, y, z) > distSq)) {
+          result[j] = result[j-1];
+          --j;
+        }
+        result[j] = i;
+      }
+      return count;
+    }
+
+    // Descend into the nearer child first, so that the farther is more likely pruned
+    int near = node + 1;
+    int far = this.right[node];
+    float nearDistSq = boxDistSq(near, x, y, z);
+    float farDistSq = boxDistSq(far, x, y, z);
+    if (farDistSq < nearDistSq) {
+      near = far;
+      far = node + 1;
+      final float swap = nearDistSq;
+      nearDistSq = farDistSq;
+      farDistSq = swap;
+    }
+    if ((count < k) || (nearDistSq < distSq(result[k-1], x, y, z))) {
+      count = nearest(near, x, y, z, k, result, count);
+    }
+    if ((count < k) || (farDistSq < distSq(result[k-1], x, y, z))) {
+      count = nearest(far, x, y, z, k, result, count);
+    }
+    return count;
+  }
+
+  /**
+   * Finds the points within a radius of a ray. Points behind the origin of the
+   * ray are measured from the origin. If more points are in range than fit in
+   * the result array, an arbitrary subset of them is returned.
+   *
+   * @param x Normalized x origin of the ray
+   * @param y Normalized y origin of the ray
+   * @param z Normalized z origin of the ray
+   * @param dx Ray x direction
+   * @param dy Ray y direction
+   * @param dz Ray z direction
+   * @param radius Radius about the ray in normalized space
+   * @param result Array to fill with the indices of points in range
+   * @return Number of point indices written to the result array
+   */
+  public int ray(float x, float y, float z, float dx, float dy, float dz, float radius, int[] result) {
+    final float lengthSq = dx*dx + dy*dy + dz*dz;
+    if (lengthSq == 0) {
+      throw new IllegalArgumentException("LXSpatialIndex.ray() direction must be non-zero");
+    }
+    if ((this.size == 0) || (radius < 0)) {
+      return 0;
+    }
+    return ray(0, x, y, z, dx, dy, dz, 1 / lengthSq, radius, result, 0);
+  }
+
+  private int ray(int node, float x, float y, float z, float dx, float dy, float dz, float invLengthSq, float radius, int[] result, int count) {
+    if ((count == result.length) || !rayIntersects(node, x, y, z, dx, dy, dz, radius)) {
+      return count;
+    }
+    if (this.right[node] < 0) {
+      final float radiusSq = radius * radius;
+      for (int i = this.start[node]; (i < this.end[node]) && (count < result.length); ++i) {
+        final float px = this.x[i] - x;
+        final float py = this.y[i] - y;
+        final float pz = this.z[i] - z;
+        final float t = Math.max(0, (px*dx + py*dy + pz*dz) * invLengthSq);
+        final float ex = px - t*dx;
+        final float ey = py - t*dy;
+        final float ez = pz - t*dz;
+        if (ex*ex + ey*ey + ez*ez <= radiusSq) {
+          result[count++] = this.index[i];
+        }
+      }
+      return count;
+    }
+    count = ray(node + 1, x, y, z, dx, dy, dz, invLengthSq, radius, result, count);
+    return ray(this.right[node], x, y, z, dx, dy, dz, invLengthSq, radius, result, count);
+  }
+
+  /**
+   * Slab test of the ray against the bounds of a node expanded by the radius
+   */
+  private boolean rayIntersects(int node, float x, float y, float z, float dx, float dy, float dz, float radius) {
+    final int b = node * 6;
+    float tMin = 0, tMax = Float.POSITIVE_INFINITY;
+    for (int axis = 0; axis < 3; ++axis) {
+      final float origin = (axis == 0) ? x : (axis == 1) ? y : z;
+      final float direction = (axis == 0) ? dx : (axis == 1) ? dy : dz;
+      final float lo = this.bounds[b+axis] - radius;
+      final float hi = this.bounds[b+axis+3] + radius;
+      if (direction == 0) {
+        if ((origin < lo) || (origin > hi)) {
+          return false;
+        }
+      } else {
+        float t0 = (lo - origin) / direction;
+        float t1 = (hi - origin) / direction;
+        if (t0 > t1) {
+          final float swap = t0;
+          t0 = t1;
+          t1 = swap;
+        }
+        tMin = Math.max(tMin, t0);
+        tMax = Math.min(tMax, t1);
+        if (tMin > tMax) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+}
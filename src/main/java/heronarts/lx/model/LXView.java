@@ -19,10 +19,13 @@
 package heronarts.lx.model;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 import heronarts.lx.LX;
 import heronarts.lx.structure.view.LXViewDefinition;
@@ -65,14 +68,207 @@ public class LXView extends LXModel {
   private static final String SELECTOR_SEPARATOR = "\\s*,\\s*";
   private static final char GROUP_OPERATOR = '*';
 
+  private static final int MAX_COMPILED_SELECTORS = 256;
+
+  /**
+   * A view selector string compiled into a query plan. Selector strings are
+   * parsed once and the plan is re-executed against each model that the view
+   * is built from.
+   */
+  static class Selector {
+
+    /**
+     * A single tag in a selector, with its operator flags and index range
+     */
+    private static class Term {
+      private final String tag;
+      private final boolean directChild;
+      private final boolean and;
+      private int startIndex = 0, endIndex = -1, increment = 1;
+
+      private Term(String tag, boolean directChild, boolean and) {
+        this.directChild = directChild;
+        this.and = and;
+
+        // If this index selection syntax gets more complex, should clean it up to use regex matching
+        final int rangeStart = tag.indexOf('[');
+        final int rangeEnd = tag.indexOf(']');
+        if (rangeStart >= 0) {
+          if ((rangeEnd < 0) || (rangeEnd <= rangeStart)) {
+            LX.error("Poorly formatted view selection range: " + tag);
+          } else {
+            // Range can be specified as
+            // - [even] same as 0:2
+            // - [odd] same as 1:2
+            // - [n] fixed index
+            // - [n-m] (inclusive)
+            // - [:i] increment by i
+            // - [n:i] starting at n with increment i
+            // - [n-m:i] inclusive range with increment i
+            String range = tag.substring(rangeStart+1, rangeEnd).trim();
+            tag = tag.substring(0, rangeStart);
+
+            if ("even".equals(range)) {
+              this.increment = 2;
+            } else if ("odd".equals(range)) {
+              this.startIndex = 1;
+              this.increment = 2;
+            } else {
+              final int colon = range.indexOf(":");
+              final boolean hasIncrement = (colon >= 0);
+              if (hasIncrement) {
+                // It's a increment specified tag[n:i] or tag[n-m:i]
+                try {
+                  this.increment = Integer.parseInt(range.substring(colon+1).trim());
+                  range = range.substring(0, colon).trim();
+                } catch (NumberFormatException nfx) {
+                  LX.error("Bad number in view selection range: " + tag);
+                }
+              }
+              final int dash = range.indexOf('-');
+              if (dash >= 0) {
+                // It's a range tag[n-m]
+                try {
+                  this.startIndex = Integer.parseInt(range.substring(0, dash).trim());
+                  this.endIndex = Integer.parseInt(range.substring(dash+1).trim());
+                } catch (NumberFormatException nfx) {
+                  LX.error("Bad number in view selection range: " + tag);
+                }
+              } else {
+                // It's a direct index tag[n]
+                try {
+                  if (hasIncrement) {
+                    if (!range.isEmpty()) {
+                      this.startIndex = Integer.parseInt(range);
+                    }
+                  } else {
+                    this.startIndex = this.endIndex = Integer.parseInt(range);
+                  }
+                } catch (NumberFormatException nfx) {
+                  LX.error("Bad number in view selection range: " + tag);
+                }
+              }
+            }
+          }
+        }
+        this.tag = tag;
+      }
+    }
+
+    /**
+     * A group of the view, optionally split into root and sub-selectors by
+     * the group operator. Each selector is a union of term chains.
+     */
+    private static class Group {
+      private final Term[][] rootSelector;
+      private final Term[][] subSelector;
+      private final boolean terminal;
+
+      private Group(Term[][] rootSelector, String subSelector) {
+        this.rootSelector = rootSelector;
+        this.subSelector = compileSelector(subSelector);
+        this.terminal = subSelector.isEmpty();
+      }
+    }
+
+    private static final Map<String, Selector> compiled = new LinkedHashMap<String, Selector>(16, .75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Selector> eldest) {
+        return size() > MAX_COMPILED_SELECTORS;
+      }
+    };
+
+    /**
+     * Gets the compiled form of the selector string, compiling it if this is
+     * a selector that has not recently been used
+     *
+     * @param viewSelector Selector string
+     * @return Compiled selector
+     */
+    static Selector compile(String viewSelector) {
+      synchronized (compiled) {
+        Selector selector = compiled.get(viewSelector);
+        if (selector == null) {
+          compiled.put(viewSelector, selector = new Selector(viewSelector));
+        }
+        return selector;
+      }
+    }
+
+    private final Group[] groups;
+
+    private Selector(String viewSelector) {
+      final List<Group> groups = new ArrayList<Group>();
+
+      // Split at top-level by groups, separated by ;
+      for (String groupSelector : viewSelector.trim().split(GROUP_SEPARATOR)) {
+        groupSelector = groupSelector.trim();
+        if (groupSelector.isEmpty()) {
+          continue;
+        }
+        final int subgroup = groupSelector.lastIndexOf(GROUP_OPERATOR);
+        if (subgroup >= 0) {
+          // Everything to the left of the * symbol specifies a level of grouping
+          final String rootSelector = groupSelector.substring(0, subgroup).replace(GROUP_OPERATOR, ' ').trim();
+          final String subSelector = groupSelector.substring(subgroup+1).trim();
+          groups.add(new Group(compileSelector(rootSelector), subSelector));
+        } else {
+          groups.add(new Group(null, groupSelector));
+        }
+      }
+      this.groups = groups.toArray(new Group[0]);
+    }
+
+    private static Term[][] compileSelector(String groupSelector) {
+      // Within a group, multiple CSS-esque selectors are separated by ,
+      // the union of these selectors forms the group
+      final List<Term[]> selectors = new ArrayList<Term[]>();
+      for (String selector : groupSelector.split(SELECTOR_SEPARATOR)) {
+        // Is the selector empty? skip it.
+        selector = selector.trim();
+        if (selector.isEmpty()) {
+          continue;
+        }
+
+        // Selectors are of the form "a b c" - meaning tags "c" contained by "b" contained by "a"
+        final List<Term> terms = new ArrayList<Term>();
+        boolean directChildMode = false;
+        boolean andMode = false;
+        for (String part : selector.split("\\s+")) {
+          final String tag = part.trim();
+
+          // Check for special operators, set a flag for next encountered tag
+          if (">".equals(tag)) {
+            directChildMode = true;
+          } else if ("&".equals(tag)) {
+            andMode = true;
+          } else {
+            terms.add(new Term(tag, directChildMode, andMode));
+            directChildMode = false;
+            andMode = false;
+          }
+        }
+        selectors.add(terms.toArray(new Term[0]));
+      }
+      return selectors.toArray(new Term[0][]);
+    }
+  }
+
   private static class ParseState {
 
     private final LXModel model;
+    private final LXModel.TreeIndex index;
     private final List<List<LXModel>> groups = new ArrayList<List<LXModel>>();
-    private final List<LXModel> uniqueSubmodels = new ArrayList<LXModel>();
+
+    // Submodels in the view, by identity and by position in the model tree
+    private final Set<LXModel> uniqueSubmodels = Collections.newSetFromMap(new IdentityHashMap<LXModel, Boolean>());
+    private final TreeMap<Integer, LXModel> uniquePositions = new TreeMap<Integer, LXModel>();
 
     private ParseState(LXModel model) {
       this.model = model;
+      this.index = model.getTreeIndex();
     }
   }
 
@@ -100,44 +296,85 @@ public class LXView extends LXModel {
    * @return A view of the model that selects the elements in the selector string
    */
   public static LXView create(final LXModel model, String viewSelector, Normalization normalization, Orientation orientation, LXViewDefinition viewDefinition) {
-    ParseState state = new ParseState(model);
+    final LXView view = build(model, viewSelector, normalization, orientation);
+    view.notifyDefinition(viewDefinition);
+    return view;
+  }
+
+  /**
+   * Gets a shared view of the given model object. Views with the same selector,
+   * normalization and orientation are shared by all callers until the model is
+   * replaced, the geometry of a shared view is kept current by the model. Each
+   * call must be balanced by a call to {@link #release()}, shared views must not
+   * be disposed directly.
+   *
+   * @param model Model Parent model to create view of
+   * @param viewSelector View selection string
+   * @param normalization What normalization mode to use for this view
+   * @param orientation Which orientation mode to use for this view
+   * @param viewDefinition View definition to pass feedback to
+   * @return A shared view of the model that selects the elements in the selector string
+   */
+  public static LXView share(final LXModel model, String viewSelector, Normalization normalization, Orientation orientation, LXViewDefinition viewDefinition) {
+    final String key = normalization.name() + "/" + orientation.name() + "/" + viewSelector.trim();
+    LXView view = model.sharedViews.get(key);
+    if (view == null) {
+      view = build(model, viewSelector, normalization, orientation);
+      view.sharedKey = key;
+      model.sharedViews.put(key, view);
+    }
+    ++view.sharedCount;
+    view.notifyDefinition(viewDefinition);
+    return view;
+  }
+
+  private static LXView build(final LXModel model, String viewSelector, Normalization normalization, Orientation orientation) {
+    final ParseState state = new ParseState(model);
 
     boolean invalidOrientation = false;
 
-    // Split at top-level by groups, separated by ;
-    for (String groupSelector : viewSelector.trim().split(GROUP_SEPARATOR)) {
-      parseGroup(state, groupSelector);
+    // Execute each group of the compiled selector against the model
+    for (Selector.Group group : Selector.compile(viewSelector).groups) {
+      executeGroup(state, group);
     }
 
     // We now have a set of unique submodels, organized by group. Each submodel
     // belongs strictly to one group.
     //
-    // Construct a new list of a copy of all the points from all the models
-    // in the view. We need a copy because these will all be re-normalized
-    // with xn/yn/zn values relative to this view
-    final Map<Integer, LXPoint> clonedPoints = new HashMap<Integer, LXPoint>();
+    // With relative normalization, construct a new list of a copy of all the
+    // points from all the models in the view. We need a copy because these will
+    // all be re-normalized with xn/yn/zn values relative to this view. Absolute
+    // views hold the same coordinates as the parent model, so they reference
+    // the parent's points directly.
+    final boolean clonePoints = (normalization == Normalization.RELATIVE);
+    final LXPoint[] viewPoints = new LXPoint[maxIndex(model) + 1];
     final LXView[] views = new LXView[state.groups.size()];
     final List<LXPoint> allPoints = new ArrayList<LXPoint>();
+    final List<LXPoint> allSourcePoints = new ArrayList<LXPoint>();
     int g = 0;
     int numFixtures = 0;
     for (List<LXModel> group : state.groups) {
       List<LXPoint> groupPoints = new ArrayList<LXPoint>();
+      List<LXPoint> groupSourcePoints = new ArrayList<LXPoint>();
       LXModel[] groupChildren = new LXModel[group.size()];
       numFixtures += group.size();
       int c = 0;
       for (LXModel sub : group) {
         // Replicate all the points from each group submodel
         for (LXPoint p : sub.points) {
-          if (!clonedPoints.containsKey(p.index)) {
-            LXPoint copy = new LXPoint(p);
-            clonedPoints.put(p.index, copy);
-            groupPoints.add(copy);
-            allPoints.add(copy);
+          if (viewPoints[p.index] == null) {
+            final LXPoint viewPoint = clonePoints ? new LXPoint(p) : p;
+            viewPoints[p.index] = viewPoint;
+            groupPoints.add(viewPoint);
+            allPoints.add(viewPoint);
+            if (clonePoints) {
+              groupSourcePoints.add(p);
+              allSourcePoints.add(p);
+            }
           }
-
         }
         // Clone the submodel of this group
-        groupChildren[c++] = cloneModel(clonedPoints, sub);
+        groupChildren[c++] = cloneModel(viewPoints, sub);
       }
 
       // Check for valid orientation settings
@@ -146,46 +383,56 @@ public class LXView extends LXModel {
           (groupChildren.length != 1)) {
         invalidOrientation = true;
       }
-      views[g++] = new LXView(model, normalization, orientation, clonedPoints, groupPoints, groupChildren, viewSelector);
-    }
-
-    if (viewDefinition != null) {
-      viewDefinition.numGroups.setValue(views.length);
-      viewDefinition.numFixtures.setValue(numFixtures);
-      viewDefinition.invalidOrientation.setValue(invalidOrientation);
+      views[g++] = new LXView(model, normalization, orientation, sourcePoints(clonePoints, groupSourcePoints), groupPoints, groupChildren, group.toArray(new LXModel[0]), viewSelector);
     }
 
+    final LXView view;
     if (views.length == 0) {
       // Empty view!
-      return new Empty(model, clonedPoints, allPoints, views, viewSelector);
+      view = new Empty(model, sourcePoints(clonePoints, allSourcePoints), allPoints, views, viewSelector);
     } else if (views.length == 1) {
       // Just a single view, that'll do it!
-      return views[0];
+      view = views[0];
     } else {
       // Return a container-view with the group views as children, holding all of the points. We set
       // the normalization mode to absolute here no matter what, as this container view shouldn't do any
       // re-normalization
-      return new Container(model, clonedPoints, allPoints, views, viewSelector);
+      view = new Container(model, sourcePoints(clonePoints, allSourcePoints), allPoints, views, viewSelector);
     }
+    view.numGroups = views.length;
+    view.numFixtures = numFixtures;
+    view.invalidOrientation = invalidOrientation;
+    return view;
+  }
 
+  private static int maxIndex(LXModel model) {
+    int maxIndex = -1;
+    for (LXPoint p : model.points) {
+      maxIndex = Math.max(maxIndex, p.index);
+    }
+    return maxIndex;
   }
 
-  private static void parseGroup(ParseState state, String groupSelector) {
-    groupSelector = groupSelector.trim();
-    if (groupSelector.isEmpty()) {
-      return;
+  private static LXPoint[] sourcePoints(boolean clonePoints, List<LXPoint> sourcePoints) {
+    return clonePoints ? sourcePoints.toArray(new LXPoint[0]) : null;
+  }
+
+  private void notifyDefinition(LXViewDefinition viewDefinition) {
+    if (viewDefinition != null) {
+      viewDefinition.numGroups.setValue(this.numGroups);
+      viewDefinition.numFixtures.setValue(this.numFixtures);
+      viewDefinition.invalidOrientation.setValue(this.invalidOrientation);
     }
+  }
 
-    final int subgroup = groupSelector.lastIndexOf(GROUP_OPERATOR);
-    if (subgroup >= 0) {
-      final String rootSelector = groupSelector.substring(0, subgroup).replace(GROUP_OPERATOR, ' ').trim();
-      final String subSelector = groupSelector.substring(subgroup+1).trim();
+  private static void executeGroup(ParseState state, Selector.Group selectorGroup) {
+    if (selectorGroup.rootSelector != null) {
       final List<LXModel> groupRoots = new ArrayList<LXModel>();
 
       // Everything to the left of the * symbol specifies a level of grouping, these are
       // only actually added if there is no sub-selector to the right.
-      final boolean terminal = subSelector.isEmpty();
-      parseGroupSelector(state, state.model, groupRoots, rootSelector, terminal);
+      final boolean terminal = selectorGroup.terminal;
+      executeGroupSelector(state, state.model, groupRoots, selectorGroup.rootSelector, terminal);
 
       for (LXModel groupRoot : groupRoots) {
         final List<LXModel> group = new ArrayList<LXModel>();
@@ -195,9 +442,9 @@ public class LXView extends LXModel {
           group.add(groupRoot);
           state.groups.add(group);
         } else {
-          // When a subselector is present, parse each potential group root candidate, which
+          // When a subselector is present, search each potential group root candidate, which
           // may or may not find anything. This is now a terminal search.
-          parseGroupSelector(state, groupRoot, group, subSelector, true);
+          executeGroupSelector(state, groupRoot, group, selectorGroup.subSelector, true);
           if (!group.isEmpty()) {
             state.groups.add(group);
           }
@@ -207,53 +454,31 @@ public class LXView extends LXModel {
       // There is no subgrouping in this selector, everything selected will be added, so
       // terminal is true.
       final List<LXModel> group = new ArrayList<LXModel>();
-      parseGroupSelector(state, state.model, group, groupSelector, true);
+      executeGroupSelector(state, state.model, group, selectorGroup.subSelector, true);
       if (!group.isEmpty()) {
         state.groups.add(group);
       }
     }
   }
 
-  private static void parseGroupSelector(ParseState state, LXModel root, List<LXModel> group, String groupSelector, boolean terminal) {
-    // Within a group, multiple CSS-esque selectors are separated by ,
-    // the union of these selectors forms the group
-    for (String selector : groupSelector.split(SELECTOR_SEPARATOR)) {
-      parseSubselector(state, root, group, selector, terminal);
+  private static void executeGroupSelector(ParseState state, LXModel root, List<LXModel> group, Selector.Term[][] selectors, boolean terminal) {
+    // The union of these selectors forms the group
+    for (Selector.Term[] selector : selectors) {
+      executeSubselector(state, root, group, selector, terminal);
     }
   }
 
-  private static void parseSubselector(ParseState state, LXModel root, List<LXModel> group, String selector, boolean terminal) {
-    // Is the selector empty? skip it.
-    selector = selector.trim();
-    if (selector.isEmpty()) {
-      return;
-    }
-
+  private static void executeSubselector(ParseState state, LXModel root, List<LXModel> group, Selector.Term[] terms, boolean terminal) {
     // Set of candidates for addition to this group, by default we have the initial model
     final List<LXModel> candidates = new ArrayList<LXModel>();
     candidates.add(root);
 
     final List<LXModel> searchSpace = new ArrayList<LXModel>();
 
-    final List<LXModel> intersect = new ArrayList<LXModel>();
+    final Set<LXModel> intersect = Collections.newSetFromMap(new IdentityHashMap<LXModel, Boolean>());
 
-    boolean directChildMode = false;
-    boolean andMode = false;
-
-    // Selectors are of the form "a b c" - meaning tags "c" contained by "b" contained by "a"
-    for (String part : selector.split("\\s+")) {
-      String tag = part.trim();
-
-      // Check for special operators, set a flag for next encountered tag
-      if (">".equals(tag)) {
-        directChildMode = true;
-        continue;
-      } else if ("&".equals(tag)) {
-        andMode = true;
-        continue;
-      }
-
-      if (andMode) {
+    for (Selector.Term term : terms) {
+      if (term.and) {
         // In andMode, we will keep the same search space as before, now run a new sub-query
         // and intersect it against the previous candidates
         intersect.clear();
@@ -268,78 +493,17 @@ public class LXView extends LXModel {
       // We're going to select new candidates on this pass
       candidates.clear();
 
-      // If this index selection syntax gets more complex, should clean it up to use regex matching
-      int startIndex = 0, endIndex = -1, increment = 1;
-      final int rangeStart = tag.indexOf('[');
-      final int rangeEnd = tag.indexOf(']');
-      if (rangeStart >= 0) {
-        if ((rangeEnd < 0) || (rangeEnd <= rangeStart)) {
-          LX.error("Poorly formatted view selection range: " + tag);
-        } else {
-          // Range can be specified as
-          // - [even] same as 0:2
-          // - [odd] same as 1:2
-          // - [n] fixed index
-          // - [n-m] (inclusive)
-          // - [:i] increment by i
-          // - [n:i] starting at n with increment i
-          // - [n-m:i] inclusive range with increment i
-          String range = tag.substring(rangeStart+1, rangeEnd).trim();
-          tag = tag.substring(0, rangeStart);
-
-          if ("even".equals(range)) {
-            increment = 2;
-          } else if ("odd".equals(range)) {
-            startIndex = 1;
-            increment = 2;
-          } else {
-            final int colon = range.indexOf(":");
-            final boolean hasIncrement = (colon >= 0);
-            if (hasIncrement) {
-              // It's a increment specified tag[n:i] or tag[n-m:i]
-              try {
-                increment = Integer.parseInt(range.substring(colon+1).trim());
-                range = range.substring(0, colon).trim();
-              } catch (NumberFormatException nfx) {
-                LX.error("Bad number in view selection range: " + tag);
-              }
-            }
-            final int dash = range.indexOf('-');
-            if (dash >= 0) {
-              // It's a range tag[n-m]
-              try {
-                startIndex = Integer.parseInt(range.substring(0, dash).trim());
-                endIndex = Integer.parseInt(range.substring(dash+1).trim());
-              } catch (NumberFormatException nfx) {
-                LX.error("Bad number in view selection range: " + tag);
-              }
-            } else {
-              // It's a direct index tag[n]
-              try {
-                if (hasIncrement) {
-                  if (!range.isEmpty()) {
-                    startIndex = Integer.parseInt(range);
-                  }
-                } else {
-                  startIndex = endIndex = Integer.parseInt(range);
-                }
-              } catch (NumberFormatException nfx) {
-                LX.error("Bad number in view selection range: " + tag);
-              }
-            }
-          }
-        }
-      }
+      int startIndex = term.startIndex, endIndex = term.endIndex, increment = term.increment;
 
       // Iterate over all searchSpace parents, to find sub-tags of appropriate type
       for (LXModel search : searchSpace) {
         List<LXModel> subs;
-        if (andMode) {
-          subs = search.sub(tag);
-        } else if (directChildMode) {
-          subs = search.children(tag);
+        if (term.and) {
+          subs = search.sub(term.tag);
+        } else if (term.directChild) {
+          subs = search.children(term.tag);
         } else {
-          subs = search.sub(tag);
+          subs = search.sub(term.tag);
         }
         if (increment < 1) {
           increment = 1;
@@ -357,25 +521,15 @@ public class LXView extends LXModel {
           // including it or searching below in the tree, we'll only be keeping
           // the ancestor in any case
           if (!state.uniqueSubmodels.contains(sub)) {
-            candidates.add(subs.get(i));
+            candidates.add(sub);
           }
         }
       }
 
       // If this was the and query, filter candidates for presence in
-      if (andMode) {
-        Iterator<LXModel> iter = candidates.iterator();
-        while (iter.hasNext()) {
-          LXModel candidate = iter.next();
-          if (!intersect.contains(candidate)) {
-            iter.remove();
-          }
-        }
+      if (term.and) {
+        candidates.removeIf(candidate -> !intersect.contains(candidate));
       }
-
-      // Clear special mode flags as we move on
-      directChildMode = false;
-      andMode = false;
     }
 
     if (terminal) {
@@ -401,51 +555,59 @@ public class LXView extends LXModel {
         continue;
       }
 
+      // Candidates are always found beneath the view's model
+      final int position = state.index.positionOf(candidate);
+
       // Now we need to check for two scenarios... one is that the candidate
-      // is an ancestor of one or more already-contained submodels. In which case,
-      // those need to be removed. The candidate will be added instead, implicitly
-      // containing the submodels.
-      //
-      // Alternately, if the candidate is a descendant of one of the existing
-      // submodels, then we can skip it as it is already contained
+      // is a descendant of one of the existing submodels, in which case we
+      // can skip it as it is already contained. Walk up the tree to check.
       boolean isDescendant = false;
-      Iterator<LXModel> iter = state.uniqueSubmodels.iterator();
-      while (!isDescendant && iter.hasNext()) {
-        LXModel submodel = iter.next();
-        if (submodel.contains(candidate)) {
+      for (int ancestor = state.index.parentOf(position); ancestor >= 0; ancestor = state.index.parentOf(ancestor)) {
+        if (state.uniquePositions.containsKey(ancestor)) {
           isDescendant = true;
-        } else if (candidate.contains(submodel)) {
-          // We're subsuming this thing, remove it!
-          iter.remove();
-
-          // Remove this from any group which contained it previously! We now
-          // have a broader selection that contains the submodel, this will takes
-          // priority
-          for (List<LXModel> existingGroup : state.groups) {
-            // NOTE(mcslee): Should we push a user-facing warning here explaining
-            // that one submodel can't be in two separate groups?
-            existingGroup.remove(submodel);
-          }
+          break;
         }
       }
-      if (!isDescendant) {
-        state.uniqueSubmodels.add(candidate);
-        group.add(candidate);
+      if (isDescendant) {
+        continue;
+      }
+
+      // Alternately, the candidate is an ancestor of one or more already-contained
+      // submodels. In which case, those need to be removed. The candidate will be added
+      // instead, implicitly containing the submodels. These occupy the candidate's
+      // range of positions in the tree.
+      final Map<Integer, LXModel> subsumed = state.uniquePositions.subMap(position, false, state.index.endOf(position), false);
+      for (LXModel submodel : subsumed.values()) {
+        state.uniqueSubmodels.remove(submodel);
+
+        // Remove this from any group which contained it previously! We now
+        // have a broader selection that contains the submodel, this will takes
+        // priority
+        for (List<LXModel> existingGroup : state.groups) {
+          // NOTE(mcslee): Should we push a user-facing warning here explaining
+          // that one submodel can't be in two separate groups?
+          existingGroup.remove(submodel);
+        }
       }
+      subsumed.clear();
+
+      state.uniqueSubmodels.add(candidate);
+      state.uniquePositions.put(position, candidate);
+      group.add(candidate);
     }
   }
 
-  private static LXModel cloneModel(Map<Integer, LXPoint> clonedPoints, LXModel model) {
-    // Re-map points onto new ones
+  private static LXModel cloneModel(LXPoint[] viewPoints, LXModel model) {
+    // Re-map points onto those in the view
     List<LXPoint> points = new ArrayList<LXPoint>(model.points.length);
     for (LXPoint p : model.points) {
-      points.add(clonedPoints.get(p.index));
+      points.add(viewPoints[p.index]);
     }
 
     // Recursively clone children with new points
     LXModel[] children = new LXModel[model.children.length];
     for (int i = 0; i < children.length; ++i) {
-      children[i] = cloneModel(clonedPoints, model.children[i]);
+      children[i] = cloneModel(viewPoints, model.children[i]);
     }
 
     LXModel clone = new LXModel(points, children, model.getNormalizationBounds(), model.metaData, model.tags, model.meshes);
@@ -457,7 +619,24 @@ public class LXView extends LXModel {
 
   final Normalization normalization;
 
-  final Map<Integer, LXPoint> clonedPoints;
+  /**
+   * Parent model points that this view's points were cloned from, in the same
+   * order as the points array. Null if the view references the parent's points.
+   */
+  final LXPoint[] sourcePoints;
+
+  /**
+   * Parent submodels that this view's children were cloned from, in the same
+   * order as the children array. Null if the children are not clones.
+   */
+  private final LXModel[] sourceChildren;
+
+  private int numGroups = 0;
+  private int numFixtures = 0;
+  private boolean invalidOrientation = false;
+
+  private String sharedKey = null;
+  private int sharedCount = 0;
 
   final String allTags(List<String> tags) {
     String tag = "";
@@ -468,14 +647,14 @@ public class LXView extends LXModel {
   }
 
   public static class Empty extends LXView {
-    private Empty(LXModel model, Map<Integer, LXPoint> clonedPoints, List<LXPoint> points, LXView[] views, String viewSelector) {
-      super(model, Normalization.ABSOLUTE, Orientation.GLOBAL, clonedPoints, points, views, viewSelector);
+    private Empty(LXModel model, LXPoint[] sourcePoints, List<LXPoint> points, LXView[] views, String viewSelector) {
+      super(model, Normalization.ABSOLUTE, Orientation.GLOBAL, sourcePoints, points, views, null, viewSelector);
     }
   }
 
   public static class Container extends LXView {
-    private Container(LXModel model, Map<Integer, LXPoint> clonedPoints, List<LXPoint> points, LXView[] views, String viewSelector) {
-      super(model, Normalization.ABSOLUTE, Orientation.GLOBAL, false, clonedPoints, points, views, viewSelector);
+    private Container(LXModel model, LXPoint[] sourcePoints, List<LXPoint> points, LXView[] views, String viewSelector) {
+      super(model, Normalization.ABSOLUTE, Orientation.GLOBAL, false, sourcePoints, points, views, null, viewSelector);
     }
   }
 
@@ -485,13 +664,14 @@ public class LXView extends LXModel {
    * @param model Parent model that view is of
    * @param normalization Normalization mode
    * @param orientation Orientation mode
-   * @param clonedPoints Map of points cloned from parent model into this view
+   * @param sourcePoints Parent model points that the points were cloned from, or null if not cloned
    * @param points Points in this view
    * @param children Child models
+   * @param sourceChildren Parent submodels that the children were cloned from, or null if not cloned
    * @param viewSelector View selector
    */
-  private LXView(LXModel model, Normalization normalization, Orientation orientation, Map<Integer, LXPoint> clonedPoints, List<LXPoint> points, LXModel[] children, String viewSelector) {
-    this(model, normalization, orientation, true, clonedPoints, points, children, viewSelector);
+  private LXView(LXModel model, Normalization normalization, Orientation orientation, LXPoint[] sourcePoints, List<LXPoint> points, LXModel[] children, LXModel[] sourceChildren, String viewSelector) {
+    this(model, normalization, orientation, true, sourcePoints, points, children, sourceChildren, viewSelector);
   }
 
   /**
@@ -501,16 +681,18 @@ public class LXView extends LXModel {
    * @param normalization Normalization mode
    * @param orientation Orientation mode
    * @param setChildBounds Whether to apply normalization bounds to children
-   * @param clonedPoints Map of points cloned from parent model into this view
+   * @param sourcePoints Parent model points that the points were cloned from, or null if not cloned
    * @param points Points in this view
    * @param children Child models
+   * @param sourceChildren Parent submodels that the children were cloned from, or null if not cloned
    * @param viewSelector View selector
    */
-  private LXView(LXModel model, Normalization normalization, Orientation orientation, boolean setChildBounds, Map<Integer, LXPoint> clonedPoints, List<LXPoint> points, LXModel[] children, String viewSelector) {
+  private LXView(LXModel model, Normalization normalization, Orientation orientation, boolean setChildBounds, LXPoint[] sourcePoints, List<LXPoint> points, LXModel[] children, LXModel[] sourceChildren, String viewSelector) {
     super(points, children, (normalization == Normalization.ABSOLUTE) ? model.getNormalizationBounds() : null, setChildBounds, LXModel.Tag.VIEW);
     this.model = model;
     this.normalization = normalization;
-    this.clonedPoints = java.util.Collections.unmodifiableMap(clonedPoints);
+    this.sourcePoints = sourcePoints;
+    this.sourceChildren = sourceChildren;
     model.derivedViews.add(this);
 
     if (normalization == Normalization.RELATIVE) {
@@ -525,6 +707,56 @@ public class LXView extends LXModel {
     }
   }
 
+  /**
+   * Copies the geometry of the parent model into any cloned points and the
+   * transforms of cloned submodels, then recomputes a relative view's
+   * orientation from the updated transforms
+   */
+  void updateSourcePoints() {
+    if (this.sourcePoints != null) {
+      for (int i = 0; i < this.sourcePoints.length; ++i) {
+        this.points[i].set(this.sourcePoints[i]);
+      }
+    }
+    if (this.sourceChildren != null) {
+      for (int i = 0; i < this.sourceChildren.length; ++i) {
+        updateTransforms(this.children[i], this.sourceChildren[i]);
+      }
+    }
+    if (this.normalization == Normalization.RELATIVE) {
+      getNormalizationBounds().updateOrientation();
+    }
+  }
+
+  private static void updateTransforms(LXModel clone, LXModel source) {
+    clone.transform.set(source.transform);
+    for (int i = 0; i < clone.children.length; ++i) {
+      updateTransforms(clone.children[i], source.children[i]);
+    }
+  }
+
+  /**
+   * Gets the model that this view was derived from
+   *
+   * @return Model this view is derived from
+   */
+  public LXModel getSourceModel() {
+    return this.model;
+  }
+
+  /**
+   * Releases a reference to a view obtained via {@link #share}, disposing of
+   * the view once no references remain
+   */
+  public void release() {
+    if (this.sharedKey == null) {
+      throw new IllegalStateException("Cannot release LXView that was not shared: " + this);
+    }
+    if (--this.sharedCount <= 0) {
+      dispose();
+    }
+  }
+
   @Override
   public LXModel getMainRoot() {
     return this.model.getMainRoot();
@@ -532,6 +764,11 @@ public class LXView extends LXModel {
 
   @Override
   public void dispose() {
+    if (this.sharedKey != null) {
+      this.model.sharedViews.remove(this.sharedKey, this);
+      this.sharedKey = null;
+      this.sharedCount = 0;
+    }
     this.model.derivedViews.remove(this);
     super.dispose();
   }
@@ -22,6 +22,12 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
@@ -38,8 +44,23 @@ import heronarts.lx.midi.MidiPanic;
 import heronarts.lx.modulator.LXModulator;
 import heronarts.lx.osc.LXOscComponent;
 import heronarts.lx.osc.OscMessage;
+import heronarts.lx.parameter.BooleanParameter;
 import heronarts.lx.parameter.LXParameter;
 
+/**
+ * The modulation engine holds a set of modulators and the compound and trigger
+ * modulations between them. Modulators are evaluated once per frame in dependency
+ * order, so that a modulator whose parameters are modulated by another modulator
+ * always sees that modulator's value from the current frame. The order is only
+ * recompiled when modulators or modulations are added, removed or moved.
+ *
+ * When {@link LXEngine#isModulatorMultithreaded} is enabled, the global modulation
+ * engine groups its modulators into batches with no dependencies within a batch, and
+ * loops large batches concurrently on a worker pool. Each batch finishes before the
+ * next begins, and the final batch before the loop returns, so results are identical
+ * to serial evaluation. Modulators which are the source of a trigger modulation are
+ * always looped on the engine thread, since triggers dispatch directly to their targets.
+ */
 public class LXModulationEngine extends LXModulatorComponent implements LXOscComponent {
 
   public interface Listener {
@@ -76,10 +97,112 @@ public class LXModulationEngine extends LXModulatorComponent implements LXOscCom
 
   private boolean flagLoadModulations = true;
 
+  public class Profiler extends LXModulatorComponent.Profiler {
+    public int numEvaluated;
+    public int numSkipped;
+  }
+
+  @Override
+  protected LXModulatorComponent.Profiler constructProfiler() {
+    return new Profiler();
+  }
+
+  public final BooleanParameter skipUnused =
+    new BooleanParameter("Skip Unused", false)
+    .setDescription("Whether to skip evaluation of modulators that do not ultimately modulate or trigger any parameter outside of this engine. Skipped modulators keep their last value.");
+
+  // Modulators in evaluation order, recompiled when the graph changes
+  private final List<LXModulator> loopOrder = new ArrayList<LXModulator>();
+
+  private volatile boolean loopOrderDirty = true;
+
+  // Minimum number of modulators worth handing to a worker thread
+  private static final int MIN_MODULATORS_PER_TASK = 8;
+
+  private static final AtomicInteger workerThreadCount = new AtomicInteger(1);
+
+  /**
+   * A set of modulators which have no dependencies between each other
+   */
+  private class Batch {
+
+    // Modulators that must be looped on the engine thread
+    private final List<LXModulator> serial = new ArrayList<LXModulator>();
+
+    // Modulators that may be looped on worker threads
+    private final List<LXModulator> parallel = new ArrayList<LXModulator>();
+
+    // Slices of the parallel modulators, the first runs on the engine thread
+    private final List<List<LXModulator>> tasks = new ArrayList<List<LXModulator>>();
+
+    private final List<Future<?>> futures = new ArrayList<Future<?>>();
+
+    private void compileTasks(int numThreads) {
+      final int numTasks = Math.min(numThreads, this.parallel.size() / MIN_MODULATORS_PER_TASK);
+      if (numTasks < 2) {
+        this.serial.addAll(this.parallel);
+        this.parallel.clear();
+        return;
+      }
+      final int size = this.parallel.size();
+      for (int i = 0; i < numTasks; ++i) {
+        this.tasks.add(this.parallel.subList(i * size / numTasks, (i+1) * size / numTasks));
+      }
+    }
+
+    private void loop(double deltaMs) {
+      if (!this.serial.isEmpty()) {
+        loopModulators(this.serial, deltaMs);
+      }
+      if (this.tasks.isEmpty()) {
+        return;
+      }
+      setLoopingModulator(this.parallel.get(0));
+      for (int i = 1; i < this.tasks.size(); ++i) {
+        final List<LXModulator> task = this.tasks.get(i);
+        this.futures.add(workerPool.submit(() -> {
+          for (LXModulator modulator : task) {
+            modulator.loop(deltaMs);
+          }
+        }));
+      }
+      for (LXModulator modulator : this.tasks.get(0)) {
+        modulator.loop(deltaMs);
+      }
+      for (Future<?> future : this.futures) {
+        try {
+          future.get();
+        } catch (InterruptedException ix) {
+          Thread.currentThread().interrupt();
+          break;
+        } catch (ExecutionException x) {
+          LX.error(x.getCause(), "Unexpected error in parallel modulator loop: " + x.getCause().getLocalizedMessage());
+        }
+      }
+      this.futures.clear();
+      setLoopingModulator(null);
+    }
+  }
+
+  private final List<Batch> loopBatches = new ArrayList<Batch>();
+
+  private ExecutorService workerPool = null;
+
+  private int numWorkerThreads = 0;
+
   public LXModulationEngine(LX lx) {
     super(lx, "Modulation");
     addArray("modulation", this.modulations);
     addArray("trigger", this.triggers);
+    addParameter("skipUnused", this.skipUnused);
+  }
+
+  @Override
+  public void onParameterChanged(LXParameter p) {
+    super.onParameterChanged(p);
+    if (p == this.skipUnused) {
+      this.loopOrderDirty = true;
+    }
   }
 
   public LXModulationEngine setFlagLoadModulations(boolean flagLoadModulations) {
@@ -135,6 +258,7 @@ public class LXModulationEngine extends LXModulatorComponent implements LXOscCom
       throw new IllegalStateException("Cannot add duplicate LXCompoundModulation: " + modulation);
     }
     this.mutableModulations.add(modulation);
+    this.loopOrderDirty = true;
     _reindex(this.modulations);
     for (Listener listener : this.listeners) {
       listener.modulationAdded(this, modulation);
@@ -147,6 +271,7 @@ public class LXModulationEngine extends LXModulatorComponent implements LXOscCom
       throw new IllegalStateException("Cannot remove non-registered LXCompoundModulation: " + modulation);
     }
     this.mutableModulations.remove(modulation);
+    this.loopOrderDirty = true;
     for (Listener listener : this.listeners) {
       listener.modulationRemoved(this, modulation);
     }
@@ -160,6 +285,7 @@ public class LXModulationEngine extends LXModulatorComponent implements LXOscCom
       throw new IllegalStateException("Cannot add duplicate LXTriggerModulation: " + trigger);
     }
     this.mutableTriggers.add(trigger);
+    this.loopOrderDirty = true;
     _reindex(this.triggers);
     for (Listener listener : this.listeners) {
       listener.triggerAdded(this, trigger);
@@ -172,6 +298,7 @@ public class LXModulationEngine extends LXModulatorComponent implements LXOscCom
       throw new IllegalStateException("Cannot remove non-registered LXTriggerModulation: " + trigger);
     }
     this.mutableTriggers.remove(trigger);
+    this.loopOrderDirty = true;
     _reindex(this.triggers);
     for (Listener listener : this.listeners) {
       listener.triggerRemoved(this, trigger);
@@ -258,6 +385,7 @@ public class LXModulationEngine extends LXModulatorComponent implements LXOscCom
   @Override
   public <T extends LXModulator> T addModulator(T modulator, int index, JsonObject modulatorObj) {
     super.addModulator(modulator, index, modulatorObj);
+    this.loopOrderDirty = true;
     for (Listener listener : this.listeners) {
       listener.modulatorAdded(this, modulator);
     }
@@ -273,18 +401,216 @@ public class LXModulationEngine extends LXModulatorComponent implements LXOscCom
       listener.modulatorRemoved(this, modulator);
     }
     super.removeModulator(modulator);
+    this.loopOrderDirty = true;
     return modulator;
   }
 
   @Override
   public <T extends LXModulator> T moveModulator(T modulator, int index) {
     super.moveModulator(modulator, index);
+    this.loopOrderDirty = true;
     for (Listener listener : this.listeners) {
       listener.modulatorMoved(this, modulator);
     }
     return modulator;
   }
 
+  private boolean isParallel() {
+    return (getParent() instanceof LXEngine) && this.lx.engine.isModulatorMultithreaded.isOn();
+  }
+
+  private void startWorkerPool() {
+    this.numWorkerThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+    this.workerPool = Executors.newFixedThreadPool(this.numWorkerThreads - 1, runnable -> {
+      final Thread thread = new Thread(runnable, "LXModulation thread #" + workerThreadCount.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    });
+    LX.log("LXModulationEngine started " + (this.numWorkerThreads - 1) + " worker threads");
+  }
+
+  private void stopWorkerPool() {
+    if (this.workerPool != null) {
+      this.workerPool.shutdown();
+      this.workerPool = null;
+      this.loopOrderDirty = true;
+    }
+  }
+
+  @Override
+  public void loop(double deltaMs) {
+    final long loopStart = System.nanoTime();
+    final boolean isParallel = isParallel();
+    if (isParallel && (this.workerPool == null)) {
+      startWorkerPool();
+      this.loopOrderDirty = true;
+    } else if (!isParallel && (this.workerPool != null)) {
+      stopWorkerPool();
+    }
+    if (this.loopOrderDirty) {
+      this.loopOrderDirty = false;
+      compileLoopOrder();
+    }
+    if (isParallel) {
+      for (Batch batch : this.loopBatches) {
+        batch.loop(deltaMs);
+      }
+    } else {
+      loopModulators(this.loopOrder, deltaMs);
+    }
+    final Profiler profiler = (Profiler) this.profiler;
+    profiler.numEvaluated = this.loopOrder.size();
+    profiler.numSkipped = this.modulators.size() - this.loopOrder.size();
+    profiler.loopNanos = System.nanoTime() - loopStart;
+  }
+
+  /**
+   * Returns the modulators of this engine in the order they are evaluated,
+   * excluding any that are currently skipped. Only valid on the engine thread.
+   *
+   * @return Modulators in evaluation order
+   */
+  public List<LXModulator> getLoopOrder() {
+    return Collections.unmodifiableList(this.loopOrder);
+  }
+
+  /**
+   * Finds the modulator in this engine which is, or contains, the given parameter
+   *
+   * @param parameter Parameter
+   * @return Index of owning modulator in this engine, or -1 if not owned by a modulator here
+   */
+  private int getOwnerIndex(LXParameter parameter) {
+    LXComponent component = (parameter instanceof LXComponent) ? (LXComponent) parameter : parameter.getParent();
+    while (component != null) {
+      if ((component instanceof LXModulator) && (component.getParent() == this)) {
+        return ((LXModulator) component).getIndex();
+      }
+      component = component.getParent();
+    }
+    return -1;
+  }
+
+  private void addEdges(List<? extends LXParameterModulation> modulations, List<List<Integer>> downstream, int[] inDegree, boolean[] live, boolean[] sources) {
+    for (LXParameterModulation modulation : modulations) {
+      final int source = getOwnerIndex(modulation.source);
+      if (source < 0) {
+        continue;
+      }
+      if (sources != null) {
+        sources[source] = true;
+      }
+      final int target = getOwnerIndex(modulation.target);
+      if (target < 0) {
+        // Modulates something outside of this engine, source is in use
+        live[source] = true;
+      } else if (target != source) {
+        downstream.get(source).add(target);
+        ++inDegree[target];
+      }
+    }
+  }
+
+  /**
+   * Builds the dependency graph between modulators, where an edge runs from a modulator
+   * to every other modulator with a parameter that it modulates or triggers. The loop
+   * order is a topological sort of that graph, breaking ties by list position so that
+   * independent modulators keep their user-specified order.
+   */
+  private void compileLoopOrder() {
+    final int numModulators = this.modulators.size();
+    final List<List<Integer>> downstream = new ArrayList<List<Integer>>(numModulators);
+    for (int i = 0; i < numModulators; ++i) {
+      downstream.add(new ArrayList<Integer>());
+    }
+    final int[] inDegree = new int[numModulators];
+    final boolean[] live = new boolean[numModulators];
+    final boolean[] triggerSource = new boolean[numModulators];
+    addEdges(this.modulations, downstream, inDegree, live, null);
+    addEdges(this.triggers, downstream, inDegree, live, triggerSource);
+
+    final int[] order = new int[numModulators];
+    final boolean[] ordered = new boolean[numModulators];
+    int numOrdered = 0;
+    final PriorityQueue<Integer> ready = new PriorityQueue<Integer>();
+    for (int i = 0; i < numModulators; ++i) {
+      if (inDegree[i] == 0) {
+        ready.add(i);
+      }
+    }
+    while (!ready.isEmpty()) {
+      final int index = ready.poll();
+      order[numOrdered++] = index;
+      ordered[index] = true;
+      for (int target : downstream.get(index)) {
+        if (--inDegree[target] == 0) {
+          ready.add(target);
+        }
+      }
+    }
+    final boolean hasCycle = numOrdered < numModulators;
+    if (hasCycle) {
+      // Cycles should be prevented when modulations are created, but if one
+      // exists, fall back to list order for the modulators involved
+      LX.warning("LXModulationEngine found a modulation cycle, evaluating in list order: " + this);
+      for (int i = 0; i < numModulators; ++i) {
+        if (!ordered[i]) {
+          order[numOrdered++] = i;
+        }
+      }
+    }
+
+    // A modulator is in use if it reaches anything outside the engine, walk
+    // backwards so that downstream liveness is known before its sources
+    final boolean skipUnused = this.skipUnused.isOn();
+    for (int i = numModulators - 1; i >= 0; --i) {
+      final int index = order[i];
+      if (!live[index]) {
+        for (int target : downstream.get(index)) {
+          if (live[target]) {
+            live[index] = true;
+            break;
+          }
+        }
+      }
+    }
+
+    this.loopOrder.clear();
+    for (int i = 0; i < numModulators; ++i) {
+      final int index = order[i];
+      if (live[index] || !skipUnused) {
+        this.loopOrder.add(this.modulators.get(index));
+      }
+    }
+
+    // Group into batches by depth in the graph, nothing in a batch depends
+    // upon anything else in the same batch
+    this.loopBatches.clear();
+    if (hasCycle) {
+      final Batch batch = new Batch();
+      batch.serial.addAll(this.loopOrder);
+      this.loopBatches.add(batch);
+    } else if (this.workerPool != null) {
+      final int[] depth = new int[numModulators];
+      for (int i = 0; i < numModulators; ++i) {
+        final int index = order[i];
+        if (live[index] || !skipUnused) {
+          while (this.loopBatches.size() <= depth[index]) {
+            this.loopBatches.add(new Batch());
+          }
+          final Batch batch = this.loopBatches.get(depth[index]);
+          (triggerSource[index] ? batch.serial : batch.parallel).add(this.modulators.get(index));
+        }
+        for (int target : downstream.get(index)) {
+          depth[target] = Math.max(depth[target], depth[index] + 1);
+        }
+      }
+      for (Batch batch : this.loopBatches) {
+        batch.compileTasks(this.numWorkerThreads);
+      }
+    }
+  }
+
   public int getModulatorCount(Class<? extends LXModulator> cls) {
     int count = 0;
     for (LXModulator modulator : this.modulators) {
@@ -316,6 +642,7 @@ public class LXModulationEngine extends LXModulatorComponent implements LXOscCom
 
   @Override
   public void dispose() {
+    stopWorkerPool();
     clear();
     super.dispose();
     this.listeners.forEach(listener -> LX.warning("Stranded LXModulationEngine.Listener: " + listener));
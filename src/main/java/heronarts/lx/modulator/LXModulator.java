@@ -141,6 +141,12 @@ public abstract class LXModulator extends LXRunnableComponent implements LXCompo
 
   private Throwable crash = null;
 
+  public class Profiler {
+    public long loopNanos;
+  }
+
+  public final Profiler profiler = new Profiler();
+
   public final BooleanParameter crashed =
     new BooleanParameter("Crashed", false)
     .setDescription("Set to true by the engine if this component fails in an unexpected way");
@@ -333,8 +339,10 @@ public abstract class LXModulator extends LXRunnableComponent implements LXCompo
   @Override
   public void loop(double deltaMs) {
     if (!this.crashed.isOn()) {
+      final long loopStart = System.nanoTime();
       try {
         super.loop(deltaMs);
+        this.profiler.loopNanos = System.nanoTime() - loopStart;
       } catch (Throwable x) {
         LX.error(x, "Unexpected error in modulator loop " + getClass().getName() + ": " + x.getLocalizedMessage());
         this.lx.pushError(x, "Modulator " + LXComponent.getComponentName(getClass()) + " crashed due to an unexpected error.\n" + x.getLocalizedMessage());
@@ -195,6 +195,7 @@ public abstract class LXPeriodicModulator extends LXModulator {
       basis = 1;
     }
     this.basis = basis;
+    markModified();
     updateValue(this.computeValue(0));
     return this;
   }
@@ -216,6 +217,7 @@ public abstract class LXPeriodicModulator extends LXModulator {
    */
   protected final void updateBasis(double value) {
     this.basis = computeBasis(this.basis, value);
+    markModified();
   }
 
   /**
@@ -151,6 +151,9 @@ public class MultiStageEnvelope extends LXVariablePeriodModulator implements LXW
     this.mutableStages.add(new Stage(0, initialValue, 1, true, false));
     this.mutableStages.add(new Stage(1, endValue, 1, false, true));
     updateStages();
+
+    // Stages are not held in parameters, mark the envelope modified when they change
+    this.monitor.addListener(p -> markModified());
   }
 
   private void updateStages() {
@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 import heronarts.lx.modulation.LXCompoundModulation;
 import heronarts.lx.utils.LXEngineThreadArrayList;
@@ -38,6 +39,49 @@ public class CompoundParameter extends BoundedParameter implements LXCompoundMod
   private final List<LXCompoundModulation.Listener> modulationListeners =
     new ArrayList<LXCompoundModulation.Listener>();
 
+  private static final AtomicLong modulationFrameCounter = new AtomicLong();
+
+  // Non-zero while modulated values may be memoized, see beginModulationFrame()
+  private static volatile long modulationFrame = 0;
+
+  // Modulated value memoized for a single frame and base value. The frame is
+  // written last, so a reader that sees it also sees the values stored with it.
+  // Writers racing within a frame store identical values, the sources being
+  // settled until invalidateModulationFrame() begins a new frame.
+  private volatile long memoFrame = 0;
+  private double memoBase;
+  private double memoNormalized;
+  private double memoValue;
+
+  /**
+   * Begins a frame in which modulated values are memoized. Within the frame, the
+   * modulated value of each CompoundParameter is computed at most once for any given
+   * base value and modulation amount. This is invoked by the engine after the modulators have run and
+   * before channels are rendered, it should not otherwise be called.
+   */
+  public static void beginModulationFrame() {
+    modulationFrame = modulationFrameCounter.incrementAndGet();
+  }
+
+  /**
+   * Invalidates all memoized values if a memoization frame is in progress. This is
+   * invoked whenever modulators run during the render pass, e.g. those belonging to
+   * a pattern or effect.
+   */
+  public static void invalidateModulationFrame() {
+    if (modulationFrame != 0) {
+      modulationFrame = modulationFrameCounter.incrementAndGet();
+    }
+  }
+
+  /**
+   * Ends the memoization frame, modulated values are recomputed on every read
+   * until the next call to {@link #beginModulationFrame()}
+   */
+  public static void endModulationFrame() {
+    modulationFrame = 0;
+  }
+
   @Override
   public final CompoundParameter addModulationListener(LXCompoundModulation.Listener listener) {
     Objects.requireNonNull(listener, "May not add null CompoundParameter.ModulationListener");
@@ -116,6 +160,7 @@ public class CompoundParameter extends BoundedParameter implements LXCompoundMod
   @Override
   public CompoundParameter setWrappable(boolean wrappable) {
     super.setWrappable(wrappable);
+    this.memoFrame = 0;
     return this;
   }
 
@@ -140,12 +185,14 @@ public class CompoundParameter extends BoundedParameter implements LXCompoundMod
   @Override
   public CompoundParameter setExponent(double exponent) {
     super.setExponent(exponent);
+    this.memoFrame = 0;
     return this;
   }
 
   @Override
   public CompoundParameter setNormalizationCurve(NormalizationCurve curve) {
     super.setNormalizationCurve(curve);
+    this.memoFrame = 0;
     return this;
   }
 
@@ -195,6 +242,7 @@ public class CompoundParameter extends BoundedParameter implements LXCompoundMod
       throw new IllegalStateException("Cannot add same modulation twice");
     }
     this.mutableModulations.add(modulation);
+    this.memoFrame = 0;
     for (LXCompoundModulation.Listener listener : this.modulationListeners) {
       listener.modulationAdded(this, modulation);
     }
@@ -211,6 +259,7 @@ public class CompoundParameter extends BoundedParameter implements LXCompoundMod
   @Override
   public CompoundParameter removeModulation(LXCompoundModulation modulation) {
     this.mutableModulations.remove(modulation);
+    this.memoFrame = 0;
     for (LXCompoundModulation.Listener listener : this.modulationListeners) {
       listener.modulationRemoved(this, modulation);
     }
@@ -228,9 +277,28 @@ public class CompoundParameter extends BoundedParameter implements LXCompoundMod
     return this.range.getNormalized(getBaseValue(), getExponent(), getNormalizationCurve());
   }
 
+  /**
+   * Ensures that the memoized values are current for this frame and base value
+   */
+  private void updateMemo(long frame) {
+    final double base = getBaseValue();
+    if ((this.memoFrame != frame) || (this.memoBase != base)) {
+      final double normalized = getNormalizedWithModulation(getBaseNormalized(), this.modulations);
+      this.memoBase = base;
+      this.memoNormalized = normalized;
+      this.memoValue = this.range.normalizedToValue(normalized, getExponent(), getNormalizationCurve());
+      this.memoFrame = frame;
+    }
+  }
+
   @Override
   public double getNormalized() {
-    return getNormalizedWithModulation(getBaseNormalized(), this.modulations);
+    final long frame = modulationFrame;
+    if ((frame == 0) || this.mutableModulations.isEmpty()) {
+      return getNormalizedWithModulation(getBaseNormalized(), this.modulations);
+    }
+    updateMemo(frame);
+    return this.memoNormalized;
   }
 
   @Override
@@ -238,7 +306,13 @@ public class CompoundParameter extends BoundedParameter implements LXCompoundMod
     if (this.mutableModulations.size() == 0) {
       return super.getValue();
     }
-    return this.range.normalizedToValue(getNormalized(), getExponent(), getNormalizationCurve());
+    final long frame = modulationFrame;
+    if (frame == 0) {
+      final double normalized = getNormalizedWithModulation(getBaseNormalized(), this.modulations);
+      return this.range.normalizedToValue(normalized, getExponent(), getNormalizationCurve());
+    }
+    updateMemo(frame);
+    return this.memoValue;
   }
 
 }
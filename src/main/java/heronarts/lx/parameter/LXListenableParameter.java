@@ -19,8 +19,7 @@
 package heronarts.lx.parameter;
 
 import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.Queue;
 import heronarts.lx.LX;
@@ -37,7 +36,12 @@ public abstract class LXListenableParameter implements LXParameter {
 
   private double defaultValue, value;
 
-  private final List<LXParameterListener> listeners = new ArrayList<LXParameterListener>();
+  private static final LXParameterListener[] NO_LISTENERS = new LXParameterListener[0];
+
+  // Copy-on-write array of listeners. Dispatch iterates over a snapshot of the array,
+  // so no allocation is needed and listeners may safely be added or removed from
+  // within a listener callback. Changes take effect on the next dispatch.
+  private volatile LXParameterListener[] listeners = NO_LISTENERS;
 
   private AggregateParameter parentParameter = null;
 
@@ -105,10 +109,12 @@ public abstract class LXListenableParameter implements LXParameter {
 
   public LXListenableParameter addListener(LXParameterListener listener, boolean fireImmediately) {
     Objects.requireNonNull(listener, "May not add null LXParameterListener: " + this);
-    if (this.listeners.contains(listener)) {
+    if (indexOfListener(listener) >= 0) {
       throw new IllegalStateException("Cannot add duplicate LXParameterListener " + getCanonicalPath() + " " + listener.getClass().getName());
     }
-    this.listeners.add(listener);
+    final LXParameterListener[] listeners = Arrays.copyOf(this.listeners, this.listeners.length + 1);
+    listeners[listeners.length - 1] = listener;
+    this.listeners = listeners;
     if (fireImmediately) {
       listener.onParameterChanged(this);
     }
@@ -116,13 +122,36 @@ public abstract class LXListenableParameter implements LXParameter {
   }
 
   public final LXListenableParameter removeListener(LXParameterListener listener) {
-    if (!this.listeners.contains(listener)) {
+    final int index = indexOfListener(listener);
+    if (index < 0) {
       LX.error(new IllegalStateException("Trying to remove unregistered LXParameterListener " + getCanonicalPath() + " " + listener.getClass().getName()));
+      return this;
     }
-    this.listeners.remove(listener);
+    final LXParameterListener[] listeners = new LXParameterListener[this.listeners.length - 1];
+    System.arraycopy(this.listeners, 0, listeners, 0, index);
+    System.arraycopy(this.listeners, index + 1, listeners, index, listeners.length - index);
+    this.listeners = listeners;
     return this;
   }
 
+  private int indexOfListener(LXParameterListener listener) {
+    final LXParameterListener[] listeners = this.listeners;
+    for (int i = 0; i < listeners.length; ++i) {
+      if (listeners[i].equals(listener)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private void notifyListeners() {
+    // NOTE: deliberately a local snapshot, see comment on listeners field
+    final LXParameterListener[] listeners = this.listeners;
+    for (int i = 0; i < listeners.length; ++i) {
+      listeners[i].onParameterChanged(this);
+    }
+  }
+
   public LXListenableParameter setDescription(String description) {
     this.description = description;
     return this;
@@ -175,7 +204,7 @@ public abstract class LXListenableParameter implements LXParameter {
         LX.error(new Exception(), "WARNING / SHOULDFIX: Stranded listener on parameter: " + getCanonicalPath() + " - " + className);
       }
     }
-    this.listeners.clear();
+    this.listeners = NO_LISTENERS;
   }
 
   public LXParameter reset() {
@@ -219,9 +248,12 @@ public abstract class LXListenableParameter implements LXParameter {
         value = updateValue(value);
         if (this.value != value) {
           this.value = value;
+          if (this.parent != null) {
+            this.parent.markModified();
+          }
           if (notifyListeners) {
             this.inListener = true;
-            this.listeners.forEach(l -> l.onParameterChanged(this));
+            notifyListeners();
             this.inListener = false;
           }
           while (!this.setValues.isEmpty()) {
@@ -255,9 +287,7 @@ public abstract class LXListenableParameter implements LXParameter {
    * @return this
    */
   public LXListenableParameter bang() {
-    for (LXParameterListener l : listeners) {
-      l.onParameterChanged(this);
-    }
+    notifyListeners();
     return this;
   }
 
@@ -453,6 +453,7 @@ public abstract class LXPattern extends LXDeviceComponent implements LXComponent
     this.mutableEffects.add(index, effect);
     effect.setPattern(this);
     _reindexEffects();
+    invalidateDeviceViews();
     for (Listener listener : this.listeners) {
       listener.effectAdded(this, effect);
     }
@@ -469,6 +470,7 @@ public abstract class LXPattern extends LXDeviceComponent implements LXComponent
         this.mutableEffects.get(index).setIndex(index);
         ++index;
       }
+      invalidateDeviceViews();
       for (Listener listener : this.listeners) {
         listener.effectRemoved(this, effect);
       }
@@ -495,6 +497,7 @@ public abstract class LXPattern extends LXDeviceComponent implements LXComponent
     this.mutableEffects.remove(effect);
     this.mutableEffects.add(index, effect);
     _reindexEffects();
+    markModified();
     for (Listener listener : this.listeners) {
       listener.effectMoved(this, effect);
     }
@@ -527,6 +530,14 @@ public abstract class LXPattern extends LXDeviceComponent implements LXComponent
     return super.handleOscMessage(message, parts, index);
   }
 
+  @Override
+  public void loopModulation(double deltaMs) {
+    super.loopModulation(deltaMs);
+    for (LXEffect effect : this.mutableEffects) {
+      effect.loopModulation(deltaMs);
+    }
+  }
+
   @Override
   protected final void onLoop(double deltaMs) {
     if (!this.isActive) {
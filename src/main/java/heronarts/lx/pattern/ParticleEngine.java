@@ -0,0 +1,619 @@
+/**
+ * Copyright 2026- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.pattern;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import heronarts.lx.LX;
+import heronarts.lx.LXParallelRange;
+import heronarts.lx.color.LXColor;
+import heronarts.lx.model.LXModel;
+import heronarts.lx.model.LXPoint;
+import heronarts.lx.utils.LXUtils;
+
+/**
+ * A pool of particles for patterns to emit, move and render onto a model.
+ * Particles are stored as parallel arrays of fixed capacity, which forces and
+ * lifetimes operate upon directly, so that no allocation takes place per frame.
+ * Positions and radii are in the normalized coordinate space of the model.
+ *
+ * Each frame a pattern calls {@link #update(double)} to integrate the
+ * particles, then {@link #splat(LXModel, int[])} to render them. Each point is
+ * lit by the sum of the particles whose radius it falls within, weighted by the
+ * falloff kernel. The points of the model are sorted once into a uniform grid
+ * of cells, and each particle visits only the cells that its radius overlaps.
+ * On large models the grid is split into slabs of cells which render
+ * concurrently on the engine's pattern worker pool, when
+ * {@link heronarts.lx.LXEngine#isPatternMultithreaded} is enabled.
+ */
+public class ParticleEngine {
+
+  // Models with at least this many points are split across the engine's
+  // pattern worker pool, when it is enabled
+  private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+  // Number of points per grid cell for evenly spread points
+  private static final int POINTS_PER_CELL = 4;
+
+  private static final int MAX_CELLS_PER_AXIS = 1 << 10;
+
+  // Padding of the cell range overlapped by a particle, in cells, so that
+  // rounding never excludes a point on the edge of its radius
+  private static final float GRID_PAD = 1e-3f;
+
+  /**
+   * A force that updates the velocity of the particles
+   */
+  public interface Force {
+    public void apply(ParticleEngine particles, float deltaSec);
+  }
+
+  /**
+   * Updates the level of the particles over their lifetime, after the age of
+   * each particle has been advanced. Particles are removed once their age
+   * reaches their lifespan.
+   */
+  public interface Lifetime {
+    public void integrate(ParticleEngine particles, float deltaSec);
+
+    /**
+     * Particles fade out linearly over their lifespan
+     */
+    public static Lifetime FADE = (particles, deltaSec) -> {
+      for (int i = 0; i < particles.size; ++i) {
+        particles.level[i] = particles.intensity[i] * Math.max(0, 1 - particles.age[i] / particles.life[i]);
+      }
+    };
+
+    /**
+     * Particles remain at full intensity for their lifespan
+     */
+    public static Lifetime CONSTANT = (particles, deltaSec) -> {
+      System.arraycopy(particles.intensity, 0, particles.level, 0, particles.size);
+    };
+  }
+
+  /**
+   * Constant acceleration of all particles
+   */
+  public static class Gravity implements Force {
+
+    public float x, y, z;
+
+    public Gravity(float x, float y, float z) {
+      this.x = x;
+      this.y = y;
+      this.z = z;
+    }
+
+    @Override
+    public void apply(ParticleEngine particles, float deltaSec) {
+      final float dx = this.x * deltaSec, dy = this.y * deltaSec, dz = this.z * deltaSec;
+      for (int i = 0; i < particles.size; ++i) {
+        particles.vx[i] += dx;
+        particles.vy[i] += dy;
+        particles.vz[i] += dz;
+      }
+    }
+  }
+
+  /**
+   * Exponential decay of particle velocity
+   */
+  public static class Drag implements Force {
+
+    /**
+     * Fraction of velocity lost per second
+     */
+    public float amount;
+
+    public Drag(float amount) {
+      this.amount = amount;
+    }
+
+    @Override
+    public void apply(ParticleEngine particles, float deltaSec) {
+      final float scale = (float) Math.pow(Math.max(0, 1 - this.amount), deltaSec);
+      for (int i = 0; i < particles.size; ++i) {
+        particles.vx[i] *= scale;
+        particles.vy[i] *= scale;
+        particles.vz[i] *= scale;
+      }
+    }
+  }
+
+  /**
+   * Kernel applied to the contribution of a particle over its radius
+   */
+  public enum Falloff {
+    /**
+     * Full contribution across the radius
+     */
+    CONSTANT,
+
+    /**
+     * Linear falloff with distance
+     */
+    LINEAR,
+
+    /**
+     * Smooth quadratic falloff, (1 - d^2)^2
+     */
+    SMOOTH,
+
+    /**
+     * Gaussian falloff, truncated at the radius
+     */
+    GAUSSIAN;
+
+    /**
+     * Weight of the contribution at a distance
+     *
+     * @param distanceSq Squared distance as a fraction of the squared radius, from 0-1
+     * @return Weight from 0-1
+     */
+    public float weight(float distanceSq) {
+      switch (this) {
+      case LINEAR:
+        return 1 - (float) Math.sqrt(distanceSq);
+      case SMOOTH:
+        final float inv = 1 - distanceSq;
+        return inv * inv;
+      case GAUSSIAN:
+        return (float) Math.exp(-4 * distanceSq);
+      default:
+      case CONSTANT:
+        return 1;
+      }
+    }
+  }
+
+  /**
+   * Maximum number of particles
+   */
+  public final int capacity;
+
+  public final float[] x;
+  public final float[] y;
+  public final float[] z;
+  public final float[] vx;
+  public final float[] vy;
+  public final float[] vz;
+
+  /**
+   * Age of each particle, in seconds
+   */
+  public final float[] age;
+
+  /**
+   * Lifespan of each particle, in seconds
+   */
+  public final float[] life;
+
+  /**
+   * Radius of each particle in normalized model space
+   */
+  public final float[] radius;
+
+  /**
+   * Initial brightness of each particle, from 0-1
+   */
+  public final float[] intensity;
+
+  /**
+   * Current brightness of each particle, computed by the lifetime
+   */
+  public final float[] level;
+
+  /**
+   * Color of each particle
+   */
+  public final int[] color;
+
+  private int size = 0;
+
+  private final List<Force> forces = new ArrayList<Force>();
+
+  private Lifetime lifetime = Lifetime.FADE;
+
+  private Falloff falloff = Falloff.SMOOTH;
+
+  // Uniform grid of cells over the points of the model, rebuilt when the model
+  // or its geometry changes. Points are stored in cell order with the first grid
+  // axis slowest, so each slab of cells along that axis is a contiguous range.
+  private LXModel gridModel = null;
+  private int gridGeneration = -1;
+  private final int[] gridAxis = new int[3];
+  private final int[] gridCells = new int[3];
+  private final float[] gridOrigin = new float[3];
+  private final float[] gridScale = new float[3];
+  private int[] cellStart = new int[1];
+  private int[] cellPoint = new int[0];
+  private float[] cellX = new float[0];
+  private float[] cellY = new float[0];
+  private float[] cellZ = new float[0];
+
+  // Accumulation buffers, indexed in cell order
+  private float[] red = new float[0];
+  private float[] green = new float[0];
+  private float[] blue = new float[0];
+
+  private final float[][] position;
+  private final LXParallelRange splatRange;
+  private int[] splatColors = null;
+
+  public ParticleEngine(LX lx, int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("ParticleEngine capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+    this.x = new float[capacity];
+    this.y = new float[capacity];
+    this.z = new float[capacity];
+    this.vx = new float[capacity];
+    this.vy = new float[capacity];
+    this.vz = new float[capacity];
+    this.age = new float[capacity];
+    this.life = new float[capacity];
+    this.radius = new float[capacity];
+    this.intensity = new float[capacity];
+    this.level = new float[capacity];
+    this.color = new int[capacity];
+    this.position = new float[][] { this.x, this.y, this.z };
+    this.splatRange = new LXParallelRange(lx, 1, this::splatSlabs);
+  }
+
+  /**
+   * Number of live particles, which occupy indices 0 to size-1
+   *
+   * @return Number of live particles
+   */
+  public int size() {
+    return this.size;
+  }
+
+  public ParticleEngine addForce(Force force) {
+    if (this.forces.contains(force)) {
+      throw new IllegalStateException("Cannot add same force to ParticleEngine twice: " + force);
+    }
+    this.forces.add(force);
+    return this;
+  }
+
+  public ParticleEngine removeForce(Force force) {
+    this.forces.remove(force);
+    return this;
+  }
+
+  public ParticleEngine setLifetime(Lifetime lifetime) {
+    this.lifetime = lifetime;
+    return this;
+  }
+
+  public ParticleEngine setFalloff(Falloff falloff) {
+    this.falloff = falloff;
+    return this;
+  }
+
+  /**
+   * Emits a new particle, unless the engine is at capacity
+   *
+   * @param x Normalized x position
+   * @param y Normalized y position
+   * @param z Normalized z position
+   * @param vx Velocity in x, normalized units per second
+   * @param vy Velocity in y, normalized units per second
+   * @param vz Velocity in z, normalized units per second
+   * @param life Lifespan in seconds
+   * @param radius Radius in normalized space
+   * @param intensity Brightness from 0-1
+   * @param color Color of the particle
+   * @return Index of the new particle, or -1 if at capacity
+   */
+  public int spawn(float x, float y, float z, float vx, float vy, float vz, float life, float radius, float intensity, int color) {
+    if (this.size == this.capacity) {
+      return -1;
+    }
+    final int i = this.size++;
+    this.x[i] = x;
+    this.y[i] = y;
+    this.z[i] = z;
+    this.vx[i] = vx;
+    this.vy[i] = vy;
+    this.vz[i] = vz;
+    this.age[i] = 0;
+    this.life[i] = life;
+    this.radius[i] = radius;
+    this.intensity[i] = intensity;
+    this.level[i] = intensity;
+    this.color[i] = color;
+    return i;
+  }
+
+  /**
+   * Marks a particle to be removed on the next update
+   *
+   * @param i Particle index
+   */
+  public void kill(int i) {
+    this.age[i] = this.life[i];
+  }
+
+  /**
+   * Removes all particles
+   */
+  public void clear() {
+    this.size = 0;
+  }
+
+  /**
+   * Advances the particles by a frame. Forces are applied, particles are
+   * moved and aged, the lifetime updates their levels, and expired particles
+   * are removed. Removal moves the last particle into the vacated slot, so
+   * particle indices are not stable across updates.
+   *
+   * @param deltaMs Milliseconds elapsed since the last frame
+   */
+  public void update(double deltaMs) {
+    final float deltaSec = (float) (deltaMs / 1000);
+    for (Force force : this.forces) {
+      force.apply(this, deltaSec);
+    }
+    for (int i = 0; i < this.size; ++i) {
+      this.x[i] += this.vx[i] * deltaSec;
+      this.y[i] += this.vy[i] * deltaSec;
+      this.z[i] += this.vz[i] * deltaSec;
+      this.age[i] += deltaSec;
+    }
+    this.lifetime.integrate(this, deltaSec);
+
+    int i = 0;
+    while (i < this.size) {
+      if (this.age[i] >= this.life[i]) {
+        move(--this.size, i);
+      } else {
+        ++i;
+      }
+    }
+  }
+
+  private void move(int from, int to) {
+    this.x[to] = this.x[from];
+    this.y[to] = this.y[from];
+    this.z[to] = this.z[from];
+    this.vx[to] = this.vx[from];
+    this.vy[to] = this.vy[from];
+    this.vz[to] = this.vz[from];
+    this.age[to] = this.age[from];
+    this.life[to] = this.life[from];
+    this.radius[to] = this.radius[from];
+    this.intensity[to] = this.intensity[from];
+    this.level[to] = this.level[from];
+    this.color[to] = this.color[from];
+  }
+
+  /**
+   * Renders the particles onto the points of a model. Every point of the
+   * model is written, points outside the radius of all particles are black.
+   * Contributions are summed additively and clipped at full brightness.
+   *
+   * @param model Model to render onto
+   * @param colors Color buffer, indexed by point index
+   */
+  public void splat(LXModel model, int[] colors) {
+    if ((model != this.gridModel) || (model.getGeneration() != this.gridGeneration)) {
+      buildGrid(model);
+    }
+    this.splatColors = colors;
+    if (this.cellPoint.length < PARALLEL_THRESHOLD) {
+      splatSlabs(0, this.gridCells[0]);
+    } else {
+      this.splatRange.run(this.gridCells[0]);
+    }
+    this.splatColors = null;
+  }
+
+  /**
+   * Sorts the points of a model into a uniform grid of cells. The number of
+   * cells along each axis is chosen from the extent of the points so that
+   * cells hold a few points each, and the axis with the most cells is ordered
+   * first so that there are as many slabs as possible to split across threads.
+   */
+  private void buildGrid(LXModel model) {
+    final LXPoint[] points = model.points;
+    final int numPoints = points.length;
+    final float[] min = { Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY };
+    final float[] max = { Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY };
+    for (LXPoint p : points) {
+      min[0] = Math.min(min[0], p.xn);
+      min[1] = Math.min(min[1], p.yn);
+      min[2] = Math.min(min[2], p.zn);
+      max[0] = Math.max(max[0], p.xn);
+      max[1] = Math.max(max[1], p.yn);
+      max[2] = Math.max(max[2], p.zn);
+    }
+
+    // Size cells to hold about POINTS_PER_CELL points if evenly spread
+    final float[] extent = new float[3];
+    int dimensions = 0;
+    double volume = 1;
+    for (int a = 0; a < 3; ++a) {
+      extent[a] = (numPoints > 0) ? max[a] - min[a] : 0;
+      if (extent[a] > 0) {
+        ++dimensions;
+        volume *= extent[a];
+      }
+    }
+    final double cellSize = (dimensions > 0) ? Math.pow(volume * POINTS_PER_CELL / numPoints, 1. / dimensions) : 0;
+    final int[] cells = new int[3];
+    for (int a = 0; a < 3; ++a) {
+      cells[a] = (extent[a] > 0) ? (int) LXUtils.constrain(Math.ceil(extent[a] / cellSize), 1, MAX_CELLS_PER_AXIS) : 1;
+    }
+
+    // Order the axes by number of cells, most first
+    this.gridAxis[0] = 0;
+    this.gridAxis[1] = 1;
+    this.gridAxis[2] = 2;
+    for (int i = 0; i < 2; ++i) {
+      for (int j = i + 1; j < 3; ++j) {
+        if (cells[this.gridAxis[j]] > cells[this.gridAxis[i]]) {
+          final int swap = this.gridAxis[i];
+          this.gridAxis[i] = this.gridAxis[j];
+          this.gridAxis[j] = swap;
+        }
+      }
+    }
+    for (int i = 0; i < 3; ++i) {
+      final int a = this.gridAxis[i];
+      this.gridCells[i] = cells[a];
+      this.gridOrigin[i] = (numPoints > 0) ? min[a] : 0;
+      this.gridScale[i] = (extent[a] > 0) ? cells[a] / extent[a] : 0;
+    }
+
+    // Counting sort of the points by cell
+    final int numCells = this.gridCells[0] * this.gridCells[1] * this.gridCells[2];
+    this.cellStart = new int[numCells + 1];
+    final int[] pointCell = new int[numPoints];
+    for (int i = 0; i < numPoints; ++i) {
+      final LXPoint p = points[i];
+      int cell = 0;
+      for (int j = 0; j < 3; ++j) {
+        final float v = (this.gridAxis[j] == 0) ? p.xn : (this.gridAxis[j] == 1) ? p.yn : p.zn;
+        cell = cell * this.gridCells[j] + Math.min(this.gridCells[j] - 1, (int) ((v - this.gridOrigin[j]) * this.gridScale[j]));
+      }
+      pointCell[i] = cell;
+      ++this.cellStart[cell + 1];
+    }
+    for (int c = 0; c < numCells; ++c) {
+      this.cellStart[c + 1] += this.cellStart[c];
+    }
+    final int[] fill = Arrays.copyOf(this.cellStart, numCells);
+    this.cellPoint = new int[numPoints];
+    this.cellX = new float[numPoints];
+    this.cellY = new float[numPoints];
+    this.cellZ = new float[numPoints];
+    for (int i = 0; i < numPoints; ++i) {
+      final LXPoint p = points[i];
+      final int k = fill[pointCell[i]]++;
+      this.cellPoint[k] = p.index;
+      this.cellX[k] = p.xn;
+      this.cellY[k] = p.yn;
+      this.cellZ[k] = p.zn;
+    }
+    this.red = new float[numPoints];
+    this.green = new float[numPoints];
+    this.blue = new float[numPoints];
+
+    this.gridModel = model;
+    this.gridGeneration = model.getGeneration();
+  }
+
+  /**
+   * Renders the points in a range of slabs of the grid. Every particle is
+   * tested against the slabs, and only the cells it overlaps are visited.
+   * Particles are summed in index order, so the output does not depend on how
+   * the slabs are split.
+   *
+   * @param start First slab
+   * @param end Slab after the last
+   */
+  private void splatSlabs(int start, int end) {
+    final int[] cellStart = this.cellStart;
+    final int[] cellPoint = this.cellPoint;
+    final float[] cellX = this.cellX, cellY = this.cellY, cellZ = this.cellZ;
+    final float[] red = this.red, green = this.green, blue = this.blue;
+    final int n1 = this.gridCells[1], n2 = this.gridCells[2];
+    final float[] p0 = this.position[this.gridAxis[0]];
+    final float[] p1 = this.position[this.gridAxis[1]];
+    final float[] p2 = this.position[this.gridAxis[2]];
+    final float o0 = this.gridOrigin[0], o1 = this.gridOrigin[1], o2 = this.gridOrigin[2];
+    final float s0 = this.gridScale[0], s1 = this.gridScale[1], s2 = this.gridScale[2];
+    final Falloff falloff = this.falloff;
+
+    final int from = cellStart[start * n1 * n2];
+    final int to = cellStart[end * n1 * n2];
+    Arrays.fill(red, from, to, 0);
+    Arrays.fill(green, from, to, 0);
+    Arrays.fill(blue, from, to, 0);
+
+    for (int p = 0; p < this.size; ++p) {
+      final float radius = this.radius[p];
+      final float level = this.level[p];
+      if ((level <= 0) || (radius <= 0)) {
+        continue;
+      }
+
+      // Range of cells overlapped on each axis, skipping particles outside the slabs
+      final float lo0 = (p0[p] - radius - o0) * s0 - GRID_PAD, hi0 = (p0[p] + radius - o0) * s0 + GRID_PAD;
+      if (!(lo0 < end) || !(hi0 >= start)) {
+        continue;
+      }
+      final float lo1 = (p1[p] - radius - o1) * s1 - GRID_PAD, hi1 = (p1[p] + radius - o1) * s1 + GRID_PAD;
+      if (!(lo1 < n1) || !(hi1 >= 0)) {
+        continue;
+      }
+      final float lo2 = (p2[p] - radius - o2) * s2 - GRID_PAD, hi2 = (p2[p] + radius - o2) * s2 + GRID_PAD;
+      if (!(lo2 < n2) || !(hi2 >= 0)) {
+        continue;
+      }
+      final int c0 = (lo0 > start) ? (int) lo0 : start, d0 = (hi0 < end) ? (int) hi0 : end - 1;
+      final int c1 = (lo1 > 0) ? (int) lo1 : 0, d1 = (hi1 < n1) ? (int) hi1 : n1 - 1;
+      final int c2 = (lo2 > 0) ? (int) lo2 : 0, d2 = (hi2 < n2) ? (int) hi2 : n2 - 1;
+
+      final float x = this.x[p], y = this.y[p], z = this.z[p];
+      final int color = this.color[p];
+      final float r = level * ((color & LXColor.R_MASK) >>> LXColor.R_SHIFT);
+      final float g = level * ((color & LXColor.G_MASK) >>> LXColor.G_SHIFT);
+      final float b = level * (color & LXColor.B_MASK);
+      final float radiusSq = radius * radius;
+      final float invRadiusSq = 1 / radiusSq;
+      for (int i0 = c0; i0 <= d0; ++i0) {
+        for (int i1 = c1; i1 <= d1; ++i1) {
+          // Cells along the last axis are contiguous
+          final int row = (i0 * n1 + i1) * n2;
+          final int kEnd = cellStart[row + d2 + 1];
+          for (int k = cellStart[row + c2]; k < kEnd; ++k) {
+            final float dx = cellX[k] - x;
+            final float dy = cellY[k] - y;
+            final float dz = cellZ[k] - z;
+            final float distSq = dx*dx + dy*dy + dz*dz;
+            if (distSq <= radiusSq) {
+              final float weight = falloff.weight(distSq * invRadiusSq);
+              red[k] += r * weight;
+              green[k] += g * weight;
+              blue[k] += b * weight;
+            }
+          }
+        }
+      }
+    }
+
+    final int[] colors = this.splatColors;
+    for (int k = from; k < to; ++k) {
+      colors[cellPoint[k]] = LXColor.rgb(
+        Math.min(255, (int) red[k]),
+        Math.min(255, (int) green[k]),
+        Math.min(255, (int) blue[k])
+      );
+    }
+  }
+
+}
@@ -0,0 +1,492 @@
+/**
+ * Copyright 2026- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.pattern;
+
+import java.util.Arrays;
+
+import heronarts.lx.color.LXColor;
+import heronarts.lx.model.LXModel;
+import heronarts.lx.model.LXPoint;
+import heronarts.lx.transform.LXMatrix;
+import heronarts.lx.transform.LXProjection;
+import heronarts.lx.transform.LXVector;
+
+/**
+ * A software raster canvas for patterns that draw 2D graphics. Shapes are
+ * rasterized by scanline into an ARGB framebuffer, which is then sampled onto
+ * the points of a model through a {@link Mapping}. A mapping precomputes the
+ * bilinear sampling position and weights of every point, so drawing and
+ * sampling cost time proportional to the pixels touched and the points
+ * sampled, and neither allocates.
+ *
+ * Pixel (0, 0) is the top-left of the canvas. By default the canvas spans the
+ * normalized xn/yn plane of the model, with xn=0 at the left column and yn=1
+ * at the top row. Colors that are not fully opaque are blended over the
+ * existing contents of the canvas.
+ */
+public class RasterCanvas {
+
+  /**
+   * A table of sampling positions mapping the canvas onto the points of a
+   * model. The table is rebuilt automatically when the geometry of the model
+   * changes. A mapping through a projection should be updated by calling
+   * {@link #update()} whenever the projection is modified.
+   */
+  public class Mapping {
+
+    public final LXModel model;
+
+    private final LXMatrix transform;
+    private final LXProjection projection;
+
+    private final int width = RasterCanvas.this.width;
+    private final int height = RasterCanvas.this.height;
+
+    private int generation = -1;
+
+    // Point index, top-left pixel offset, offsets to the adjacent column and row, and 8-bit weights
+    private final int[] index;
+    private final int[] offset;
+    private final int[] stepX;
+    private final int[] stepY;
+    private final int[] weightX;
+    private final int[] weightY;
+
+    private Mapping(LXModel model, LXMatrix transform, LXProjection projection) {
+      if ((projection != null) && (projection.size() != model.points.length)) {
+        throw new IllegalArgumentException("RasterCanvas projection does not match model size: " + projection.size() + " != " + model.points.length);
+      }
+      this.model = model;
+      this.transform = transform;
+      this.projection = projection;
+      final int size = model.points.length;
+      this.index = new int[size];
+      this.offset = new int[size];
+      this.stepX = new int[size];
+      this.stepY = new int[size];
+      this.weightX = new int[size];
+      this.weightY = new int[size];
+      update();
+    }
+
+    /**
+     * Recomputes the sampling table from the current model geometry, transform
+     * or projection
+     *
+     * @return this
+     */
+    public Mapping update() {
+      final LXPoint[] points = this.model.points;
+      for (int i = 0; i < points.length; ++i) {
+        final LXPoint p = points[i];
+        float u, v;
+        if (this.projection != null) {
+          final LXVector vector = this.projection.get(i);
+          u = (this.model.xRange == 0) ? .5f : (vector.x - this.model.xMin) / this.model.xRange;
+          v = (this.model.yRange == 0) ? .5f : (vector.y - this.model.yMin) / this.model.yRange;
+        } else if (this.transform != null) {
+          u = this.transform.xn(p);
+          v = this.transform.yn(p);
+        } else {
+          u = p.xn;
+          v = p.yn;
+        }
+
+        // Clamp to the pixel centers at the edges of the canvas
+        final float px = Math.max(0, Math.min(width - 1, u * (width - 1)));
+        final float py = Math.max(0, Math.min(height - 1, (1 - v) * (height - 1)));
+        final int x0 = Math.min((int) px, width - 1);
+        final int y0 = Math.min((int) py, height - 1);
+        this.index[i] = p.index;
+        this.offset[i] = y0 * width + x0;
+        this.stepX[i] = (x0 < width - 1) ? 1 : 0;
+        this.stepY[i] = (y0 < height - 1) ? width : 0;
+        this.weightX[i] = (int) ((px - x0) * LXColor.BLEND_ALPHA_FULL);
+        this.weightY[i] = (int) ((py - y0) * LXColor.BLEND_ALPHA_FULL);
+      }
+      this.generation = this.model.getGeneration();
+      return this;
+    }
+  }
+
+  public final int width;
+
+  public final int height;
+
+  /**
+   * Framebuffer of ARGB pixels, in rows from top to bottom
+   */
+  public final int[] pixels;
+
+  private Mapping planeMapping = null;
+
+  public RasterCanvas(int width, int height) {
+    if ((width < 1) || (height < 1)) {
+      throw new IllegalArgumentException("RasterCanvas dimensions must be positive: " + width + "x" + height);
+    }
+    this.width = width;
+    this.height = height;
+    this.pixels = new int[width * height];
+  }
+
+  /**
+   * Creates a mapping of the canvas over the normalized xn/yn plane of a model
+   *
+   * @param model Model
+   * @return Mapping
+   */
+  public Mapping map(LXModel model) {
+    return new Mapping(model, null, null);
+  }
+
+  /**
+   * Creates a mapping of the canvas onto a plane through the model. Normalized
+   * point coordinates are transformed by the matrix, and the resulting x and y
+   * values span the canvas from 0-1.
+   *
+   * @param model Model
+   * @param transform Transform of normalized point coordinates onto the canvas plane
+   * @return Mapping
+   */
+  public Mapping map(LXModel model, LXMatrix transform) {
+    return new Mapping(model, transform, null);
+  }
+
+  /**
+   * Creates a mapping of the canvas onto the x and y coordinates of a
+   * projection of the model, spanning the canvas over the bounds of the model
+   *
+   * @param model Model
+   * @param projection Projection of the model
+   * @return Mapping
+   */
+  public Mapping map(LXModel model, LXProjection projection) {
+    return new Mapping(model, null, projection);
+  }
+
+  /**
+   * Samples the canvas onto the normalized xn/yn plane of a model
+   *
+   * @param model Model
+   * @param colors Color buffer, indexed by point index
+   * @return this
+   */
+  public RasterCanvas sample(LXModel model, int[] colors) {
+    if ((this.planeMapping == null) || (this.planeMapping.model != model)) {
+      this.planeMapping = map(model);
+    }
+    return sample(this.planeMapping, colors);
+  }
+
+  /**
+   * Samples the canvas onto the points of a mapping with bilinear interpolation.
+   * A mapping may be shared between canvases of the same dimensions.
+   *
+   * @param mapping Mapping of a canvas with the same dimensions
+   * @param colors Color buffer, indexed by point index
+   * @return this
+   */
+  public RasterCanvas sample(Mapping mapping, int[] colors) {
+    if ((mapping.width != this.width) || (mapping.height != this.height)) {
+      throw new IllegalArgumentException("RasterCanvas mapping dimensions do not match canvas: " + mapping.width + "x" + mapping.height + " != " + this.width + "x" + this.height);
+    }
+    if (mapping.generation != mapping.model.getGeneration()) {
+      mapping.update();
+    }
+    final int[] pixels = this.pixels;
+    final int[] index = mapping.index;
+    final int[] offset = mapping.offset;
+    final int[] stepX = mapping.stepX;
+    final int[] stepY = mapping.stepY;
+    final int[] weightX = mapping.weightX;
+    final int[] weightY = mapping.weightY;
+    for (int i = 0; i < index.length; ++i) {
+      final int o = offset[i];
+      final int sx = stepX[i];
+      final int sy = stepY[i];
+      final int wx = weightX[i];
+      colors[index[i]] = lerp(
+        lerp(pixels[o], pixels[o + sx], wx),
+        lerp(pixels[o + sy], pixels[o + sy + sx], wx),
+        weightY[i]
+      );
+    }
+    return this;
+  }
+
+  /**
+   * Interpolates all four channels of two colors by a weight from 0-256
+   */
+  private static int lerp(int c0, int c1, int weight) {
+    final int inv = LXColor.BLEND_ALPHA_FULL - weight;
+    return
+      ((c0 & LXColor.RB_MASK) * inv + (c1 & LXColor.RB_MASK) * weight) >>> 8 & LXColor.RB_MASK |
+      (((c0 >>> 8) & LXColor.RB_MASK) * inv + ((c1 >>> 8) & LXColor.RB_MASK) * weight) & ~LXColor.RB_MASK;
+  }
+
+  private static boolean isOpaque(int color) {
+    return (color & LXColor.ALPHA_MASK) == LXColor.ALPHA_MASK;
+  }
+
+  /**
+   * Fills a horizontal span of pixels, inclusive of both ends, clipped to the canvas
+   */
+  private void span(int y, int x0, int x1, int color) {
+    if ((y < 0) || (y >= this.height)) {
+      return;
+    }
+    x0 = Math.max(0, x0);
+    x1 = Math.min(this.width - 1, x1);
+    if (x1 < x0) {
+      return;
+    }
+    final int row = y * this.width;
+    if (isOpaque(color)) {
+      Arrays.fill(this.pixels, row + x0, row + x1 + 1, color);
+    } else {
+      for (int i = row + x0; i <= row + x1; ++i) {
+        this.pixels[i] = LXColor.lerp(this.pixels[i], color);
+      }
+    }
+  }
+
+  private void plot(int x, int y, int color) {
+    if ((x >= 0) && (x < this.width) && (y >= 0) && (y < this.height)) {
+      final int i = y * this.width + x;
+      this.pixels[i] = isOpaque(color) ? color : LXColor.lerp(this.pixels[i], color);
+    }
+  }
+
+  /**
+   * Fills the entire canvas with a color
+   *
+   * @param color Color
+   * @return this
+   */
+  public RasterCanvas clear(int color) {
+    Arrays.fill(this.pixels, color);
+    return this;
+  }
+
+  /**
+   * Fills a rectangle
+   *
+   * @param x Left column
+   * @param y Top row
+   * @param width Width in pixels
+   * @param height Height in pixels
+   * @param color Color
+   * @return this
+   */
+  public RasterCanvas fillRect(int x, int y, int width, int height, int color) {
+    final int y1 = Math.min(this.height, y + height);
+    for (int row = Math.max(0, y); row < y1; ++row) {
+      span(row, x, x + width - 1, color);
+    }
+    return this;
+  }
+
+  /**
+   * Draws a one pixel line between two pixels, inclusive of both ends
+   *
+   * @param x0 Start column
+   * @param y0 Start row
+   * @param x1 End column
+   * @param y1 End row
+   * @param color Color
+   * @return this
+   */
+  public RasterCanvas line(int x0, int y0, int x1, int y1, int color) {
+    final int dx = Math.abs(x1 - x0);
+    final int dy = -Math.abs(y1 - y0);
+    final int sx = (x0 < x1) ? 1 : -1;
+    final int sy = (y0 < y1) ? 1 : -1;
+    int error = dx + dy;
+    while (true) {
+      plot(x0, y0, color);
+      if ((x0 == x1) && (y0 == y1)) {
+        break;
+      }
+      final int e2 = 2 * error;
+      if (e2 >= dy) {
+        error += dy;
+        x0 += sx;
+      }
+      if (e2 <= dx) {
+        error += dx;
+        y0 += sy;
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Fills a circle, covering the pixels whose centers fall within it
+   *
+   * @param cx Center column
+   * @param cy Center row
+   * @param radius Radius in pixels
+   * @param color Color
+   * @return this
+   */
+  public RasterCanvas fillCircle(float cx, float cy, float radius, int color) {
+    if (radius < 0) {
+      return this;
+    }
+    final int y0 = Math.max(0, (int) Math.ceil(cy - radius));
+    final int y1 = Math.min(this.height - 1, (int) Math.floor(cy + radius));
+    final float radiusSq = radius * radius;
+    for (int y = y0; y <= y1; ++y) {
+      final float dy = y - cy;
+      final float dx = (float) Math.sqrt(radiusSq - dy*dy);
+      span(y, (int) Math.ceil(cx - dx), (int) Math.floor(cx + dx), color);
+    }
+    return this;
+  }
+
+  /**
+   * Fills a triangle, covering the pixels whose centers fall within it
+   *
+   * @param x0 First vertex column
+   * @param y0 First vertex row
+   * @param x1 Second vertex column
+   * @param y1 Second vertex row
+   * @param x2 Third vertex column
+   * @param y2 Third vertex row
+   * @param color Color
+   * @return this
+   */
+  public RasterCanvas fillTriangle(float x0, float y0, float x1, float y1, float x2, float y2, int color) {
+    final int yStart = Math.max(0, (int) Math.ceil(Math.min(y0, Math.min(y1, y2))));
+    final int yEnd = Math.min(this.height - 1, (int) Math.floor(Math.max(y0, Math.max(y1, y2))));
+    for (int y = yStart; y <= yEnd; ++y) {
+      // Intersect the row with each edge that spans it
+      float xMin = Float.POSITIVE_INFINITY, xMax = Float.NEGATIVE_INFINITY;
+      for (int edge = 0; edge < 3; ++edge) {
+        final float ax = (edge == 0) ? x0 : (edge == 1) ? x1 : x2;
+        final float ay = (edge == 0) ? y0 : (edge == 1) ? y1 : y2;
+        final float bx = (edge == 0) ? x1 : (edge == 1) ? x2 : x0;
+        final float by = (edge == 0) ? y1 : (edge == 1) ? y2 : y0;
+        if ((y < Math.min(ay, by)) || (y > Math.max(ay, by))) {
+          continue;
+        }
+        if (ay == by) {
+          xMin = Math.min(xMin, Math.min(ax, bx));
+          xMax = Math.max(xMax, Math.max(ax, bx));
+        } else {
+          final float x = ax + (bx - ax) * (y - ay) / (by - ay);
+          xMin = Math.min(xMin, x);
+          xMax = Math.max(xMax, x);
+        }
+      }
+      if (xMin <= xMax) {
+        span(y, (int) Math.ceil(xMin), (int) Math.floor(xMax), color);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Fills the entire canvas with a linear gradient between two positions.
+   * Pixels before the start or past the end take the color at that end.
+   *
+   * @param x0 Start column
+   * @param y0 Start row
+   * @param x1 End column
+   * @param y1 End row
+   * @param c0 Color at the start
+   * @param c1 Color at the end
+   * @return this
+   */
+  public RasterCanvas linearGradient(float x0, float y0, float x1, float y1, int c0, int c1) {
+    final float dx = x1 - x0;
+    final float dy = y1 - y0;
+    final float lengthSq = dx*dx + dy*dy;
+    if (lengthSq == 0) {
+      return clear(c0);
+    }
+    // Position along the gradient advances by a constant step per column
+    final float stepX = dx / lengthSq;
+    int i = 0;
+    for (int y = 0; y < this.height; ++y) {
+      float t = ((0 - x0) * dx + (y - y0) * dy) / lengthSq;
+      for (int x = 0; x < this.width; ++x) {
+        final int color = lerp(c0, c1, (int) (Math.max(0, Math.min(1, t)) * LXColor.BLEND_ALPHA_FULL + .5f));
+        this.pixels[i] = isOpaque(color) ? color : LXColor.lerp(this.pixels[i], color);
+        ++i;
+        t += stepX;
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Draws an image at its original size, clipped to the canvas
+   *
+   * @param image ARGB image pixels, in rows from top to bottom
+   * @param imageWidth Width of the image
+   * @param imageHeight Height of the image
+   * @param x Column of the left edge of the image
+   * @param y Row of the top edge of the image
+   * @return this
+   */
+  public RasterCanvas drawImage(int[] image, int imageWidth, int imageHeight, int x, int y) {
+    final int x0 = Math.max(0, x), x1 = Math.min(this.width, x + imageWidth);
+    final int y0 = Math.max(0, y), y1 = Math.min(this.height, y + imageHeight);
+    for (int row = y0; row < y1; ++row) {
+      final int src = (row - y) * imageWidth - x;
+      final int dst = row * this.width;
+      for (int col = x0; col < x1; ++col) {
+        final int color = image[src + col];
+        this.pixels[dst + col] = isOpaque(color) ? color : LXColor.lerp(this.pixels[dst + col], color);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Draws an image scaled to the given size, using nearest-neighbor sampling
+   *
+   * @param image ARGB image pixels, in rows from top to bottom
+   * @param imageWidth Width of the image
+   * @param imageHeight Height of the image
+   * @param x Column of the left edge of the image
+   * @param y Row of the top edge of the image
+   * @param width Width to draw the image at
+   * @param height Height to draw the image at
+   * @return this
+   */
+  public RasterCanvas drawImage(int[] image, int imageWidth, int imageHeight, int x, int y, int width, int height) {
+    if ((width <= 0) || (height <= 0)) {
+      return this;
+    }
+    final int x0 = Math.max(0, x), x1 = Math.min(this.width, x + width);
+    final int y0 = Math.max(0, y), y1 = Math.min(this.height, y + height);
+    for (int row = y0; row < y1; ++row) {
+      final int src = (int) ((long) (row - y) * imageHeight / height) * imageWidth;
+      final int dst = row * this.width;
+      for (int col = x0; col < x1; ++col) {
+        final int color = image[src + (int) ((long) (col - x) * imageWidth / width)];
+        this.pixels[dst + col] = isOpaque(color) ? color : LXColor.lerp(this.pixels[dst + col], color);
+      }
+    }
+    return this;
+  }
+
+}
@@ -22,7 +22,6 @@ import heronarts.lx.LX;
 import heronarts.lx.LXCategory;
 import heronarts.lx.LXComponent;
 import heronarts.lx.color.ColorParameter;
-import heronarts.lx.color.GradientUtils;
 import heronarts.lx.color.GradientUtils.BlendMode;
 import heronarts.lx.color.GradientUtils.ColorStops;
 import heronarts.lx.color.GradientUtils.GradientFunction;
@@ -420,7 +419,7 @@ public class GradientPattern extends LXPattern {
       final CoordinateFunction yFunction = (yAmount < 0) ? yMode.invert : yMode.function;
       final CoordinateFunction zFunction = (zAmount < 0) ? zMode.invert : zMode.function;
 
-      final GradientUtils.BlendFunction blendFunction = this.blendMode.getEnum().function;
+      this.colorStops.updateLUT(this.blendMode.getEnum().function);
       final float gradientScale = this.gradientScale.getValuef();
 
       final ClampFunction gradientClamp = this.gradientClamp.getEnum().clamp;
@@ -453,10 +452,7 @@ public class GradientPattern extends LXPattern {
           if (gradientInvert) {
             lerp = 1 - lerp;
           }
-          lerp *= this.colorStops.numStops - 1;
-
-          int stop = (int) Math.floor(lerp);
-          colors[p.index] = blendFunction.blend(this.colorStops.stops[stop], this.colorStops.stops[stop+1], lerp - stop);
+          colors[p.index] = this.colorStops.getLUTColor(lerp);
         }
       } else {
         for (LXPoint p : model.points) {
@@ -471,9 +467,7 @@ public class GradientPattern extends LXPattern {
           if (gradientInvert) {
             lerp = 1 - lerp;
           }
-          lerp *= this.colorStops.numStops - 1;
-          int stop = (int) Math.floor(lerp);
-          colors[p.index] = blendFunction.blend(this.colorStops.stops[stop], this.colorStops.stops[stop+1], lerp - stop);
+          colors[p.index] = this.colorStops.getLUTColor(lerp);
         }
       }
     }
@@ -0,0 +1,243 @@
+/**
+ * Copyright 2026- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.pattern.media;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import heronarts.lx.LX;
+import heronarts.lx.color.LXColor;
+import heronarts.lx.pattern.RasterCanvas;
+
+/**
+ * Decodes frames of a media source on a background thread into a bounded LRU
+ * cache. The decoder runs ahead of the playback position, filling a window of
+ * upcoming frames. Frames outside of the window are evicted least recently
+ * used first, and their buffers reused, so steady playback does not allocate.
+ * Frames too large to cache at least a few of within the cache budget are
+ * decoded at a reduced size.
+ */
+class MediaDecoder {
+
+  /**
+   * Total number of pixels held by the cache, 64MB of ARGB data
+   */
+  private static final int MAX_CACHE_PIXELS = 16 * 1024 * 1024;
+
+  private static final int MIN_CACHE_FRAMES = 3;
+  private static final int MAX_CACHE_FRAMES = 64;
+
+  /**
+   * Largest frame that fits the minimum number of frames in the cache, larger
+   * frames are downscaled to fit
+   */
+  private static final int MAX_FRAME_PIXELS = MAX_CACHE_PIXELS / MIN_CACHE_FRAMES;
+
+  // Time to wait for a decode in progress when disposing
+  private static final long DISPOSE_TIMEOUT_MS = 5000;
+
+  final MediaSource source;
+
+  private final DecoderThread thread;
+
+  // Guarded by the cache lock
+  private final LinkedHashMap<Integer, RasterCanvas> cache = new LinkedHashMap<Integer, RasterCanvas>(16, .75f, true);
+  private int capacity = MIN_CACHE_FRAMES;
+  private int frameWidth = 0;
+  private int frameHeight = 0;
+  private int lookahead = MIN_CACHE_FRAMES - 1;
+  private int position = 0;
+  private boolean loop = true;
+  private RasterCanvas pinned = null;
+
+  private volatile boolean ready = false;
+  private volatile boolean closed = false;
+
+  MediaDecoder(MediaSource source) {
+    this.source = source;
+    this.thread = new DecoderThread();
+    this.thread.start();
+  }
+
+  /**
+   * Whether the source has been opened and frames may be requested
+   *
+   * @return If the decoder is ready
+   */
+  boolean isReady() {
+    return this.ready;
+  }
+
+  /**
+   * Gets a decoded frame and moves the playback position to it. If the frame
+   * has not been decoded yet, the last frame returned is returned again. The
+   * returned frame is pinned in the cache and remains valid until the next call.
+   *
+   * @param frame Frame number
+   * @param loop Whether playback wraps around at the end
+   * @return Decoded frame, or null if no frame has been decoded yet
+   */
+  RasterCanvas get(int frame, boolean loop) {
+    synchronized (this.cache) {
+      if ((frame != this.position) || (loop != this.loop)) {
+        this.position = frame;
+        this.loop = loop;
+        this.cache.notify();
+      }
+      final RasterCanvas canvas = this.cache.get(frame);
+      if (canvas != null) {
+        this.pinned = canvas;
+      }
+      return this.pinned;
+    }
+  }
+
+  /**
+   * Stops the decoder thread and waits for it to close the source, which
+   * happens once any decode in progress completes
+   */
+  void dispose() {
+    this.closed = true;
+    synchronized (this.cache) {
+      this.cache.notify();
+    }
+    try {
+      this.thread.join(DISPOSE_TIMEOUT_MS);
+    } catch (InterruptedException ix) {
+      Thread.currentThread().interrupt();
+    }
+    if (this.thread.isAlive()) {
+      LX.warning("MediaPattern decoder thread did not stop within " + DISPOSE_TIMEOUT_MS + "ms: " + this.source.file);
+    }
+  }
+
+  private boolean inWindow(int frame) {
+    final int distance = this.loop ?
+      Math.floorMod(frame - this.position, this.source.numFrames) :
+      frame - this.position;
+    return (distance >= 0) && (distance < this.lookahead);
+  }
+
+  /**
+   * Finds the next frame in the lookahead window that is not cached
+   */
+  private int nextFrame() {
+    for (int i = 0; i < this.lookahead; ++i) {
+      int frame = this.position + i;
+      if (frame >= this.source.numFrames) {
+        if (!this.loop) {
+          break;
+        }
+        frame %= this.source.numFrames;
+      }
+      if (!this.cache.containsKey(frame)) {
+        return frame;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Obtains a buffer to decode into, allocating up to the capacity of the cache
+   * and thereafter evicting the least recently used frame outside the window
+   */
+  private RasterCanvas obtain() {
+    if (this.cache.size() < this.capacity) {
+      return new RasterCanvas(this.frameWidth, this.frameHeight);
+    }
+    final Iterator<Map.Entry<Integer, RasterCanvas>> iterator = this.cache.entrySet().iterator();
+    while (iterator.hasNext()) {
+      final Map.Entry<Integer, RasterCanvas> entry = iterator.next();
+      if ((entry.getValue() != this.pinned) && !inWindow(entry.getKey())) {
+        iterator.remove();
+        return entry.getValue();
+      }
+    }
+    return null;
+  }
+
+  private class DecoderThread extends Thread {
+
+    private DecoderThread() {
+      super("MediaPattern Decoder Thread");
+      setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      try {
+        source.open();
+      } catch (IOException iox) {
+        LX.error(iox, "Could not open media file: " + source.file);
+        source.close();
+        return;
+      }
+
+      // Downscale frames too large to fit the minimum number in the cache
+      int width = source.width;
+      int height = source.height;
+      if ((long) width * height > MAX_FRAME_PIXELS) {
+        final double scale = Math.sqrt((double) MAX_FRAME_PIXELS / width / height);
+        width = Math.max(1, (int) (width * scale));
+        height = Math.max(1, (int) (height * scale));
+        width = Math.min(width, MAX_FRAME_PIXELS / height);
+        height = Math.min(height, MAX_FRAME_PIXELS / width);
+        LX.warning("Media frames of " + source.width + "x" + source.height + " are downscaled to " + width + "x" + height + " to fit the frame cache: " + source.file);
+      }
+      frameWidth = width;
+      frameHeight = height;
+      capacity = Math.max(MIN_CACHE_FRAMES, Math.min(Math.min(MAX_CACHE_FRAMES, source.numFrames + 1), MAX_CACHE_PIXELS / (width * height)));
+      lookahead = Math.min(capacity - 1, source.numFrames);
+      ready = true;
+
+      try {
+        while (!closed) {
+          final int frame;
+          final RasterCanvas canvas;
+          synchronized (cache) {
+            final int next = nextFrame();
+            final RasterCanvas buffer = (next < 0) ? null : obtain();
+            if (buffer == null) {
+              cache.wait();
+              continue;
+            }
+            frame = next;
+            canvas = buffer;
+          }
+          try {
+            source.decode(frame, canvas);
+          } catch (IOException iox) {
+            LX.error(iox, "Error decoding frame " + frame + " of media file: " + source.file);
+            canvas.clear(LXColor.BLACK);
+          }
+          synchronized (cache) {
+            cache.put(frame, canvas);
+          }
+        }
+      } catch (InterruptedException ix) {
+        // Thread is done
+      } finally {
+        source.close();
+      }
+    }
+  }
+
+}
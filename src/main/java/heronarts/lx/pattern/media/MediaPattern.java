@@ -0,0 +1,209 @@
+/**
+ * Copyright 2026- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.pattern.media;
+
+import heronarts.lx.LX;
+import heronarts.lx.LXCategory;
+import heronarts.lx.LXComponent;
+import heronarts.lx.LXComponentName;
+import heronarts.lx.color.LXColor;
+import heronarts.lx.parameter.BooleanParameter;
+import heronarts.lx.parameter.BoundedParameter;
+import heronarts.lx.parameter.DiscreteParameter;
+import heronarts.lx.parameter.EnumParameter;
+import heronarts.lx.parameter.LXParameter;
+import heronarts.lx.parameter.StringParameter;
+import heronarts.lx.pattern.LXPattern;
+import heronarts.lx.pattern.RasterCanvas;
+
+/**
+ * Plays back pre-rendered media onto the model. The file may be a single
+ * image, a directory of images played in order of file name, or a raw video
+ * dump of 24-bit RGB frames. Frames are decoded ahead of playback on a
+ * background thread into a bounded cache, and sampled onto the xn/yn plane of
+ * the model through a precomputed table, so the engine thread only gathers
+ * pixels from an already-decoded frame.
+ *
+ * If a frame has not been decoded in time, the previous frame is held.
+ */
+@LXCategory(LXCategory.TEXTURE)
+@LXComponentName("Media")
+@LXComponent.Description("Plays back image sequences and raw video files")
+public class MediaPattern extends LXPattern {
+
+  public enum Sync {
+    FREE("Free"),
+    TEMPO("Tempo"),
+    TIMECODE("Timecode");
+
+    public final String label;
+
+    private Sync(String label) {
+      this.label = label;
+    }
+
+    @Override
+    public String toString() {
+      return this.label;
+    }
+  }
+
+  public final StringParameter file =
+    new StringParameter("File")
+    .setDescription("Image file, directory of image files, or raw RGB video file (.rgb or .raw)");
+
+  public final DiscreteParameter rawWidth =
+    new DiscreteParameter("Width", 640, 1, 8193)
+    .setDescription("Frame width of raw video files");
+
+  public final DiscreteParameter rawHeight =
+    new DiscreteParameter("Height", 360, 1, 8193)
+    .setDescription("Frame height of raw video files");
+
+  public final EnumParameter<Sync> sync =
+    new EnumParameter<Sync>("Sync", Sync.FREE)
+    .setDescription("Whether playback runs freely, follows the tempo, or follows the timecode parameter");
+
+  public final BoundedParameter fps =
+    new BoundedParameter("FPS", 30, 1, 240)
+    .setDescription("Frame rate of the media");
+
+  public final BoundedParameter rate =
+    new BoundedParameter("Rate", 1, 0, 4)
+    .setDescription("Playback speed in free mode, relative to the frame rate");
+
+  public final BoundedParameter framesPerBeat =
+    new BoundedParameter("Frames/Beat", 8, 1, 240)
+    .setDescription("Number of frames played per beat in tempo mode");
+
+  public final BoundedParameter timecode =
+    new BoundedParameter("Timecode", 0, 0, 60*60*24)
+    .setUnits(LXParameter.Units.SECONDS)
+    .setDescription("Playback position in timecode mode, to be driven by an external source");
+
+  public final BooleanParameter loop =
+    new BooleanParameter("Loop", true)
+    .setDescription("Whether playback wraps around at the end of the media");
+
+  private MediaDecoder decoder = null;
+  private boolean reload = true;
+
+  // Playback position in free mode, in frames
+  private double freePosition = 0;
+
+  // Sampling table, shared by all frames of the decoder it was built for
+  private RasterCanvas.Mapping mapping = null;
+  private MediaDecoder mappingDecoder = null;
+
+  public MediaPattern(LX lx) {
+    super(lx);
+    addParameter("file", this.file);
+    addParameter("rawWidth", this.rawWidth);
+    addParameter("rawHeight", this.rawHeight);
+    addParameter("sync", this.sync);
+    addParameter("fps", this.fps);
+    addParameter("rate", this.rate);
+    addParameter("framesPerBeat", this.framesPerBeat);
+    addParameter("timecode", this.timecode);
+    addParameter("loop", this.loop);
+  }
+
+  @Override
+  public void onParameterChanged(LXParameter p) {
+    super.onParameterChanged(p);
+    if ((p == this.file) || (p == this.rawWidth) || (p == this.rawHeight)) {
+      // Deferred to the engine thread, so that loading a project starts one decoder
+      this.reload = true;
+    }
+  }
+
+  private void reload() {
+    this.reload = false;
+    if (this.decoder != null) {
+      this.decoder.dispose();
+      this.decoder = null;
+    }
+    this.freePosition = 0;
+    final String path = this.file.getString();
+    if ((path != null) && !path.isEmpty()) {
+      this.decoder = new MediaDecoder(MediaSource.create(this.lx.getMediaFile(path), this.rawWidth.getValuei(), this.rawHeight.getValuei()));
+    }
+  }
+
+  private int getFrame(double deltaMs, int numFrames) {
+    switch (this.sync.getEnum()) {
+    case TEMPO:
+      return (int) Math.floor(this.lx.engine.tempo.getCompositeBasis() * this.framesPerBeat.getValue());
+    case TIMECODE:
+      return (int) Math.floor(this.timecode.getValue() * this.fps.getValue());
+    default:
+    case FREE:
+      this.freePosition += deltaMs / 1000 * this.fps.getValue() * this.rate.getValue();
+      if (this.loop.isOn()) {
+        this.freePosition %= numFrames;
+      } else {
+        this.freePosition = Math.min(this.freePosition, numFrames);
+      }
+      return (int) this.freePosition;
+    }
+  }
+
+  @Override
+  protected void run(double deltaMs) {
+    if (this.reload) {
+      reload();
+    }
+    final MediaDecoder decoder = this.decoder;
+    if ((decoder == null) || !decoder.isReady()) {
+      setColors(LXColor.BLACK);
+      return;
+    }
+
+    final int numFrames = decoder.source.numFrames;
+    int frame = getFrame(deltaMs, numFrames);
+    if (this.loop.isOn()) {
+      frame = Math.floorMod(frame, numFrames);
+    } else {
+      frame = Math.max(0, Math.min(numFrames - 1, frame));
+    }
+
+    // A late frame holds the last one displayed, which is sampled again since the
+    // pattern's buffer may have been modified by effects or reused by the channel
+    final RasterCanvas canvas = decoder.get(frame, this.loop.isOn());
+    if (canvas == null) {
+      setColors(LXColor.BLACK);
+      return;
+    }
+    if ((this.mapping == null) || (this.mappingDecoder != decoder) || (this.mapping.model != this.model)) {
+      this.mapping = canvas.map(this.model);
+      this.mappingDecoder = decoder;
+    }
+    canvas.sample(this.mapping, this.colors);
+  }
+
+  @Override
+  public void dispose() {
+    if (this.decoder != null) {
+      this.decoder.dispose();
+      this.decoder = null;
+    }
+    super.dispose();
+  }
+
+}
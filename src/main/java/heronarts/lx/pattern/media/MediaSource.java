@@ -0,0 +1,228 @@
+/**
+ * Copyright 2026- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.pattern.media;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.imageio.ImageIO;
+
+import heronarts.lx.LX;
+import heronarts.lx.color.LXColor;
+import heronarts.lx.pattern.RasterCanvas;
+
+/**
+ * A source of frames for media playback. Sources are opened and decoded on the
+ * decoder thread only, and report their dimensions and frame count once open.
+ */
+abstract class MediaSource {
+
+  /**
+   * File extensions of raw video dumps, packed 24-bit RGB frames with no header
+   */
+  static final String[] RAW_EXTENSIONS = { "rgb", "raw" };
+
+  final File file;
+
+  int width = 0;
+  int height = 0;
+  int numFrames = 0;
+
+  private MediaSource(File file) {
+    this.file = file;
+  }
+
+  /**
+   * Opens the source, determining its dimensions and frame count
+   *
+   * @throws IOException If the source cannot be read
+   */
+  abstract void open() throws IOException;
+
+  /**
+   * Decodes a frame into a canvas, scaled with nearest-neighbor sampling if the
+   * canvas is smaller than this source
+   *
+   * @param frame Frame number
+   * @param canvas Canvas to decode into
+   * @throws IOException If the frame cannot be read
+   */
+  abstract void decode(int frame, RasterCanvas canvas) throws IOException;
+
+  void close() {}
+
+  private static String extension(File file) {
+    final String name = file.getName();
+    final int dot = name.lastIndexOf('.');
+    return (dot < 0) ? "" : name.substring(dot + 1).toLowerCase();
+  }
+
+  /**
+   * Creates a source for a file. Directories are played as image sequences,
+   * raw video files by their extension, and any other file as a single image.
+   *
+   * @param file File or directory
+   * @param rawWidth Frame width of raw video
+   * @param rawHeight Frame height of raw video
+   * @return Media source
+   */
+  static MediaSource create(File file, int rawWidth, int rawHeight) {
+    if (!file.isDirectory() && Arrays.asList(RAW_EXTENSIONS).contains(extension(file))) {
+      return new RawVideo(file, rawWidth, rawHeight);
+    }
+    return new ImageSequence(file);
+  }
+
+  /**
+   * A directory of image files played in order of file name, or a single image.
+   * Frames are decoded with javax.imageio, images that differ in size from the
+   * canvas are scaled to fit it.
+   */
+  static class ImageSequence extends MediaSource {
+
+    private File[] frames = null;
+
+    // Row of a scaled image
+    private int[] row = new int[0];
+
+    private ImageSequence(File file) {
+      super(file);
+    }
+
+    @Override
+    void open() throws IOException {
+      if (this.file.isDirectory()) {
+        final Set<String> suffixes = new HashSet<String>();
+        for (String suffix : ImageIO.getReaderFileSuffixes()) {
+          suffixes.add(suffix.toLowerCase());
+        }
+        this.frames = this.file.listFiles(f -> f.isFile() && !f.isHidden() && suffixes.contains(extension(f)));
+        if ((this.frames == null) || (this.frames.length == 0)) {
+          throw new IOException("No image files in directory: " + this.file);
+        }
+        Arrays.sort(this.frames, (f1, f2) -> f1.getName().compareTo(f2.getName()));
+      } else {
+        this.frames = new File[] { this.file };
+      }
+      final BufferedImage image = read(0);
+      this.width = image.getWidth();
+      this.height = image.getHeight();
+      this.numFrames = this.frames.length;
+    }
+
+    private BufferedImage read(int frame) throws IOException {
+      final BufferedImage image = ImageIO.read(this.frames[frame]);
+      if (image == null) {
+        throw new IOException("Unsupported image file: " + this.frames[frame]);
+      }
+      return image;
+    }
+
+    @Override
+    void decode(int frame, RasterCanvas canvas) throws IOException {
+      final BufferedImage image = read(frame);
+      final int width = image.getWidth();
+      final int height = image.getHeight();
+      if ((width == canvas.width) && (height == canvas.height)) {
+        image.getRGB(0, 0, width, height, canvas.pixels, 0, width);
+      } else {
+        // Read only the sampled rows, rather than the whole image
+        if (this.row.length < width) {
+          this.row = new int[width];
+        }
+        canvas.clear(0);
+        for (int y = 0; y < canvas.height; ++y) {
+          image.getRGB(0, (int) ((long) y * height / canvas.height), width, 1, this.row, 0, width);
+          canvas.drawImage(this.row, width, 1, 0, y, canvas.width, 1);
+        }
+      }
+    }
+  }
+
+  /**
+   * A raw video dump of consecutive 24-bit RGB frames with no header, such as
+   * produced by ffmpeg with -f rawvideo -pix_fmt rgb24. Frames are read one row
+   * at a time, only the rows sampled by the canvas are read.
+   */
+  static class RawVideo extends MediaSource {
+
+    private RandomAccessFile input = null;
+    private byte[] row = null;
+    private long frameBytes = 0;
+
+    private RawVideo(File file, int width, int height) {
+      super(file);
+      this.width = width;
+      this.height = height;
+    }
+
+    @Override
+    void open() throws IOException {
+      if ((this.width <= 0) || (this.height <= 0)) {
+        throw new IOException("Raw video requires positive frame dimensions: " + this.width + "x" + this.height);
+      }
+      this.frameBytes = 3L * this.width * this.height;
+      this.input = new RandomAccessFile(this.file, "r");
+      this.numFrames = (int) Math.min(Integer.MAX_VALUE, this.input.length() / this.frameBytes);
+      if (this.numFrames == 0) {
+        close();
+        throw new IOException("Raw video file is smaller than one " + this.width + "x" + this.height + " frame: " + this.file);
+      }
+      this.row = new byte[3 * this.width];
+    }
+
+    @Override
+    void decode(int frame, RasterCanvas canvas) throws IOException {
+      final byte[] row = this.row;
+      final int[] pixels = canvas.pixels;
+      final boolean scaled = (canvas.width != this.width);
+      for (int y = 0; y < canvas.height; ++y) {
+        final long sourceRow = (long) y * this.height / canvas.height;
+        this.input.seek(frame * this.frameBytes + sourceRow * row.length);
+        this.input.readFully(row);
+        for (int x = 0, i = y * canvas.width; x < canvas.width; ++x, ++i) {
+          final int b = 3 * (scaled ? (int) ((long) x * this.width / canvas.width) : x);
+          pixels[i] =
+            LXColor.ALPHA_MASK |
+            (row[b] & 0xff) << LXColor.R_SHIFT |
+            (row[b+1] & 0xff) << LXColor.G_SHIFT |
+            (row[b+2] & 0xff);
+        }
+      }
+    }
+
+    @Override
+    void close() {
+      if (this.input != null) {
+        try {
+          this.input.close();
+        } catch (IOException iox) {
+          LX.error(iox, "Error closing raw video file: " + this.file);
+        }
+        this.input = null;
+      }
+    }
+  }
+
+}
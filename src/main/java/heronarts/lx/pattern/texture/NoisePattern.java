@@ -21,6 +21,7 @@ package heronarts.lx.pattern.texture;
 import heronarts.lx.LX;
 import heronarts.lx.LXCategory;
 import heronarts.lx.LXComponent;
+import heronarts.lx.LXParallelRange;
 import heronarts.lx.color.GradientUtils;
 import heronarts.lx.model.LXPoint;
 import heronarts.lx.modulator.LXModulator;
@@ -336,6 +337,27 @@ public class NoisePattern extends LXPattern {
     }
   }
 
+  // Scratch buffers for batch noise evaluation, sized to the largest model seen
+  private float[] noiseX = new float[0];
+  private float[] noiseY = new float[0];
+  private float[] noiseZ = new float[0];
+  private float[] noiseResult = new float[0];
+  private final Octaves noiseOctaves = new Octaves();
+
+  // Smallest number of points worth evaluating on a worker thread
+  private static final int MIN_POINTS_PER_SLICE = 4096;
+
+  private final LXParallelRange noiseRange = new LXParallelRange(this.lx, MIN_POINTS_PER_SLICE, this::runNoise);
+
+  // Settings for the current frame, read by each range of points
+  private Algorithm noiseAlgorithm = Algorithm.PERLIN;
+  private int noiseSeed;
+  private float noiseRidgeOffset;
+  private float noiseLevel;
+  private float noiseContrast;
+  private float noiseMinLevel;
+  private float noiseMaxLevel;
+
   @Override
   public void run(double deltaMs) {
     this.invertLUT.update();
@@ -379,46 +401,66 @@ public class NoisePattern extends LXPattern {
     final CoordinateFunction yMode = this.yMode.getEnum().function;
     final CoordinateFunction zMode = this.zMode.getEnum().function;
 
-    if (algorithm.equals(Algorithm.PERLIN)) {
-      for (LXPoint p : model.points) {
-        float xd = xMode.getCoordinate(p, p.xn, xo);
-        float yd = yMode.getCoordinate(p, p.yn, yo);
-        float zd = zMode.getCoordinate(p, p.zn, zo);
+    // Gather noise coordinates for the whole model, then evaluate in ranges
+    final LXPoint[] points = model.points;
+    final int size = points.length;
+    if (this.noiseX.length < size) {
+      this.noiseX = new float[size];
+      this.noiseY = new float[size];
+      this.noiseZ = new float[size];
+      this.noiseResult = new float[size];
+    }
+    final float[] noiseX = this.noiseX;
+    final float[] noiseY = this.noiseY;
+    final float[] noiseZ = this.noiseZ;
+    for (int i = 0; i < size; ++i) {
+      final LXPoint p = points[i];
+      noiseX[i] = xa + xs * xMode.getCoordinate(p, p.xn, xo);
+      noiseY[i] = ya + ys * yMode.getCoordinate(p, p.yn, yo);
+      noiseZ[i] = za + zs * zMode.getCoordinate(p, p.zn, zo);
+    }
 
-        float b = level + contrast * stb_perlin_noise3_seed(xa + xs * xd, ya + ys * yd, za + zs * zd, 0, 0, 0, seed);
-        this.colors[p.index] = this.invertLUT.lut[(int) (2.559 * clamp(b, minLevel, maxLevel))];
-      }
-    } else {
-      final int octaves = this.octaves.getValuei();
-      final float lacunarity = this.lacunarity.getValuef();
-      final float gain = this.gain.getValuef();
-
-      if (algorithm.equals(Algorithm.RIDGE)) {
-        float ridgeOffset = this.ridgeOffset.getValuef();
-        for (LXPoint p : model.points) {
-          float xd = xMode.getCoordinate(p, p.xn, xo);
-          float yd = yMode.getCoordinate(p, p.yn, yo);
-          float zd = zMode.getCoordinate(p, p.zn, zo);
-          float b = level + contrast * stb_perlin_ridge_noise3(xa + xs * xd, ya + ys * yd, za + zs * zd, lacunarity, gain, ridgeOffset, octaves);
-          this.colors[p.index] = this.invertLUT.lut[(int) (2.559 * clamp(b, minLevel, maxLevel))];
-        }
-      } else if (algorithm.equals(Algorithm.FBM)) {
-        for (LXPoint p : model.points) {
-          float xd = xMode.getCoordinate(p, p.xn, xo);
-          float yd = yMode.getCoordinate(p, p.yn, yo);
-          float zd = zMode.getCoordinate(p, p.zn, zo);
-          float b = level + contrast * stb_perlin_fbm_noise3(xa + xs * xd, ya + ys * yd, za + zs * zd, lacunarity, gain, octaves);
-          this.colors[p.index] = this.invertLUT.lut[(int) (2.559 * clamp(b, minLevel, maxLevel))];
-        }
-      } else if (algorithm.equals(Algorithm.TURBULENCE)) {
-        for (LXPoint p : model.points) {
-          float xd = xMode.getCoordinate(p, p.xn, xo);
-          float yd = yMode.getCoordinate(p, p.yn, yo);
-          float zd = zMode.getCoordinate(p, p.zn, zo);
-          float b = level + contrast * stb_perlin_turbulence_noise3(xa + xs * xd, ya + ys * yd, za + zs * zd, lacunarity, gain, octaves);
-          this.colors[p.index] = this.invertLUT.lut[(int) (2.559 * clamp(b, minLevel, maxLevel))];
-        }
-      }
+    this.noiseAlgorithm = algorithm;
+    this.noiseSeed = seed;
+    this.noiseRidgeOffset = this.ridgeOffset.getValuef();
+    this.noiseLevel = level;
+    this.noiseContrast = contrast;
+    this.noiseMinLevel = minLevel;
+    this.noiseMaxLevel = maxLevel;
+    if (algorithm != Algorithm.PERLIN) {
+      this.noiseOctaves.set(this.lacunarity.getValuef(), this.gain.getValuef(), this.octaves.getValuei());
+    }
+    this.noiseRange.run(size);
+  }
+
+  /**
+   * Evaluates noise for a range of the gathered coordinates and writes colors
+   */
+  private void runNoise(int start, int end) {
+    final int length = end - start;
+    switch (this.noiseAlgorithm) {
+    case PERLIN:
+      stb_perlin_noise3_seed(this.noiseX, this.noiseY, this.noiseZ, this.noiseSeed, this.noiseResult, start, length);
+      break;
+    case RIDGE:
+      stb_perlin_ridge_noise3(this.noiseX, this.noiseY, this.noiseZ, this.noiseOctaves, this.noiseRidgeOffset, this.noiseResult, start, length);
+      break;
+    case FBM:
+      stb_perlin_fbm_noise3(this.noiseX, this.noiseY, this.noiseZ, this.noiseOctaves, this.noiseResult, start, length);
+      break;
+    case TURBULENCE:
+      stb_perlin_turbulence_noise3(this.noiseX, this.noiseY, this.noiseZ, this.noiseOctaves, this.noiseResult, start, length);
+      break;
+    default:
+      break;
+    }
+
+    final LXPoint[] points = model.points;
+    final float[] noiseResult = this.noiseResult;
+    final int[] lut = this.invertLUT.lut;
+    for (int i = start; i < end; ++i) {
+      float b = this.noiseLevel + this.noiseContrast * noiseResult[i];
+      this.colors[points[i].index] = lut[(int) (2.559 * clamp(b, this.noiseMinLevel, this.noiseMaxLevel))];
     }
   }
 
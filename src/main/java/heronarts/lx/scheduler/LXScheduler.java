@@ -175,6 +175,7 @@ public class LXScheduler extends LXComponent implements LXLoopTask {
     }
     this.mutableEntries.remove(entry);
     this.mutableEntries.add(index, entry);
+    markModified();
     for (Listener listener : this.listeners) {
       listener.entryMoved(this, entry);
     }
@@ -35,6 +35,7 @@ public class LXClipSnapshot extends LXSnapshot implements LXOscComponent, LXLoop
 
   private boolean inTransition = false;
   private double transitionProgress = 0;
+  private final SnapshotTransition transition = new SnapshotTransition();
 
   public final LXClip clip;
 
@@ -103,12 +104,13 @@ public class LXClipSnapshot extends LXSnapshot implements LXOscComponent, LXLoop
   }
 
   private void _recall(boolean transitionEnabled, List<LXCommand> commands) {
+    this.transition.clear();
     for (View view : this.views) {
       if (commands != null) {
         commands.add(view.getCommand());
       }
       if (transitionEnabled) {
-        view.startTransition();
+        this.transition.start(view);
       } else {
         view.recall();
       }
@@ -132,16 +134,16 @@ public class LXClipSnapshot extends LXSnapshot implements LXOscComponent, LXLoop
         for (View view : this.views) {
           view.finishTransition();
         }
+        this.transition.clear();
         this.inTransition = false;
       } else {
-        for (View view : this.views) {
-          view.interpolate(this.transitionProgress);
-        }
+        this.transition.interpolate(this.transitionProgress);
       }
     }
   }
 
   public void stopTransition() {
+    this.transition.clear();
     this.inTransition = false;
   }
 
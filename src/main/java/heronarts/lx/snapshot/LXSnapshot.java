@@ -119,12 +119,14 @@ public abstract class LXSnapshot extends LXComponent {
     private View(ViewScope scope, ViewType type) {
       this.scope = scope;
       this.type = type;
+      this.enabled.addListener(p -> markModified());
     }
 
     private View(LX lx, JsonObject obj) {
       LXSerializable.Utils.loadBoolean(this.enabled, obj, KEY_ENABLED);
       this.scope = ViewScope.valueOf(obj.get(KEY_SCOPE).getAsString());
       this.type = ViewType.valueOf(obj.get(KEY_TYPE).getAsString());
+      this.enabled.addListener(p -> markModified());
     }
 
     /**
@@ -323,6 +325,25 @@ public abstract class LXSnapshot extends LXComponent {
       }
     }
 
+    /**
+     * Starts the transition of a normalized parameter as part of a batch. A
+     * parameter that already holds the snapshot value is left out entirely.
+     *
+     * @param transition Batched transition
+     * @return true if the transition is handled by the batch
+     */
+    boolean startTransition(SnapshotTransition transition) {
+      if ((this.parameter instanceof StringParameter) || !(this.parameter instanceof LXNormalizedParameter)) {
+        return false;
+      }
+      final LXNormalizedParameter normalized = (LXNormalizedParameter) this.parameter;
+      this.fromNormalized = normalized.getBaseNormalized();
+      if (this.fromNormalized != this.normalizedValue) {
+        transition.add(normalized, this.fromNormalized, this.normalizedValue);
+      }
+      return true;
+    }
+
     @Override
     protected void interpolate(double amount) {
       if (this.parameter instanceof StringParameter) {
@@ -723,6 +744,7 @@ public abstract class LXSnapshot extends LXComponent {
       throw new IllegalStateException("May not add same view instance twice: " + this + " " + view);
     }
     this.mutableViews.add(view);
+    markModified();
   }
 
   /**
@@ -735,6 +757,7 @@ public abstract class LXSnapshot extends LXComponent {
       throw new IllegalStateException("Cannot remove View that doesn't belong to snapshot: " + view);
     }
     this.mutableViews.remove(view);
+    markModified();
     view.dispose();
   }
 
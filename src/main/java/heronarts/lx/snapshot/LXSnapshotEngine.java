@@ -397,6 +397,7 @@ public class LXSnapshotEngine extends LXComponent implements LXOscComponent, LXL
     this.mutableSnapshots.remove(snapshot);
     this.mutableSnapshots.add(index, snapshot);
     _reindexSnapshots();
+    markModified();
     for (Listener listener : this.listeners) {
       listener.snapshotMoved(this, snapshot);
     }
@@ -422,6 +423,8 @@ public class LXSnapshotEngine extends LXComponent implements LXOscComponent, LXL
   private final List<LXSnapshot.View> recallViews =
     new ArrayList<LXSnapshot.View>();
 
+  private final SnapshotTransition recallTransition = new SnapshotTransition();
+
   /**
    * Recall this snapshot, apply all of its values
    *
@@ -461,6 +464,7 @@ public class LXSnapshotEngine extends LXComponent implements LXOscComponent, LXL
     this.autoCycleCursor.setValue(snapshot.getIndex());
     this.recallViews.clear();
     this.recallViews.addAll(snapshot.views);
+    this.recallTransition.clear();
     if (this.transitionEnabled.isOn()) {
       transition = true;
       this.inTransition = snapshot;
@@ -478,7 +482,7 @@ public class LXSnapshotEngine extends LXComponent implements LXOscComponent, LXL
     for (View view : this.recallViews) {
       if (view.activeFlag = isValidView(view, mixer, pattern, effect, modulation, output, master)) {
         if (transition) {
-          view.startTransition();
+          this.recallTransition.start(view);
         } else {
           view.recall();
         }
@@ -543,11 +547,7 @@ public class LXSnapshotEngine extends LXComponent implements LXOscComponent, LXL
       if (this.transition.finished()) {
         finishTransition();
       } else {
-        for (View view : this.recallViews) {
-          if (view.activeFlag) {
-            view.interpolate(this.transition.getValue());
-          }
-        }
+        this.recallTransition.interpolate(this.transition.getValue());
       }
       this.autoCycleProgress = 0;
     } else if (this.autoCycleEnabled.isOn()) {
@@ -571,6 +571,7 @@ public class LXSnapshotEngine extends LXComponent implements LXOscComponent, LXL
           view.finishTransition();
         }
       }
+      this.recallTransition.clear();
       this.inTransition = null;
     }
   }
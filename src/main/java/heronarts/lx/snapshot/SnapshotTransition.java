@@ -0,0 +1,111 @@
+/**
+ * Copyright 2026- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.snapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import heronarts.lx.parameter.LXNormalizedParameter;
+import heronarts.lx.snapshot.LXSnapshot.ParameterView;
+import heronarts.lx.snapshot.LXSnapshot.View;
+import heronarts.lx.utils.LXUtils;
+
+/**
+ * The working state of an interpolated snapshot recall. Parameter views that
+ * interpolate in normalized space are compiled into parallel arrays of target
+ * parameters and from/to values when the transition starts, leaving out any
+ * parameter that already holds its snapshot value. Each frame of the transition
+ * is then a single pass over those arrays. All other views interpolate
+ * themselves.
+ */
+class SnapshotTransition {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private LXNormalizedParameter[] parameters = new LXNormalizedParameter[INITIAL_CAPACITY];
+  private double[] from = new double[INITIAL_CAPACITY];
+  private double[] to = new double[INITIAL_CAPACITY];
+  private int size = 0;
+
+  private final List<View> views = new ArrayList<View>();
+
+  /**
+   * Starts the transition of a view, either adding it to the batch of normalized
+   * parameters or delegating to the view itself
+   *
+   * @param view Snapshot view
+   */
+  void start(View view) {
+    if ((view instanceof ParameterView) && ((ParameterView) view).startTransition(this)) {
+      return;
+    }
+    view.startTransition();
+    this.views.add(view);
+  }
+
+  void add(LXNormalizedParameter parameter, double from, double to) {
+    if (this.size == this.parameters.length) {
+      final int capacity = this.size * 2;
+      this.parameters = Arrays.copyOf(this.parameters, capacity);
+      this.from = Arrays.copyOf(this.from, capacity);
+      this.to = Arrays.copyOf(this.to, capacity);
+    }
+    this.parameters[this.size] = parameter;
+    this.from[this.size] = from;
+    this.to[this.size] = to;
+    ++this.size;
+  }
+
+  /**
+   * Number of parameters interpolated in the normalized batch
+   *
+   * @return Number of batched parameters
+   */
+  int size() {
+    return this.size;
+  }
+
+  /**
+   * Applies the given amount of the transition to all started views
+   *
+   * @param amount Transition progress, from 0 to 1
+   */
+  void interpolate(double amount) {
+    final LXNormalizedParameter[] parameters = this.parameters;
+    final double[] from = this.from;
+    final double[] to = this.to;
+    for (int i = 0; i < this.size; ++i) {
+      parameters[i].setNormalized(LXUtils.lerp(from[i], to[i], amount));
+    }
+    for (View view : this.views) {
+      view.interpolate(amount);
+    }
+  }
+
+  /**
+   * Releases all references held by the previous transition
+   */
+  void clear() {
+    Arrays.fill(this.parameters, 0, this.size, null);
+    this.size = 0;
+    this.views.clear();
+  }
+
+}
@@ -354,6 +354,7 @@ public class LXStructure extends LXComponent implements LXFixtureContainer {
     this.mutableFixtures.remove(fixture);
     this.mutableFixtures.add(index, fixture);
     _reindexFixtures();
+    markModified();
     for (Listener l : this.listeners) {
       l.fixtureMoved(fixture, index);
     }
@@ -606,6 +607,7 @@ public class LXStructure extends LXComponent implements LXFixtureContainer {
     model.normalizePoints();
     this.model = this.staticModel = model;
     this.modelFile = null;
+    markModified();
     this.modelName.setValue(model.getClass().getSimpleName() + ".class");
     this.isStatic.setValue(true);
     this.modelListener.structureChanged(this.model);
@@ -614,6 +616,7 @@ public class LXStructure extends LXComponent implements LXFixtureContainer {
 
   private LXStructure reset(boolean fromSync) {
     this.staticModel = null;
+    markModified();
     removeAllFixtures();
     if (!fromSync) {
       this.syncModelFile.setValue(false);
@@ -900,6 +903,7 @@ public class LXStructure extends LXComponent implements LXFixtureContainer {
         loadParameters(this, obj.get(KEY_NORMALIZATION).getAsJsonObject(), this.normalizationParameters);
       }
       this.modelFile = file;
+      markModified();
       this.modelName.setValue(file.getName());
       this.isStatic.bang();
     } catch (FileNotFoundException fnfx) {
@@ -937,6 +941,7 @@ public class LXStructure extends LXComponent implements LXFixtureContainer {
       writer.setIndent("  ");
       new GsonBuilder().create().toJson(obj, writer);
       this.modelFile = file;
+      markModified();
       this.modelName.setValue(file.getName());
       this.isDirty = false;
       this.isStatic.bang();
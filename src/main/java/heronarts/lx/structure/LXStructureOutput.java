@@ -25,10 +25,12 @@ import java.util.Arrays;
 import java.util.List;
 
 import heronarts.lx.LX;
+import heronarts.lx.dmx.LXDmxEngine;
 import heronarts.lx.output.ArtNetDatagram;
 import heronarts.lx.output.DDPDatagram;
 import heronarts.lx.output.IndexBuffer;
 import heronarts.lx.output.KinetDatagram;
+import heronarts.lx.output.LXBufferOutput;
 import heronarts.lx.output.LXOutput;
 import heronarts.lx.output.OPCDatagram;
 import heronarts.lx.output.OPCSocket;
@@ -249,10 +251,86 @@ public class LXStructureOutput extends LXOutput {
     return packet;
   }
 
+  /**
+   * Reverse of the generated output addressing, mapping DMX universe and channel
+   * positions back onto the points that are sent there. Only universe-addressed
+   * protocols (Art-Net and sACN) are mapped, and only segments with a standard
+   * byte order. Stored as parallel arrays, one entry per mapped point, with
+   * channels of -1 where a color component is not present.
+   */
+  public static class InputMap {
+
+    public final int size;
+    public final int[] index;
+    public final int[] universe;
+    public final int[] red;
+    public final int[] green;
+    public final int[] blue;
+    public final int[] white;
+
+    private InputMap(List<Packet> packets) {
+      int size = 0;
+      for (Packet packet : packets) {
+        if (isMappable(packet)) {
+          for (IndexBuffer.Segment segment : packet.segments) {
+            if (segment.byteEncoder instanceof LXBufferOutput.ByteOrder) {
+              size += segment.indices.length;
+            }
+          }
+        }
+      }
+      this.index = new int[size];
+      this.universe = new int[size];
+      this.red = new int[size];
+      this.green = new int[size];
+      this.blue = new int[size];
+      this.white = new int[size];
+
+      int i = 0;
+      for (Packet packet : packets) {
+        if (!isMappable(packet)) {
+          continue;
+        }
+        for (IndexBuffer.Segment segment : packet.segments) {
+          if (!(segment.byteEncoder instanceof LXBufferOutput.ByteOrder byteOrder)) {
+            continue;
+          }
+          final int[] offset = byteOrder.getByteOffset();
+          int channel = segment.startChannel;
+          for (int index : segment.indices) {
+            if ((index != IndexBuffer.EMPTY_PIXEL) && (channel + offset.length <= LXDmxEngine.MAX_CHANNEL)) {
+              this.index[i] = index;
+              this.universe[i] = packet.universe;
+              if (byteOrder == LXBufferOutput.ByteOrder.W) {
+                this.red[i] = this.green[i] = this.blue[i] = -1;
+                this.white[i] = channel;
+              } else {
+                this.red[i] = channel + offset[0];
+                this.green[i] = channel + offset[1];
+                this.blue[i] = channel + offset[2];
+                this.white[i] = byteOrder.hasWhite ? channel + offset[3] : -1;
+              }
+              ++i;
+            }
+            channel += segment.outputStride;
+          }
+        }
+      }
+      this.size = i;
+    }
+
+    private static boolean isMappable(Packet packet) {
+      return
+        ((packet.protocol == LXFixture.Protocol.ARTNET) || (packet.protocol == LXFixture.Protocol.SACN)) &&
+        (packet.universe < LXDmxEngine.MAX_UNIVERSE);
+    }
+  }
+
   private final LXStructure structure;
   private final List<LXOutput> generatedOutputs = new ArrayList<LXOutput>();
   private final List<String> outputErrors = new ArrayList<String>();
   private final List<Packet> packets = new ArrayList<Packet>();
+  private InputMap inputMap = null;
 
   LXStructureOutput(LX lx, LXStructure structure) throws SocketException {
     super(lx);
@@ -261,7 +339,10 @@ public class LXStructureOutput extends LXOutput {
   }
 
   void clear() {
-    this.packets.clear();
+    synchronized (this) {
+      this.packets.clear();
+      this.inputMap = null;
+    }
     for (LXOutput output : this.generatedOutputs) {
       LX.dispose(output);
     }
@@ -274,8 +355,10 @@ public class LXStructureOutput extends LXOutput {
     clear();
 
     // Iterate over all fixtures and build outputs
-    for (LXFixture fixture : this.structure.fixtures) {
-      rebuildFixtureOutputs(fixture);
+    synchronized (this) {
+      for (LXFixture fixture : this.structure.fixtures) {
+        rebuildFixtureOutputs(fixture);
+      }
     }
 
     // Generate an output for all those packets!
@@ -479,6 +562,20 @@ public class LXStructureOutput extends LXOutput {
     }
   }
 
+  /**
+   * Gets the reverse map of DMX input addresses onto points, computed once
+   * each time that the structure outputs are rebuilt. Callers may compare
+   * the returned instance by identity to detect changes.
+   *
+   * @return Input map for the current outputs
+   */
+  public synchronized InputMap getInputMap() {
+    if (this.inputMap == null) {
+      this.inputMap = new InputMap(this.packets);
+    }
+    return this.inputMap;
+  }
+
   @Override
   protected void onSend(int[] colors, GammaTable glut, double brightness) {
     // Send all of the generated outputs
@@ -139,11 +139,19 @@ public class LXViewDefinition extends LXComponent implements LXComponent.Renamab
 
   private void disposeView() {
     if (this.view != null) {
-      this.view.dispose();
+      this.view.release();
       this.view = null;
     }
   }
 
+  void modelGenerationChanged(LXModel model) {
+    // Geometry changes are applied to existing views by the model itself, the
+    // view selection only needs rebuilding when there's a whole new model
+    if ((this.view == null) || (this.view.getSourceModel() != model)) {
+      rebuild();
+    }
+  }
+
   void rebuild() {
     if (this.inLoad) {
       // Avoid spurious rebuilds when loading, which may touch
@@ -158,7 +166,7 @@ public class LXViewDefinition extends LXComponent implements LXComponent.Renamab
     final LXModel model = this.lx.getModel();
 
     if (model.size > 0 && this.enabled.isOn() && !LXUtils.isEmpty(viewSelector)) {
-      this.view = LXView.create(
+      this.view = LXView.share(
         model,
         viewSelector,
         this.normalization.getEnum(),
@@ -53,15 +53,11 @@ public class LXViewEngine extends LXComponent implements LX.Listener {
     lx.addListener(this);
   }
 
-  private void rebuildViews() {
-    for (LXViewDefinition view : this.views) {
-      view.rebuild();
-    }
-  }
-
   @Override
   public void modelGenerationChanged(LX lx, LXModel model) {
-    rebuildViews();
+    for (LXViewDefinition view : this.views) {
+      view.modelGenerationChanged(model);
+    }
   }
 
   /**
@@ -173,6 +169,7 @@ public class LXViewEngine extends LXComponent implements LX.Listener {
     this.mutableViews.remove(view);
     this.mutableViews.add(index, view);
     _reindexViews();
+    markModified();
     for (Listener listener : this.listeners) {
       listener.viewMoved(this, view);
     }
@@ -53,6 +53,25 @@ public class LXProjection implements Iterable<LXVector> {
     this.model = model;
   }
 
+  /**
+   * Number of vectors in the projection, one for each point of the model
+   *
+   * @return Number of vectors
+   */
+  public int size() {
+    return this.vectors.length;
+  }
+
+  /**
+   * Gets the projected vector for a point, in the order of the model's points
+   *
+   * @param i Position of the point in the model
+   * @return Projected vector
+   */
+  public LXVector get(int i) {
+    return this.vectors[i];
+  }
+
   /**
    * Reset all points in the projection to the model
    *
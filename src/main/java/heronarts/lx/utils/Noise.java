@@ -324,4 +324,213 @@ public class Noise {
 
     return stb__perlin_lerp(n0,n1,u);
   }
+
+  /*
+   * Batch evaluation. The functions below evaluate noise over a range of arrays
+   * of coordinates, producing output bit-identical to the scalar functions with
+   * no wrapping. Table references, wrap masks and the per-octave frequency and
+   * amplitude are hoisted out of the per-point loop. Callers may split a batch
+   * into ranges and evaluate them concurrently.
+   */
+
+  /**
+   * Maximum number of octaves supported by the batch functions
+   */
+  public static final int MAX_BATCH_OCTAVES = 32;
+
+  /**
+   * Frequency and amplitude of each octave for the batch fractal functions. An
+   * instance is kept by the caller and updated once per batch.
+   */
+  public static class Octaves {
+
+    private final float[] frequency = new float[MAX_BATCH_OCTAVES];
+    private final float[] amplitude = new float[MAX_BATCH_OCTAVES];
+    private final float[] ridgeAmplitude = new float[MAX_BATCH_OCTAVES];
+    private int count = 0;
+
+    /**
+     * Sets the octaves, accumulated exactly as the scalar functions do
+     *
+     * @param lacunarity Spacing between successive octaves
+     * @param gain Relative weighting applied to each successive octave
+     * @param octaves Number of octaves, at most 32
+     * @return this
+     */
+    public Octaves set(float lacunarity, float gain, int octaves) {
+      if (octaves > MAX_BATCH_OCTAVES) {
+        throw new IllegalArgumentException("Batch noise supports at most " + MAX_BATCH_OCTAVES + " octaves: " + octaves);
+      }
+      this.count = Math.max(0, octaves);
+      float f = 1.0f, a = 1.0f, ra = 0.5f;
+      for (int o = 0; o < this.count; ++o) {
+        this.frequency[o] = f;
+        this.amplitude[o] = a;
+        this.ridgeAmplitude[o] = ra;
+        f *= lacunarity;
+        a *= gain;
+        ra *= gain;
+      }
+      return this;
+    }
+  }
+
+  // Same operations in the same order as stb_perlin_noise3_internal with no wrapping
+  private static float stb__perlin_noise3_batch(float x, float y, float z, int seed)
+  {
+    final int[] randtab = stb__perlin_randtab;
+    final byte[] grad_idx = stb__perlin_randtab_grad_idx;
+
+    int px = stb__perlin_fastfloor(x);
+    int py = stb__perlin_fastfloor(y);
+    int pz = stb__perlin_fastfloor(z);
+    int x0 = px & 0xff, x1 = (px+1) & 0xff;
+    int y0 = py & 0xff, y1 = (py+1) & 0xff;
+    int z0 = pz & 0xff, z1 = (pz+1) & 0xff;
+
+    x -= px; float u = stb__perlin_ease(x);
+    y -= py; float v = stb__perlin_ease(y);
+    z -= pz; float w = stb__perlin_ease(z);
+
+    int r0 = randtab[x0+seed];
+    int r1 = randtab[x1+seed];
+
+    int r00 = randtab[r0+y0];
+    int r01 = randtab[r0+y1];
+    int r10 = randtab[r1+y0];
+    int r11 = randtab[r1+y1];
+
+    float n000 = stb__perlin_grad(grad_idx[r00+z0], x  , y  , z   );
+    float n001 = stb__perlin_grad(grad_idx[r00+z1], x  , y  , z-1 );
+    float n010 = stb__perlin_grad(grad_idx[r01+z0], x  , y-1, z   );
+    float n011 = stb__perlin_grad(grad_idx[r01+z1], x  , y-1, z-1 );
+    float n100 = stb__perlin_grad(grad_idx[r10+z0], x-1, y  , z   );
+    float n101 = stb__perlin_grad(grad_idx[r10+z1], x-1, y  , z-1 );
+    float n110 = stb__perlin_grad(grad_idx[r11+z0], x-1, y-1, z   );
+    float n111 = stb__perlin_grad(grad_idx[r11+z1], x-1, y-1, z-1 );
+
+    float n00 = n000 + (n001-n000) * w;
+    float n01 = n010 + (n011-n010) * w;
+    float n10 = n100 + (n101-n100) * w;
+    float n11 = n110 + (n111-n110) * w;
+
+    float n0 = n00 + (n01-n00) * v;
+    float n1 = n10 + (n11-n10) * v;
+
+    return n0 + (n1-n0) * u;
+  }
+
+  /**
+   * Evaluates seeded noise over arrays of coordinates, equivalent to calling
+   * stb_perlin_noise3_seed(x[i], y[i], z[i], 0, 0, 0, seed) for each index
+   *
+   * @param x X coordinates
+   * @param y Y coordinates
+   * @param z Z coordinates
+   * @param seed Seed
+   * @param result Array to store results in, indexed in parallel with coordinates
+   * @param start Index of first coordinate
+   * @param length Number of coordinates to evaluate
+   */
+  public static void stb_perlin_noise3_seed(float[] x, float[] y, float[] z, int seed, float[] result, int start, int length)
+  {
+    final int end = start + length;
+    for (int i = start; i < end; ++i) {
+      result[i] = stb__perlin_noise3_batch(x[i], y[i], z[i], seed);
+    }
+  }
+
+  /**
+   * Evaluates ridge noise over arrays of coordinates, equivalent to calling
+   * stb_perlin_ridge_noise3 for each index
+   *
+   * @param x X coordinates
+   * @param y Y coordinates
+   * @param z Z coordinates
+   * @param octaves Octaves, set from the lacunarity, gain and number of octaves
+   * @param offset Used to invert the ridges
+   * @param result Array to store results in, indexed in parallel with coordinates
+   * @param start Index of first coordinate
+   * @param length Number of coordinates to evaluate
+   */
+  public static void stb_perlin_ridge_noise3(float[] x, float[] y, float[] z, Octaves octaves, float offset, float[] result, int start, int length)
+  {
+    final float[] frequency = octaves.frequency;
+    final float[] amplitude = octaves.ridgeAmplitude;
+    final int n = octaves.count;
+    final int end = start + length;
+    for (int i = start; i < end; ++i) {
+      final float xi = x[i], yi = y[i], zi = z[i];
+      float prev = 1.0f;
+      float sum = 0.0f;
+      for (int o = 0; o < n; ++o) {
+        final float fo = frequency[o];
+        float r = stb__perlin_noise3_batch(xi*fo, yi*fo, zi*fo, o);
+        r = offset - Math.abs(r);
+        r = r*r;
+        sum += r*amplitude[o]*prev;
+        prev = r;
+      }
+      result[i] = sum;
+    }
+  }
+
+  /**
+   * Evaluates fractal noise over arrays of coordinates, equivalent to calling
+   * stb_perlin_fbm_noise3 for each index
+   *
+   * @param x X coordinates
+   * @param y Y coordinates
+   * @param z Z coordinates
+   * @param octaves Octaves, set from the lacunarity, gain and number of octaves
+   * @param result Array to store results in, indexed in parallel with coordinates
+   * @param start Index of first coordinate
+   * @param length Number of coordinates to evaluate
+   */
+  public static void stb_perlin_fbm_noise3(float[] x, float[] y, float[] z, Octaves octaves, float[] result, int start, int length)
+  {
+    final float[] frequency = octaves.frequency;
+    final float[] amplitude = octaves.amplitude;
+    final int n = octaves.count;
+    final int end = start + length;
+    for (int i = start; i < end; ++i) {
+      final float xi = x[i], yi = y[i], zi = z[i];
+      float sum = 0.0f;
+      for (int o = 0; o < n; ++o) {
+        final float fo = frequency[o];
+        sum += stb__perlin_noise3_batch(xi*fo, yi*fo, zi*fo, o)*amplitude[o];
+      }
+      result[i] = sum;
+    }
+  }
+
+  /**
+   * Evaluates turbulence noise over arrays of coordinates, equivalent to calling
+   * stb_perlin_turbulence_noise3 for each index
+   *
+   * @param x X coordinates
+   * @param y Y coordinates
+   * @param z Z coordinates
+   * @param octaves Octaves, set from the lacunarity, gain and number of octaves
+   * @param result Array to store results in, indexed in parallel with coordinates
+   * @param start Index of first coordinate
+   * @param length Number of coordinates to evaluate
+   */
+  public static void stb_perlin_turbulence_noise3(float[] x, float[] y, float[] z, Octaves octaves, float[] result, int start, int length)
+  {
+    final float[] frequency = octaves.frequency;
+    final float[] amplitude = octaves.amplitude;
+    final int n = octaves.count;
+    final int end = start + length;
+    for (int i = start; i < end; ++i) {
+      final float xi = x[i], yi = y[i], zi = z[i];
+      float sum = 0.0f;
+      for (int o = 0; o < n; ++o) {
+        final float fo = frequency[o];
+        float r = stb__perlin_noise3_batch(xi*fo, yi*fo, zi*fo, o)*amplitude[o];
+        sum += Math.abs(r);
+      }
+      result[i] = sum;
+    }
+  }
 }
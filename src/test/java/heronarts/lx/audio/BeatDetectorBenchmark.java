@@ -0,0 +1,145 @@
+/**
+ * Copyright 2026- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.audio;
+
+import java.util.Random;
+
+/**
+ * Offline accuracy and cost benchmark for the {@link BeatDetector.Tracker}. Synthetic
+ * drum tracks with known tempo are rendered and fed through the tracker hop-by-hop.
+ * Reports the tempo error, the beat F-measure within a +/-70ms window after a warm-up
+ * period, and the processing cost per hop.
+ */
+public class BeatDetectorBenchmark {
+
+  private static final int SAMPLE_RATE = 44100;
+  private static final int HOP_SIZE = 512;
+  private static final double DURATION_SECONDS = 30;
+  private static final double WARMUP_SECONDS = 10;
+  private static final double TOLERANCE_SECONDS = .07;
+
+  private static final double[] TEST_BPMS = { 84, 96, 110, 120, 128, 140, 150 };
+
+  private static float[] render(double bpm, long seed) {
+    final Random random = new Random(seed);
+    final int length = (int) (DURATION_SECONDS * SAMPLE_RATE);
+    final float[] audio = new float[length];
+    final double beatSeconds = 60 / bpm;
+
+    // Low-level background noise
+    for (int i = 0; i < length; ++i) {
+      audio[i] = .02f * (random.nextFloat() * 2 - 1);
+    }
+
+    for (int beat = 0; beat * beatSeconds < DURATION_SECONDS; ++beat) {
+      final int start = (int) (beat * beatSeconds * SAMPLE_RATE);
+
+      // Kick drum on every beat, a decaying 60Hz tone
+      for (int i = 0; i < .2 * SAMPLE_RATE && start + i < length; ++i) {
+        final double t = i / (double) SAMPLE_RATE;
+        audio[start + i] += (float) (.8 * Math.exp(-t / .08) * Math.sin(2 * Math.PI * 60 * t));
+      }
+
+      // Snare noise on beats 2 and 4
+      if (beat % 2 == 1) {
+        for (int i = 0; i < .15 * SAMPLE_RATE && start + i < length; ++i) {
+          final double t = i / (double) SAMPLE_RATE;
+          audio[start + i] += (float) (.3 * Math.exp(-t / .05) * (random.nextFloat() * 2 - 1));
+        }
+      }
+
+      // Hi-hat on the off-beat eighth notes
+      final int hat = start + (int) (.5 * beatSeconds * SAMPLE_RATE);
+      for (int i = 0; i < .05 * SAMPLE_RATE && hat + i < length; ++i) {
+        final double t = i / (double) SAMPLE_RATE;
+        audio[hat + i] += (float) (.1 * Math.exp(-t / .02) * (random.nextFloat() * 2 - 1));
+      }
+    }
+    return audio;
+  }
+
+  public static void main(String[] args) {
+    final BeatDetector.Tracker tracker = new BeatDetector.Tracker(HOP_SIZE, SAMPLE_RATE);
+    final float[] hop = new float[HOP_SIZE];
+    final long hopNanos = (long) (1000000000. * HOP_SIZE / SAMPLE_RATE);
+
+    System.out.println("BPM\tEstimate\tError\tF-measure\tOffset(ms)\tns/hop");
+    double totalF = 0;
+    for (double bpm : TEST_BPMS) {
+      final float[] audio = render(bpm, (long) bpm);
+      final double beatSeconds = 60 / bpm;
+      final int numHops = audio.length / HOP_SIZE;
+      final double[] detected = new double[numHops];
+      int numDetected = 0;
+
+      tracker.setBpmRange(80, 160).reset();
+      long processNanos = 0;
+      for (int h = 0; h < numHops; ++h) {
+        System.arraycopy(audio, h * HOP_SIZE, hop, 0, HOP_SIZE);
+        final long hopEndNanos = (h + 1) * hopNanos;
+        final long start = System.nanoTime();
+        if (tracker.process(hop, hopEndNanos)) {
+          detected[numDetected++] = tracker.getBeatNanoTime() / 1e9;
+        }
+        processNanos += System.nanoTime() - start;
+      }
+
+      // Match detections against ground-truth beats after the warm-up period
+      int truePositives = 0, numReference = 0, numEstimated = 0;
+      double offsetSum = 0;
+      for (int i = 0; i < numDetected; ++i) {
+        if (detected[i] >= WARMUP_SECONDS - TOLERANCE_SECONDS && detected[i] < DURATION_SECONDS - TOLERANCE_SECONDS) {
+          ++numEstimated;
+        }
+      }
+      for (int beat = 0; beat * beatSeconds < DURATION_SECONDS - TOLERANCE_SECONDS; ++beat) {
+        final double reference = beat * beatSeconds;
+        if (reference < WARMUP_SECONDS) {
+          continue;
+        }
+        ++numReference;
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < numDetected; ++i) {
+          final double offset = detected[i] - reference;
+          if (Math.abs(offset) < Math.abs(best)) {
+            best = offset;
+          }
+        }
+        if (Math.abs(best) <= TOLERANCE_SECONDS) {
+          ++truePositives;
+          offsetSum += best;
+        }
+      }
+      final double precision = (numEstimated > 0) ? truePositives / (double) numEstimated : 0;
+      final double recall = (numReference > 0) ? truePositives / (double) numReference : 0;
+      final double f = (precision + recall > 0) ? 2 * precision * recall / (precision + recall) : 0;
+      totalF += f;
+
+      System.out.println(String.format("%.0f\t%.2f\t\t%+.2f%%\t%.3f\t\t%+.1f\t\t%d",
+        bpm,
+        tracker.getBpm(),
+        100 * (tracker.getBpm() - bpm) / bpm,
+        f,
+        (truePositives > 0) ? 1000 * offsetSum / truePositives : 0,
+        processNanos / numHops
+      ));
+    }
+    System.out.println(String.format("Mean F-measure: %.3f", totalF / TEST_BPMS.length));
+  }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright 2026- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.clip;
+
+import heronarts.lx.LX;
+import heronarts.lx.mixer.LXChannel;
+import heronarts.lx.model.GridModel;
+
+/**
+ * Checks that simplified parameter recording stays within the lane's record
+ * tolerance. Automation is recorded at frame rate into a parameter lane and
+ * every raw sample is compared with linear interpolation of the resulting
+ * events. The signal includes a long straight ramp, which is reduced to its
+ * endpoints and so fills the 1024-sample record buffer, ending the run. One
+ * pass also commits the record queue only every few frames, as happens when
+ * the engine runs behind, staying within the lane's smoothing threshold.
+ */
+public class ParameterClipLaneRecordCheck {
+
+  private static final double FRAME_MS = 1000 / 60.;
+  private static final int NUM_SAMPLES = 6000;
+  private static final double EPSILON = 1e-9;
+
+  // Samples of the straight ramp, which is longer than the record buffer
+  private static final int RAMP_START = 1000;
+  private static final int RAMP_END = 3500;
+
+  private static double signal(int sample) {
+    if ((sample >= RAMP_START) && (sample < RAMP_END)) {
+      // A straight ramp, nothing in it is kept so the record buffer fills
+      return .1 + .8 * (sample - RAMP_START) / (RAMP_END - RAMP_START);
+    }
+    final double ms = sample * FRAME_MS;
+    return .5 + .35 * Math.sin(ms / 700.) + .05 * Math.sin(ms / 61.);
+  }
+
+  private static double interpolate(ParameterClipLane lane, double ms) {
+    int next = 0;
+    while ((next < lane.events.size()) && (lane.events.get(next).cursor.getMillis() <= ms)) {
+      ++next;
+    }
+    final ParameterClipEvent prior = lane.events.get(next - 1);
+    if (next == lane.events.size()) {
+      return prior.getNormalized();
+    }
+    final ParameterClipEvent after = lane.events.get(next);
+    final double x0 = prior.cursor.getMillis();
+    final double x1 = after.cursor.getMillis();
+    return (x1 == x0) ? after.getNormalized() : prior.getNormalized() + (after.getNormalized() - prior.getNormalized()) * (ms - x0) / (x1 - x0);
+  }
+
+  private static boolean check(LXClip clip, LXChannel channel, double tolerance, int commitInterval) {
+    final ParameterClipLane lane = ParameterClipLane.create(clip, channel.fader, signal(0));
+    lane.recordTolerance.setValue(tolerance);
+    lane.resetRecordingState();
+
+    for (int i = 0; i < NUM_SAMPLES; ++i) {
+      clip.cursor.set(new Cursor(i * FRAME_MS, 0, 0));
+      lane.recordParameterEvent(new ParameterClipEvent(lane, signal(i)));
+      if ((i % commitInterval) == (commitInterval - 1)) {
+        lane.commitRecordQueue(false);
+      }
+    }
+    lane.commitRecordQueue(false);
+
+    boolean sorted = true;
+    for (int i = 1; i < lane.events.size(); ++i) {
+      if (lane.events.get(i).cursor.getMillis() < lane.events.get(i-1).cursor.getMillis()) {
+        sorted = false;
+      }
+    }
+
+    // Interior of the ramp is only kept where a full record buffer ended the run
+    int rampEvents = 0;
+    for (ParameterClipEvent event : lane.events) {
+      final double ms = event.cursor.getMillis();
+      if ((ms > (RAMP_START + 1) * FRAME_MS) && (ms < (RAMP_END - 2) * FRAME_MS)) {
+        ++rampEvents;
+      }
+    }
+    final boolean flushed = (tolerance == 0) || (rampEvents > 0);
+
+    double maxError = 0;
+    for (int i = 0; i < NUM_SAMPLES; ++i) {
+      maxError = Math.max(maxError, Math.abs(interpolate(lane, i * FRAME_MS) - signal(i)));
+    }
+
+    final boolean pass = sorted && flushed && (maxError <= tolerance + EPSILON);
+    System.out.println(String.format("tolerance %.3f, commit every %d: %d samples -> %d events, %d within ramp, max error %.5f%s%s %s",
+      tolerance,
+      commitInterval,
+      NUM_SAMPLES,
+      lane.events.size(),
+      rampEvents,
+      maxError,
+      sorted ? "" : ", events out of order",
+      flushed ? "" : ", record buffer never filled",
+      pass ? "PASS" : "FAIL"
+    ));
+    return pass;
+  }
+
+  public static void main(String[] args) throws Exception {
+    final LX lx = new LX(new GridModel(4, 4));
+    final LXChannel channel = lx.engine.mixer.addChannel();
+    final LXClip clip = channel.addClip();
+    clip.timeBase.setValue(Cursor.TimeBase.ABSOLUTE);
+
+    boolean pass = true;
+    for (double tolerance : new double[] { 0, .001, .002, .01, .05 }) {
+      pass &= check(clip, channel, tolerance, 1);
+    }
+    pass &= check(clip, channel, .002, 10);
+    System.out.println(pass ? "PASS: simplified automation within tolerance" : "FAIL");
+    System.exit(pass ? 0 : 1);
+  }
+}
@@ -0,0 +1,193 @@
+/**
+ * Copyright 2026- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.color;
+
+import java.util.Random;
+
+/**
+ * Benchmark of the batch HSB conversions against the per-color scalar path. Also
+ * verifies that exact batch output is bit-identical to the original scalar
+ * implementation over random, out-of-range and edge-case inputs, and reports the
+ * worst channel error of the fast approximation.
+ */
+public class LXColorBenchmark {
+
+  private static final int NUM_COLORS = 100000;
+  private static final int ITERATIONS = 200;
+  private static final int ROUNDS = 5;
+
+  /**
+   * The scalar conversion as originally written, for reference
+   */
+  private static int referenceHsb(float hue, float saturation, float brightness) {
+    int r = 0, g = 0, b = 0;
+    float brightness255 = brightness * (255f / 100f);
+    if (saturation == 0) {
+      r = g = b = (int) (brightness255 + 0.5f);
+    } else {
+      float h1 = hue * (1 / 360.f);
+      float h = (h1 - (float) Math.floor(h1)) * 6.0f;
+      float f = h - (float) java.lang.Math.floor(h);
+      float s1 = saturation * (1 / 100.f);
+      float p255 = brightness255 * (1.0f - s1);
+      float q255 = brightness255 * (1.0f - s1 * f);
+      float t255 = brightness255 * (1.0f - (s1 * (1.0f - f)));
+      switch ((int) h) {
+      case 0: r = (int) (brightness255 + 0.5f); g = (int) (t255 + 0.5f); b = (int) (p255 + 0.5f); break;
+      case 1: r = (int) (q255 + 0.5f); g = (int) (brightness255 + 0.5f); b = (int) (p255 + 0.5f); break;
+      case 2: r = (int) (p255 + 0.5f); g = (int) (brightness255 + 0.5f); b = (int) (t255 + 0.5f); break;
+      case 3: r = (int) (p255 + 0.5f); g = (int) (q255 + 0.5f); b = (int) (brightness255 + 0.5f); break;
+      case 4: r = (int) (t255 + 0.5f); g = (int) (p255 + 0.5f); b = (int) (brightness255 + 0.5f); break;
+      case 5: r = (int) (brightness255 + 0.5f); g = (int) (p255 + 0.5f); b = (int) (q255 + 0.5f); break;
+      }
+    }
+    return 0xff000000 | (r << 16) | (g << 8) | (b << 0);
+  }
+
+  private static final float[] EDGE_VALUES = {
+    0, -0f, 1e-9f, -1e-9f, 60, 120, 180, 240, 300, 359.99997f, 360, 720, -360, -45,
+    1e7f, -1e7f, 3e9f, -3e9f, 1e30f, Float.NaN, Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY,
+    50, 100, 100.5f, 150, -10
+  };
+
+  private static void verify() {
+    final Random random = new Random(0);
+    long mismatches = 0, count = 0;
+    final float[] hue = new float[NUM_COLORS];
+    final float[] saturation = new float[NUM_COLORS];
+    final float[] brightness = new float[NUM_COLORS];
+    final float[] packed = new float[3 * NUM_COLORS];
+    final int[] fast = new int[NUM_COLORS];
+    final int[] fastPacked = new int[NUM_COLORS];
+    int maxFastError = 0;
+
+    // Random inputs in and around the nominal range
+    for (int i = 0; i < 5000000; ++i) {
+      final float h = random.nextFloat() * 1440 - 720;
+      final float s = (i % 8 == 0) ? random.nextFloat() * 140 - 20 : random.nextFloat() * 100;
+      final float b = (i % 8 == 1) ? random.nextFloat() * 140 - 20 : random.nextFloat() * 100;
+      if (LXColor.hsb(h, s, b) != referenceHsb(h, s, b)) {
+        ++mismatches;
+      }
+      ++count;
+      final int j = i % NUM_COLORS;
+      packed[3*j] = hue[j] = h;
+      packed[3*j+1] = saturation[j] = Math.max(0, Math.min(100, s));
+      packed[3*j+2] = brightness[j] = Math.max(0, Math.min(100, b));
+      if (j == NUM_COLORS - 1) {
+        LXColor.hsb(hue, saturation, brightness, fast, 0, NUM_COLORS, LXColor.Precision.FAST);
+        LXColor.hsb(packed, fastPacked, 0, NUM_COLORS, LXColor.Precision.FAST);
+        for (int k = 0; k < NUM_COLORS; ++k) {
+          final int exact = LXColor.hsb(hue[k], saturation[k], brightness[k]);
+          maxFastError = Math.max(maxFastError, channelError(exact, fast[k]));
+          maxFastError = Math.max(maxFastError, channelError(exact, fastPacked[k]));
+        }
+      }
+    }
+
+    // Edge cases, in every combination
+    for (float h : EDGE_VALUES) {
+      for (float s : EDGE_VALUES) {
+        for (float b : EDGE_VALUES) {
+          if (LXColor.hsb(h, s, b) != referenceHsb(h, s, b)) {
+            ++mismatches;
+          }
+          ++count;
+        }
+      }
+    }
+    System.out.println("Exact mismatches: " + mismatches + " of " + count);
+    System.out.println("Fast max channel error: " + maxFastError);
+  }
+
+  private static int channelError(int c1, int c2) {
+    return Math.max(
+      Math.abs(((c1 >> 16) & 0xff) - ((c2 >> 16) & 0xff)), Math.max(
+      Math.abs(((c1 >> 8) & 0xff) - ((c2 >> 8) & 0xff)),
+      Math.abs((c1 & 0xff) - (c2 & 0xff))
+    ));
+  }
+
+  public static void main(String[] args) {
+    verify();
+
+    final Random random = new Random(1);
+    final float[] h = new float[NUM_COLORS];
+    final float[] s = new float[NUM_COLORS];
+    final float[] b = new float[NUM_COLORS];
+    final float[] packed = new float[3 * NUM_COLORS];
+    for (int i = 0; i < NUM_COLORS; ++i) {
+      packed[3*i] = h[i] = random.nextFloat() * 360;
+      packed[3*i+1] = s[i] = random.nextFloat() * 100;
+      packed[3*i+2] = b[i] = random.nextFloat() * 100;
+    }
+    final int[] colors = new int[NUM_COLORS];
+
+    System.out.println("Round\tReference\tScalar\t\tExact\t\tFast\t\tFast packed\t(ns/color)");
+    for (int round = 0; round < ROUNDS; ++round) {
+      long start = System.nanoTime();
+      for (int it = 0; it < ITERATIONS; ++it) {
+        runReference(h, s, b, colors);
+      }
+      final double reference = nanosPerColor(start);
+
+      start = System.nanoTime();
+      for (int it = 0; it < ITERATIONS; ++it) {
+        runScalar(h, s, b, colors);
+      }
+      final double scalar = nanosPerColor(start);
+
+      start = System.nanoTime();
+      for (int it = 0; it < ITERATIONS; ++it) {
+        LXColor.hsb(h, s, b, colors, 0, NUM_COLORS, LXColor.Precision.EXACT);
+      }
+      final double exact = nanosPerColor(start);
+
+      start = System.nanoTime();
+      for (int it = 0; it < ITERATIONS; ++it) {
+        LXColor.hsb(h, s, b, colors, 0, NUM_COLORS, LXColor.Precision.FAST);
+      }
+      final double fast = nanosPerColor(start);
+
+      start = System.nanoTime();
+      for (int it = 0; it < ITERATIONS; ++it) {
+        LXColor.hsb(packed, colors, 0, NUM_COLORS, LXColor.Precision.FAST);
+      }
+      final double fastPacked = nanosPerColor(start);
+
+      System.out.println(String.format("%d\t%.2f\t\t%.2f\t\t%.2f\t\t%.2f\t\t%.2f", round, reference, scalar, exact, fast, fastPacked));
+    }
+  }
+
+  private static void runReference(float[] h, float[] s, float[] b, int[] colors) {
+    for (int i = 0; i < colors.length; ++i) {
+      colors[i] = referenceHsb(h[i], s[i], b[i]);
+    }
+  }
+
+  private static void runScalar(float[] h, float[] s, float[] b, int[] colors) {
+    for (int i = 0; i < colors.length; ++i) {
+      colors[i] = LXColor.hsb(h[i], s[i], b[i]);
+    }
+  }
+
+  private static double nanosPerColor(long start) {
+    return (System.nanoTime() - start) / (double) ITERATIONS / NUM_COLORS;
+  }
+}
@@ -0,0 +1,260 @@
+/**
+ * Copyright 2026- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.dmx;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import heronarts.lx.LX;
+import heronarts.lx.model.GridModel;
+import heronarts.lx.osc.LXOscEngine.IOState;
+
+/**
+ * Checks DMX input. Source arbitration and the triple buffer of a universe are
+ * exercised directly, then Art-Net, sACN and DDP packets are sent over the
+ * loopback interface to a running receiver and the latched values checked.
+ */
+public class DmxReceiverCheck {
+
+  private static final int ARTNET_PORT = 16454;
+  private static final int SACN_PORT = 15568;
+  private static final int DDP_PORT = 14048;
+
+  private static final int TRIPLE_BUFFER_FRAMES = 200000;
+
+  private static int failures = 0;
+
+  private static void check(boolean condition, String description) {
+    System.out.println((condition ? "PASS: " : "FAIL: ") + description);
+    if (!condition) {
+      ++failures;
+    }
+  }
+
+  private static void checkArbitration() {
+    final int artnet = DmxReceiver.Protocol.ARTNET.ordinal();
+    final int sacn = DmxReceiver.Protocol.SACN.ordinal();
+    final DmxUniverse universe = new DmxUniverse(1);
+    long now = 0;
+
+    check(universe.accept(sacn, 1, 100, 0, now), "First source is accepted");
+    check(universe.accept(sacn, 1, 100, 1, ++now), "Next sequence is accepted");
+    check(!universe.accept(sacn, 1, 100, 1, ++now), "Repeated sequence is discarded");
+    check(!universe.accept(sacn, 1, 100, 240, ++now), "Sequence within 20 behind is discarded");
+    check(universe.accept(sacn, 1, 100, 200, ++now), "Sequence more than 20 behind is accepted");
+    check(!universe.accept(sacn, 2, 100, 0, ++now), "Equal priority source does not displace the current one");
+    check(universe.accept(sacn, 1, 100, 201, ++now), "Current source keeps the universe on a tie");
+    check(!universe.accept(artnet, 1, 50, -1, ++now), "Lower priority source is rejected");
+    check(universe.accept(sacn, 3, 150, 0, ++now), "Higher priority source displaces the current one");
+    check(!universe.accept(sacn, 1, 100, 202, ++now), "Displaced source is rejected");
+    now += DmxUniverse.SOURCE_TIMEOUT_MS;
+    check(universe.accept(sacn, 1, 100, 203, now), "Lower priority source is accepted after a timeout");
+    universe.release(sacn, 1);
+    check(universe.accept(artnet, 4, 50, -1, ++now), "Lower priority source is accepted after termination");
+  }
+
+  private static void checkTripleBuffer() throws InterruptedException {
+    final DmxUniverse universe = new DmxUniverse(1);
+    final Thread writer = new Thread(() -> {
+      for (int frame = 1; frame <= TRIPLE_BUFFER_FRAMES; ++frame) {
+        Arrays.fill(universe.image, (byte) frame);
+        universe.image[0] = (byte) (frame >>> 24);
+        universe.image[1] = (byte) (frame >>> 16);
+        universe.image[2] = (byte) (frame >>> 8);
+        universe.publish();
+      }
+    });
+    writer.start();
+
+    int latched = 0, torn = 0, reversed = 0, previous = 0;
+    do {
+      final byte[] data = universe.latch();
+      final int frame = ((data[0] & 0xff) << 24) | ((data[1] & 0xff) << 16) | ((data[2] & 0xff) << 8) | (data[3] & 0xff);
+      for (int i = 4; i < data.length; ++i) {
+        if (data[i] != data[3]) {
+          ++torn;
+          break;
+        }
+      }
+      if (frame < previous) {
+        ++reversed;
+      }
+      previous = frame;
+      ++latched;
+    } while (writer.isAlive());
+    writer.join();
+
+    final int last = universe.latch()[3] & 0xff;
+    System.out.println("Latched " + latched + " times over " + TRIPLE_BUFFER_FRAMES + " published frames");
+    check(torn == 0, "No latched frame is torn (" + torn + ")");
+    check(reversed == 0, "Latched frames never go backwards (" + reversed + ")");
+    check(last == (TRIPLE_BUFFER_FRAMES & 0xff), "Final latch returns the last published frame");
+  }
+
+  private static byte[] artnet(int universe, int sequence, int value) {
+    final byte[] packet = new byte[18 + LXDmxEngine.MAX_CHANNEL];
+    System.arraycopy("Art-Net\0".getBytes(StandardCharsets.US_ASCII), 0, packet, 0, 8);
+    packet[9] = 0x50;
+    packet[12] = (byte) sequence;
+    packet[14] = (byte) (universe & 0xff);
+    packet[15] = (byte) (universe >>> 8);
+    packet[16] = (byte) (LXDmxEngine.MAX_CHANNEL >>> 8);
+    packet[17] = (byte) (LXDmxEngine.MAX_CHANNEL & 0xff);
+    Arrays.fill(packet, 18, packet.length, (byte) value);
+    return packet;
+  }
+
+  private static byte[] sacn(int universe, int sequence, int priority, int cid, int value, int options) {
+    final byte[] packet = new byte[126 + LXDmxEngine.MAX_CHANNEL];
+    packet[1] = 0x10;
+    System.arraycopy("ASC-E1.17\0\0\0".getBytes(StandardCharsets.US_ASCII), 0, packet, 4, 12);
+    packet[21] = 0x04;
+    packet[22] = (byte) cid;
+    packet[43] = 0x02;
+    packet[108] = (byte) priority;
+    packet[111] = (byte) sequence;
+    packet[112] = (byte) options;
+    packet[113] = (byte) (universe >>> 8);
+    packet[114] = (byte) universe;
+    packet[117] = 0x02;
+    packet[123] = (byte) ((LXDmxEngine.MAX_CHANNEL + 1) >>> 8);
+    packet[124] = (byte) ((LXDmxEngine.MAX_CHANNEL + 1) & 0xff);
+    Arrays.fill(packet, 126, packet.length, (byte) value);
+    return packet;
+  }
+
+  private static byte[] ddp(int offset, int length, boolean push, int value) {
+    final byte[] packet = new byte[10 + length];
+    packet[0] = (byte) (0x40 | (push ? 0x01 : 0));
+    packet[3] = 1;
+    packet[4] = (byte) (offset >>> 24);
+    packet[5] = (byte) (offset >>> 16);
+    packet[6] = (byte) (offset >>> 8);
+    packet[7] = (byte) offset;
+    packet[8] = (byte) (length >>> 8);
+    packet[9] = (byte) length;
+    Arrays.fill(packet, 10, packet.length, (byte) value);
+    return packet;
+  }
+
+  private static void send(DatagramSocket socket, byte[] packet, int port) throws Exception {
+    socket.send(new DatagramPacket(packet, packet.length, InetAddress.getLoopbackAddress(), port));
+  }
+
+  private static void settle(LXDmxEngine dmx) throws InterruptedException {
+    Thread.sleep(100);
+    dmx.loop(0);
+  }
+
+  private static void checkReceiver() throws Exception {
+    final LX lx = new LX(new GridModel(4, 4));
+    final LXDmxEngine dmx = lx.engine.dmx;
+    dmx.artNetReceivePort.setValue(ARTNET_PORT);
+    dmx.sacnReceivePort.setValue(SACN_PORT);
+    dmx.ddpReceivePort.setValue(DDP_PORT);
+    dmx.sacnMulticastCount.setValue(2);
+    dmx.artNetReceiveActive.setValue(true);
+    dmx.sacnReceiveActive.setValue(true);
+    dmx.ddpReceiveActive.setValue(true);
+    dmx.ddpReceiveUniverse.setValue(100);
+
+    try (DatagramSocket a = new DatagramSocket(); DatagramSocket b = new DatagramSocket()) {
+      send(a, artnet(3, 10, 7), ARTNET_PORT);
+      settle(dmx);
+      check(dmx.getValuei(3, 100) == 7, "Art-Net data is received");
+      send(a, artnet(3, 9, 8), ARTNET_PORT);
+      settle(dmx);
+      check(dmx.getValuei(3, 100) == 7, "Art-Net out-of-order sequence is discarded");
+      send(b, artnet(3, 0, 9), ARTNET_PORT);
+      settle(dmx);
+      check(dmx.getValuei(3, 100) == 7, "Second Art-Net source of equal priority does not take over");
+      send(a, artnet(3, 11, 10), ARTNET_PORT);
+      settle(dmx);
+      check(dmx.getValuei(3, 100) == 10, "Art-Net source keeps its universe");
+
+      send(a, sacn(5, 1, 100, 1, 50, 0), SACN_PORT);
+      settle(dmx);
+      check(dmx.getValuei(5, 511) == 50, "sACN data is received");
+      send(a, sacn(5, 1, 50, 2, 60, 0), SACN_PORT);
+      settle(dmx);
+      check(dmx.getValuei(5, 511) == 50, "Lower priority sACN source is rejected");
+      send(a, sacn(5, 2, 150, 3, 70, 0), SACN_PORT);
+      settle(dmx);
+      check(dmx.getValuei(5, 511) == 70, "Higher priority sACN source takes over");
+      send(a, sacn(5, 3, 150, 3, 0, 0x40), SACN_PORT);
+      send(a, sacn(5, 2, 50, 2, 80, 0), SACN_PORT);
+      settle(dmx);
+      check(dmx.getValuei(5, 511) == 80, "Stream termination releases the universe");
+
+      send(a, ddp(0, 600, false, 21), DDP_PORT);
+      settle(dmx);
+      check(dmx.getValuei(100, 0) == 0, "DDP data is held until pushed");
+      send(a, ddp(600, 600, true, 22), DDP_PORT);
+      settle(dmx);
+      check(
+        (dmx.getValuei(100, 0) == 21) &&
+        (dmx.getValuei(101, 89) == 21) &&
+        (dmx.getValuei(101, 90) == 22) &&
+        (dmx.getValuei(102, 0) == 22),
+        "DDP data is mapped across consecutive universes on push"
+      );
+
+      // Hammer one universe while latching, every latched frame must be uniform
+      final Thread sender = new Thread(() -> {
+        try (DatagramSocket socket = new DatagramSocket()) {
+          for (int i = 0; i < 20000; ++i) {
+            send(socket, artnet(9, 0, i & 0xff), ARTNET_PORT);
+          }
+        } catch (Exception x) {
+          x.printStackTrace();
+        }
+      });
+      sender.start();
+      int frames = 0, torn = 0;
+      while (sender.isAlive()) {
+        dmx.loop(0);
+        final int value = dmx.getValuei(9, 0);
+        for (int c = 1; c < LXDmxEngine.MAX_CHANNEL; ++c) {
+          if (dmx.getValuei(9, c) != value) {
+            ++torn;
+            break;
+          }
+        }
+        ++frames;
+      }
+      check(torn == 0, "No received frame is torn over " + frames + " latches");
+    }
+
+    dmx.artNetReceiveActive.setValue(false);
+    dmx.sacnReceiveActive.setValue(false);
+    dmx.ddpReceiveActive.setValue(false);
+    check(dmx.artNetReceiveState.getEnum() == IOState.STOPPED, "Receiver stops");
+  }
+
+  public static void main(String[] args) throws Exception {
+    checkArbitration();
+    checkTripleBuffer();
+    checkReceiver();
+    System.out.println(failures == 0 ? "PASS: all DMX checks" : ("FAIL: " + failures + " DMX checks"));
+    System.exit(failures == 0 ? 0 : 1);
+  }
+}
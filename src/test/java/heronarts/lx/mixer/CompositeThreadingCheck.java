@@ -0,0 +1,137 @@
+/**
+ * Copyright 2026- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.mixer;
+
+import java.util.Random;
+
+import heronarts.lx.LX;
+import heronarts.lx.color.LXColor;
+import heronarts.lx.model.GridModel;
+import heronarts.lx.model.LXPoint;
+import heronarts.lx.pattern.LXPattern;
+
+/**
+ * Checks that threaded composite rendering produces exactly the same channel output
+ * as serial rendering, and that no pattern is left referencing a pooled scratch
+ * buffer once its channel has rendered. Two identical sets of channels in blend mode
+ * are built, one renders serially and the other threaded, and every channel and
+ * pattern buffer is compared after every frame.
+ */
+public class CompositeThreadingCheck {
+
+  private static final int NUM_CHANNELS = 3;
+  private static final int PATTERNS_PER_CHANNEL = 5;
+  private static final int NUM_FRAMES = 500;
+
+  private static class BandPattern extends LXPattern {
+
+    private final float speed;
+    private final float hue;
+    private double basis = 0;
+
+    private BandPattern(LX lx, float speed, float hue) {
+      super(lx);
+      this.speed = speed;
+      this.hue = hue;
+    }
+
+    @Override
+    protected void run(double deltaMs) {
+      this.basis = (this.basis + deltaMs * this.speed) % 1.;
+      final float pos = (float) this.basis;
+      for (LXPoint p : model.points) {
+        final float b = Math.max(0, 100 - 400 * Math.abs(p.xn - pos));
+        colors[p.index] = LXColor.hsba(this.hue, 100, b, b / 100);
+      }
+    }
+  }
+
+  private static LXChannel[] build(LX lx, boolean threaded) {
+    final Random random = new Random(0);
+    final LXChannel[] channels = new LXChannel[NUM_CHANNELS];
+    for (int c = 0; c < NUM_CHANNELS; ++c) {
+      final LXPattern[] patterns = new LXPattern[PATTERNS_PER_CHANNEL];
+      for (int i = 0; i < PATTERNS_PER_CHANNEL; ++i) {
+        patterns[i] = new BandPattern(lx, .0001f + random.nextFloat() * .001f, random.nextFloat() * 360);
+        patterns[i].compositeLevel.setValue(.5 + .5 * random.nextDouble());
+      }
+      channels[c] = lx.engine.mixer.addChannel(patterns);
+      channels[c].compositeMode.setValue(LXChannel.CompositeMode.BLEND);
+      channels[c].compositeThreaded.setValue(threaded);
+    }
+    return channels;
+  }
+
+  public static void main(String[] args) throws Exception {
+    final LX lx = new LX(new GridModel(40, 40));
+    final LXChannel[] serial = build(lx, false);
+    final LXChannel[] threaded = build(lx, true);
+    final Random random = new Random(1);
+
+    long serialNanos = 0, threadedNanos = 0;
+    int mismatches = 0, aliased = 0;
+    for (int frame = 0; frame < NUM_FRAMES; ++frame) {
+      final double deltaMs = 10 + 10 * random.nextDouble();
+      long start = System.nanoTime();
+      for (LXChannel channel : serial) {
+        channel.loop(deltaMs);
+      }
+      serialNanos += System.nanoTime() - start;
+      start = System.nanoTime();
+      for (LXChannel channel : threaded) {
+        channel.loop(deltaMs);
+      }
+      threadedNanos += System.nanoTime() - start;
+
+      for (int c = 0; c < NUM_CHANNELS; ++c) {
+        final int[] expected = serial[c].getColors();
+        final int[] actual = threaded[c].getColors();
+        for (int i = 0; i < expected.length; ++i) {
+          if (expected[i] != actual[i]) {
+            if (mismatches++ < 10) {
+              System.out.println("Mismatch frame " + frame + " channel " + c + " point " + i + ": " + expected[i] + " != " + actual[i]);
+            }
+            break;
+          }
+        }
+        // Every pattern must be back on its own channel's buffer
+        for (LXPattern pattern : threaded[c].patterns) {
+          for (int other = 0; other < NUM_CHANNELS; ++other) {
+            if ((other != c) && (pattern.getColors() == threaded[other].patterns.get(0).getColors())) {
+              if (aliased++ < 10) {
+                System.out.println("Aliased frame " + frame + ": pattern on channel " + c + " shares a buffer with channel " + other);
+              }
+            }
+          }
+        }
+      }
+    }
+
+    System.out.println(String.format("%d channels of %d patterns, %d frames, serial %.1fus/frame, threaded %.1fus/frame",
+      NUM_CHANNELS,
+      PATTERNS_PER_CHANNEL,
+      NUM_FRAMES,
+      serialNanos / 1000. / NUM_FRAMES,
+      threadedNanos / 1000. / NUM_FRAMES
+    ));
+    final boolean pass = (mismatches == 0) && (aliased == 0);
+    System.out.println(pass ? "PASS: threaded matches serial" : ("FAIL: " + mismatches + " mismatched channels, " + aliased + " aliased pattern buffers"));
+    System.exit(pass ? 0 : 1);
+  }
+}
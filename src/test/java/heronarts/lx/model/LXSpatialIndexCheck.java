@@ -0,0 +1,233 @@
+/**
+ * Copyright 2026- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+
+package heronarts.lx.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks spatial index queries against a brute-force search of every point.
+ * Range, nearest and ray queries are run at random positions and radii
+ * over uniform, clustered and duplicate-heavy models, as well as empty and
+ * single-point models, and the results compared as sets.
+ */
+public class LXSpatialIndexCheck {
+
+  private static final int NUM_QUERIES = 2000;
+  private static final float[] RADII = { 0, .001f, .02f, .1f, .3f, 2f };
+  private static final int[] NEAREST_K = { 1, 5, 40 };
+
+  private static int failures = 0;
+
+  private static void check(boolean condition, String description) {
+    if (!condition) {
+      if (failures++ < 20) {
+        System.out.println("FAIL: " + description);
+      }
+    }
+  }
+
+  private static LXModel model(List<LXPoint> points) {
+    return new LXModel(points).reindexPoints().normalizePoints();
+  }
+
+  private static LXModel uniform(Random random, int size) {
+    final List<LXPoint> points = new ArrayList<LXPoint>();
+    for (int i = 0; i < size; ++i) {
+      points.add(new LXPoint(random.nextFloat(), random.nextFloat(), random.nextFloat()));
+    }
+    return model(points);
+  }
+
+  private static LXModel clustered(Random random, int size) {
+    final List<LXPoint> points = new ArrayList<LXPoint>();
+    for (int i = 0; i < size; ++i) {
+      final int cluster = random.nextInt(5);
+      points.add(new LXPoint(
+        cluster + .01f * (float) random.nextGaussian(),
+        cluster % 2 + .01f * (float) random.nextGaussian(),
+        0
+      ));
+    }
+    return model(points);
+  }
+
+  private static LXModel duplicates(Random random, int size) {
+    final List<LXPoint> points = new ArrayList<LXPoint>();
+    for (int i = 0; i < size; ++i) {
+      points.add(new LXPoint(random.nextInt(4), random.nextInt(3), 0));
+    }
+    return model(points);
+  }
+
+  private static float distSq(LXPoint p, float x, float y, float z) {
+    final float dx = p.xn - x;
+    final float dy = p.yn - y;
+    final float dz = p.zn - z;
+    return dx*dx + dy*dy + dz*dz;
+  }
+
+  private static int[] sorted(int[] values, int count) {
+    final int[] copy = Arrays.copyOf(values, count);
+    Arrays.sort(copy);
+    return copy;
+  }
+
+  private static int[] bruteRange(LXModel model, float x, float y, float z, float radius) {
+    final float radiusSq = radius * radius;
+    final int[] result = new int[model.size];
+    int count = 0;
+    for (LXPoint p : model.points) {
+      if (distSq(p, x, y, z) <= radiusSq) {
+        result[count++] = p.index;
+      }
+    }
+    return sorted(result, count);
+  }
+
+  private static int[] bruteRay(LXModel model, float x, float y, float z, float dx, float dy, float dz, float radius) {
+    final float invLengthSq = 1 / (dx*dx + dy*dy + dz*dz);
+    final float radiusSq = radius * radius;
+    final int[] result = new int[model.size];
+    int count = 0;
+    for (LXPoint p : model.points) {
+      final float px = p.xn - x;
+      final float py = p.yn - y;
+      final float pz = p.zn - z;
+      final float t = Math.max(0, (px*dx + py*dy + pz*dz) * invLengthSq);
+      final float ex = px - t*dx;
+      final float ey = py - t*dy;
+      final float ez = pz - t*dz;
+      if (ex*ex + ey*ey + ez*ez <= radiusSq) {
+        result[count++] = p.index;
+      }
+    }
+    return sorted(result, count);
+  }
+
+  private static void checkRange(LXModel model, LXSpatialIndex index, Random random, String name) {
+    final int[] result = new int[model.size];
+    final float[] distanceSq = new float[model.size];
+    for (int q = 0; q < NUM_QUERIES; ++q) {
+      final float x = random.nextFloat() * 1.2f - .1f;
+      final float y = random.nextFloat() * 1.2f - .1f;
+      final float z = random.nextFloat() * 1.2f - .1f;
+      final float radius = RADII[q % RADII.length];
+      final int[] expected = bruteRange(model, x, y, z, radius);
+
+      final int count = index.range(x, y, z, radius, result, distanceSq);
+      check(Arrays.equals(expected, sorted(result, count)), name + " range matches brute force, radius " + radius);
+      for (int i = 0; i < count; ++i) {
+        check(distanceSq[i] == distSq(model.points[result[i]], x, y, z), name + " range reports squared distance");
+      }
+
+      // A short result array is filled with distinct points that are in range
+      if (expected.length > 1) {
+        final int[] partial = new int[expected.length / 2];
+        final int partialCount = index.range(x, y, z, radius, partial);
+        final int[] found = sorted(partial, partialCount);
+        boolean subset = partialCount == partial.length;
+        for (int i = 0; i < found.length; ++i) {
+          subset &= (Arrays.binarySearch(expected, found[i]) >= 0) && ((i == 0) || (found[i] != found[i-1]));
+        }
+        check(subset, name + " truncated range is a distinct subset");
+      }
+    }
+    check(index.range(.5f, .5f, .5f, -1, result) == 0, name + " negative radius finds nothing");
+  }
+
+  private static void checkNearest(LXModel model, LXSpatialIndex index, Random random, String name) {
+    final float[] all = new float[model.size];
+    for (int q = 0; q < NUM_QUERIES; ++q) {
+      final float x = random.nextFloat() * 1.2f - .1f;
+      final float y = random.nextFloat() * 1.2f - .1f;
+      final float z = random.nextFloat() * 1.2f - .1f;
+      for (int i = 0; i < model.size; ++i) {
+        all[i] = distSq(model.points[i], x, y, z);
+      }
+      Arrays.sort(all);
+
+      final int k = NEAREST_K[q % NEAREST_K.length];
+      final int[] result = new int[k];
+      final int count = index.nearest(x, y, z, k, result);
+      check(count == Math.min(k, model.size), name + " nearest finds " + Math.min(k, model.size) + " points");
+
+      // Ties are broken arbitrarily, so compare the distances found in order
+      boolean match = true;
+      for (int i = 0; i < count; ++i) {
+        match &= distSq(model.points[result[i]], x, y, z) == all[i];
+      }
+      check(match, name + " nearest distances match brute force, k " + k);
+      check(sorted(result, count).length == Arrays.stream(result, 0, count).distinct().count(), name + " nearest points are distinct");
+    }
+  }
+
+  private static void checkRay(LXModel model, LXSpatialIndex index, Random random, String name) {
+    final int[] result = new int[model.size];
+    for (int q = 0; q < NUM_QUERIES; ++q) {
+      final float x = random.nextFloat() * 1.2f - .1f;
+      final float y = random.nextFloat() * 1.2f - .1f;
+      final float z = random.nextFloat() * 1.2f - .1f;
+      float dx = random.nextFloat() * 2 - 1;
+      float dy = random.nextFloat() * 2 - 1;
+      float dz = random.nextFloat() * 2 - 1;
+      // Axis-aligned rays exercise the zero direction case of the slab test
+      if (q % 4 == 0) {
+        dy = dz = 0;
+      } else if (q % 4 == 1) {
+        dx = 0;
+      }
+      if (dx == 0 && dy == 0 && dz == 0) {
+        dx = 1;
+      }
+      final float radius = RADII[q % RADII.length];
+      final int count = index.ray(x, y, z, dx, dy, dz, radius, result);
+      check(Arrays.equals(bruteRay(model, x, y, z, dx, dy, dz, radius), sorted(result, count)), name + " ray matches brute force, radius " + radius);
+    }
+  }
+
+  private static void checkModel(LXModel model, Random random, String name) {
+    final LXSpatialIndex index = model.getSpatialIndex();
+    check(index.size == model.size, name + " index covers every point");
+    checkRange(model, index, random, name);
+    checkNearest(model, index, random, name);
+    checkRay(model, index, random, name);
+    System.out.println("Checked " + name + " model of " + model.size + " points");
+  }
+
+  public static void main(String[] args) {
+    final Random random = new Random(0);
+    checkModel(uniform(random, 5000), random, "uniform");
+    checkModel(clustered(random, 3000), random, "clustered");
+    checkModel(duplicates(random, 500), random, "duplicate");
+    checkModel(uniform(random, 1), random, "single point");
+
+    final LXSpatialIndex empty = model(new ArrayList<LXPoint>()).getSpatialIndex();
+    final int[] result = new int[4];
+    check(empty.range(.5f, .5f, .5f, 1, result) == 0, "empty range finds nothing");
+    check(empty.nearest(.5f, .5f, .5f, 4, result) == 0, "empty nearest finds nothing");
+    check(empty.ray(0, 0, 0, 1, 0, 0, 1, result) == 0, "empty ray finds nothing");
+
+    System.out.println(failures == 0 ? "PASS: spatial index matches brute force" : ("FAIL: " + failures + " spatial index checks"));
+    System.exit(failures == 0 ? 0 : 1);
+  }
+}
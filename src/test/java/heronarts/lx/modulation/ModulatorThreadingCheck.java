@@ -0,0 +1,109 @@
+/**
+ * Copyright 2026- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.modulation;
+
+import java.util.Random;
+
+import heronarts.lx.LX;
+import heronarts.lx.model.GridModel;
+import heronarts.lx.modulator.NoiseModulator;
+import heronarts.lx.modulator.VariableLFO;
+import heronarts.lx.parameter.LXNormalizedParameter;
+
+/**
+ * Checks that parallel evaluation of global modulators produces exactly the same
+ * values as serial evaluation. Two identical LX instances are built with several
+ * layers of chained modulators, one loops serially and the other on the worker
+ * pool, and every modulator value is compared after every frame.
+ */
+public class ModulatorThreadingCheck {
+
+  private static final int MODULATORS_PER_LAYER = 160;
+  private static final int NUM_LAYERS = 3;
+  private static final int NUM_FRAMES = 2000;
+
+  private static LX build(boolean parallel) throws Exception {
+    final LX lx = new LX(new GridModel(4, 4));
+    final LXModulationEngine modulation = lx.engine.modulation;
+    final Random random = new Random(0);
+    LXNormalizedParameter[] previous = null;
+    for (int layer = 0; layer < NUM_LAYERS; ++layer) {
+      final LXNormalizedParameter[] current = new LXNormalizedParameter[MODULATORS_PER_LAYER];
+      for (int i = 0; i < MODULATORS_PER_LAYER; ++i) {
+        if ((layer == 0) && (i % 4 == 0)) {
+          final NoiseModulator noise = new NoiseModulator();
+          noise.speed.setValue(random.nextDouble());
+          noise.seed.setValue(i);
+          current[i] = modulation.startModulator(noise);
+        } else {
+          final VariableLFO lfo = new VariableLFO("LFO-" + layer + "-" + i);
+          lfo.waveshape.setValue(random.nextInt(5));
+          lfo.periodFast.setValue(100 + random.nextDouble() * 5000);
+          current[i] = modulation.startModulator(lfo);
+          if (previous != null) {
+            final LXNormalizedParameter source = previous[random.nextInt(previous.length)];
+            modulation.addModulation(new LXCompoundModulation(modulation, source, lfo.skew));
+            modulation.addModulation(new LXCompoundModulation(modulation, previous[i], lfo.shape));
+          }
+        }
+      }
+      previous = current;
+    }
+    lx.engine.isModulatorMultithreaded.setValue(parallel);
+    return lx;
+  }
+
+  public static void main(String[] args) throws Exception {
+    final LX serial = build(false);
+    final LX parallel = build(true);
+    final Random random = new Random(1);
+    final int numModulators = serial.engine.modulation.modulators.size();
+
+    long serialNanos = 0, parallelNanos = 0;
+    int mismatches = 0;
+    for (int frame = 0; frame < NUM_FRAMES; ++frame) {
+      final double deltaMs = 10 + 10 * random.nextDouble();
+      long start = System.nanoTime();
+      serial.engine.modulation.loop(deltaMs);
+      serialNanos += System.nanoTime() - start;
+      start = System.nanoTime();
+      parallel.engine.modulation.loop(deltaMs);
+      parallelNanos += System.nanoTime() - start;
+
+      for (int i = 0; i < numModulators; ++i) {
+        final double expected = serial.engine.modulation.modulators.get(i).getValue();
+        final double actual = parallel.engine.modulation.modulators.get(i).getValue();
+        if (Double.doubleToLongBits(expected) != Double.doubleToLongBits(actual)) {
+          if (mismatches++ < 10) {
+            System.out.println("Mismatch frame " + frame + " modulator " + i + ": " + expected + " != " + actual);
+          }
+        }
+      }
+    }
+
+    System.out.println(String.format("%d modulators, %d frames, serial %.1fus/frame, parallel %.1fus/frame",
+      numModulators,
+      NUM_FRAMES,
+      serialNanos / 1000. / NUM_FRAMES,
+      parallelNanos / 1000. / NUM_FRAMES
+    ));
+    System.out.println(mismatches == 0 ? "PASS: parallel matches serial" : ("FAIL: " + mismatches + " mismatched values"));
+    System.exit(mismatches == 0 ? 0 : 1);
+  }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright 2026- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.pattern;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import heronarts.lx.LX;
+import heronarts.lx.color.LXColor;
+import heronarts.lx.model.LXModel;
+import heronarts.lx.model.LXPoint;
+
+/**
+ * Benchmark of the particle engine at 100k particles on a 500k point model,
+ * reporting the cost of update and splat per frame with pattern threading
+ * off and on, and checking that both give the same colors. Also verifies
+ * splatting on a smaller model against a brute-force evaluation of every
+ * particle and point pair.
+ */
+public class ParticleEngineBenchmark {
+
+  private static final int NUM_POINTS_X = 100;
+  private static final int NUM_POINTS_Y = 100;
+  private static final int NUM_POINTS_Z = 50;
+  private static final int NUM_PARTICLES = 100000;
+  private static final float RADIUS = .015f;
+  private static final int FRAMES = 120;
+  private static final double FRAME_MS = 1000 / 60.;
+
+  private static LXModel grid(int nx, int ny, int nz) {
+    final List<LXPoint> points = new ArrayList<LXPoint>();
+    for (int x = 0; x < nx; ++x) {
+      for (int y = 0; y < ny; ++y) {
+        for (int z = 0; z < nz; ++z) {
+          points.add(new LXPoint(x, y, z));
+        }
+      }
+    }
+    return new LXModel(points).reindexPoints().normalizePoints();
+  }
+
+  private static void emit(ParticleEngine particles, Random random, int count) {
+    for (int i = 0; i < count; ++i) {
+      particles.spawn(
+        random.nextFloat(), random.nextFloat(), random.nextFloat(),
+        random.nextFloat() * .2f - .1f, random.nextFloat() * .2f, random.nextFloat() * .2f - .1f,
+        1 + 2 * random.nextFloat(),
+        RADIUS * (.5f + random.nextFloat()),
+        random.nextFloat(),
+        LXColor.hsb(360 * random.nextFloat(), 100, 100)
+      );
+    }
+  }
+
+  private static int verify(LX lx, Random random) {
+    final LXModel model = grid(30, 30, 20);
+    final ParticleEngine particles = new ParticleEngine(lx, 2000);
+    emit(particles, random, particles.capacity);
+    particles.setFalloff(ParticleEngine.Falloff.LINEAR);
+    final int[] colors = new int[model.size];
+    particles.splat(model, colors);
+
+    int mismatches = 0;
+    for (LXPoint p : model.points) {
+      float r = 0, g = 0, b = 0;
+      for (int i = 0; i < particles.size(); ++i) {
+        final float dx = p.xn - particles.x[i], dy = p.yn - particles.y[i], dz = p.zn - particles.z[i];
+        final float radiusSq = particles.radius[i] * particles.radius[i];
+        final float distSq = dx*dx + dy*dy + dz*dz;
+        if (distSq <= radiusSq) {
+          final float weight = particles.level[i] * ParticleEngine.Falloff.LINEAR.weight(distSq / radiusSq);
+          r += weight * (0xff & LXColor.red(particles.color[i]));
+          g += weight * (0xff & LXColor.green(particles.color[i]));
+          b += weight * (0xff & LXColor.blue(particles.color[i]));
+        }
+      }
+      // Allow for differences in the order of summation
+      final int expected = LXColor.rgb(Math.min(255, (int) r), Math.min(255, (int) g), Math.min(255, (int) b));
+      if ((Math.abs((0xff & LXColor.red(expected)) - (0xff & LXColor.red(colors[p.index]))) > 1) ||
+          (Math.abs((0xff & LXColor.green(expected)) - (0xff & LXColor.green(colors[p.index]))) > 1) ||
+          (Math.abs((0xff & LXColor.blue(expected)) - (0xff & LXColor.blue(colors[p.index]))) > 1)) {
+        ++mismatches;
+      }
+    }
+    return mismatches;
+  }
+
+  public static void main(String[] args) {
+    final Random random = new Random(0);
+    final LX lx = new LX();
+    System.out.println("Mismatches: " + verify(lx, random));
+    lx.engine.isPatternMultithreaded.setValue(true);
+    System.out.println("Mismatches, pattern threaded: " + verify(lx, random));
+
+    final LXModel model = grid(NUM_POINTS_X, NUM_POINTS_Y, NUM_POINTS_Z);
+    final int[] colors = new int[model.size];
+    final int[] threadedColors = new int[model.size];
+    final ParticleEngine particles = new ParticleEngine(lx, NUM_PARTICLES);
+    particles.addForce(new ParticleEngine.Gravity(0, -.1f, 0));
+    particles.addForce(new ParticleEngine.Drag(.2f));
+    emit(particles, random, NUM_PARTICLES);
+
+    long start = System.nanoTime();
+    particles.splat(model, colors);
+    System.out.println(String.format("Points: %d, grid built and first splat in %.2fms", model.size, (System.nanoTime() - start) / 1e6));
+
+    for (int round = 0; round < 3; ++round) {
+      long updateNanos = 0, splatNanos = 0, threadedNanos = 0;
+      int differing = 0;
+      for (int frame = 0; frame < FRAMES; ++frame) {
+        start = System.nanoTime();
+        particles.update(FRAME_MS);
+        emit(particles, random, NUM_PARTICLES - particles.size());
+        updateNanos += System.nanoTime() - start;
+
+        lx.engine.isPatternMultithreaded.setValue(false);
+        start = System.nanoTime();
+        particles.splat(model, colors);
+        splatNanos += System.nanoTime() - start;
+
+        lx.engine.isPatternMultithreaded.setValue(true);
+        start = System.nanoTime();
+        particles.splat(model, threadedColors);
+        threadedNanos += System.nanoTime() - start;
+
+        for (int i = 0; i < colors.length; ++i) {
+          if (colors[i] != threadedColors[i]) {
+            ++differing;
+          }
+        }
+      }
+      System.out.println(String.format("Particles: %d, update %.2fms, splat %.2fms, threaded splat %.2fms per frame, %d colors differ",
+        particles.size(), updateNanos / 1e6 / FRAMES, splatNanos / 1e6 / FRAMES, threadedNanos / 1e6 / FRAMES, differing));
+    }
+    lx.dispose();
+  }
+}
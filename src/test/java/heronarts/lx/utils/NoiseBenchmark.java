@@ -0,0 +1,179 @@
+/**
+ * Copyright 2026- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.utils;
+
+import java.util.Random;
+
+import heronarts.lx.LX;
+import heronarts.lx.mixer.LXChannel;
+import heronarts.lx.model.GridModel;
+import heronarts.lx.pattern.LXPattern;
+import heronarts.lx.pattern.texture.NoisePattern;
+
+/**
+ * Benchmark of the batch noise functions against per-point scalar evaluation, at
+ * 100k and 1M points. Verifies that every batch result is bit-identical to the
+ * corresponding scalar function, and that a noise pattern renders the same
+ * colors with pattern threading on as with it off.
+ */
+public class NoiseBenchmark {
+
+  private static final int[] SIZES = { 100000, 1000000 };
+  private static final int ROUNDS = 4;
+
+  private static final float LACUNARITY = 2;
+  private static final float GAIN = .5f;
+  private static final float RIDGE_OFFSET = 1;
+  private static final int OCTAVES = 3;
+  private static final int SEED = 7;
+
+  private static final int PATTERN_WIDTH = 400;
+  private static final int PATTERN_HEIGHT = 250;
+  private static final int PATTERN_FRAMES = 50;
+  private static final double FRAME_MS = 1000 / 60.;
+
+  private enum Algorithm {
+    PERLIN,
+    RIDGE,
+    FBM,
+    TURBULENCE
+  };
+
+  private static void scalar(Algorithm algorithm, float[] x, float[] y, float[] z, float[] result) {
+    switch (algorithm) {
+    case PERLIN:
+      for (int i = 0; i < result.length; ++i) {
+        result[i] = Noise.stb_perlin_noise3_seed(x[i], y[i], z[i], 0, 0, 0, SEED);
+      }
+      break;
+    case RIDGE:
+      for (int i = 0; i < result.length; ++i) {
+        result[i] = Noise.stb_perlin_ridge_noise3(x[i], y[i], z[i], LACUNARITY, GAIN, RIDGE_OFFSET, OCTAVES);
+      }
+      break;
+    case FBM:
+      for (int i = 0; i < result.length; ++i) {
+        result[i] = Noise.stb_perlin_fbm_noise3(x[i], y[i], z[i], LACUNARITY, GAIN, OCTAVES);
+      }
+      break;
+    case TURBULENCE:
+      for (int i = 0; i < result.length; ++i) {
+        result[i] = Noise.stb_perlin_turbulence_noise3(x[i], y[i], z[i], LACUNARITY, GAIN, OCTAVES);
+      }
+      break;
+    }
+  }
+
+  private static final Noise.Octaves octaves = new Noise.Octaves();
+
+  private static void batch(Algorithm algorithm, float[] x, float[] y, float[] z, float[] result) {
+    switch (algorithm) {
+    case PERLIN:
+      Noise.stb_perlin_noise3_seed(x, y, z, SEED, result, 0, result.length);
+      break;
+    case RIDGE:
+      Noise.stb_perlin_ridge_noise3(x, y, z, octaves.set(LACUNARITY, GAIN, OCTAVES), RIDGE_OFFSET, result, 0, result.length);
+      break;
+    case FBM:
+      Noise.stb_perlin_fbm_noise3(x, y, z, octaves.set(LACUNARITY, GAIN, OCTAVES), result, 0, result.length);
+      break;
+    case TURBULENCE:
+      Noise.stb_perlin_turbulence_noise3(x, y, z, octaves.set(LACUNARITY, GAIN, OCTAVES), result, 0, result.length);
+      break;
+    }
+  }
+
+  public static void main(String[] args) {
+    final Random random = new Random(0);
+    System.out.println("Points\tAlgorithm\tScalar(ms)\tBatch(ms)\tMismatches");
+    for (int size : SIZES) {
+      final float[] x = new float[size];
+      final float[] y = new float[size];
+      final float[] z = new float[size];
+      for (int i = 0; i < size; ++i) {
+        x[i] = random.nextFloat() * 200 - 100;
+        y[i] = random.nextFloat() * 200 - 100;
+        z[i] = random.nextFloat() * 200 - 100;
+      }
+      final float[] expected = new float[size];
+      final float[] result = new float[size];
+
+      for (Algorithm algorithm : Algorithm.values()) {
+        double scalarMs = Double.MAX_VALUE, batchMs = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; ++round) {
+          long start = System.nanoTime();
+          scalar(algorithm, x, y, z, expected);
+          scalarMs = Math.min(scalarMs, (System.nanoTime() - start) / 1e6);
+
+          start = System.nanoTime();
+          batch(algorithm, x, y, z, result);
+          batchMs = Math.min(batchMs, (System.nanoTime() - start) / 1e6);
+        }
+        int mismatches = 0;
+        for (int i = 0; i < size; ++i) {
+          if (Float.floatToRawIntBits(expected[i]) != Float.floatToRawIntBits(result[i])) {
+            ++mismatches;
+          }
+        }
+        System.out.println(String.format("%d\t%s\t\t%.2f\t\t%.2f\t\t%d", size, algorithm, scalarMs, batchMs, mismatches));
+      }
+    }
+    checkPattern();
+  }
+
+  /**
+   * Renders two identical noise patterns on a large grid, one with pattern
+   * threading off and one with it on, and counts differing colors
+   */
+  private static void checkPattern() {
+    final LX lx = new LX(new GridModel(PATTERN_WIDTH, PATTERN_HEIGHT));
+    final LXChannel[] channels = new LXChannel[2];
+    final NoisePattern[] patterns = new NoisePattern[2];
+    for (int c = 0; c < channels.length; ++c) {
+      patterns[c] = new NoisePattern(lx);
+      patterns[c].algorithm.setValue(NoisePattern.Algorithm.FBM);
+      channels[c] = lx.engine.mixer.addChannel(new LXPattern[] { patterns[c] });
+    }
+
+    System.out.println("Pattern threaded\tSerial(ms)\tThreaded(ms)\tMismatches");
+    double serialMs = Double.MAX_VALUE, threadedMs = Double.MAX_VALUE;
+    int mismatches = 0;
+    for (int frame = 0; frame < PATTERN_FRAMES; ++frame) {
+      lx.engine.isPatternMultithreaded.setValue(false);
+      long start = System.nanoTime();
+      channels[0].loop(FRAME_MS);
+      serialMs = Math.min(serialMs, (System.nanoTime() - start) / 1e6);
+
+      lx.engine.isPatternMultithreaded.setValue(true);
+      start = System.nanoTime();
+      channels[1].loop(FRAME_MS);
+      threadedMs = Math.min(threadedMs, (System.nanoTime() - start) / 1e6);
+
+      final int[] expected = patterns[0].getColors();
+      final int[] actual = patterns[1].getColors();
+      for (int i = 0; i < expected.length; ++i) {
+        if (expected[i] != actual[i]) {
+          ++mismatches;
+        }
+      }
+    }
+    System.out.println(String.format("%d points\t\t%.2f\t\t%.2f\t\t%d", lx.getModel().size, serialMs, threadedMs, mismatches));
+    lx.dispose();
+  }
+}